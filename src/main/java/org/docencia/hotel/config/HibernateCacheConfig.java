@@ -0,0 +1,85 @@
+package org.docencia.hotel.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.docencia.hotel.persistence.jpa.CacheRegions;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuracion de la cache de segundo nivel de Hibernate.
+ *
+ * Crea un CacheManager JCache de Ehcache en proceso con una cache por
+ * region, cada una con su numero maximo de entradas y su tiempo de vida,
+ * y se lo entrega a Hibernate en lugar de dejar que cree el suyo.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Entradas de la region de marcas de tiempo: una por tabla, sin caducidad,
+     * para que nunca se devuelvan resultados de consultas anteriores a una escritura.
+     */
+    private static final long UPDATE_TIMESTAMPS_ENTRIES = 100;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${hotel.cache.hotel.max-entries:1000}") long hotelMaxEntries,
+            @Value("${hotel.cache.hotel.ttl-seconds:3600}") long hotelTtlSeconds,
+            @Value("${hotel.cache.room.max-entries:10000}") long roomMaxEntries,
+            @Value("${hotel.cache.room.ttl-seconds:3600}") long roomTtlSeconds,
+            @Value("${hotel.cache.room-queries.max-entries:2000}") long roomQueriesMaxEntries,
+            @Value("${hotel.cache.room-queries.ttl-seconds:600}") long roomQueriesTtlSeconds) {
+        org.ehcache.config.Configuration config = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(CacheRegions.HOTEL, region(hotelMaxEntries, hotelTtlSeconds))
+                .withCache(CacheRegions.ROOM, region(roomMaxEntries, roomTtlSeconds))
+                .withCache(CacheRegions.ROOM_QUERIES, region(roomQueriesMaxEntries, roomQueriesTtlSeconds))
+                .withCache(CacheRegions.DEFAULT_QUERY_RESULTS, region(roomQueriesMaxEntries, roomQueriesTtlSeconds))
+                .withCache(CacheRegions.UPDATE_TIMESTAMPS, region(UPDATE_TIMESTAMPS_ENTRIES, 0))
+                .build();
+
+        // URI propio por contexto: el CacheManager por defecto se comparte en todo el classloader
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+                .getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:hotel:hibernate-cache:" + UUID.randomUUID()), config);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Configuracion de la cache de una region.
+     *
+     * @param maxEntries Numero maximo de entradas en memoria
+     * @param ttlSeconds Tiempo de vida de cada entrada; 0 para no caducar
+     * @return Configuracion de la cache
+     */
+    private static CacheConfiguration<Object, Object> region(long maxEntries, long ttlSeconds) {
+        if (maxEntries <= 0 || ttlSeconds < 0) {
+            throw new IllegalArgumentException("cache max entries must be positive and ttl not negative");
+        }
+
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ttlSeconds == 0
+                        ? ExpiryPolicyBuilder.noExpiration()
+                        : ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+                .build();
+    }
+}
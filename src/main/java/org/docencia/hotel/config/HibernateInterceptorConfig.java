@@ -0,0 +1,20 @@
+package org.docencia.hotel.config;
+
+import org.docencia.hotel.persistence.jpa.AssignedIdInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra en Hibernate el interceptor que decide si una entidad con id
+ * asignado es nueva.
+ */
+@Configuration
+public class HibernateInterceptorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer assignedIdInterceptorCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new AssignedIdInterceptor());
+    }
+}
@@ -0,0 +1,27 @@
+package org.docencia.hotel.config;
+
+import org.docencia.hotel.persistence.jpa.H2SnapshotStore;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuracion del perfil memory: H2 en memoria con copias periodicas en disco.
+ *
+ * La copia mas reciente se restaura dentro de la estrategia de migracion
+ * de Flyway, que se ejecuta antes de que arranque JPA; despues Flyway
+ * aplica solo las migraciones posteriores a la copia.
+ */
+@Configuration
+@Profile("memory")
+public class InMemoryDatabaseConfig {
+
+    @Bean
+    public FlywayMigrationStrategy restoreSnapshotThenMigrate(H2SnapshotStore snapshotStore) {
+        return flyway -> {
+            snapshotStore.restoreLatest();
+            flyway.migrate();
+        };
+    }
+}
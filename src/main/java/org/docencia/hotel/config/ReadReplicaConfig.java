@@ -0,0 +1,76 @@
+package org.docencia.hotel.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.docencia.hotel.persistence.routing.H2ReplicaDataSource;
+import org.docencia.hotel.persistence.routing.ReadWriteRoutingDataSource;
+import org.docencia.hotel.persistence.routing.ReplicaAwareJpaTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+/**
+ * Configuracion del perfil replica: las transacciones de solo lectura se
+ * sirven desde una replica local y las escrituras desde la base de datos
+ * principal (spring.datasource.*).
+ *
+ * El DataSource principal de la aplicacion, el que usan JPA y Flyway, es
+ * el enrutador envuelto en un LazyConnectionDataSourceProxy. El gestor de
+ * transacciones evita que lo leido de la replica acabe en la cache de
+ * segundo nivel.
+ */
+@Configuration
+@Profile("replica")
+public class ReadReplicaConfig {
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public H2ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Value("${hotel.replica.name:hotel_replica}") String name) {
+        return new H2ReplicaDataSource(primary, replicaSlot(name + "_a"), replicaSlot(name + "_b"),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            H2ReplicaDataSource replica,
+            @Value("${hotel.replica.max-staleness-seconds:10}") long maxStalenessSeconds) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(maxStalenessSeconds)));
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        JpaTransactionManager transactionManager = new ReplicaAwareJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    private static DataSource replicaSlot(String name) {
+        return DataSourceBuilder.create()
+                .url("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+    }
+}
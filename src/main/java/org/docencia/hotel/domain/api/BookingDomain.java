@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.RoomHold;
 
 /**
  * Interfaz que define las operaciones del dominio de reservas.
@@ -25,6 +26,71 @@ public interface BookingDomain {
      */
     Booking createBooking(Booking booking);
 
+    /**
+     * Crea un lote de reservas de forma atómica: o se guardan todas
+     * o no se guarda ninguna.
+     *
+     * La existencia de huéspedes, habitaciones y reservas se comprueba
+     * con una consulta por tipo para todo el lote.
+     *
+     * @param bookings Reservas a crear.
+     * @return Reservas creadas, en el mismo orden.
+     */
+    List<Booking> createBookings(List<Booking> bookings);
+
+    /**
+     * Crea una reserva en un hotel eligiendo automáticamente la habitación.
+     *
+     * Entre las habitaciones del tipo indicado libres en esas fechas se elige
+     * la que deja menos noches sueltas junto a las reservas anterior y
+     * siguiente, para no fragmentar el inventario vendible.
+     *
+     * @param hotelId Identificador del hotel.
+     * @param type    Tipo de habitación.
+     * @param booking Reserva a crear, con fechas y sin habitación.
+     * @return Reserva creada con la habitación asignada.
+     */
+    Booking createBookingWithAssignedRoom(String hotelId, String type, Booking booking);
+
+    /**
+     * Retiene una habitación durante un tiempo limitado para las fechas indicadas.
+     *
+     * Mientras la retención está activa la habitación se considera ocupada
+     * en esas fechas; caduca sola si no se confirma ni se libera antes.
+     *
+     * @param roomId   Identificador de la habitación.
+     * @param checkIn  Fecha de check-in en formato yyyy-MM-dd.
+     * @param checkOut Fecha de check-out en formato yyyy-MM-dd.
+     * @return Retención creada.
+     */
+    RoomHold createHold(String roomId, String checkIn, String checkOut);
+
+    /**
+     * Obtiene una retención activa por su identificador.
+     *
+     * @param holdId Identificador de la retención.
+     * @return Retención si existe y no ha caducado.
+     */
+    Optional<RoomHold> getHold(String holdId);
+
+    /**
+     * Libera una retención antes de que caduque.
+     *
+     * @param holdId Identificador de la retención.
+     * @return true si se liberó, false si no existía o ya había caducado.
+     */
+    boolean releaseHold(String holdId);
+
+    /**
+     * Confirma una retención creando la reserva con su habitación y fechas.
+     * La retención se libera al guardar la reserva.
+     *
+     * @param holdId  Identificador de la retención.
+     * @param booking Reserva a crear, con id y huésped.
+     * @return Reserva creada.
+     */
+    Booking createBookingFromHold(String holdId, Booking booking);
+
     /**
      * Obtiene una reserva por su identificador.
      *
@@ -34,45 +100,84 @@ public interface BookingDomain {
     Optional<Booking> getBookingById(String id);
 
     /**
-     * Obtiene todas las reservas.
+     * Obtiene la versión actual de una reserva, que cambia con cada modificación.
+     *
+     * @param id Identificador de la reserva.
+     * @return Versión de la reserva, o vacío si no existe.
+     */
+    Optional<Long> getBookingVersion(String id);
+
+    /**
+     * Obtiene una página de reservas.
      *
-     * @return Lista de reservas.
+     * Las páginas se ordenan por id; para pedir la siguiente se pasa como
+     * after el id de la última reserva recibida.
+     *
+     * @param after Último id de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<Booking> getAllBookings();
+    List<Booking> getAllBookings(String after, int limit);
 
     /**
-     * Obtiene todas las reservas asociadas a una habitación.
+     * Obtiene una página de las reservas asociadas a una habitación.
      *
      * @param roomId Identificador de la habitación.
-     * @return Lista de reservas asociadas a la habitación.
+     * @param after  Último id de la página anterior, o null para la primera.
+     * @param limit  Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<Booking> getBookingsByRoomId(String roomId);
+    List<Booking> getBookingsByRoomId(String roomId, String after, int limit);
 
     /**
-     * Obtiene todas las reservas asociadas a un huésped.
+     * Obtiene una página de las reservas asociadas a un huésped.
      *
      * @param guestId Identificador del huésped.
-     * @return Lista de reservas asociadas al huésped.
+     * @param after   Último id de la página anterior, o null para la primera.
+     * @param limit   Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<Booking> getBookingsByGuestId(String guestId);
+    List<Booking> getBookingsByGuestId(String guestId, String after, int limit);
 
     /**
-     * Obtiene todas las reservas asociadas a un hotel
+     * Obtiene una página de las reservas asociadas a un hotel
      * a través de sus habitaciones.
      *
      * @param hotelId Identificador del hotel.
-     * @return Lista de reservas asociadas al hotel.
+     * @param after   Último id de la página anterior, o null para la primera.
+     * @param limit   Tamaño máximo de la página.
+     * @return Reservas de la página.
+     */
+    List<Booking> getBookingsByHotelId(String hotelId, String after, int limit);
+
+    /**
+     * Obtiene las reservas de una habitación que se solapan con el rango [from, to).
+     *
+     * @param roomId Identificador de la habitación.
+     * @param from   Primer día del rango en formato yyyy-MM-dd.
+     * @param to     Día siguiente al último del rango en formato yyyy-MM-dd.
+     * @return Lista de reservas solapadas con el rango.
+     */
+    List<Booking> getBookingsByRoomIdBetween(String roomId, String from, String to);
+
+    /**
+     * Obtiene las llegadas de un hotel en un día concreto.
+     *
+     * @param hotelId Identificador del hotel.
+     * @param date    Día de llegada en formato yyyy-MM-dd.
+     * @return Lista de reservas que entran ese día.
      */
-    List<Booking> getBookingsByHotelId(String hotelId);
+    List<Booking> getArrivalsByHotelId(String hotelId, String date);
 
     /**
      * Actualiza una reserva existente.
      *
-     * @param id      Identificador de la reserva a actualizar.
-     * @param booking Datos nuevos de la reserva.
+     * @param id              Identificador de la reserva a actualizar.
+     * @param booking         Datos nuevos de la reserva.
+     * @param expectedVersion Versión que el cliente espera modificar (If-Match), o null.
      * @return Reserva actualizada.
      */
-    Booking updateBooking(String id, Booking booking);
+    Booking updateBooking(String id, Booking booking, Long expectedVersion);
 
     /**
      * Elimina una reserva por id.
@@ -0,0 +1,36 @@
+package org.docencia.hotel.domain.api;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+
+/**
+ * Interfaz que define las operaciones de consulta de la cache de
+ * segundo nivel, de las caches de existencia y del filtro de ids
+ * de reserva.
+ */
+public interface CacheDomain {
+
+    /**
+     * Recupera los contadores de aciertos y fallos de cada region.
+     *
+     * @return Contadores por region
+     */
+    List<CacheRegionStats> getRegionStatistics();
+
+    /**
+     * Recupera la tasa de aciertos y los desalojos de cada cache de existencia.
+     *
+     * @return Contadores por cache
+     */
+    List<ExistenceCacheStats> getExistenceStatistics();
+
+    /**
+     * Recupera el dimensionado y las respuestas del filtro de ids de reserva.
+     *
+     * @return Estadisticas del filtro
+     */
+    BookingIdFilterStats getBookingIdFilterStatistics();
+}
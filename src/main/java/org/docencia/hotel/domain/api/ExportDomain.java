@@ -0,0 +1,41 @@
+package org.docencia.hotel.domain.api;
+
+import java.util.function.Consumer;
+
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.Room;
+
+/**
+ * Interfaz que define las operaciones del dominio de exportacion.
+ *
+ * Las exportaciones recorren todos los registros de un tipo y los
+ * entregan uno a uno a un destino, sin paginar ni cargarlos todos
+ * en memoria.
+ */
+public interface ExportDomain {
+
+    /**
+     * Exporta todas las reservas.
+     *
+     * @param sink Destino de cada reserva
+     * @return Numero de reservas exportadas
+     */
+    long exportBookings(Consumer<Booking> sink);
+
+    /**
+     * Exporta todos los huespedes con sus preferencias.
+     *
+     * @param sink Destino de cada huesped
+     * @return Numero de huespedes exportados
+     */
+    long exportGuests(Consumer<Guest> sink);
+
+    /**
+     * Exporta todas las habitaciones.
+     *
+     * @param sink Destino de cada habitacion
+     * @return Numero de habitaciones exportadas
+     */
+    long exportRooms(Consumer<Room> sink);
+}
@@ -34,20 +34,35 @@ public interface GuestDomain {
     Optional<Guest> getGuestById(String id);
 
     /**
-     * Obtiene todos los huespedes del sistema.
+     * Obtiene la version actual de un huesped, que cambia con cada
+     * modificacion de sus datos o de sus preferencias.
      * 
-     * @return Lista de todos los huespedes.
+     * @param id Identificador del huesped.
+     * @return Version del huesped, o vacio si no existe.
+     */
+    Optional<Long> getGuestVersion(String id);
+
+    /**
+     * Obtiene una pagina de huespedes del sistema.
+     * 
+     * Las paginas se ordenan por id; para pedir la siguiente se pasa como
+     * after el id del ultimo huesped recibido.
+     * 
+     * @param after Ultimo id de la pagina anterior, o null para la primera.
+     * @param limit Tamaño maximo de la pagina.
+     * @return Huespedes de la pagina.
      */
-    List<Guest> getAllGuests();
+    List<Guest> getAllGuests(String after, int limit);
 
     /**
      * Actualiza los datos de un huesped.
      * 
-     * @param id    Identificador del huesped a actualizar.
-     * @param guest Nuevos datos del huesped.
+     * @param id              Identificador del huesped a actualizar.
+     * @param guest           Nuevos datos del huesped.
+     * @param expectedVersion Version que el cliente espera modificar (If-Match), o null.
      * @return Huesped actualizado, o vacio si no existe.
      */
-    Guest updateGuest(String id, Guest guest);
+    Guest updateGuest(String id, Guest guest, Long expectedVersion);
 
     /**
      * Elimina un huesped por su identificador.
@@ -3,7 +3,10 @@ package org.docencia.hotel.domain.api;
 import java.util.List;
 import java.util.Optional;
 
+import org.docencia.hotel.domain.model.DailyOccupancy;
 import org.docencia.hotel.domain.model.Hotel;
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.domain.model.Room;
 
 /**
  * Interfaz que define las operaciones del dominio de hoteles.
@@ -33,11 +36,24 @@ public interface HotelDomain {
     Optional<Hotel> getHotelById(String id);
 
     /**
-     * Recuperar todos los hoteles del sistema.
+     * Obtiene la version actual de un hotel, que cambia con cada modificacion.
      * 
-     * @return Lista de todos los hoteles.
+     * @param id Identificador del hotel
+     * @return Version del hotel, o vacío si no existe
      */
-    List<Hotel> getAllHotels();
+    Optional<Long> getHotelVersion(String id);
+
+    /**
+     * Recuperar una página de hoteles del sistema.
+     * 
+     * Las páginas se ordenan por id; para pedir la siguiente se pasa como
+     * after el id del último hotel recibido.
+     * 
+     * @param after Último id de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Hoteles de la página.
+     */
+    List<Hotel> getAllHotels(String after, int limit);
 
     /**
      * Busca hoteles por su nombre.
@@ -47,17 +63,63 @@ public interface HotelDomain {
      */
     List<Hotel> getHotelsByName(String name);
 
+    /**
+     * Busca las habitaciones de un hotel libres para un rango de fechas.
+     * 
+     * @param hotelId Identificador del hotel
+     * @param from Fecha de entrada en formato yyyy-MM-dd
+     * @param to Fecha de salida en formato yyyy-MM-dd
+     * @param type Tipo de habitacion para filtrar, o null para cualquier tipo
+     * @return Lista de habitaciones libres todas las noches del rango
+     */
+    List<Room> getAvailableRooms(String hotelId, String from, String to, String type);
+
+    /**
+     * Recomienda las habitaciones de un hotel libres en un rango de fechas,
+     * ordenadas segun las preferencias del huesped (fumador, tipo de cama
+     * y accesibilidad).
+     * 
+     * @param hotelId Identificador del hotel
+     * @param guestId Identificador del huesped
+     * @param from Fecha de entrada en formato yyyy-MM-dd
+     * @param to Fecha de salida en formato yyyy-MM-dd
+     * @param limit Numero maximo de habitaciones a devolver
+     * @return Habitaciones libres, de mejor a peor coincidencia
+     */
+    List<Room> getRecommendedRooms(String hotelId, String guestId, String from, String to, int limit);
+
+    /**
+     * Obtiene la ocupacion de un hotel para cada noche de un rango de fechas.
+     * 
+     * @param hotelId Identificador del hotel
+     * @param from Primera noche en formato yyyy-MM-dd
+     * @param to Noche siguiente a la ultima en formato yyyy-MM-dd
+     * @return Habitaciones ocupadas en cada noche del rango
+     */
+    List<DailyOccupancy> getOccupancy(String hotelId, String from, String to);
+
+    /**
+     * Obtiene los ingresos, ADR y RevPAR de cada hotel para cada mes de un rango.
+     * 
+     * @param from Primer mes en formato yyyy-MM
+     * @param to Mes siguiente al ultimo en formato yyyy-MM
+     * @return Ingresos por hotel y mes
+     */
+    List<MonthlyRevenue> getRevenueReport(String from, String to);
+
     /**
      * Actualiza los datos de un hotel existente.
      *
      * @param id Identificador del hotel a actualizar  
      * @param hotel Objeto Hotel con los datos actualizados
+     * @param expectedVersion Version que el cliente espera modificar (If-Match), o null
      * @return El hotel actualizado
      */
-    Hotel updateHotel(String id, Hotel hotel);
+    Hotel updateHotel(String id, Hotel hotel, Long expectedVersion);
 
     /**
-     * Elimina un hotel del sistema por su identificador.
+     * Elimina un hotel del sistema por su identificador, junto con sus
+     * habitaciones, en una sola transacción y con un número fijo de sentencias.
      * 
      * @param id Identificador del hotel a eliminar
      * @return true si el hotel fue eliminado, false si no existía
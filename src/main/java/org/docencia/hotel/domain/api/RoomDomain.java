@@ -33,11 +33,24 @@ public interface RoomDomain {
     Optional<Room> getRoomById(String id);
 
     /**
-     * Recuperar todas las habitaciones del sistema.
+     * Obtiene la version actual de una habitacion, que cambia con cada modificacion.
      * 
-     * @return Lista de todas las habitaciones.
+     * @param id Identificador de la habitacion
+     * @return Version de la habitacion, o vacío si no existe
      */
-    List<Room> getAllRooms();
+    Optional<Long> getRoomVersion(String id);
+
+    /**
+     * Recuperar una página de habitaciones del sistema.
+     * 
+     * Las páginas se ordenan por id; para pedir la siguiente se pasa como
+     * after el id de la última habitación recibida.
+     * 
+     * @param after Último id de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Habitaciones de la página.
+     */
+    List<Room> getAllRooms(String after, int limit);
 
     /**
      * Recupera todas las habitaciones de un hotel.
@@ -61,9 +74,10 @@ public interface RoomDomain {
      *
      * @param id Identificador de la habitacion a actualizar  
      * @param room Objeto Room con los datos actualizados
+     * @param expectedVersion Version que el cliente espera modificar (If-Match), o null
      * @return La habitacion actualizada
      */
-    Room updateRoom(String id, Room room);
+    Room updateRoom(String id, Room room, Long expectedVersion);
 
     /**
      * Elimina una habitacion del sistema por su identificador.
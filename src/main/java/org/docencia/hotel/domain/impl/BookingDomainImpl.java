@@ -2,35 +2,56 @@ package org.docencia.hotel.domain.impl;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.docencia.hotel.domain.api.BookingDomain;
 import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.domain.model.RoomHold;
 import org.docencia.hotel.service.api.BookingService;
 import org.docencia.hotel.service.api.GuestService;
 import org.docencia.hotel.service.api.HotelService;
+import org.docencia.hotel.service.api.RoomHoldService;
 import org.docencia.hotel.service.api.RoomService;
+import org.docencia.hotel.service.lock.RoomLockStripes;
 import org.docencia.hotel.validation.Guard;
 import org.springframework.stereotype.Service;
 
 @Service
 public class BookingDomainImpl implements BookingDomain {
 
+    /**
+     * Tamaño máximo de una página de reservas.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final BookingService bookingService;
     private final RoomService roomService;
     private final GuestService guestService;
     private final HotelService hotelService;
+    private final RoomHoldService roomHoldService;
+    private final RoomLockStripes roomLockStripes;
 
     public BookingDomainImpl(
             BookingService bookingService,
             RoomService roomService,
             GuestService guestService,
-            HotelService hotelService) {
+            HotelService hotelService,
+            RoomHoldService roomHoldService,
+            RoomLockStripes roomLockStripes) {
         this.bookingService = bookingService;
         this.roomService = roomService;
         this.guestService = guestService;
         this.hotelService = hotelService;
+        this.roomHoldService = roomHoldService;
+        this.roomLockStripes = roomLockStripes;
     }
 
     @Override
@@ -40,15 +61,161 @@ public class BookingDomainImpl implements BookingDomain {
         Guard.requireNonBlank(booking.getRoomId(), "room id");
         Guard.requireNonBlank(booking.getGuestId(), "guest id");
 
-        requireGuestExists(booking.getGuestId());
-        requireRoomExists(booking.getRoomId());
         validateDates(booking.getCheckIn(), booking.getCheckOut());
 
-        if (bookingService.existsById(booking.getId())) {
-            throw new IllegalStateException("booking already exists: " + booking.getId());
+        // La comprobación de disponibilidad y el guardado se serializan por habitación
+        return roomLockStripes.withRoomLock(booking.getRoomId(), () -> {
+            requireRoomAvailable(booking.getRoomId(), booking.getCheckIn(), booking.getCheckOut(), null);
+
+            // Huésped, habitación e id libre se validan en una consulta, en la transacción de la inserción
+            return bookingService.insert(booking);
+        });
+    }
+
+    @Override
+    public List<Booking> createBookings(List<Booking> bookings) {
+        Guard.requireNonNull(bookings, "bookings");
+
+        Set<String> bookingIds = new LinkedHashSet<>();
+        Set<String> roomIds = new LinkedHashSet<>();
+        Set<String> guestIds = new LinkedHashSet<>();
+
+        for (Booking booking : bookings) {
+            Guard.requireNonNull(booking, "booking");
+            Guard.requireNonBlank(booking.getId(), "booking id");
+            Guard.requireNonBlank(booking.getRoomId(), "room id");
+            Guard.requireNonBlank(booking.getGuestId(), "guest id");
+            validateDates(booking.getCheckIn(), booking.getCheckOut());
+
+            if (!bookingIds.add(booking.getId())) {
+                throw new IllegalArgumentException("duplicate booking id in batch: " + booking.getId());
+            }
+            roomIds.add(booking.getRoomId());
+            guestIds.add(booking.getGuestId());
+        }
+
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        requireAllExist(guestIds, guestService.findExistingIds(guestIds), "guest not found: ");
+        requireAllExist(roomIds, roomService.findExistingIds(roomIds), "room not found: ");
+
+        return roomLockStripes.withRoomLocks(roomIds, () -> {
+            Set<String> existing = bookingService.findExistingIds(bookingIds);
+
+            if (!existing.isEmpty()) {
+                throw new IllegalStateException("booking already exists: " + existing.iterator().next());
+            }
+
+            requireNoOverlaps(bookings);
+
+            return bookingService.saveAll(bookings);
+        });
+    }
+
+    @Override
+    public Booking createBookingWithAssignedRoom(String hotelId, String type, Booking booking) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(type, "room type");
+        Guard.requireNonNull(booking, "booking");
+        Guard.requireNonBlank(booking.getId(), "booking id");
+        Guard.requireNonBlank(booking.getGuestId(), "guest id");
+        Guard.requireNonBlank(booking.getCheckIn(), "checkIn");
+        Guard.requireNonBlank(booking.getCheckOut(), "checkOut");
+
+        validateDates(booking.getCheckIn(), booking.getCheckOut());
+        requireHotelExists(hotelId);
+        requireGuestExists(booking.getGuestId());
+
+        List<String> candidates = roomService.findByHotelIdAndType(hotelId, type)
+                .stream()
+                .map(Room::getId)
+                .toList();
+
+        // Se prueba por orden de encaje; si otra petición ocupa la habitación
+        // entre la clasificación y el bloqueo se pasa a la siguiente
+        for (String roomId : bookingService.rankRoomsByFit(candidates, booking.getCheckIn(), booking.getCheckOut())) {
+            Booking created = roomLockStripes.withRoomLock(roomId, () -> {
+                if (bookingService.existsOverlappingBooking(roomId, booking.getCheckIn(), booking.getCheckOut(), null)
+                        || roomHoldService.isHeld(roomId, booking.getCheckIn(), booking.getCheckOut(), null)) {
+                    return null;
+                }
+
+                booking.setRoomId(roomId);
+
+                return bookingService.insert(booking);
+            });
+
+            if (created != null) {
+                return created;
+            }
         }
 
-        return bookingService.save(booking);
+        throw new IllegalStateException("no " + type + " room available in hotel " + hotelId + " between "
+                + booking.getCheckIn() + " and " + booking.getCheckOut());
+    }
+
+    @Override
+    public RoomHold createHold(String roomId, String checkIn, String checkOut) {
+        Guard.requireNonBlank(roomId, "room id");
+        Guard.requireNonBlank(checkIn, "checkIn");
+        Guard.requireNonBlank(checkOut, "checkOut");
+
+        validateDates(checkIn, checkOut);
+        requireRoomExists(roomId);
+
+        return roomLockStripes.withRoomLock(roomId, () -> {
+            requireRoomAvailable(roomId, checkIn, checkOut, null);
+
+            return roomHoldService.create(roomId, checkIn, checkOut);
+        });
+    }
+
+    @Override
+    public Optional<RoomHold> getHold(String holdId) {
+        Guard.requireNonBlank(holdId, "hold id");
+
+        return roomHoldService.findById(holdId);
+    }
+
+    @Override
+    public boolean releaseHold(String holdId) {
+        Guard.requireNonBlank(holdId, "hold id");
+
+        return roomHoldService.release(holdId);
+    }
+
+    @Override
+    public Booking createBookingFromHold(String holdId, Booking booking) {
+        Guard.requireNonBlank(holdId, "hold id");
+        Guard.requireNonNull(booking, "booking");
+        Guard.requireNonBlank(booking.getId(), "booking id");
+        Guard.requireNonBlank(booking.getGuestId(), "guest id");
+
+        requireGuestExists(booking.getGuestId());
+
+        RoomHold hold = requireHoldExists(holdId);
+
+        return roomLockStripes.withRoomLock(hold.getRoomId(), () -> {
+            // Se vuelve a leer con el cerrojo: puede haber caducado o liberarse entre medias
+            RoomHold active = requireHoldExists(holdId);
+
+            booking.setRoomId(active.getRoomId());
+            booking.setCheckIn(active.getCheckIn());
+            booking.setCheckOut(active.getCheckOut());
+
+            if (bookingService.existsOverlappingBooking(active.getRoomId(), active.getCheckIn(), active.getCheckOut(),
+                    null)) {
+                throw new IllegalStateException("room " + active.getRoomId() + " is already booked between "
+                        + active.getCheckIn() + " and " + active.getCheckOut());
+            }
+
+            Booking created = bookingService.insert(booking);
+            roomHoldService.release(holdId);
+
+            return created;
+        });
     }
 
     @Override
@@ -59,52 +226,92 @@ public class BookingDomainImpl implements BookingDomain {
     }
 
     @Override
-    public List<Booking> getAllBookings() {
-        return bookingService.findAll();
+    public Optional<Long> getBookingVersion(String id) {
+        Guard.requireNonBlank(id, "booking id");
+
+        return bookingService.findVersionById(id);
     }
 
     @Override
-    public List<Booking> getBookingsByRoomId(String roomId) {
+    public List<Booking> getAllBookings(String after, int limit) {
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
+
+        return bookingService.findAll(after, limit);
+    }
+
+    @Override
+    public List<Booking> getBookingsByRoomId(String roomId, String after, int limit) {
         Guard.requireNonBlank(roomId, "room id");
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
 
         requireRoomExists(roomId);
 
-        return bookingService.findAllByRoomId(roomId);
+        return bookingService.findAllByRoomId(roomId, after, limit);
     }
 
     @Override
-    public List<Booking> getBookingsByGuestId(String guestId) {
+    public List<Booking> getBookingsByGuestId(String guestId, String after, int limit) {
         Guard.requireNonBlank(guestId, "guest id");
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
 
         requireGuestExists(guestId);
 
-        return bookingService.findAllByGuestId(guestId);
+        return bookingService.findAllByGuestId(guestId, after, limit);
+    }
+
+    @Override
+    public List<Booking> getBookingsByHotelId(String hotelId, String after, int limit) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
+
+        requireHotelExists(hotelId);
+
+        return bookingService.findAllByHotelId(hotelId, after, limit);
+    }
+
+    @Override
+    public List<Booking> getBookingsByRoomIdBetween(String roomId, String from, String to) {
+        Guard.requireNonBlank(roomId, "room id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        if (!parseDate(from).isBefore(parseDate(to))) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+
+        requireRoomExists(roomId);
+
+        return bookingService.findAllByRoomIdBetween(roomId, from, to);
     }
 
     @Override
-    public List<Booking> getBookingsByHotelId(String hotelId) {
+    public List<Booking> getArrivalsByHotelId(String hotelId, String date) {
         Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(date, "date");
 
+        parseDate(date);
         requireHotelExists(hotelId);
 
-        return bookingService.findAllByHotelId(hotelId);
+        return bookingService.findArrivalsByHotelId(hotelId, date);
     }
 
     @Override
-    public Booking updateBooking(String id, Booking booking) {
+    public Booking updateBooking(String id, Booking booking, Long expectedVersion) {
         Guard.requireNonBlank(id, "booking id");
         Guard.requireNonNull(booking, "booking");
         Guard.requireNonBlank(booking.getRoomId(), "room id");
         Guard.requireNonBlank(booking.getGuestId(), "guest id");
 
-        requireBookingExists(id);
-        requireGuestExists(booking.getGuestId());
-        requireRoomExists(booking.getRoomId());
         validateDates(booking.getCheckIn(), booking.getCheckOut());
 
-        booking.setId(id);
+        return roomLockStripes.withRoomLock(booking.getRoomId(), () -> {
+            requireRoomAvailable(booking.getRoomId(), booking.getCheckIn(), booking.getCheckOut(), id);
 
-        return bookingService.save(booking);
+            booking.setId(id);
+
+            // Reserva, huésped y habitación se validan en una consulta, en la transacción de la escritura
+            return bookingService.update(booking, expectedVersion);
+        });
     }
 
     @Override
@@ -132,17 +339,6 @@ public class BookingDomainImpl implements BookingDomain {
         return bookingService.deleteByRoomId(roomId);
     }
 
-    /**
-     * Verifica que la reserva exista.
-     *
-     * @param bookingId Identificador de la reserva.
-     */
-    private void requireBookingExists(String bookingId) {
-        if (!bookingService.existsById(bookingId)) {
-            throw new IllegalArgumentException("booking not found: " + bookingId);
-        }
-    }
-
     /**
      * Verifica que la habitación exista.
      *
@@ -176,6 +372,90 @@ public class BookingDomainImpl implements BookingDomain {
         }
     }
 
+    /**
+     * Verifica que la retención exista y siga activa.
+     *
+     * @param holdId Identificador de la retención.
+     * @return Retención activa.
+     */
+    private RoomHold requireHoldExists(String holdId) {
+        return roomHoldService.findById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("hold not found: " + holdId));
+    }
+
+    /**
+     * Verifica que la habitación no tenga otra reserva ni una retención activa
+     * que se solape con las fechas indicadas. Las reservas sin fechas no se comprueban.
+     *
+     * @param roomId           Identificador de la habitación.
+     * @param checkIn          Fecha de check-in en formato yyyy-MM-dd.
+     * @param checkOut         Fecha de check-out en formato yyyy-MM-dd.
+     * @param excludeBookingId Reserva a ignorar en la comprobación, o null.
+     */
+    private void requireRoomAvailable(String roomId, String checkIn, String checkOut, String excludeBookingId) {
+        if (checkIn == null || checkIn.isBlank()) {
+            return;
+        }
+
+        if (bookingService.existsOverlappingBooking(roomId, checkIn, checkOut, excludeBookingId)) {
+            throw new IllegalStateException(
+                    "room " + roomId + " is already booked between " + checkIn + " and " + checkOut);
+        }
+        if (roomHoldService.isHeld(roomId, checkIn, checkOut, null)) {
+            throw new IllegalStateException(
+                    "room " + roomId + " is on hold between " + checkIn + " and " + checkOut);
+        }
+    }
+
+    /**
+     * Verifica que todos los ids solicitados existan.
+     *
+     * @param requested Identificadores solicitados.
+     * @param existing  Identificadores existentes.
+     * @param message   Prefijo del mensaje de error.
+     */
+    private static void requireAllExist(Set<String> requested, Set<String> existing, String message) {
+        for (String id : requested) {
+            if (!existing.contains(id)) {
+                throw new IllegalArgumentException(message + id);
+            }
+        }
+    }
+
+    /**
+     * Verifica que ninguna reserva del lote se solape con las reservas
+     * existentes ni con otra reserva del mismo lote en la misma habitación.
+     *
+     * @param bookings Reservas del lote.
+     */
+    private void requireNoOverlaps(List<Booking> bookings) {
+        Map<String, List<Booking>> staysByRoom = new HashMap<>();
+
+        for (Booking booking : bookings) {
+            if (booking.getCheckIn() == null || booking.getCheckIn().isBlank()) {
+                continue;
+            }
+            requireRoomAvailable(booking.getRoomId(), booking.getCheckIn(), booking.getCheckOut(), null);
+            staysByRoom.computeIfAbsent(booking.getRoomId(), id -> new ArrayList<>()).add(booking);
+        }
+
+        for (List<Booking> stays : staysByRoom.values()) {
+            stays.sort(Comparator.comparing(booking -> parseDate(booking.getCheckIn())));
+
+            LocalDate lastCheckOut = null;
+            for (Booking booking : stays) {
+                if (lastCheckOut != null && parseDate(booking.getCheckIn()).isBefore(lastCheckOut)) {
+                    throw new IllegalStateException("room " + booking.getRoomId() + " is already booked between "
+                            + booking.getCheckIn() + " and " + booking.getCheckOut());
+                }
+                LocalDate checkOut = parseDate(booking.getCheckOut());
+                if (lastCheckOut == null || checkOut.isAfter(lastCheckOut)) {
+                    lastCheckOut = checkOut;
+                }
+            }
+        }
+    }
+
     /**
      * Valida que las fechas de check-in y check-out sean correctas.
      *
@@ -193,13 +473,20 @@ public class BookingDomainImpl implements BookingDomain {
         if (hasCheckIn != hasCheckOut) {
             throw new IllegalArgumentException("checkIn and checkOut must be provided together");
         }
-        try {
-            LocalDate in = LocalDate.parse(checkIn);
-            LocalDate out = LocalDate.parse(checkOut);
+        if (!parseDate(checkIn).isBefore(parseDate(checkOut))) {
+            throw new IllegalArgumentException("checkIn must be before checkOut");
+        }
+    }
 
-            if (!in.isBefore(out)) {
-                throw new IllegalArgumentException("checkIn must be before checkOut");
-            }
+    /**
+     * Convierte una fecha en formato yyyy-MM-dd.
+     *
+     * @param date Fecha a convertir.
+     * @return Fecha convertida.
+     */
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
         } catch (DateTimeParseException ex) {
             throw new IllegalArgumentException("invalid date format. Expected yyyy-MM-dd");
         }
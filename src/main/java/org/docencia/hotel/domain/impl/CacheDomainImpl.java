@@ -0,0 +1,43 @@
+package org.docencia.hotel.domain.impl;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.api.CacheDomain;
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.docencia.hotel.service.api.CacheStatisticsService;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CacheDomainImpl implements CacheDomain {
+
+    /**
+     * Servicio de estadisticas de cache.
+     */
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Constructor de la clase CacheDomainImpl.
+     *
+     * @param cacheStatisticsService Servicio de estadisticas de cache
+     */
+    public CacheDomainImpl(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Override
+    public List<CacheRegionStats> getRegionStatistics() {
+        return cacheStatisticsService.findRegionStatistics();
+    }
+
+    @Override
+    public List<ExistenceCacheStats> getExistenceStatistics() {
+        return cacheStatisticsService.findExistenceStatistics();
+    }
+
+    @Override
+    public BookingIdFilterStats getBookingIdFilterStatistics() {
+        return cacheStatisticsService.findBookingIdFilterStatistics();
+    }
+}
@@ -0,0 +1,47 @@
+package org.docencia.hotel.domain.impl;
+
+import java.util.function.Consumer;
+
+import org.docencia.hotel.domain.api.ExportDomain;
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.service.api.ExportService;
+import org.docencia.hotel.validation.Guard;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ExportDomainImpl implements ExportDomain {
+
+    /**
+     * Servicio de exportacion.
+     */
+    private final ExportService exportService;
+
+    /**
+     * Constructor de la clase ExportDomainImpl.
+     *
+     * @param exportService Servicio de exportacion
+     */
+    public ExportDomainImpl(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @Override
+    public long exportBookings(Consumer<Booking> sink) {
+        Guard.requireNonNull(sink, "sink");
+        return exportService.exportBookings(sink);
+    }
+
+    @Override
+    public long exportGuests(Consumer<Guest> sink) {
+        Guard.requireNonNull(sink, "sink");
+        return exportService.exportGuests(sink);
+    }
+
+    @Override
+    public long exportRooms(Consumer<Room> sink) {
+        Guard.requireNonNull(sink, "sink");
+        return exportService.exportRooms(sink);
+    }
+}
@@ -14,6 +14,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class GuestDomainImpl implements GuestDomain {
 
+    /**
+     * Tamaño maximo de una pagina de huespedes.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * Servicio de gestion de huespedes.
      */
@@ -48,7 +53,7 @@ public class GuestDomainImpl implements GuestDomain {
             guest.getPreferences().setGuestId(guest.getId());
         }
 
-        return guestService.save(guest);
+        return guestService.insert(guest);
     }
 
     @Override
@@ -58,12 +63,20 @@ public class GuestDomainImpl implements GuestDomain {
     }
 
     @Override
-    public List<Guest> getAllGuests() {
-        return guestService.findAllGuests();
+    public Optional<Long> getGuestVersion(String id) {
+        Guard.requireNonBlank(id, "guest id");
+        return guestService.findVersionById(id);
+    }
+
+    @Override
+    public List<Guest> getAllGuests(String after, int limit) {
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
+
+        return guestService.findAllGuests(after, limit);
     }
 
     @Override
-    public Guest updateGuest(String id, Guest guest) {
+    public Guest updateGuest(String id, Guest guest, Long expectedVersion) {
         Guard.requireNonBlank(id, "guest id");
         Guard.requireNonNull(guest, "guest");
         Guard.requireNonBlank(guest.getName(), "guest name");
@@ -78,7 +91,7 @@ public class GuestDomainImpl implements GuestDomain {
             guest.getPreferences().setGuestId(id);
         }
 
-        return guestService.save(guest);
+        return guestService.save(guest, expectedVersion);
     }
 
     @Override
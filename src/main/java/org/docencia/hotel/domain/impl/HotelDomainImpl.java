@@ -1,12 +1,23 @@
 package org.docencia.hotel.domain.impl;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
 import org.docencia.hotel.domain.api.HotelDomain;
+import org.docencia.hotel.domain.model.DailyOccupancy;
+import org.docencia.hotel.domain.model.GuestPreferences;
 import org.docencia.hotel.domain.model.Hotel;
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.domain.model.Room;
 import org.docencia.hotel.service.api.BookingService;
+import org.docencia.hotel.service.api.GuestService;
 import org.docencia.hotel.service.api.HotelService;
+import org.docencia.hotel.service.api.OccupancyService;
+import org.docencia.hotel.service.api.RevenueService;
 import org.docencia.hotel.service.api.RoomService;
 import org.docencia.hotel.validation.Guard;
 import org.springframework.stereotype.Service;
@@ -31,17 +42,59 @@ public class HotelDomainImpl implements HotelDomain {
      */
     private final BookingService bookingService;
 
+    /**
+     * Servicio de huéspedes.
+     */
+    private final GuestService guestService;
+
+    /**
+     * Servicio de ocupación diaria.
+     */
+    private final OccupancyService occupancyService;
+
+    /**
+     * Servicio de ingresos.
+     */
+    private final RevenueService revenueService;
+
+    /**
+     * Número máximo de noches de una consulta de ocupación.
+     */
+    private static final int MAX_OCCUPANCY_NIGHTS = 731;
+
+    /**
+     * Número máximo de meses de un informe de ingresos.
+     */
+    private static final int MAX_REVENUE_MONTHS = 60;
+
+    /**
+     * Número máximo de habitaciones de una recomendación.
+     */
+    private static final int MAX_RECOMMENDED_ROOMS = 100;
+
+    /**
+     * Tamaño máximo de una página de hoteles.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * Constructor de la implementación del dominio de hoteles.
      * 
-     * @param hotelService   Servicio de hoteles
-     * @param roomService    Servicio de habitaciones
-     * @param bookingService Servicio de reservas
+     * @param hotelService     Servicio de hoteles
+     * @param roomService      Servicio de habitaciones
+     * @param bookingService   Servicio de reservas
+     * @param guestService     Servicio de huéspedes
+     * @param occupancyService Servicio de ocupación diaria
+     * @param revenueService   Servicio de ingresos
      */
-    public HotelDomainImpl(HotelService hotelService, RoomService roomService, BookingService bookingService) {
+    public HotelDomainImpl(HotelService hotelService, RoomService roomService, BookingService bookingService,
+            GuestService guestService, OccupancyService occupancyService, RevenueService revenueService) {
         this.hotelService = hotelService;
         this.roomService = roomService;
         this.bookingService = bookingService;
+        this.guestService = guestService;
+        this.occupancyService = occupancyService;
+        this.revenueService = revenueService;
     }
 
     @Override
@@ -54,7 +107,7 @@ public class HotelDomainImpl implements HotelDomain {
             throw new IllegalStateException("hotel already exists: " + hotel.getId());
         }
 
-        return hotelService.save(hotel);
+        return hotelService.insert(hotel);
     }
 
     @Override
@@ -65,8 +118,17 @@ public class HotelDomainImpl implements HotelDomain {
     }
 
     @Override
-    public List<Hotel> getAllHotels() {
-        return hotelService.findAll();
+    public Optional<Long> getHotelVersion(String id) {
+        Guard.requireNonBlank(id, "hotel id");
+
+        return hotelService.findVersionById(id);
+    }
+
+    @Override
+    public List<Hotel> getAllHotels(String after, int limit) {
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
+
+        return hotelService.findAll(after, limit);
     }
 
     @Override
@@ -77,7 +139,89 @@ public class HotelDomainImpl implements HotelDomain {
     }
 
     @Override
-    public Hotel updateHotel(String id, Hotel hotel) {
+    public List<Room> getAvailableRooms(String hotelId, String from, String to, String type) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        validateRange(from, to);
+
+        if (!hotelService.existsById(hotelId)) {
+            throw new IllegalArgumentException("hotel not found: " + hotelId);
+        }
+
+        String roomType = type == null || type.isBlank() ? null : type;
+        return roomService.findAvailableByHotelId(hotelId, from, to, roomType);
+    }
+
+    @Override
+    public List<Room> getRecommendedRooms(String hotelId, String guestId, String from, String to, int limit) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(guestId, "guest id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        validateRange(from, to);
+
+        Guard.requireInRange(limit, 1, MAX_RECOMMENDED_ROOMS, "limit");
+
+        if (!hotelService.existsById(hotelId)) {
+            throw new IllegalArgumentException("hotel not found: " + hotelId);
+        }
+
+        if (!guestService.existsById(guestId)) {
+            throw new IllegalArgumentException("guest not found: " + guestId);
+        }
+
+        GuestPreferences preferences = guestService.findPreferencesByGuestId(guestId)
+                .orElseGet(() -> new GuestPreferences(guestId));
+
+        return roomService.findRecommendedByHotelId(hotelId, preferences, from, to, limit);
+    }
+
+    @Override
+    public List<DailyOccupancy> getOccupancy(String hotelId, String from, String to) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        long nights = validateRange(from, to);
+
+        if (nights > MAX_OCCUPANCY_NIGHTS) {
+            throw new IllegalArgumentException("date range must not exceed " + MAX_OCCUPANCY_NIGHTS + " nights");
+        }
+
+        if (!hotelService.existsById(hotelId)) {
+            throw new IllegalArgumentException("hotel not found: " + hotelId);
+        }
+
+        return occupancyService.findByHotelId(hotelId, from, to);
+    }
+
+    @Override
+    public List<MonthlyRevenue> getRevenueReport(String from, String to) {
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        try {
+            YearMonth first = YearMonth.parse(from);
+            YearMonth end = YearMonth.parse(to);
+
+            if (!first.isBefore(end)) {
+                throw new IllegalArgumentException("from must be before to");
+            }
+            if (first.plusMonths(MAX_REVENUE_MONTHS).isBefore(end)) {
+                throw new IllegalArgumentException("month range must not exceed " + MAX_REVENUE_MONTHS + " months");
+            }
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("invalid month format. Expected yyyy-MM");
+        }
+
+        return revenueService.findMonthlyRevenue(from, to);
+    }
+
+    @Override
+    public Hotel updateHotel(String id, Hotel hotel, Long expectedVersion) {
         Guard.requireNonBlank(id, "hotel id");
         Guard.requireNonNull(hotel, "hotel");
         Guard.requireNonBlank(hotel.getHotelName(), "hotel name");
@@ -87,7 +231,7 @@ public class HotelDomainImpl implements HotelDomain {
         }
 
         hotel.setId(id);
-        return hotelService.save(hotel);
+        return hotelService.save(hotel, expectedVersion);
     }
 
     @Override
@@ -95,16 +239,35 @@ public class HotelDomainImpl implements HotelDomain {
     public boolean deleteHotel(String id) {
         Guard.requireNonBlank(id, "hotel id");
 
-        if (!hotelService.existsById(id)) {
-            return false;
-        }
-
         if (bookingService.existsByHotelId(id)) {
             throw new IllegalStateException(
                     "cannot delete hotel " + id + " because it has bookings in its rooms");
         }
 
+        // Tres sentencias fijas: un hotel inexistente no tiene reservas ni habitaciones
+        // y su DELETE afecta a 0 filas, asi que no hace falta comprobar antes si existe
         roomService.deleteByHotelId(id);
         return hotelService.deleteById(id);
     }
+
+    /**
+     * Valida un rango de fechas [from, to) en formato yyyy-MM-dd.
+     *
+     * @param from Fecha inicial.
+     * @param to   Fecha final (excluida).
+     * @return Número de noches del rango.
+     */
+    private static long validateRange(String from, String to) {
+        try {
+            LocalDate first = LocalDate.parse(from);
+            LocalDate end = LocalDate.parse(to);
+
+            if (!first.isBefore(end)) {
+                throw new IllegalArgumentException("from must be before to");
+            }
+            return ChronoUnit.DAYS.between(first, end);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("invalid date format. Expected yyyy-MM-dd");
+        }
+    }
 }
\ No newline at end of file
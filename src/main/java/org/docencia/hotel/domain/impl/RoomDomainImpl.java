@@ -16,6 +16,11 @@ import jakarta.transaction.Transactional;
 @Service
 public class RoomDomainImpl implements RoomDomain {
 
+    /**
+     * Tamaño máximo de una página de habitaciones.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
     /**
      * Servicio de habitaciones.
      */
@@ -59,7 +64,7 @@ public class RoomDomainImpl implements RoomDomain {
             throw new IllegalArgumentException("Hotel with id " + room.getHotelId() + " does not exist");
         }
 
-        return roomService.save(room);
+        return roomService.insert(room);
     }
 
     @Override
@@ -70,8 +75,17 @@ public class RoomDomainImpl implements RoomDomain {
     }
 
     @Override
-    public List<Room> getAllRooms() {
-        return roomService.findAll();
+    public Optional<Long> getRoomVersion(String id) {
+        Guard.requireNonBlank(id, "room id");
+
+        return roomService.findVersionById(id);
+    }
+
+    @Override
+    public List<Room> getAllRooms(String after, int limit) {
+        Guard.requireInRange(limit, 1, MAX_PAGE_SIZE, "limit");
+
+        return roomService.findAll(after, limit);
     }
 
     @Override
@@ -98,7 +112,7 @@ public class RoomDomainImpl implements RoomDomain {
     }
 
     @Override
-    public Room updateRoom(String id, Room room) {
+    public Room updateRoom(String id, Room room, Long expectedVersion) {
         Guard.requireNonBlank(id, "room id");
         Guard.requireNonNull(room, "room");
         Guard.requireNonBlank(room.getNumber(), "room number");
@@ -113,7 +127,7 @@ public class RoomDomainImpl implements RoomDomain {
         }
 
         room.setId(id);
-        return roomService.save(room);
+        return roomService.save(room, expectedVersion);
     }
 
     @Override
@@ -0,0 +1,179 @@
+package org.docencia.hotel.domain.model;
+
+import java.util.Objects;
+
+/**
+ * Clase que representa el dimensionado del filtro de ids de reserva
+ * y sus respuestas desde el arranque de la aplicacion.
+ *
+ * Esta clase forma parte del modelo de dominio y no contiene
+ * dependencias con capas de persistencia o presentación.
+ */
+public class BookingIdFilterStats {
+    /**
+     * Ids para los que se dimensionó el filtro
+     */
+    private long expectedIds;
+
+    /**
+     * Tasa de falsos positivos configurada para esos ids
+     */
+    private double falsePositiveRate;
+
+    /**
+     * Tasa de falsos positivos estimada con los bits marcados ahora
+     */
+    private double estimatedFalsePositiveRate;
+
+    /**
+     * Número de bits del filtro
+     */
+    private long bitCount;
+
+    /**
+     * Posiciones marcadas por id
+     */
+    private int hashFunctions;
+
+    /**
+     * Memoria ocupada por los bits, en bytes
+     */
+    private long memoryBytes;
+
+    /**
+     * Comprobaciones resueltas sin consultar la base de datos
+     */
+    private long negativeCount;
+
+    /**
+     * Comprobaciones que tuvieron que ir a la base de datos
+     */
+    private long positiveCount;
+
+    /**
+     * Constructor por defecto
+     */
+    public BookingIdFilterStats() {
+    }
+
+    /**
+     * Crea las estadísticas del filtro.
+     *
+     * @param expectedIds ids para los que se dimensionó
+     * @param falsePositiveRate tasa de falsos positivos configurada
+     * @param estimatedFalsePositiveRate tasa de falsos positivos estimada
+     * @param bitCount número de bits
+     * @param hashFunctions posiciones marcadas por id
+     * @param memoryBytes memoria ocupada en bytes
+     * @param negativeCount comprobaciones resueltas en memoria
+     * @param positiveCount comprobaciones que fueron a la base de datos
+     */
+    public BookingIdFilterStats(long expectedIds, double falsePositiveRate, double estimatedFalsePositiveRate,
+            long bitCount, int hashFunctions, long memoryBytes, long negativeCount, long positiveCount) {
+        this.expectedIds = expectedIds;
+        this.falsePositiveRate = falsePositiveRate;
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+        this.bitCount = bitCount;
+        this.hashFunctions = hashFunctions;
+        this.memoryBytes = memoryBytes;
+        this.negativeCount = negativeCount;
+        this.positiveCount = positiveCount;
+    }
+
+    public long getExpectedIds() {
+        return expectedIds;
+    }
+
+    public void setExpectedIds(long expectedIds) {
+        this.expectedIds = expectedIds;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public double getEstimatedFalsePositiveRate() {
+        return estimatedFalsePositiveRate;
+    }
+
+    public void setEstimatedFalsePositiveRate(double estimatedFalsePositiveRate) {
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public void setBitCount(long bitCount) {
+        this.bitCount = bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public void setHashFunctions(int hashFunctions) {
+        this.hashFunctions = hashFunctions;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public void setMemoryBytes(long memoryBytes) {
+        this.memoryBytes = memoryBytes;
+    }
+
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+
+    public void setNegativeCount(long negativeCount) {
+        this.negativeCount = negativeCount;
+    }
+
+    public long getPositiveCount() {
+        return positiveCount;
+    }
+
+    public void setPositiveCount(long positiveCount) {
+        this.positiveCount = positiveCount;
+    }
+
+    /**
+     * Calcula el código hash a partir de todos los campos.
+     *
+     * @return hash de las estadísticas
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(expectedIds, falsePositiveRate, estimatedFalsePositiveRate, bitCount, hashFunctions,
+                memoryBytes, negativeCount, positiveCount);
+    }
+
+    /**
+     * Dos estadísticas se consideran iguales si coinciden todas las cifras.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambas coinciden
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof BookingIdFilterStats other))
+            return false;
+        return expectedIds == other.expectedIds
+                && Double.compare(falsePositiveRate, other.falsePositiveRate) == 0
+                && Double.compare(estimatedFalsePositiveRate, other.estimatedFalsePositiveRate) == 0
+                && bitCount == other.bitCount
+                && hashFunctions == other.hashFunctions
+                && memoryBytes == other.memoryBytes
+                && negativeCount == other.negativeCount
+                && positiveCount == other.positiveCount;
+    }
+}
@@ -0,0 +1,130 @@
+package org.docencia.hotel.domain.model;
+
+import java.util.Objects;
+
+/**
+ * Clase que representa los contadores de una region de la cache
+ * de segundo nivel desde el arranque de la aplicacion.
+ * 
+ * Esta clase forma parte del modelo de dominio y no contiene
+ * dependencias con capas de persistencia o presentación.
+ */
+public class CacheRegionStats {
+    /**
+     * Nombre de la region
+     */
+    private String region;
+
+    /**
+     * Lecturas servidas desde la cache
+     */
+    private long hitCount;
+
+    /**
+     * Lecturas que no encontraron la entrada y fueron a la base de datos
+     */
+    private long missCount;
+
+    /**
+     * Entradas guardadas en la cache
+     */
+    private long putCount;
+
+    /**
+     * Entradas presentes actualmente en memoria (-1 si no se conoce)
+     */
+    private long elementCount;
+
+    /**
+     * Constructor por defecto
+     */
+    public CacheRegionStats() {
+    }
+
+    /**
+     * Crea los contadores de una region.
+     * 
+     * @param region nombre de la region
+     * @param hitCount lecturas servidas desde la cache
+     * @param missCount lecturas que no encontraron la entrada
+     * @param putCount entradas guardadas
+     * @param elementCount entradas presentes en memoria
+     */
+    public CacheRegionStats(String region, long hitCount, long missCount, long putCount, long elementCount) {
+        this.region = region;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.elementCount = elementCount;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public void setPutCount(long putCount) {
+        this.putCount = putCount;
+    }
+
+    public long getElementCount() {
+        return elementCount;
+    }
+
+    public void setElementCount(long elementCount) {
+        this.elementCount = elementCount;
+    }
+
+    /**
+     * Calcula el código hash a partir de todos los campos.
+     *
+     * @return hash de los contadores
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(region, hitCount, missCount, putCount, elementCount);
+    }
+
+    /**
+     * Dos contadores se consideran iguales si coinciden la region
+     * y todas las cifras.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambos coinciden
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CacheRegionStats other))
+            return false;
+        return hitCount == other.hitCount
+                && missCount == other.missCount
+                && putCount == other.putCount
+                && elementCount == other.elementCount
+                && Objects.equals(region, other.region);
+    }
+}
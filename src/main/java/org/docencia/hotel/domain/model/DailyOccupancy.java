@@ -0,0 +1,83 @@
+package org.docencia.hotel.domain.model;
+
+import java.util.Objects;
+
+/**
+ * Clase que representa la ocupacion de un hotel en una noche.
+ * 
+ * Indica cuantas habitaciones del hotel estan reservadas
+ * la noche que empieza en la fecha indicada.
+ * 
+ * Esta clase forma parte del modelo de dominio y no contiene
+ * dependencias con capas de persistencia o presentación.
+ */
+public class DailyOccupancy {
+    /**
+     * Fecha de la noche en formato yyyy-MM-dd
+     */
+    private String date;
+
+    /**
+     * Numero de habitaciones ocupadas esa noche
+     */
+    private int occupiedRooms;
+
+    /**
+     * Constructor por defecto
+     */
+    public DailyOccupancy() {
+    }
+
+    /**
+     * Crea la ocupacion de una noche.
+     * 
+     * @param date fecha de la noche en formato yyyy-MM-dd
+     * @param occupiedRooms numero de habitaciones ocupadas
+     */
+    public DailyOccupancy(String date, int occupiedRooms) {
+        this.date = date;
+        this.occupiedRooms = occupiedRooms;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public int getOccupiedRooms() {
+        return occupiedRooms;
+    }
+
+    public void setOccupiedRooms(int occupiedRooms) {
+        this.occupiedRooms = occupiedRooms;
+    }
+
+    /**
+     * Calcula el código hash a partir de la fecha y la ocupacion.
+     *
+     * @return hash de la ocupacion
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, occupiedRooms);
+    }
+
+    /**
+     * Dos ocupaciones se consideran iguales si tienen
+     * la misma fecha y el mismo numero de habitaciones ocupadas.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambas ocupaciones coinciden
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof DailyOccupancy other))
+            return false;
+        return occupiedRooms == other.occupiedRooms && Objects.equals(date, other.date);
+    }
+}
@@ -0,0 +1,147 @@
+package org.docencia.hotel.domain.model;
+
+import java.util.Objects;
+
+/**
+ * Clase que representa los contadores de una cache de existencia
+ * desde el arranque de la aplicacion.
+ * 
+ * Esta clase forma parte del modelo de dominio y no contiene
+ * dependencias con capas de persistencia o presentación.
+ */
+public class ExistenceCacheStats {
+    /**
+     * Nombre de la cache
+     */
+    private String cache;
+
+    /**
+     * Comprobaciones servidas desde la cache
+     */
+    private long hitCount;
+
+    /**
+     * Comprobaciones que fueron a la base de datos
+     */
+    private long missCount;
+
+    /**
+     * Proporción de comprobaciones servidas desde la cache (1.0 si no hubo ninguna)
+     */
+    private double hitRate;
+
+    /**
+     * Entradas desalojadas por tamaño o caducidad
+     */
+    private long evictionCount;
+
+    /**
+     * Entradas presentes (aproximado)
+     */
+    private long size;
+
+    /**
+     * Constructor por defecto
+     */
+    public ExistenceCacheStats() {
+    }
+
+    /**
+     * Crea los contadores de una cache.
+     * 
+     * @param cache nombre de la cache
+     * @param hitCount comprobaciones servidas desde la cache
+     * @param missCount comprobaciones que fueron a la base de datos
+     * @param hitRate proporción de aciertos
+     * @param evictionCount entradas desalojadas
+     * @param size entradas presentes
+     */
+    public ExistenceCacheStats(String cache, long hitCount, long missCount, double hitRate, long evictionCount,
+            long size) {
+        this.cache = cache;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public void setCache(String cache) {
+        this.cache = cache;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Calcula el código hash a partir de todos los campos.
+     *
+     * @return hash de los contadores
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(cache, hitCount, missCount, hitRate, evictionCount, size);
+    }
+
+    /**
+     * Dos contadores se consideran iguales si coinciden la cache
+     * y todas las cifras.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambos coinciden
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ExistenceCacheStats other))
+            return false;
+        return hitCount == other.hitCount
+                && missCount == other.missCount
+                && Double.compare(hitRate, other.hitRate) == 0
+                && evictionCount == other.evictionCount
+                && size == other.size
+                && Objects.equals(cache, other.cache);
+    }
+}
@@ -0,0 +1,166 @@
+package org.docencia.hotel.domain.model;
+
+import java.util.Objects;
+
+/**
+ * Clase que representa los ingresos de un hotel en un mes.
+ * 
+ * Ademas de los ingresos por noches reservadas incluye el ADR
+ * (tarifa media por noche vendida) y el RevPAR (ingreso por
+ * habitacion disponible y noche).
+ * 
+ * Esta clase forma parte del modelo de dominio y no contiene
+ * dependencias con capas de persistencia o presentación.
+ */
+public class MonthlyRevenue {
+    /**
+     * Identificador del hotel
+     */
+    private String hotelId;
+
+    /**
+     * Mes en formato yyyy-MM
+     */
+    private String month;
+
+    /**
+     * Noches de habitacion vendidas en el mes
+     */
+    private long roomNightsSold;
+
+    /**
+     * Noches de habitacion disponibles en el mes (habitaciones x dias)
+     */
+    private long roomNightsAvailable;
+
+    /**
+     * Ingresos de las noches vendidas en el mes
+     */
+    private double revenue;
+
+    /**
+     * Tarifa media por noche vendida (revenue / roomNightsSold)
+     */
+    private double adr;
+
+    /**
+     * Ingreso por habitacion disponible (revenue / roomNightsAvailable)
+     */
+    private double revpar;
+
+    /**
+     * Constructor por defecto
+     */
+    public MonthlyRevenue() {
+    }
+
+    /**
+     * Crea los ingresos de un hotel en un mes.
+     * 
+     * @param hotelId identificador del hotel
+     * @param month mes en formato yyyy-MM
+     * @param roomNightsSold noches de habitacion vendidas
+     * @param roomNightsAvailable noches de habitacion disponibles
+     * @param revenue ingresos del mes
+     * @param adr tarifa media por noche vendida
+     * @param revpar ingreso por habitacion disponible
+     */
+    public MonthlyRevenue(String hotelId, String month, long roomNightsSold, long roomNightsAvailable,
+            double revenue, double adr, double revpar) {
+        this.hotelId = hotelId;
+        this.month = month;
+        this.roomNightsSold = roomNightsSold;
+        this.roomNightsAvailable = roomNightsAvailable;
+        this.revenue = revenue;
+        this.adr = adr;
+        this.revpar = revpar;
+    }
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(String hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public long getRoomNightsSold() {
+        return roomNightsSold;
+    }
+
+    public void setRoomNightsSold(long roomNightsSold) {
+        this.roomNightsSold = roomNightsSold;
+    }
+
+    public long getRoomNightsAvailable() {
+        return roomNightsAvailable;
+    }
+
+    public void setRoomNightsAvailable(long roomNightsAvailable) {
+        this.roomNightsAvailable = roomNightsAvailable;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public double getAdr() {
+        return adr;
+    }
+
+    public void setAdr(double adr) {
+        this.adr = adr;
+    }
+
+    public double getRevpar() {
+        return revpar;
+    }
+
+    public void setRevpar(double revpar) {
+        this.revpar = revpar;
+    }
+
+    /**
+     * Calcula el código hash a partir de todos los campos.
+     *
+     * @return hash de los ingresos
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(hotelId, month, roomNightsSold, roomNightsAvailable, revenue, adr, revpar);
+    }
+
+    /**
+     * Dos resumenes de ingresos se consideran iguales si coinciden
+     * el hotel, el mes y todas las cifras.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambos resumenes coinciden
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof MonthlyRevenue other))
+            return false;
+        return roomNightsSold == other.roomNightsSold
+                && roomNightsAvailable == other.roomNightsAvailable
+                && Double.compare(revenue, other.revenue) == 0
+                && Double.compare(adr, other.adr) == 0
+                && Double.compare(revpar, other.revpar) == 0
+                && Objects.equals(hotelId, other.hotelId)
+                && Objects.equals(month, other.month);
+    }
+}
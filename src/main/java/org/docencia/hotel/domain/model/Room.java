@@ -37,6 +37,21 @@ public class Room {
      */
     private String hotelId;
 
+    /**
+     * Indica si se permite fumar en la habitacion
+     */
+    private boolean smoking;
+
+    /**
+     * Tipo de cama de la habitacion
+     */
+    private String bedType;
+
+    /**
+     * Indica si la habitacion esta adaptada para personas con movilidad reducida
+     */
+    private boolean accessible;
+
     /**
      * Constructor por defecto
      */
@@ -69,6 +84,26 @@ public class Room {
         this.hotelId = hotelId;
     }
 
+    /**
+     * Crea una habitacion con todos sus datos y atributos.
+     * 
+     * @param id identificador de la habitacion
+     * @param number numero de la habitacion
+     * @param type tipo de la habitacion
+     * @param pricePerNight precio por noche de la habitacion
+     * @param hotelId identificador del hotel al que pertenece la habitacion
+     * @param smoking si se permite fumar en la habitacion
+     * @param bedType tipo de cama de la habitacion
+     * @param accessible si la habitacion esta adaptada
+     */
+    public Room(String id, String number, String type, double pricePerNight, String hotelId,
+            boolean smoking, String bedType, boolean accessible) {
+        this(id, number, type, pricePerNight, hotelId);
+        this.smoking = smoking;
+        this.bedType = bedType;
+        this.accessible = accessible;
+    }
+
     public String getId() {
         return id;
     }
@@ -109,6 +144,30 @@ public class Room {
         this.hotelId = hotelId;
     }
 
+    public boolean isSmoking() {
+        return smoking;
+    }
+
+    public void setSmoking(boolean smoking) {
+        this.smoking = smoking;
+    }
+
+    public String getBedType() {
+        return bedType;
+    }
+
+    public void setBedType(String bedType) {
+        this.bedType = bedType;
+    }
+
+    public boolean isAccessible() {
+        return accessible;
+    }
+
+    public void setAccessible(boolean accessible) {
+        this.accessible = accessible;
+    }
+
     /**
      * Calcula el código hash basado únicamente en el identificador
      * de la habitación.
@@ -0,0 +1,128 @@
+package org.docencia.hotel.domain.model;
+
+import java.util.Objects;
+
+/**
+ * Clase que representa una retencion temporal de una habitacion.
+ * 
+ * Mientras esta activa, la habitacion se considera ocupada en el
+ * rango [checkIn, checkOut) para cualquier otra reserva o retencion.
+ * Caduca sola al llegar expiresAt si no se confirma ni se libera antes.
+ * 
+ * Esta clase forma parte del modelo de dominio y no contiene
+ * dependencias con capas de persistencia o presentación.
+ */
+public class RoomHold {
+    /**
+     * Identificador de la retencion
+     */
+    private String id;
+
+    /**
+     * Identificador de la habitacion retenida
+     */
+    private String roomId;
+
+    /**
+     * Fecha de entrada en formato yyyy-MM-dd
+     */
+    private String checkIn;
+
+    /**
+     * Fecha de salida (excluida) en formato yyyy-MM-dd
+     */
+    private String checkOut;
+
+    /**
+     * Instante de caducidad en formato ISO-8601 (UTC)
+     */
+    private String expiresAt;
+
+    /**
+     * Constructor por defecto
+     */
+    public RoomHold() {
+    }
+
+    /**
+     * Crea una retencion.
+     * 
+     * @param id identificador de la retencion
+     * @param roomId identificador de la habitacion
+     * @param checkIn fecha de entrada en formato yyyy-MM-dd
+     * @param checkOut fecha de salida en formato yyyy-MM-dd
+     * @param expiresAt instante de caducidad en formato ISO-8601
+     */
+    public RoomHold(String id, String roomId, String checkIn, String checkOut, String expiresAt) {
+        this.id = id;
+        this.roomId = roomId;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getCheckIn() {
+        return checkIn;
+    }
+
+    public void setCheckIn(String checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    public String getCheckOut() {
+        return checkOut;
+    }
+
+    public void setCheckOut(String checkOut) {
+        this.checkOut = checkOut;
+    }
+
+    public String getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(String expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Calcula el código hash a partir del identificador.
+     *
+     * @return hash de la retencion
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    /**
+     * Dos retenciones se consideran iguales si tienen el mismo identificador.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambas retenciones tienen el mismo id
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof RoomHold other))
+            return false;
+        return Objects.equals(id, other.id);
+    }
+}
@@ -1,11 +1,15 @@
 package org.docencia.hotel.mapper.jpa;
 
+import java.time.LocalDate;
+
 import org.docencia.hotel.domain.model.Booking;
 import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
 import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
 import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.BookingRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 /**
  * Mapper para convertir entre la entidad JPA BookingEntity
@@ -20,10 +24,24 @@ public interface BookingMapper {
      * @param domain Modelo de dominio a convertir.
      * @return Entidad JPA convertida.
      */
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "room", source = "roomId")
     @Mapping(target = "guest", source = "guestId")
     BookingEntity toEntity(Booking domain);
 
+    /**
+     * Copia los datos de un modelo de dominio Booking sobre una entidad ya
+     * cargada, sin tocar su id, su version, su habitación ni su huésped.
+     * 
+     * @param domain Modelo de dominio de origen.
+     * @param entity Entidad JPA a actualizar.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "room", ignore = true)
+    @Mapping(target = "guest", ignore = true)
+    void updateEntity(Booking domain, @MappingTarget BookingEntity entity);
+
     /**
      * Convierte una entidad JPA BookingEntity a un modelo de dominio Booking.
      * 
@@ -34,6 +52,14 @@ public interface BookingMapper {
     @Mapping(target = "guestId", source = "guest.id")
     Booking toDomain(BookingEntity entity);
 
+    /**
+     * Convierte una proyección de solo lectura BookingRow a un modelo de dominio Booking.
+     * 
+     * @param row Proyección a convertir.
+     * @return Modelo de dominio convertido.
+     */
+    Booking toDomain(BookingRow row);
+
     /**
      * Mapea el ID de la habitación a una entidad RoomEntity.
      * 
@@ -59,4 +85,27 @@ public interface BookingMapper {
         }
         return new GuestEntity(guestId);
     }
+
+    /**
+     * Convierte una fecha en formato yyyy-MM-dd a LocalDate.
+     * 
+     * @param date Fecha en formato yyyy-MM-dd.
+     * @return Fecha convertida, o null si no se indicó.
+     */
+    default LocalDate mapDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        return LocalDate.parse(date);
+    }
+
+    /**
+     * Convierte una fecha LocalDate a formato yyyy-MM-dd.
+     * 
+     * @param date Fecha a convertir.
+     * @return Fecha en formato yyyy-MM-dd, o null si no se indicó.
+     */
+    default String mapDate(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
 }
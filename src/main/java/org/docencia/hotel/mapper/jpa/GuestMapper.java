@@ -2,6 +2,7 @@ package org.docencia.hotel.mapper.jpa;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.docencia.hotel.domain.model.Guest;
 import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
 
@@ -27,5 +28,17 @@ public interface GuestMapper {
      * @param domain Modelo de dominio a convertir.
      * @return Entidad JPA convertida.
      */
+    @Mapping(target = "version", ignore = true)
     GuestEntity toEntity(Guest domain);
+
+    /**
+     * Copia los datos de un modelo de dominio Guest sobre una entidad ya
+     * cargada, sin tocar su id ni su version.
+     * 
+     * @param domain Modelo de dominio de origen.
+     * @param entity Entidad JPA a actualizar.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(Guest domain, @MappingTarget GuestEntity entity);
 }
\ No newline at end of file
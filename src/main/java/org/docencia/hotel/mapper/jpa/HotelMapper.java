@@ -1,6 +1,8 @@
 package org.docencia.hotel.mapper.jpa;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.docencia.hotel.domain.model.Hotel;
 import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
 
@@ -18,8 +20,20 @@ public interface HotelMapper {
      * @param domain Objeto del dominio Hotel
      * @return Entidad JPA HotelEntity
      */
+    @Mapping(target = "version", ignore = true)
     HotelEntity toEntity(Hotel domain);
 
+    /**
+     * Copia los datos de un objeto de dominio Hotel sobre una entidad ya
+     * cargada, sin tocar su id ni su version.
+     * 
+     * @param domain Objeto del dominio Hotel
+     * @param entity Entidad JPA HotelEntity a actualizar
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(Hotel domain, @MappingTarget HotelEntity entity);
+
     /**
      * Convierte una entidad JPA HotelEntity a su objeto de dominio Hotel.
      * 
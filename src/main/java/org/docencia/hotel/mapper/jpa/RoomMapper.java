@@ -2,9 +2,11 @@ package org.docencia.hotel.mapper.jpa;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.docencia.hotel.domain.model.Room;
 import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
 import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
 
 /**
  * Mapper para convertir entre la entidad JPA RoomEntity
@@ -19,9 +21,22 @@ public interface RoomMapper {
      * @param domain Objeto Room del modelo de dominio
      * @return Entidad JPA RoomEntity
      */
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "hotel", source = "hotelId")
     RoomEntity toEntity(Room domain);
 
+    /**
+     * Copia los datos de un objeto Room del modelo de dominio sobre una
+     * entidad ya cargada, sin tocar su id, su version ni su hotel.
+     * 
+     * @param domain Objeto Room del modelo de dominio
+     * @param entity Entidad JPA RoomEntity a actualizar
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "hotel", ignore = true)
+    void updateEntity(Room domain, @MappingTarget RoomEntity entity);
+
     /**
      * Convierte una entidad JPA RoomEntity
      * a un objeto Room del modelo de dominio.
@@ -32,6 +47,15 @@ public interface RoomMapper {
     @Mapping(target = "hotelId", source = "hotel.id") 
     Room toDomain(RoomEntity entity);
 
+    /**
+     * Convierte una proyeccion de solo lectura RoomRow
+     * a un objeto Room del modelo de dominio.
+     * 
+     * @param row Proyeccion RoomRow
+     * @return Objeto Room del modelo de dominio
+     */
+    Room toDomain(RoomRow row);
+
     /**
      * Mapea el identificador del hotel a la entidad HotelEntity.
      * 
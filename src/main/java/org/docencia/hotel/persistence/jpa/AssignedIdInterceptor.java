@@ -0,0 +1,31 @@
+package org.docencia.hotel.persistence.jpa;
+
+import org.docencia.hotel.persistence.jpa.entity.AssignedIdEntity;
+import org.hibernate.Hibernate;
+import org.hibernate.Interceptor;
+
+/**
+ * Le dice a Hibernate si una entidad con id asignado es nueva usando
+ * AssignedIdEntity.isNew, igual que Spring Data.
+ *
+ * Con columna de version Hibernate da por nueva cualquier instancia con
+ * la version a null, y eso incluye las referencias que los mapeadores
+ * construyen solo con el id (new RoomEntity(id)): al guardar la entidad
+ * que las contiene fallaria por referenciar una instancia sin guardar.
+ * Solo las entidades marcadas con markNew son nuevas.
+ */
+public final class AssignedIdInterceptor implements Interceptor {
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        if (!Hibernate.isInitialized(entity)) {
+            // Referencia de getReference: apunta a una fila existente, y llamar a isNew la cargaria
+            return false;
+        }
+        if (entity instanceof AssignedIdEntity assigned) {
+            return assigned.isNew();
+        }
+        // Resto de entidades: decide Hibernate
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package org.docencia.hotel.persistence.jpa;
+
+import java.util.List;
+
+import org.hibernate.cache.spi.RegionFactory;
+
+/**
+ * Nombres de las regiones de la cache de segundo nivel de Hibernate.
+ *
+ * Las regiones se crean al arrancar con su tamaño y caducidad; una
+ * region no declarada aqui hace fallar el arranque en lugar de crearse
+ * sin limites.
+ */
+public final class CacheRegions {
+
+    /**
+     * Entidades de hotel.
+     */
+    public static final String HOTEL = "hotel";
+
+    /**
+     * Entidades de habitacion.
+     */
+    public static final String ROOM = "room";
+
+    /**
+     * Resultados de las consultas de habitaciones marcadas como cacheables.
+     */
+    public static final String ROOM_QUERIES = "room-queries";
+
+    /**
+     * Resultados de consultas cacheables sin region propia.
+     */
+    public static final String DEFAULT_QUERY_RESULTS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * Ultima modificacion de cada tabla, usada para invalidar los resultados de consultas.
+     */
+    public static final String UPDATE_TIMESTAMPS = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * Regiones de entidades.
+     */
+    public static final List<String> ENTITY_REGIONS = List.of(HOTEL, ROOM);
+
+    /**
+     * Regiones de resultados de consultas.
+     */
+    public static final List<String> QUERY_REGIONS = List.of(ROOM_QUERIES, DEFAULT_QUERY_RESULTS);
+
+    private CacheRegions() {
+    }
+}
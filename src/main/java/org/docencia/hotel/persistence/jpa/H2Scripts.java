@@ -0,0 +1,83 @@
+package org.docencia.hotel.persistence.jpa;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+/**
+ * Volcado y carga de una base de datos H2 completa con SCRIPT y RUNSCRIPT.
+ *
+ * Lo usan las copias en disco del perfil memory y la replica local del
+ * perfil replica.
+ */
+public final class H2Scripts {
+
+    private H2Scripts() {
+    }
+
+    /**
+     * Vuelca la base de datos entera a un fichero comprimido.
+     *
+     * El volcado se hace en una transaccion serializable que se deshace al
+     * terminar, asi que todas las tablas se leen en el mismo instante aunque
+     * haya escrituras concurrentes.
+     *
+     * @param dataSource Base de datos de origen
+     * @param file       Fichero de destino
+     */
+    public static void dump(DataSource dataSource, Path file) {
+        execute(dataSource, connection -> {
+            connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SCRIPT TO " + literal(file) + " COMPRESSION ZIP");
+            } finally {
+                connection.rollback();
+            }
+        });
+    }
+
+    /**
+     * Ejecuta en la base de datos un fichero escrito por dump.
+     *
+     * @param dataSource Base de datos de destino
+     * @param file       Fichero de origen
+     * @param replace    Si es true, borra antes todos los objetos de la base de datos
+     */
+    public static void load(DataSource dataSource, Path file, boolean replace) {
+        execute(dataSource, connection -> {
+            try (Statement statement = connection.createStatement()) {
+                if (replace) {
+                    statement.execute("DROP ALL OBJECTS");
+                }
+                statement.execute("RUNSCRIPT FROM " + literal(file) + " COMPRESSION ZIP");
+            }
+        });
+    }
+
+    private static void execute(DataSource dataSource, SqlWork work) {
+        try (Connection connection = dataSource.getConnection()) {
+            work.run(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("H2 script failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ruta como literal SQL, con las comillas simples escapadas.
+     */
+    private static String literal(Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+
+    /**
+     * Trabajo sobre una conexion que puede lanzar SQLException.
+     */
+    @FunctionalInterface
+    private interface SqlWork {
+        void run(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,200 @@
+package org.docencia.hotel.persistence.jpa;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Copias en disco de la base de datos H2 en memoria (perfil memory).
+ *
+ * Cada cierto tiempo se vuelca la base de datos entera con SCRIPT a un
+ * fichero comprimido del directorio de copias, y al arrancar se restaura
+ * la copia mas reciente antes de aplicar las migraciones. Se pierden las
+ * escrituras posteriores a la ultima copia si el proceso muere sin cerrarse.
+ *
+ * Cada copia se escribe en un fichero temporal y se renombra al terminar,
+ * de forma que el directorio nunca contiene una copia a medias. Los nombres
+ * llevan la fecha en UTC, asi que el orden alfabetico es el cronologico.
+ */
+@Component
+@Profile("memory")
+public class H2SnapshotStore {
+
+    /**
+     * Prefijo de los ficheros de copia.
+     */
+    static final String PREFIX = "hotel-";
+
+    /**
+     * Extension de los ficheros de copia.
+     */
+    static final String SUFFIX = ".zip";
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter
+            .ofPattern("yyyyMMdd-HHmmss-SSS")
+            .withZone(ZoneOffset.UTC);
+
+    /**
+     * Origen de conexiones de la base de datos en memoria.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Directorio donde se guardan las copias.
+     */
+    private final Path directory;
+
+    /**
+     * Numero de copias que se conservan.
+     */
+    private final int keep;
+
+    /**
+     * Reloj usado para nombrar las copias.
+     */
+    private final Clock clock;
+
+    /**
+     * Constructor del almacen de copias.
+     *
+     * @param dataSource Origen de conexiones de la base de datos
+     * @param directory  Directorio de las copias
+     * @param keep       Numero de copias que se conservan
+     */
+    @Autowired
+    public H2SnapshotStore(DataSource dataSource,
+            @Value("${hotel.snapshot.directory:./data/snapshots}") String directory,
+            @Value("${hotel.snapshot.keep:5}") int keep) {
+        this(dataSource, Paths.get(directory), keep, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor con reloj explicito.
+     *
+     * @param dataSource Origen de conexiones de la base de datos
+     * @param directory  Directorio de las copias
+     * @param keep       Numero de copias que se conservan
+     * @param clock      Reloj
+     */
+    H2SnapshotStore(DataSource dataSource, Path directory, int keep, Clock clock) {
+        if (keep <= 0) {
+            throw new IllegalArgumentException("snapshots to keep must be positive");
+        }
+        this.dataSource = dataSource;
+        this.directory = directory.toAbsolutePath();
+        this.keep = keep;
+        this.clock = clock;
+    }
+
+    /**
+     * Carga en la base de datos la copia mas reciente, si hay alguna.
+     * Debe invocarse con la base de datos vacia, antes de las migraciones.
+     *
+     * @return Copia restaurada, o vacio si no habia ninguna
+     */
+    public Optional<Path> restoreLatest() {
+        Optional<Path> latest = latest();
+
+        latest.ifPresent(snapshot -> H2Scripts.load(dataSource, snapshot, false));
+        return latest;
+    }
+
+    /**
+     * Escribe una copia consistente de la base de datos y borra las mas antiguas.
+     *
+     * @return Copia escrita
+     */
+    @Scheduled(fixedDelayString = "${hotel.snapshot.interval-seconds:30}",
+            initialDelayString = "${hotel.snapshot.interval-seconds:30}",
+            timeUnit = TimeUnit.SECONDS)
+    public synchronized Path write() {
+        Path target = directory.resolve(PREFIX + TIMESTAMP.format(clock.instant()) + SUFFIX);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        H2Scripts.dump(dataSource, temp);
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            prune();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return target;
+    }
+
+    /**
+     * Escribe una ultima copia al parar la aplicacion.
+     */
+    @PreDestroy
+    public void close() {
+        write();
+    }
+
+    /**
+     * Devuelve la copia mas reciente del directorio.
+     *
+     * @return Copia mas reciente, o vacio si no hay ninguna
+     */
+    Optional<Path> latest() {
+        List<Path> snapshots = snapshots();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    /**
+     * Borra las copias que exceden el numero a conservar, empezando por las mas antiguas.
+     */
+    void prune() throws IOException {
+        List<Path> snapshots = snapshots();
+
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /**
+     * @return Copias del directorio, de la mas antigua a la mas reciente
+     */
+    private List<Path> snapshots() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.docencia.hotel.persistence.jpa.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+
+/**
+ * Base de las entidades cuyo id asigna la aplicacion.
+ *
+ * Con ids asignados Spring Data no puede deducir si una entidad es
+ * nueva a partir del id, y save acaba haciendo merge, que lanza un
+ * SELECT antes de cada INSERT. Los caminos de alta marcan la entidad
+ * con markNew para que save haga persist directamente; las
+ * actualizaciones modifican la entidad cargada en la transaccion.
+ *
+ * Hibernate consulta la misma marca a traves de AssignedIdInterceptor,
+ * en lugar de deducirlo de la columna de version.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity implements Persistable<String> {
+
+    /**
+     * Indica que la entidad aun no se ha insertado. No es una columna.
+     */
+    @Transient
+    private boolean newEntity;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Marca la entidad como nueva, para que se inserte sin consultar antes.
+     */
+    public void markNew() {
+        this.newEntity = true;
+    }
+
+    /**
+     * Una entidad insertada o leida de la base de datos deja de ser nueva.
+     */
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
+}
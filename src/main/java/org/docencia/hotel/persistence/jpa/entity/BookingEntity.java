@@ -1,14 +1,17 @@
 package org.docencia.hotel.persistence.jpa.entity;
 
+import java.time.LocalDate;
 import java.util.Objects;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Representa una reserva en la base de datos.
@@ -19,10 +22,18 @@ import jakarta.persistence.Table;
  * Contiene relaciones ManyToOne con las entidades RoomEntity
  * y GuestEntity para representar la habitacion reservada
  * y el cliente que realiza la reserva, respectivamente.
+ *
+ * Las fechas se guardan como columnas DATE. El indice compuesto
+ * (room_id, check_in, check_out) permite resolver las consultas de
+ * solapamiento por habitacion con una busqueda en el indice, y el
+ * indice sobre check_in cubre las consultas de llegadas por dia.
  */
 @Entity
-@Table(name = "booking")
-public class BookingEntity {
+@Table(name = "booking", indexes = {
+        @Index(name = "idx_booking_room_dates", columnList = "room_id, check_in, check_out"),
+        @Index(name = "idx_booking_check_in", columnList = "check_in")
+})
+public class BookingEntity extends AssignedIdEntity {
 
     /**
      * Identificador unico de la reserva
@@ -48,13 +59,19 @@ public class BookingEntity {
      * Fecha de entrada
      */
     @Column(name = "check_in")
-    private String checkIn;
+    private LocalDate checkIn;
 
     /**
      * Fecha de salida
      */
     @Column(name = "check_out")
-    private String checkOut;
+    private LocalDate checkOut;
+
+    /**
+     * Version de la fila de la reserva, para el bloqueo optimista y los ETag.
+     */
+    @Version
+    private Long version;
 
     /**
      * Constructor por defecto
@@ -80,7 +97,7 @@ public class BookingEntity {
      * @param checkIn Fecha de entrada
      * @param checkOut Fecha de salida
      */
-    public BookingEntity(String id, RoomEntity room, GuestEntity guest, String checkIn, String checkOut) {
+    public BookingEntity(String id, RoomEntity room, GuestEntity guest, LocalDate checkIn, LocalDate checkOut) {
         this.id = id;
         this.room = room;
         this.guest = guest;
@@ -112,22 +129,30 @@ public class BookingEntity {
         this.guest = guest;
     }
 
-    public String getCheckIn() {
+    public LocalDate getCheckIn() {
         return checkIn;
     }
 
-    public void setCheckIn(String checkIn) {
+    public void setCheckIn(LocalDate checkIn) {
         this.checkIn = checkIn;
     }
 
-    public String getCheckOut() {
+    public LocalDate getCheckOut() {
         return checkOut;
     }
 
-    public void setCheckOut(String checkOut) {
+    public void setCheckOut(LocalDate checkOut) {
         this.checkOut = checkOut;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Calcula el código hash basado únicamente en el identificador
      * de la reserva.
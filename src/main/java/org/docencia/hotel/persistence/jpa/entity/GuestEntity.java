@@ -6,6 +6,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -21,7 +22,7 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "guest")
-public class GuestEntity {
+public class GuestEntity extends AssignedIdEntity {
     /**
      * Identificador unico del huesped.
      */
@@ -45,6 +46,12 @@ public class GuestEntity {
      */
     private String phone;
 
+    /**
+     * Version de la fila del huesped, para el bloqueo optimista y los ETag.
+     */
+    @Version
+    private Long version;
+
     /**
      * Constructor por defecto.
      */
@@ -107,6 +114,14 @@ public class GuestEntity {
         this.phone = phone;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Calcula el código hash basado únicamente en el identificador
      * del huesped.
@@ -2,10 +2,16 @@ package org.docencia.hotel.persistence.jpa.entity;
 
 import java.util.Objects;
 
+import org.docencia.hotel.persistence.jpa.CacheRegions;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -20,7 +26,9 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "hotel")
-public class HotelEntity {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.HOTEL)
+public class HotelEntity extends AssignedIdEntity {
     /**
      * Identificador unico del hotel.
      */
@@ -39,6 +47,12 @@ public class HotelEntity {
      */
     private String address;
 
+    /**
+     * Version de la fila del hotel, para el bloqueo optimista y los ETag.
+     */
+    @Version
+    private Long version;
+
     /**
      * Constructor por defecto
      */
@@ -91,6 +105,14 @@ public class HotelEntity {
         this.address = address;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Calcula el código hash basado únicamente en el identificador
      * del hotel.
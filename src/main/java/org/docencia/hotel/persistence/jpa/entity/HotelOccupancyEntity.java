@@ -0,0 +1,116 @@
+package org.docencia.hotel.persistence.jpa.entity;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Contador de habitaciones ocupadas de un hotel en una noche.
+ *
+ * Esta clase es una entidad JPA que mapea la tabla "hotel_occupancy".
+ * La clave primaria (hotel_id, night) hace que consultar la ocupacion
+ * de un hotel en un rango de fechas sea un recorrido del indice primario.
+ *
+ * Las filas se mantienen de forma incremental desde el servicio de
+ * reservas; las noches sin ocupacion no tienen fila.
+ */
+@Entity
+@Table(name = "hotel_occupancy")
+@IdClass(HotelOccupancyId.class)
+public class HotelOccupancyEntity {
+
+    /**
+     * Identificador del hotel
+     */
+    @Id
+    @Column(name = "hotel_id")
+    private String hotelId;
+
+    /**
+     * Fecha de la noche
+     */
+    @Id
+    @Column(name = "night")
+    private LocalDate night;
+
+    /**
+     * Numero de habitaciones ocupadas esa noche
+     */
+    @Column(name = "occupied_rooms", nullable = false)
+    private int occupiedRooms;
+
+    /**
+     * Constructor por defecto
+     */
+    public HotelOccupancyEntity() {
+    }
+
+    /**
+     * Constructor con todos los atributos
+     * 
+     * @param hotelId Identificador del hotel
+     * @param night Fecha de la noche
+     * @param occupiedRooms Numero de habitaciones ocupadas
+     */
+    public HotelOccupancyEntity(String hotelId, LocalDate night, int occupiedRooms) {
+        this.hotelId = hotelId;
+        this.night = night;
+        this.occupiedRooms = occupiedRooms;
+    }
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(String hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public void setNight(LocalDate night) {
+        this.night = night;
+    }
+
+    public int getOccupiedRooms() {
+        return occupiedRooms;
+    }
+
+    public void setOccupiedRooms(int occupiedRooms) {
+        this.occupiedRooms = occupiedRooms;
+    }
+
+    /**
+     * Calcula el código hash a partir de la clave compuesta.
+     *
+     * @return hash del contador.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(hotelId, night);
+    }
+
+    /**
+     * Dos contadores se consideran iguales si comparten
+     * hotel y noche.
+     *
+     * @param obj objeto a comparar
+     * @return true si ambos contadores tienen la misma clave
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof HotelOccupancyEntity other))
+            return false;
+        return hotelId != null && night != null
+                && hotelId.equals(other.hotelId) && night.equals(other.night);
+    }
+}
@@ -0,0 +1,62 @@
+package org.docencia.hotel.persistence.jpa.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Clave primaria compuesta de HotelOccupancyEntity: hotel y noche.
+ */
+public class HotelOccupancyId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identificador del hotel
+     */
+    private String hotelId;
+
+    /**
+     * Fecha de la noche
+     */
+    private LocalDate night;
+
+    /**
+     * Constructor por defecto
+     */
+    public HotelOccupancyId() {
+    }
+
+    /**
+     * Constructor con todos los atributos
+     * 
+     * @param hotelId Identificador del hotel
+     * @param night Fecha de la noche
+     */
+    public HotelOccupancyId(String hotelId, LocalDate night) {
+        this.hotelId = hotelId;
+        this.night = night;
+    }
+
+    public String getHotelId() {
+        return hotelId;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hotelId, night);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof HotelOccupancyId other))
+            return false;
+        return Objects.equals(hotelId, other.hotelId) && Objects.equals(night, other.night);
+    }
+}
@@ -2,6 +2,12 @@ package org.docencia.hotel.persistence.jpa.entity;
 
 import java.util.Objects;
 
+import org.docencia.hotel.persistence.jpa.CacheRegions;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -9,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -19,7 +26,9 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "room")
-public class RoomEntity {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ROOM)
+public class RoomEntity extends AssignedIdEntity {
     /**
      * Identificador unico de las habitaiones
      */
@@ -44,10 +53,36 @@ public class RoomEntity {
     @Column(name = "price_per_night")
     private double pricePerNight;
 
+    /**
+     * Indica si se permite fumar en la habitacion
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean smoking;
+
+    /**
+     * Tipo de cama de la habitacion
+     */
+    @Column(name = "bed_type")
+    private String bedType;
+
+    /**
+     * Indica si la habitacion esta adaptada para personas con movilidad reducida
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean accessible;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "hotel_id", nullable = false)
     private HotelEntity hotel;
 
+    /**
+     * Version de la fila de la habitacion, para el bloqueo optimista y los ETag.
+     */
+    @Version
+    private Long version;
+
     /**
      * Constructor por defecto
      */
@@ -112,6 +147,30 @@ public class RoomEntity {
         this.pricePerNight = pricePerNight;
     }
 
+    public boolean isSmoking() {
+        return smoking;
+    }
+
+    public void setSmoking(boolean smoking) {
+        this.smoking = smoking;
+    }
+
+    public String getBedType() {
+        return bedType;
+    }
+
+    public void setBedType(String bedType) {
+        this.bedType = bedType;
+    }
+
+    public boolean isAccessible() {
+        return accessible;
+    }
+
+    public void setAccessible(boolean accessible) {
+        this.accessible = accessible;
+    }
+
     public HotelEntity getHotel() {
         return hotel;
     }
@@ -120,6 +179,14 @@ public class RoomEntity {
         this.hotel = hotel;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Genera un hash code basado en el identificador unico de la habitacion.
      */
@@ -0,0 +1,12 @@
+package org.docencia.hotel.persistence.jpa.projection;
+
+/**
+ * Proyeccion con el numero de filas que coinciden con cada referencia
+ * de una reserva: su huesped, su habitacion y su propio id.
+ *
+ * @param guests   Huespedes con el id indicado (0 o 1)
+ * @param rooms    Habitaciones con el id indicado (0 o 1)
+ * @param bookings Reservas con el id indicado (0 o 1)
+ */
+public record BookingReferences(long guests, long rooms, long bookings) {
+}
@@ -0,0 +1,17 @@
+package org.docencia.hotel.persistence.jpa.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Proyeccion de solo lectura con las columnas de una reserva.
+ * No es una entidad gestionada: no ocupa el contexto de persistencia
+ * ni se compara al hacer flush.
+ *
+ * @param id       Identificador de la reserva
+ * @param roomId   Identificador de la habitacion
+ * @param guestId  Identificador del huesped
+ * @param checkIn  Fecha de entrada
+ * @param checkOut Fecha de salida (excluida)
+ */
+public record BookingRow(String id, String roomId, String guestId, LocalDate checkIn, LocalDate checkOut) {
+}
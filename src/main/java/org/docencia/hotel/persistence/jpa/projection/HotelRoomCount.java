@@ -0,0 +1,10 @@
+package org.docencia.hotel.persistence.jpa.projection;
+
+/**
+ * Proyeccion con el numero de habitaciones de un hotel.
+ *
+ * @param hotelId Identificador del hotel
+ * @param rooms   Numero de habitaciones
+ */
+public record HotelRoomCount(String hotelId, long rooms) {
+}
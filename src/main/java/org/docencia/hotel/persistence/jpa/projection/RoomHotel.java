@@ -0,0 +1,10 @@
+package org.docencia.hotel.persistence.jpa.projection;
+
+/**
+ * Proyeccion con el hotel al que pertenece una habitacion.
+ *
+ * @param roomId  Identificador de la habitacion
+ * @param hotelId Identificador del hotel
+ */
+public record RoomHotel(String roomId, String hotelId) {
+}
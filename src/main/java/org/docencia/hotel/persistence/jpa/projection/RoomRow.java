@@ -0,0 +1,19 @@
+package org.docencia.hotel.persistence.jpa.projection;
+
+/**
+ * Proyeccion de solo lectura con las columnas de una habitacion.
+ * No es una entidad gestionada: no ocupa el contexto de persistencia
+ * ni se compara al hacer flush.
+ *
+ * @param id            Identificador de la habitacion
+ * @param number        Numero de la habitacion
+ * @param type          Tipo de habitacion
+ * @param pricePerNight Precio por noche
+ * @param hotelId       Identificador del hotel
+ * @param smoking       Si se permite fumar
+ * @param bedType       Tipo de cama
+ * @param accessible    Si esta adaptada
+ */
+public record RoomRow(String id, String number, String type, double pricePerNight, String hotelId,
+        boolean smoking, String bedType, boolean accessible) {
+}
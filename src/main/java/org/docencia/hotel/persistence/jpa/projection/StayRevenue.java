@@ -0,0 +1,15 @@
+package org.docencia.hotel.persistence.jpa.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Proyeccion de una reserva con fechas junto al hotel y el precio
+ * por noche de la habitacion reservada.
+ *
+ * @param hotelId       Identificador del hotel
+ * @param checkIn       Fecha de entrada
+ * @param checkOut      Fecha de salida (excluida)
+ * @param pricePerNight Precio por noche de la habitacion
+ */
+public record StayRevenue(String hotelId, LocalDate checkIn, LocalDate checkOut, double pricePerNight) {
+}
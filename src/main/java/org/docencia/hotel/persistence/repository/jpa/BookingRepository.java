@@ -1,16 +1,35 @@
 package org.docencia.hotel.persistence.repository.jpa;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
+import org.docencia.hotel.persistence.jpa.projection.BookingReferences;
+import org.docencia.hotel.persistence.jpa.projection.BookingRow;
+import org.docencia.hotel.persistence.jpa.projection.StayRevenue;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio JPA para la entidad BookingEntity.
  * 
  * Proporciona operaciones CRUD y consultas personalizadas
  * para gestionar las reservas en la base de datos relacional.
+ * 
+ * Las consultas de listado devuelven proyecciones BookingRow en lugar de
+ * entidades: se leen las columnas directamente, sin entidades gestionadas
+ * ni la copia que Hibernate guarda de cada una para detectar cambios.
  */
 @Repository
 public interface BookingRepository extends JpaRepository<BookingEntity, String> {
@@ -40,43 +59,250 @@ public interface BookingRepository extends JpaRepository<BookingEntity, String>
     boolean existsByRoomHotelId(String hotelId);
 
     /**
-     * Obtiene todas las reservas asociadas a una habitación específica.
+     * Obtiene la siguiente página de reservas ordenadas por id,
+     * empezando después del id indicado (paginación por clave).
+     * 
+     * @param after Último id de la página anterior ("" para la primera).
+     * @param limit Tamaño máximo de la página.
+     * @return Reservas de la página.
+     */
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            where b.id > :after
+            order by b.id
+            """)
+    List<BookingRow> findRowsAfter(@Param("after") String after, Limit limit);
+
+    /**
+     * Obtiene la siguiente página de reservas de una habitación, ordenadas por id.
      * 
      * @param roomId ID de la habitación.
-     * @return Lista de reservas asociadas a la habitación.
+     * @param after  Último id de la página anterior ("" para la primera).
+     * @param limit  Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<BookingEntity> findByRoomId(String roomId);
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            where b.room.id = :roomId
+              and b.id > :after
+            order by b.id
+            """)
+    List<BookingRow> findRowsByRoomIdAfter(@Param("roomId") String roomId, @Param("after") String after,
+            Limit limit);
 
     /**
-     * Obtiene todas las reservas asociadas a un huésped específico.
+     * Obtiene la siguiente página de reservas de un huésped, ordenadas por id.
      * 
      * @param guestId ID del huésped.
-     * @return Lista de reservas asociadas al huésped.
+     * @param after   Último id de la página anterior ("" para la primera).
+     * @param limit   Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<BookingEntity> findByGuestId(String guestId);
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            where b.guest.id = :guestId
+              and b.id > :after
+            order by b.id
+            """)
+    List<BookingRow> findRowsByGuestIdAfter(@Param("guestId") String guestId, @Param("after") String after,
+            Limit limit);
 
     /**
-     * Obtiene todas las reservas asociadas a un hotel específico
-     * a través de las habitaciones vinculadas a ese hotel.
+     * Obtiene la siguiente página de reservas de un hotel, a través de sus
+     * habitaciones, ordenadas por id.
      * 
      * @param hotelId ID del hotel.
-     * @return Lista de reservas asociadas al hotel.
+     * @param after   Último id de la página anterior ("" para la primera).
+     * @param limit   Tamaño máximo de la página.
+     * @return Reservas de la página.
+     */
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            where b.room.hotel.id = :hotelId
+              and b.id > :after
+            order by b.id
+            """)
+    List<BookingRow> findRowsByHotelIdAfter(@Param("hotelId") String hotelId, @Param("after") String after,
+            Limit limit);
+
+    /**
+     * Obtiene las reservas de una habitación que se solapan con el rango [from, to).
+     * 
+     * La salida es exclusiva: una reserva que termina el día from
+     * no se considera solapada. Se resuelve con el índice
+     * (room_id, check_in, check_out).
+     * 
+     * @param roomId ID de la habitación.
+     * @param from Primer día del rango.
+     * @param to Día siguiente al último del rango.
+     * @return Lista de reservas solapadas, ordenadas por fecha de entrada.
+     */
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            where b.room.id = :roomId
+              and b.checkIn < :to
+              and b.checkOut > :from
+            order by b.checkIn
+            """)
+    List<BookingRow> findOverlapping(@Param("roomId") String roomId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Obtiene las llegadas de un hotel en un día concreto, es decir,
+     * las reservas de sus habitaciones cuya fecha de entrada es ese día.
+     * 
+     * @param hotelId ID del hotel.
+     * @param checkIn Día de llegada.
+     * @return Lista de reservas que entran ese día.
+     */
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            where b.room.hotel.id = :hotelId
+              and b.checkIn = :checkIn
+            """)
+    List<BookingRow> findArrivals(@Param("hotelId") String hotelId, @Param("checkIn") LocalDate checkIn);
+
+    /**
+     * Recorre, con un cursor de solo lectura, las reservas que ocupan alguna
+     * noche del rango [from, to) junto al hotel y el precio por noche
+     * de la habitación. El resultado debe consumirse dentro de una
+     * transacción y cerrarse al terminar.
+     * 
+     * @param from Primera noche del rango.
+     * @param to Noche siguiente a la última del rango.
+     * @return Flujo de estancias con su precio por noche.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.StayRevenue(
+                   r.hotel.id, b.checkIn, b.checkOut, r.pricePerNight)
+            from BookingEntity b
+            join b.room r
+            where b.checkIn < :to
+              and b.checkOut > :from
+            """)
+    Stream<StayRevenue> streamStayRevenues(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Obtiene solo la version de una reserva, sin cargar la entidad.
+     * 
+     * @param id Identificador de la reserva
+     * @return Version, o vacio si no existe
+     */
+    @Query("select b.version from BookingEntity b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /**
+     * Obtiene, de entre los ids indicados, los que corresponden a reservas existentes.
+     * 
+     * @param ids IDs de reservas a comprobar.
+     * @return IDs existentes.
+     */
+    @Query("select b.id from BookingEntity b where b.id in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Obtiene los ids de todas las reservas, sin cargar las entidades.
+     * 
+     * @return IDs de todas las reservas.
+     */
+    @Query("select b.id from BookingEntity b")
+    List<String> findAllIds();
+
+    /**
+     * Cuenta, en una sola sentencia, el huésped, la habitación y la reserva
+     * con los ids indicados, para validar las referencias de una escritura
+     * sin tres viajes a la base de datos.
+     * 
+     * @param bookingId ID de la reserva.
+     * @param guestId   ID del huésped.
+     * @param roomId    ID de la habitación.
+     * @return Número de coincidencias de cada referencia.
      */
-    List<BookingEntity> findByRoomHotelId(String hotelId);
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingReferences(
+                (select count(g) from GuestEntity g where g.id = :guestId),
+                (select count(r) from RoomEntity r where r.id = :roomId),
+                (select count(b) from BookingEntity b where b.id = :bookingId))
+            """)
+    BookingReferences findReferences(@Param("bookingId") String bookingId, @Param("guestId") String guestId,
+            @Param("roomId") String roomId);
 
     /**
-     * Elimina todas las reservas asociadas a una habitación específica.
+     * Elimina todas las reservas asociadas a una habitación específica
+     * con una única sentencia DELETE, sin cargar las entidades.
      * 
      * @param roomId ID de la habitación.
      * @return Número de reservas eliminadas.
      */
-    int deleteByRoomId(String roomId);
+    @Modifying
+    @Query("delete from BookingEntity b where b.room.id = :roomId")
+    int deleteByRoomId(@Param("roomId") String roomId);
 
     /**
-     * Elimina todas las reservas asociadas a un huésped específico.
+     * Elimina todas las reservas asociadas a un huésped específico
+     * con una única sentencia DELETE, sin cargar las entidades.
      * 
      * @param guestId ID del huésped.
      * @return Número de reservas eliminadas.
      */
-    int deleteByGuestId(String guestId);
+    @Modifying
+    @Query("delete from BookingEntity b where b.guest.id = :guestId")
+    int deleteByGuestId(@Param("guestId") String guestId);
+
+    /**
+     * Elimina una reserva con una única sentencia DELETE.
+     * 
+     * @param id ID de la reserva.
+     * @return Número de reservas eliminadas (0 o 1).
+     */
+    @Modifying
+    @Query("delete from BookingEntity b where b.id = :id")
+    int removeById(@Param("id") String id);
+
+    /**
+     * Recorre todas las reservas con un cursor de solo lectura, sin cargarlos
+     * todos en memoria. El resultado debe consumirse dentro de una
+     * transacción y cerrarse al terminar.
+     * 
+     * @return Flujo de reservas.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from BookingEntity e")
+    Stream<BookingEntity> streamAll();
+
+    /**
+     * Recorre las estancias de todas las reservas (id, habitación, huésped y
+     * fechas) con un cursor, sin cargar las entidades. El resultado debe
+     * consumirse dentro de una transacción y cerrarse al terminar.
+     * 
+     * @return Flujo de reservas como proyecciones.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.BookingRow(
+                   b.id, b.room.id, b.guest.id, b.checkIn, b.checkOut)
+            from BookingEntity b
+            """)
+    Stream<BookingRow> streamRows();
 }
@@ -1,9 +1,23 @@
 package org.docencia.hotel.persistence.repository.jpa;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
 /**
  * Repositorio JPA para la entidad GuestEntity.
  * 
@@ -13,4 +27,57 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface GuestJpaRepository extends JpaRepository<GuestEntity, String>{
 
+    /**
+     * Obtiene, de entre los ids indicados, los que corresponden a huespedes existentes.
+     * 
+     * @param ids IDs de huespedes a comprobar.
+     * @return IDs existentes.
+     */
+    @Query("select g.id from GuestEntity g where g.id in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Obtiene solo la version de un huesped, sin cargar la entidad.
+     * 
+     * @param id Identificador del huesped
+     * @return Version, o vacio si no existe
+     */
+    @Query("select g.version from GuestEntity g where g.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /**
+     * Incrementa la version de un huesped sin modificar sus columnas, para
+     * reflejar cambios de sus preferencias, que se guardan en Mongo.
+     * 
+     * @param id Identificador del huesped
+     * @return Numero de huespedes actualizados (0 o 1)
+     */
+    @Transactional
+    @Modifying
+    @Query("update GuestEntity g set g.version = g.version + 1 where g.id = :id")
+    int incrementVersion(@Param("id") String id);
+
+    /**
+     * Obtiene la siguiente pagina de huespedes ordenados por id,
+     * empezando despues del id indicado (paginacion por clave).
+     * 
+     * @param after Ultimo id de la pagina anterior ("" para la primera)
+     * @param limit Tamaño maximo de la pagina
+     * @return Huespedes de la pagina
+     */
+    List<GuestEntity> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    /**
+     * Recorre todos los huespedes con un cursor de solo lectura, sin cargarlos
+     * todos en memoria. El resultado debe consumirse dentro de una
+     * transaccion y cerrarse al terminar.
+     * 
+     * @return Flujo de huespedes.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from GuestEntity e")
+    Stream<GuestEntity> streamAll();
 }
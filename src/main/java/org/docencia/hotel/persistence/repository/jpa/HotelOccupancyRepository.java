@@ -0,0 +1,101 @@
+package org.docencia.hotel.persistence.repository.jpa;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.docencia.hotel.persistence.jpa.entity.HotelOccupancyEntity;
+import org.docencia.hotel.persistence.jpa.entity.HotelOccupancyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JPA para la entidad HotelOccupancyEntity.
+ * 
+ * Proporciona la lectura por rango de fechas y la actualizacion
+ * incremental de los contadores de ocupacion diaria por hotel.
+ */
+@Repository
+public interface HotelOccupancyRepository extends JpaRepository<HotelOccupancyEntity, HotelOccupancyId> {
+
+    /**
+     * Obtiene los contadores de un hotel en el rango de noches [from, to).
+     * 
+     * @param hotelId ID del hotel.
+     * @param from Primera noche del rango.
+     * @param to Noche siguiente a la ultima del rango.
+     * @return Contadores existentes, ordenados por noche.
+     */
+    @Query("""
+            select o from HotelOccupancyEntity o
+            where o.hotelId = :hotelId
+              and o.night >= :from
+              and o.night < :to
+            order by o.night
+            """)
+    List<HotelOccupancyEntity> findRange(@Param("hotelId") String hotelId, @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Suma a cada contador (hotel, noche) su delta, creando las filas que
+     * no existan. Las tres listas van en paralelo: la posicion i describe
+     * un mismo contador.
+     * 
+     * Todos los contadores se aplican con un unico MERGE, de forma que el
+     * incremento es atomico por fila aunque varias transacciones
+     * actualicen el mismo hotel.
+     * 
+     * @param hotelIds ID del hotel de cada contador.
+     * @param nights Noche de cada contador.
+     * @param deltas Cantidad a sumar a cada contador (negativa para restar).
+     * @return Numero de filas afectadas.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            MERGE INTO hotel_occupancy o
+            USING (SELECT * FROM UNNEST(CAST(:hotelIds AS VARCHAR(255) ARRAY),
+                                        CAST(:nights AS DATE ARRAY),
+                                        CAST(:deltas AS INTEGER ARRAY)) AS s(hotel_id, night, delta)) s
+            ON o.hotel_id = s.hotel_id AND o.night = s.night
+            WHEN MATCHED THEN
+                UPDATE SET occupied_rooms = o.occupied_rooms + s.delta
+            WHEN NOT MATCHED THEN
+                INSERT (hotel_id, night, occupied_rooms) VALUES (s.hotel_id, s.night, s.delta)
+            """)
+    int addAll(@Param("hotelIds") String[] hotelIds, @Param("nights") LocalDate[] nights,
+            @Param("deltas") Integer[] deltas);
+
+    /**
+     * Elimina los contadores de los hoteles indicados que han quedado a cero.
+     * 
+     * @param hotelIds IDs de los hoteles.
+     * @return Numero de filas eliminadas.
+     */
+    @Modifying
+    @Query("delete from HotelOccupancyEntity o where o.hotelId in :hotelIds and o.occupiedRooms <= 0")
+    int deleteEmpty(@Param("hotelIds") Collection<String> hotelIds);
+
+    /**
+     * Calcula todos los contadores a partir de las reservas con una unica
+     * sentencia: cada reserva se expande en sus noches y se agrupa por
+     * hotel y noche en la propia base de datos.
+     * 
+     * @return Numero de filas insertadas.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO hotel_occupancy (hotel_id, night, occupied_rooms)
+            SELECT r.hotel_id, DATEADD(DAY, n.X, b.check_in), COUNT(*)
+            FROM booking b
+            JOIN room r ON r.id = b.room_id
+            JOIN SYSTEM_RANGE(0, (SELECT COALESCE(MAX(DATEDIFF(DAY, check_in, check_out)), 0) FROM booking)) n
+              ON n.X < DATEDIFF(DAY, b.check_in, b.check_out)
+            WHERE b.check_in IS NOT NULL
+              AND b.check_out IS NOT NULL
+            GROUP BY r.hotel_id, DATEADD(DAY, n.X, b.check_in)
+            """)
+    int insertFromBookings();
+}
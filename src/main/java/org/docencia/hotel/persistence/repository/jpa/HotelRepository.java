@@ -1,9 +1,14 @@
 package org.docencia.hotel.persistence.repository.jpa;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -25,4 +30,34 @@ public interface HotelRepository extends JpaRepository<HotelEntity, String> {
      * @return Lista de hoteles que coinciden con el nombre 
      */
     List<HotelEntity> findByHotelName(String hotelName);
+
+    /**
+     * Obtiene la siguiente pagina de hoteles ordenados por id,
+     * empezando despues del id indicado (paginacion por clave).
+     * 
+     * @param after Ultimo id de la pagina anterior ("" para la primera)
+     * @param limit Tamaño maximo de la pagina
+     * @return Hoteles de la pagina
+     */
+    List<HotelEntity> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    /**
+     * Obtiene solo la version de un hotel, sin cargar la entidad.
+     * 
+     * @param id Identificador del hotel
+     * @return Version, o vacio si no existe
+     */
+    @Query("select h.version from HotelEntity h where h.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /**
+     * Elimina un hotel con una unica sentencia DELETE, sin cargarlo
+     * ni comprobar antes si existe.
+     * 
+     * @param id Identificador del hotel
+     * @return Numero de hoteles eliminados (0 o 1)
+     */
+    @Modifying
+    @Query("delete from HotelEntity h where h.id = :id")
+    int removeById(@Param("id") String id);
 }
@@ -1,11 +1,26 @@
 package org.docencia.hotel.persistence.repository.jpa;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.docencia.hotel.persistence.jpa.CacheRegions;
 import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.HotelRoomCount;
+import org.docencia.hotel.persistence.jpa.projection.RoomHotel;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio JPA para la entidad RoomEntity.
  * 
@@ -15,26 +30,163 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface RoomRepository extends JpaRepository<RoomEntity, String> {
     /**
-     * Encuentra todas las habitaciones que pertenecen a un hotel específico.
+     * Encuentra todas las habitaciones que pertenecen a un hotel específico,
+     * como proyecciones de solo lectura (sin entidades gestionadas).
+     * 
+     * El resultado se guarda en la cache de consultas y se invalida
+     * con cualquier escritura en la tabla de habitaciones.
      * 
      * @param hotelId Identificador del hotel
      * @return Lista de habitaciones asociadas al hotel
      */
-    List<RoomEntity> findByHotel_Id(String hotelId);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.ROOM_QUERIES)
+    })
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.RoomRow(
+                   r.id, r.number, r.type, r.pricePerNight, r.hotel.id, r.smoking, r.bedType, r.accessible)
+            from RoomEntity r
+            where r.hotel.id = :hotelId
+            """)
+    List<RoomRow> findRowsByHotelId(@Param("hotelId") String hotelId);
 
     /**
-     * Encuentra todas las habitaciones de un hotel en especifico y con un tipo determinado.
-     * @param hotelId
-     * @param type
-     * @return
+     * Encuentra todas las habitaciones de un hotel en especifico y con un tipo determinado,
+     * como proyecciones de solo lectura.
+     * 
+     * @param hotelId Identificador del hotel
+     * @param type    Tipo de habitacion
+     * @return Lista de habitaciones del hotel con ese tipo
      */
-    List<RoomEntity> findByHotel_IdAndType(String hotelId, String type);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.ROOM_QUERIES)
+    })
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.RoomRow(
+                   r.id, r.number, r.type, r.pricePerNight, r.hotel.id, r.smoking, r.bedType, r.accessible)
+            from RoomEntity r
+            where r.hotel.id = :hotelId
+              and r.type = :type
+            """)
+    List<RoomRow> findRowsByHotelIdAndType(@Param("hotelId") String hotelId, @Param("type") String type);
 
     /**
-     * Elimina todas las habitaciones asociadas a un hotel específico.
+     * Elimina todas las habitaciones asociadas a un hotel específico
+     * con una única sentencia DELETE, sin cargar las entidades.
      * 
      * @param hotelId Identificador del hotel
      * @return Número de habitaciones eliminadas
      */
-    int deleteByHotel_Id(String hotelId);
+    @Modifying
+    @Query("delete from RoomEntity r where r.hotel.id = :hotelId")
+    int deleteByHotel_Id(@Param("hotelId") String hotelId);
+
+    /**
+     * Elimina una habitación con una única sentencia DELETE.
+     * 
+     * @param id Identificador de la habitación
+     * @return Número de habitaciones eliminadas (0 o 1)
+     */
+    @Modifying
+    @Query("delete from RoomEntity r where r.id = :id")
+    int removeById(@Param("id") String id);
+
+    /**
+     * Obtiene solo la version de una habitacion, sin cargar la entidad.
+     * 
+     * @param id Identificador de la habitacion
+     * @return Version, o vacio si no existe
+     */
+    @Query("select r.version from RoomEntity r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /**
+     * Obtiene con una sola consulta el hotel de cada una de las habitaciones indicadas.
+     * 
+     * @param roomIds Identificadores de las habitaciones
+     * @return Hotel de cada habitacion existente
+     */
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.RoomHotel(r.id, r.hotel.id)
+            from RoomEntity r
+            where r.id in :roomIds
+            """)
+    List<RoomHotel> findHotelIdsByIds(@Param("roomIds") Collection<String> roomIds);
+
+    /**
+     * Cuenta las habitaciones de cada hotel que tiene al menos una.
+     * 
+     * @return Numero de habitaciones por hotel, ordenado por id de hotel
+     */
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.HotelRoomCount(r.hotel.id, count(r))
+            from RoomEntity r
+            group by r.hotel.id
+            order by r.hotel.id
+            """)
+    List<HotelRoomCount> countRoomsByHotel();
+
+    /**
+     * Obtiene, de entre los ids indicados, los que corresponden a habitaciones existentes.
+     * 
+     * @param ids Identificadores de habitaciones a comprobar
+     * @return Identificadores existentes
+     */
+    @Query("select r.id from RoomEntity r where r.id in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Obtiene la siguiente pagina de habitaciones ordenadas por id,
+     * empezando despues del id indicado (paginacion por clave),
+     * como proyecciones de solo lectura.
+     * 
+     * @param after Ultimo id de la pagina anterior ("" para la primera)
+     * @param limit Tamaño maximo de la pagina
+     * @return Habitaciones de la pagina
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.ROOM_QUERIES)
+    })
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.RoomRow(
+                   r.id, r.number, r.type, r.pricePerNight, r.hotel.id, r.smoking, r.bedType, r.accessible)
+            from RoomEntity r
+            where r.id > :after
+            order by r.id
+            """)
+    List<RoomRow> findRowsAfter(@Param("after") String after, Limit limit);
+
+    /**
+     * Recorre todas las habitaciones con un cursor de solo lectura, sin cargarlos
+     * todos en memoria. El resultado debe consumirse dentro de una
+     * transacción y cerrarse al terminar.
+     * 
+     * @return Flujo de habitaciones.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from RoomEntity e")
+    Stream<RoomEntity> streamAll();
+
+    /**
+     * Recorre todas las habitaciones como proyecciones de solo lectura con un
+     * cursor, sin cargar las entidades. El resultado debe consumirse dentro
+     * de una transacción y cerrarse al terminar.
+     * 
+     * @return Flujo de habitaciones como proyecciones.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")
+    })
+    @Query("""
+            select new org.docencia.hotel.persistence.jpa.projection.RoomRow(
+                   r.id, r.number, r.type, r.pricePerNight, r.hotel.id, r.smoking, r.bedType, r.accessible)
+            from RoomEntity r
+            """)
+    Stream<RoomRow> streamRows();
 }
@@ -1,15 +1,28 @@
 package org.docencia.hotel.persistence.repository.nosql;
 
+import java.util.stream.Stream;
+
 import org.docencia.hotel.persistence.nosql.document.GuestPreferencesDocument;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 /**
  * Repositorio NoSQL para el documento GuestPreferencesDocument.
- * 
+ *
  * Proporciona operaciones CRUD y consultas personalizadas
  * para gestionar los datos de las preferencias de los huespedes
  * en la base de datos MongoDB.
  */
 public interface GuestPreferencesRepository extends MongoRepository<GuestPreferencesDocument, String>{
 
+    /**
+     * Recorre todas las preferencias con un unico cursor, sin cargarlas
+     * todas en memoria. El flujo debe cerrarse al terminar.
+     *
+     * @return Flujo de preferencias.
+     */
+    @Meta(cursorBatchSize = 1000)
+    @Query("{}")
+    Stream<GuestPreferencesDocument> streamAll();
 }
@@ -0,0 +1,17 @@
+package org.docencia.hotel.persistence.routing;
+
+/**
+ * Base de datos a la que se dirige una conexion.
+ */
+public enum DataSourceRoute {
+
+    /**
+     * Base de datos principal; recibe todas las escrituras.
+     */
+    PRIMARY,
+
+    /**
+     * Replica de solo lectura, con un retraso acotado respecto a la principal.
+     */
+    REPLICA
+}
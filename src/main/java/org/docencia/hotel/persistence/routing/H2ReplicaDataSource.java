@@ -0,0 +1,124 @@
+package org.docencia.hotel.persistence.routing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import javax.sql.DataSource;
+
+import org.docencia.hotel.persistence.jpa.H2Scripts;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Replica local de solo lectura, alimentada copiando periodicamente la
+ * base de datos principal.
+ *
+ * Hace las veces de una replica real para poder probar el enrutado de
+ * lecturas sin otro servidor. Tiene dos bases de datos H2 en memoria: cada
+ * sincronizacion vuelca la principal con SCRIPT, la carga en la que no
+ * esta en uso y despues cambia a ella, de forma que las lecturas nunca ven
+ * una copia a medias. El retraso de la replica es el tiempo transcurrido
+ * desde el volcado que esta sirviendo.
+ */
+public class H2ReplicaDataSource extends AbstractDataSource {
+
+    /**
+     * Base de datos principal, de la que se copia.
+     */
+    private final DataSource primary;
+
+    /**
+     * Las dos copias entre las que se alterna.
+     */
+    private final DataSource[] slots;
+
+    /**
+     * Reloj usado para medir el retraso.
+     */
+    private final Clock clock;
+
+    /**
+     * Copia que sirve las lecturas.
+     */
+    private volatile int active;
+
+    /**
+     * Instante del volcado que sirve la copia activa; null hasta la primera sincronizacion.
+     */
+    private volatile Instant syncedAt;
+
+    /**
+     * Constructor de la replica.
+     *
+     * @param primary Base de datos principal
+     * @param slotA   Primera copia
+     * @param slotB   Segunda copia
+     * @param clock   Reloj
+     */
+    public H2ReplicaDataSource(DataSource primary, DataSource slotA, DataSource slotB, Clock clock) {
+        this.primary = primary;
+        this.slots = new DataSource[] { slotA, slotB };
+        this.clock = clock;
+    }
+
+    /**
+     * Copia la base de datos principal en la copia inactiva y pasa a servir las lecturas desde ella.
+     *
+     * @return Instante del volcado
+     */
+    @Scheduled(fixedDelayString = "${hotel.replica.sync-millis:5000}")
+    public synchronized Instant sync() {
+        Instant dumpedAt = clock.instant();
+        int next = 1 - active;
+        Path file;
+
+        try {
+            file = Files.createTempFile("hotel-replica-", ".zip");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            H2Scripts.dump(primary, file);
+            H2Scripts.load(slots[next], file, true);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        active = next;
+        syncedAt = dumpedAt;
+        return dumpedAt;
+    }
+
+    /**
+     * Devuelve el retraso de la replica respecto a la principal.
+     *
+     * @return Tiempo desde el volcado que sirve la replica; ilimitado si aun no se ha sincronizado
+     */
+    public Duration lag() {
+        Instant at = syncedAt;
+        return at == null ? ChronoUnit.FOREVER.getDuration() : Duration.between(at, clock.instant());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return slots[active].getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return slots[active].getConnection(username, password);
+    }
+}
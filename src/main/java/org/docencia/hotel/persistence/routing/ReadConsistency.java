@@ -0,0 +1,45 @@
+package org.docencia.hotel.persistence.routing;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Retraso maximo de la replica que admite la peticion en curso.
+ *
+ * Lo fija ReadConsistencyFilter a partir de la cabecera X-Max-Staleness y
+ * lo consulta ReadWriteRoutingDataSource al elegir la base de datos de una
+ * transaccion de solo lectura. Sin valor se aplica el retraso por defecto.
+ */
+public final class ReadConsistency {
+
+    private static final ThreadLocal<Duration> MAX_STALENESS = new ThreadLocal<>();
+
+    private ReadConsistency() {
+    }
+
+    /**
+     * Fija el retraso maximo para el hilo actual.
+     *
+     * @param maxStaleness Retraso maximo; cero obliga a leer de la principal
+     */
+    public static void setMaxStaleness(Duration maxStaleness) {
+        if (maxStaleness == null || maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("max staleness must be zero or positive");
+        }
+        MAX_STALENESS.set(maxStaleness);
+    }
+
+    /**
+     * @return Retraso maximo fijado para el hilo actual, o vacio si no hay ninguno
+     */
+    public static Optional<Duration> maxStaleness() {
+        return Optional.ofNullable(MAX_STALENESS.get());
+    }
+
+    /**
+     * Quita el retraso maximo del hilo actual.
+     */
+    public static void clear() {
+        MAX_STALENESS.remove();
+    }
+}
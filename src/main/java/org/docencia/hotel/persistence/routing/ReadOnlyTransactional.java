@@ -0,0 +1,29 @@
+package org.docencia.hotel.persistence.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transaccion de solo lectura, que puede servirse desde la replica.
+ *
+ * jakarta.transaction.Transactional no tiene atributo readOnly, asi que las
+ * lecturas se marcan con esta anotacion en lugar de con la de Spring, que
+ * chocaria de nombre con la que ya usan los servicios para las escrituras.
+ * Si el metodo se invoca dentro de una transaccion de escritura se une a
+ * ella y lee de la base de datos principal.
+ *
+ * Solo las transacciones abiertas con esta anotacion pueden ir a la
+ * replica; las de solo lectura que abre Spring Data por su cuenta van a la
+ * principal (ver ReplicaReads).
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true, label = ReplicaReads.LABEL)
+public @interface ReadOnlyTransactional {
+}
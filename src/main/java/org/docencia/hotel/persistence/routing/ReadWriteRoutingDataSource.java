@@ -0,0 +1,65 @@
+package org.docencia.hotel.persistence.routing;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Origen de conexiones que envia las transacciones de solo lectura abiertas
+ * con @ReadOnlyTransactional a la replica y todo lo demas, incluidas las de
+ * solo lectura que abre Spring Data por su cuenta, a la base de datos
+ * principal.
+ *
+ * La replica solo se usa si su retraso no supera el maximo de la peticion
+ * (ReadConsistency) o, si la peticion no fija ninguno, el maximo por
+ * defecto; si no, la lectura tambien va a la principal.
+ *
+ * La ruta se decide al pedir la conexion, asi que este origen debe
+ * envolverse en un LazyConnectionDataSourceProxy: el gestor de transacciones
+ * pide la conexion antes de marcar la transaccion como de solo lectura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Replica, que informa de su retraso.
+     */
+    private final H2ReplicaDataSource replica;
+
+    /**
+     * Retraso maximo de la replica cuando la peticion no fija ninguno.
+     */
+    private final Duration defaultMaxStaleness;
+
+    /**
+     * Constructor del origen de conexiones.
+     *
+     * @param primary             Base de datos principal
+     * @param replica             Replica de solo lectura
+     * @param defaultMaxStaleness Retraso maximo por defecto de la replica
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, H2ReplicaDataSource replica, Duration defaultMaxStaleness) {
+        if (defaultMaxStaleness == null || defaultMaxStaleness.isNegative()) {
+            throw new IllegalArgumentException("max staleness must be zero or positive");
+        }
+        this.replica = replica;
+        this.defaultMaxStaleness = defaultMaxStaleness;
+
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected DataSourceRoute determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !ReplicaReads.allowed()) {
+            return DataSourceRoute.PRIMARY;
+        }
+
+        Duration maxStaleness = ReadConsistency.maxStaleness().orElse(defaultMaxStaleness);
+        return replica.lag().compareTo(maxStaleness) < 0 ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+    }
+}
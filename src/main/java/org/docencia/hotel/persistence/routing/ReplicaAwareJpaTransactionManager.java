@@ -0,0 +1,55 @@
+package org.docencia.hotel.persistence.routing;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Gestor de transacciones JPA para el perfil replica.
+ *
+ * Al empezar cada transaccion fisica anota en ReplicaReads si puede leer de
+ * la replica: solo las de solo lectura abiertas con @ReadOnlyTransactional.
+ *
+ * Una transaccion de solo lectura puede leer de la replica, que va
+ * atrasada; si guardase lo leido en la cache de segundo nivel, que es
+ * compartida, las lecturas posteriores de la principal verian datos
+ * antiguos. Por eso esas transacciones usan la cache en modo GET: leen de
+ * ella pero no la rellenan.
+ */
+public class ReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        boolean replicaReads = definition.isReadOnly()
+                && definition instanceof TransactionAttribute attribute
+                && attribute.getLabels().contains(ReplicaReads.LABEL);
+        ReplicaReads.begin(replicaReads);
+        if (replicaReads) {
+            session().setCacheMode(CacheMode.GET);
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        // Con open-in-view la sesion sobrevive a la transaccion
+        Session session = session();
+        if (session != null && session.getCacheMode() == CacheMode.GET) {
+            session.setCacheMode(CacheMode.NORMAL);
+        }
+
+        ReplicaReads.end();
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private Session session() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                .getResource(obtainEntityManagerFactory());
+        return holder == null ? null : holder.getEntityManager().unwrap(Session.class);
+    }
+}
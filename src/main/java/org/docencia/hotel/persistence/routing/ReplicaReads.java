@@ -0,0 +1,55 @@
+package org.docencia.hotel.persistence.routing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Indica si la transaccion fisica en curso del hilo puede leer de la replica.
+ *
+ * Solo pueden hacerlo las abiertas con @ReadOnlyTransactional, que llevan la
+ * etiqueta LABEL. Las transacciones de solo lectura que abre Spring Data por
+ * su cuenta (findById, existsById...) no la llevan y leen de la principal:
+ * quien las llama suele ir a escribir justo despues con lo que leyo.
+ *
+ * Se guarda una pila porque una transaccion REQUIRES_NEW suspende la actual
+ * y, al terminar, la anterior vuelve a decidir por su cuenta.
+ */
+final class ReplicaReads {
+
+    /**
+     * Etiqueta de las transacciones que pueden leer de la replica.
+     */
+    static final String LABEL = "replica-reads";
+
+    private static final ThreadLocal<Deque<Boolean>> ALLOWED = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * Registra el comienzo de una transaccion fisica.
+     *
+     * @param allowed Si la transaccion puede leer de la replica
+     */
+    static void begin(boolean allowed) {
+        ALLOWED.get().push(allowed);
+    }
+
+    /**
+     * Registra el final de la ultima transaccion fisica comenzada.
+     */
+    static void end() {
+        Deque<Boolean> stack = ALLOWED.get();
+        stack.poll();
+        if (stack.isEmpty()) {
+            ALLOWED.remove();
+        }
+    }
+
+    /**
+     * @return true si la transaccion en curso puede leer de la replica
+     */
+    static boolean allowed() {
+        return Boolean.TRUE.equals(ALLOWED.get().peek());
+    }
+}
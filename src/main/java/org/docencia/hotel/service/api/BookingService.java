@@ -1,7 +1,9 @@
 package org.docencia.hotel.service.api;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.docencia.hotel.domain.model.Booking;
 
@@ -14,12 +16,50 @@ import org.docencia.hotel.domain.model.Booking;
  */
 public interface BookingService {
     /** 
-     * Guarda una reserva.
+     * Guarda una reserva. Si ya existe, actualiza la fila cargada.
      * 
-     * @param booking Reserva a guardar.
+     * @param booking         Reserva a guardar.
+     * @param expectedVersion Versión que el cliente espera modificar, o null para no comprobarla.
      * @return Reserva guardada.
+     * @throws VersionMismatchException si la reserva
+     *         ya no está en la versión esperada.
      */
-    Booking save(Booking booking);
+    Booking save(Booking booking, Long expectedVersion);
+
+    /**
+     * Inserta un lote de reservas nuevas en una sola transacción. El
+     * llamador garantiza que ninguna existe todavía.
+     * 
+     * @param bookings Reservas a guardar.
+     * @return Reservas guardadas, en el mismo orden.
+     */
+    List<Booking> saveAll(List<Booking> bookings);
+
+    /**
+     * Guarda una reserva nueva. En la misma transacción que la inserción,
+     * y con una sola consulta, comprueba que el huésped y la habitación
+     * existen y que el id de la reserva no está en uso.
+     * 
+     * @param booking Reserva a insertar.
+     * @return Reserva guardada.
+     * @throws IllegalArgumentException si el huésped o la habitación no existen.
+     * @throws IllegalStateException    si ya existe una reserva con ese id.
+     */
+    Booking insert(Booking booking);
+
+    /**
+     * Guarda los cambios de una reserva existente. En la misma transacción
+     * que la escritura, y con una sola consulta, comprueba que la reserva,
+     * el huésped y la habitación existen.
+     * 
+     * @param booking         Reserva a actualizar, con su id.
+     * @param expectedVersion Versión que el cliente espera modificar, o null para no comprobarla.
+     * @return Reserva guardada.
+     * @throws IllegalArgumentException si la reserva, el huésped o la habitación no existen.
+     * @throws VersionMismatchException si la reserva
+     *         ya no está en la versión esperada.
+     */
+    Booking update(Booking booking, Long expectedVersion);
 
     /**
      * Verifica si una reserva existe por su ID.
@@ -29,6 +69,15 @@ public interface BookingService {
      */
     boolean existsById(String id);
 
+    /**
+     * Obtiene, de entre los ids indicados, los que corresponden a reservas
+     * existentes, con una sola consulta.
+     * 
+     * @param ids IDs de reservas.
+     * @return IDs existentes.
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
     /**
      * Verifica si existen reservas asociadas a un huésped específico.
      * 
@@ -54,11 +103,38 @@ public interface BookingService {
     boolean existsByHotelId(String hotelId);
 
     /**
-     * Obtiene todas las reservas.
+     * Verifica si una habitación tiene alguna reserva que se solape
+     * con el rango de fechas [checkIn, checkOut).
      * 
-     * @return Lista de todas las reservas.
+     * @param roomId           ID de la habitación.
+     * @param checkIn          Fecha de entrada en formato yyyy-MM-dd.
+     * @param checkOut         Fecha de salida en formato yyyy-MM-dd.
+     * @param excludeBookingId ID de una reserva a ignorar (por ejemplo, la que se modifica), o null.
+     * @return true si existe una reserva solapada, false en caso contrario.
      */
-    List<Booking> findAll();
+    boolean existsOverlappingBooking(String roomId, String checkIn, String checkOut, String excludeBookingId);
+
+    /**
+     * Ordena las habitaciones libres en el rango [checkIn, checkOut) de mejor
+     * a peor encaje: primero las que dejan menos noches sueltas entre la
+     * nueva estancia y las reservas anterior y siguiente.
+     * Las habitaciones ocupadas en el rango se descartan.
+     * 
+     * @param roomIds  IDs de las habitaciones candidatas.
+     * @param checkIn  Fecha de entrada en formato yyyy-MM-dd.
+     * @param checkOut Fecha de salida en formato yyyy-MM-dd.
+     * @return IDs de las habitaciones libres, de mejor a peor encaje.
+     */
+    List<String> rankRoomsByFit(Collection<String> roomIds, String checkIn, String checkOut);
+
+    /**
+     * Obtiene una página de reservas ordenadas por id.
+     * 
+     * @param after Último id de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Reservas de la página.
+     */
+    List<Booking> findAll(String after, int limit);
 
     /**
      * Obtiene una reserva por su ID.
@@ -69,28 +145,61 @@ public interface BookingService {
     Optional<Booking> findById(String id);
 
     /**
-     * Obtiene todas las reservas asociadas a una habitación específica.
+     * Obtiene la versión actual de una reserva, sin cargarla.
+     * 
+     * @param id ID de la reserva.
+     * @return Versión, o vacío si no existe.
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * Obtiene una página de las reservas asociadas a una habitación, ordenadas por id.
      * 
      * @param roomId ID de la habitación.
-     * @return Lista de reservas asociadas a la habitación.
+     * @param after  Último id de la página anterior, o null para la primera.
+     * @param limit  Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<Booking> findAllByRoomId(String roomId);
+    List<Booking> findAllByRoomId(String roomId, String after, int limit);
 
     /**
-     * Obtiene todas las reservas asociadas a un huésped específico.
+     * Obtiene una página de las reservas asociadas a un huésped, ordenadas por id.
      * 
      * @param guestId ID del huésped.
-     * @return Lista de reservas asociadas al huésped.
+     * @param after   Último id de la página anterior, o null para la primera.
+     * @param limit   Tamaño máximo de la página.
+     * @return Reservas de la página.
      */
-    List<Booking> findAllByGuestId(String guestId);
+    List<Booking> findAllByGuestId(String guestId, String after, int limit);
 
     /**
-     * Obtiene todas las reservas asociadas a un hotel específico.
+     * Obtiene una página de las reservas asociadas a un hotel, ordenadas por id.
      * 
      * @param hotelId ID del hotel.
-     * @return Lista de reservas asociadas al hotel.
+     * @param after   Último id de la página anterior, o null para la primera.
+     * @param limit   Tamaño máximo de la página.
+     * @return Reservas de la página.
+     */
+    List<Booking> findAllByHotelId(String hotelId, String after, int limit);
+
+    /**
+     * Obtiene las reservas de una habitación que se solapan con el rango [from, to).
+     *
+     * @param roomId ID de la habitación.
+     * @param from   Primer día del rango en formato yyyy-MM-dd.
+     * @param to     Día siguiente al último del rango en formato yyyy-MM-dd.
+     * @return Lista de reservas solapadas, ordenadas por fecha de entrada.
+     */
+    List<Booking> findAllByRoomIdBetween(String roomId, String from, String to);
+
+    /**
+     * Obtiene las reservas de un hotel cuya fecha de entrada es el día indicado.
+     *
+     * @param hotelId ID del hotel.
+     * @param date    Día de llegada en formato yyyy-MM-dd.
+     * @return Lista de llegadas del día.
      */
-    List<Booking> findAllByHotelId(String hotelId);
+    List<Booking> findArrivalsByHotelId(String hotelId, String date);
 
     /**
      * Elimina una reserva por su ID.
@@ -0,0 +1,37 @@
+package org.docencia.hotel.service.api;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+
+/**
+ * Interfaz que define las operaciones del servicio de estadisticas
+ * de la cache de segundo nivel.
+ */
+public interface CacheStatisticsService {
+
+    /**
+     * Devuelve los contadores de cada region de entidades y de consultas.
+     *
+     * @return Contadores por region, en orden fijo
+     */
+    List<CacheRegionStats> findRegionStatistics();
+
+    /**
+     * Devuelve los contadores de las caches de existencia de hoteles,
+     * habitaciones y huespedes.
+     *
+     * @return Contadores por cache, en orden fijo
+     */
+    List<ExistenceCacheStats> findExistenceStatistics();
+
+    /**
+     * Devuelve las tasas de falsos positivos configurada y estimada, la
+     * memoria ocupada y las respuestas del filtro de ids de reserva.
+     *
+     * @return Estadisticas del filtro
+     */
+    BookingIdFilterStats findBookingIdFilterStatistics();
+}
@@ -0,0 +1,41 @@
+package org.docencia.hotel.service.api;
+
+import java.util.function.Consumer;
+
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.Room;
+
+/**
+ * Interfaz que define las operaciones del servicio de exportacion.
+ *
+ * Cada exportacion recorre la tabla completa con un cursor y entrega
+ * los elementos uno a uno a medida que se leen, sin acumularlos en
+ * memoria, para volcados completos de gran tamaño.
+ */
+public interface ExportService {
+
+    /**
+     * Entrega todas las reservas, en el orden en que las devuelve la base de datos.
+     *
+     * @param sink Destino de cada reserva
+     * @return Numero de reservas exportadas
+     */
+    long exportBookings(Consumer<Booking> sink);
+
+    /**
+     * Entrega todos los huespedes con sus preferencias.
+     *
+     * @param sink Destino de cada huesped
+     * @return Numero de huespedes exportados
+     */
+    long exportGuests(Consumer<Guest> sink);
+
+    /**
+     * Entrega todas las habitaciones.
+     *
+     * @param sink Destino de cada habitacion
+     * @return Numero de habitaciones exportadas
+     */
+    long exportRooms(Consumer<Room> sink);
+}
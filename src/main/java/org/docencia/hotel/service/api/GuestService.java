@@ -1,7 +1,9 @@
 package org.docencia.hotel.service.api;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.docencia.hotel.domain.model.Guest;
 import org.docencia.hotel.domain.model.GuestPreferences;
@@ -17,12 +19,24 @@ import org.docencia.hotel.domain.model.GuestPreferences;
  */
 public interface GuestService {
     /**
-     * Guarda un huesped en el sistema.
+     * Guarda un huesped en el sistema. Si ya existe, actualiza la fila cargada.
      * 
-     * @param guest Huesped a guardar.
+     * @param guest           Huesped a guardar.
+     * @param expectedVersion Version que el cliente espera modificar, o null para no comprobarla.
      * @return Huesped guardado.
+     * @throws VersionMismatchException Si el huesped
+     *         ya no esta en la version esperada.
      */
-    Guest save(Guest guest);
+    Guest save(Guest guest, Long expectedVersion);
+
+    /**
+     * Inserta un huesped nuevo, con sus preferencias, sin consultar antes
+     * la tabla. El llamador garantiza que el id no esta en uso.
+     * 
+     * @param guest Huesped a insertar.
+     * @return Huesped guardado.
+     */
+    Guest insert(Guest guest);
 
     /**
      * Actualiza las preferencias de un huesped.
@@ -40,6 +54,15 @@ public interface GuestService {
      */
     boolean existsById(String id);
 
+    /**
+     * Obtiene, de entre los ids indicados, los que corresponden a huespedes
+     * existentes, con una sola consulta.
+     * 
+     * @param ids Identificadores de huespedes.
+     * @return Identificadores existentes.
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
     /**
      * Busca un huesped por su identificador.
      * 
@@ -49,11 +72,22 @@ public interface GuestService {
     Optional<Guest> findGuestById(String id);
 
     /**
-     * Obtiene todos los huespedes del sistema.
+     * Obtiene la version actual de un huesped, sin cargarlo. Cambia tanto
+     * con sus datos como con sus preferencias.
+     * 
+     * @param id Identificador del huesped.
+     * @return Version, o vacio si no existe.
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * Obtiene una pagina de huespedes ordenados por id, con sus preferencias.
      * 
-     * @return Lista de todos los huespedes.
+     * @param after Ultimo id de la pagina anterior, o null para la primera.
+     * @param limit Tamaño maximo de la pagina.
+     * @return Huespedes de la pagina.
      */
-    List<Guest> findAllGuests();
+    List<Guest> findAllGuests(String after, int limit);
 
     /**
      * Busca las preferencias de un huesped por su identificador.
@@ -15,12 +15,24 @@ import org.docencia.hotel.domain.model.Hotel;
 public interface HotelService {
     
     /**
-     * Guarda un hotel en el sistema.
+     * Guarda un hotel en el sistema. Si ya existe, actualiza la fila cargada.
      * 
-     * @param hotel Hotel a guardar
+     * @param hotel           Hotel a guardar
+     * @param expectedVersion Version que el cliente espera modificar, o null para no comprobarla
      * @return El hotel guardado
+     * @throws VersionMismatchException Si el hotel
+     *         ya no esta en la version esperada
      */
-    Hotel save(Hotel hotel);
+    Hotel save(Hotel hotel, Long expectedVersion);
+
+    /**
+     * Inserta un hotel nuevo sin comprobar antes si existe; el llamador
+     * garantiza que el id no esta en uso.
+     * 
+     * @param hotel Hotel a insertar
+     * @return El hotel guardado
+     */
+    Hotel insert(Hotel hotel);
 
     /**
      * Verifica si un hotel existe por su identificador.
@@ -39,11 +51,21 @@ public interface HotelService {
     Optional<Hotel> findById(String id);
 
     /**
-     * Recupera todos los hoteles del sistema.
+     * Obtiene la version actual de un hotel, sin cargarlo.
+     * 
+     * @param id Identificador del hotel
+     * @return Version, o vacio si no existe
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * Recupera una pagina de hoteles ordenados por id.
      * 
-     * @return Lista de todos los hoteles
+     * @param after Ultimo id de la pagina anterior, o null para la primera
+     * @param limit Tamaño maximo de la pagina
+     * @return Hoteles de la pagina
      */
-    List<Hotel> findAll();
+    List<Hotel> findAll(String after, int limit);
 
     /**
      * Busca hoteles por su nombre.
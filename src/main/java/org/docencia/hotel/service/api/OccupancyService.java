@@ -0,0 +1,88 @@
+package org.docencia.hotel.service.api;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.docencia.hotel.domain.model.DailyOccupancy;
+
+/**
+ * Interfaz que define las operaciones del servicio de ocupacion diaria.
+ *
+ * Mantiene, por hotel y noche, el numero de habitaciones ocupadas.
+ * Los contadores se actualizan de forma incremental con cada alta,
+ * modificacion o borrado de reservas, dentro de la misma transaccion;
+ * las operaciones en lote aplican todos sus cambios de una vez.
+ */
+public interface OccupancyService {
+
+    /**
+     * Suma una habitacion ocupada a cada noche de la estancia.
+     * Las estancias sin fechas se ignoran.
+     *
+     * @param roomId   Identificador de la habitacion reservada
+     * @param checkIn  Fecha de entrada
+     * @param checkOut Fecha de salida (excluida)
+     */
+    void addStay(String roomId, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Resta una habitacion ocupada a cada noche de la estancia.
+     * Las estancias sin fechas se ignoran.
+     *
+     * @param roomId   Identificador de la habitacion reservada
+     * @param checkIn  Fecha de entrada
+     * @param checkOut Fecha de salida (excluida)
+     */
+    void removeStay(String roomId, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Aplica de una vez las altas y bajas de varias estancias: los cambios
+     * se suman por hotel y noche y se escriben con una sola sentencia.
+     * Las estancias sin fechas se ignoran.
+     *
+     * @param changes Estancias que entran (+1) o salen (-1) de la ocupacion
+     */
+    void applyStays(List<StayChange> changes);
+
+    /**
+     * Obtiene la ocupacion de un hotel para cada noche del rango [from, to),
+     * incluidas las noches sin ocupacion.
+     *
+     * @param hotelId Identificador del hotel
+     * @param from    Primera noche en formato yyyy-MM-dd
+     * @param to      Noche siguiente a la ultima en formato yyyy-MM-dd
+     * @return Ocupacion de cada noche, en orden
+     */
+    List<DailyOccupancy> findByHotelId(String hotelId, String from, String to);
+
+    /**
+     * Recalcula todos los contadores a partir de las reservas persistidas.
+     * Se ejecuta al arrancar, antes de que la aplicacion atienda peticiones.
+     */
+    void rebuild();
+
+    /**
+     * Estancia que entra en la ocupacion o sale de ella.
+     *
+     * @param roomId   Identificador de la habitacion reservada
+     * @param checkIn  Fecha de entrada
+     * @param checkOut Fecha de salida (excluida)
+     * @param delta    1 si la estancia se anade, -1 si se quita
+     */
+    record StayChange(String roomId, LocalDate checkIn, LocalDate checkOut, int delta) {
+
+        /**
+         * @return Estancia que se anade a la ocupacion
+         */
+        public static StayChange added(String roomId, LocalDate checkIn, LocalDate checkOut) {
+            return new StayChange(roomId, checkIn, checkOut, 1);
+        }
+
+        /**
+         * @return Estancia que se quita de la ocupacion
+         */
+        public static StayChange removed(String roomId, LocalDate checkIn, LocalDate checkOut) {
+            return new StayChange(roomId, checkIn, checkOut, -1);
+        }
+    }
+}
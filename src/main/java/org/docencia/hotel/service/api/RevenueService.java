@@ -0,0 +1,25 @@
+package org.docencia.hotel.service.api;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+
+/**
+ * Interfaz que define las operaciones del servicio de ingresos.
+ *
+ * Calcula ingresos, ADR y RevPAR por hotel y mes recorriendo las
+ * reservas en streaming, sin cargarlas en memoria.
+ */
+public interface RevenueService {
+
+    /**
+     * Calcula los ingresos de cada hotel con habitaciones para cada mes
+     * del rango [from, to). Las noches de una estancia se reparten entre
+     * los meses en que caen.
+     *
+     * @param from Primer mes en formato yyyy-MM
+     * @param to   Mes siguiente al ultimo en formato yyyy-MM
+     * @return Ingresos por hotel y mes, ordenados por hotel y mes
+     */
+    List<MonthlyRevenue> findMonthlyRevenue(String from, String to);
+}
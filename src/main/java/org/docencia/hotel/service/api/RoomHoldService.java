@@ -0,0 +1,62 @@
+package org.docencia.hotel.service.api;
+
+import java.util.Optional;
+
+import org.docencia.hotel.domain.model.RoomHold;
+
+/**
+ * Interfaz que define las operaciones del servicio de retenciones.
+ *
+ * Las retenciones son bloqueos de corta duracion sobre una habitacion
+ * y un rango de noches, pensados para reservar el inventario mientras
+ * el cliente completa el pago. Viven solo en memoria y caducan solas
+ * al cumplirse su tiempo de vida.
+ */
+public interface RoomHoldService {
+
+    /**
+     * Crea una retencion activa durante el tiempo de vida configurado.
+     * No comprueba disponibilidad: eso es responsabilidad del dominio.
+     *
+     * @param roomId   Identificador de la habitacion
+     * @param checkIn  Fecha de entrada en formato yyyy-MM-dd
+     * @param checkOut Fecha de salida (excluida) en formato yyyy-MM-dd
+     * @return Retencion creada
+     */
+    RoomHold create(String roomId, String checkIn, String checkOut);
+
+    /**
+     * Obtiene una retencion activa por su identificador.
+     *
+     * @param id Identificador de la retencion
+     * @return Retencion si existe y no ha caducado
+     */
+    Optional<RoomHold> findById(String id);
+
+    /**
+     * Libera una retencion antes de que caduque.
+     *
+     * @param id Identificador de la retencion
+     * @return true si estaba activa y se ha liberado
+     */
+    boolean release(String id);
+
+    /**
+     * Indica si la habitacion tiene alguna retencion activa que se
+     * solape con el rango [checkIn, checkOut).
+     *
+     * @param roomId        Identificador de la habitacion
+     * @param checkIn       Fecha de entrada en formato yyyy-MM-dd
+     * @param checkOut      Fecha de salida (excluida) en formato yyyy-MM-dd
+     * @param excludeHoldId Retencion a ignorar en la comprobacion, o null
+     * @return true si la habitacion esta retenida en esas fechas
+     */
+    boolean isHeld(String roomId, String checkIn, String checkOut, String excludeHoldId);
+
+    /**
+     * Elimina las retenciones caducadas.
+     *
+     * @return Numero de retenciones eliminadas
+     */
+    int expire();
+}
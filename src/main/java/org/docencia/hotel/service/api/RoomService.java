@@ -1,18 +1,33 @@
 package org.docencia.hotel.service.api;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.docencia.hotel.domain.model.GuestPreferences;
 import org.docencia.hotel.domain.model.Room;
 
 public interface RoomService {
     /**
-     * Guarda una nueva habitacion en el sistema.
+     * Guarda una habitacion en el sistema. Si ya existe, actualiza la fila cargada.
+     * 
+     * @param room            Datos de la habitacion
+     * @param expectedVersion Version que el cliente espera modificar, o null para no comprobarla
+     * @return Habitacion guardada
+     * @throws VersionMismatchException Si la habitacion
+     *         ya no esta en la version esperada
+     */
+    Room save(Room room, Long expectedVersion);
+
+    /**
+     * Inserta una habitacion nueva sin consultar antes la tabla; el
+     * llamador garantiza que el id no esta en uso y que el hotel existe.
      * 
      * @param room Datos de la habitacion a crear
-     * @return Habitacion creada con su identificador unico
+     * @return Habitacion creada
      */
-    Room save(Room room);
+    Room insert(Room room);
 
     /**
      * Verifica si una habitacion existe por su identificador unico.
@@ -22,6 +37,15 @@ public interface RoomService {
      */
     boolean existsById(String id);
 
+    /**
+     * Obtiene, de entre los ids indicados, los que corresponden a habitaciones
+     * existentes, con una sola consulta.
+     * 
+     * @param ids Identificadores de habitaciones
+     * @return Identificadores existentes
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
     /**
      * Busca una habitacion por su identificador unico.
      * 
@@ -32,11 +56,21 @@ public interface RoomService {
     Optional<Room> findById(String id);
 
     /**
-     * Recupera todas las habitaciones del sistema.
+     * Obtiene la version actual de una habitacion, sin cargarla.
+     * 
+     * @param id Identificador de la habitacion
+     * @return Version, o vacio si no existe
+     */
+    Optional<Long> findVersionById(String id);
+
+    /**
+     * Recupera una pagina de habitaciones ordenadas por id.
      * 
-     * @return Lista de todas las habitaciones
+     * @param after Ultimo id de la pagina anterior, o null para la primera
+     * @param limit Tamaño maximo de la pagina
+     * @return Habitaciones de la pagina
      */
-    List<Room> findAll();
+    List<Room> findAll(String after, int limit);
 
     /**
      * Busca todas las habitaciones asociadas a un hotel especifico.
@@ -55,6 +89,34 @@ public interface RoomService {
      */
     List<Room> findByHotelIdAndType(String hotelId, String type);
 
+    /**
+     * Busca las habitaciones de un hotel libres todas las noches del rango
+     * [from, to), opcionalmente filtradas por tipo. Las habitaciones con una
+     * retencion activa que se solape con el rango no se consideran libres.
+     * 
+     * @param hotelId Identificador del hotel
+     * @param from Fecha de entrada en formato yyyy-MM-dd
+     * @param to Fecha de salida en formato yyyy-MM-dd
+     * @param type Tipo de habitacion, o null para cualquier tipo
+     * @return Lista de habitaciones libres en el rango
+     */
+    List<Room> findAvailableByHotelId(String hotelId, String from, String to, String type);
+
+    /**
+     * Busca las habitaciones de un hotel libres en el rango [from, to)
+     * ordenadas segun las preferencias de un huesped. Las habitaciones
+     * retenidas en el rango no se consideran libres.
+     * 
+     * @param hotelId Identificador del hotel
+     * @param preferences Preferencias del huesped
+     * @param from Fecha de entrada en formato yyyy-MM-dd
+     * @param to Fecha de salida en formato yyyy-MM-dd
+     * @param limit Numero maximo de habitaciones a devolver
+     * @return Habitaciones libres, de mejor a peor coincidencia
+     */
+    List<Room> findRecommendedByHotelId(String hotelId, GuestPreferences preferences, String from, String to,
+            int limit);
+
     /**
      * Elimina una habitacion por su identificador unico.
      * 
@@ -0,0 +1,22 @@
+package org.docencia.hotel.service.api;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * La version que el cliente espera modificar (If-Match) no es la actual.
+ *
+ * Se distingue de un conflicto detectado por Hibernate al hacer flush: aqui
+ * el cliente envio una condicion que ya no se cumple y la escritura ni se
+ * intenta, por eso la API responde 412 Precondition Failed en lugar de 409.
+ */
+public class VersionMismatchException extends OptimisticLockingFailureException {
+
+    /**
+     * Constructor de la excepcion.
+     *
+     * @param message Descripcion del recurso y de las versiones
+     */
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package org.docencia.hotel.service.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidacion de las caches en proceso respecto a la transaccion en curso.
+ */
+final class CacheInvalidation {
+
+    private CacheInvalidation() {
+    }
+
+    /**
+     * Ejecuta la invalidacion ahora y, si hay una transaccion en curso,
+     * otra vez al terminar: una lectura concurrente anterior al commit
+     * podria haber vuelto a dejar en la cache el valor antiguo.
+     *
+     * @param invalidation Invalidacion a ejecutar
+     */
+    static void nowAndAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidation.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package org.docencia.hotel.service.cache;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache acotada en proceso del resultado de existsById para un tipo de entidad.
+ *
+ * Guarda tanto los ids que existen como los que no, con desalojo W-TinyLFU
+ * (Caffeine): los ids consultados con frecuencia se quedan aunque entre un
+ * barrido de ids consultados una sola vez. Las escrituras deben invalidar
+ * la entrada; si hay una transaccion en curso se invalida tambien al
+ * terminar, para que una lectura concurrente anterior al commit no deje
+ * en la cache el valor antiguo.
+ *
+ * Solo se guarda lo leido fuera de transacciones de solo lectura: esas
+ * pueden servirse desde la replica, que va atrasada, y un "no existe"
+ * recien creado se quedaria en la cache hasta que caduque.
+ */
+public class ExistenceCache {
+
+    /**
+     * Nombre de la cache, usado en las estadisticas.
+     */
+    private final String name;
+
+    /**
+     * Existencia de cada id.
+     */
+    private final Cache<String, Boolean> cache;
+
+    /**
+     * Constructor de la cache.
+     *
+     * @param name       Nombre de la cache
+     * @param maxEntries Numero maximo de ids guardados
+     * @param ttl        Tiempo de vida de cada entrada, como red de seguridad
+     *                   frente a escrituras que no pasen por los servicios
+     */
+    public ExistenceCache(String name, long maxEntries, Duration ttl) {
+        if (maxEntries <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("existence cache size and ttl must be positive");
+        }
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Indica si existe el id, consultando la base de datos solo si no esta en la cache.
+     *
+     * Dentro de una transaccion de solo lectura la consulta no se guarda en
+     * la cache, porque puede venir de la replica.
+     *
+     * @param id     Identificador
+     * @param loader Consulta a la base de datos
+     * @return true si existe
+     */
+    public boolean exists(String id, Predicate<String> loader) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Boolean cached = cache.getIfPresent(id);
+            return cached != null ? cached : loader.test(id);
+        }
+
+        return cache.get(id, loader::test);
+    }
+
+    /**
+     * Olvida la existencia de un id, ahora y al terminar la transaccion en curso.
+     *
+     * @param id Identificador
+     */
+    public void invalidate(String id) {
+        if (id == null) {
+            // Un id nulo nunca llega a la cache
+            return;
+        }
+
+        CacheInvalidation.nowAndAfterCompletion(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Olvida la existencia de todos los ids, ahora y al terminar la transaccion en curso.
+     */
+    public void invalidateAll() {
+        CacheInvalidation.nowAndAfterCompletion(cache::invalidateAll);
+    }
+
+    /**
+     * Devuelve los contadores de la cache desde el arranque.
+     *
+     * @return Aciertos, fallos, tasa de aciertos, desalojos y tamaño
+     */
+    public ExistenceCacheStats stats() {
+        CacheStats stats = cache.stats();
+
+        return new ExistenceCacheStats(name, stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), cache.estimatedSize());
+    }
+
+    /**
+     * Ejecuta las tareas de mantenimiento pendientes (desalojos). Solo para pruebas.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+}
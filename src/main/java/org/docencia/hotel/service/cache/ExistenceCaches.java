@@ -0,0 +1,70 @@
+package org.docencia.hotel.service.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches de existencia de hoteles, habitaciones y huespedes, que ponen
+ * delante de la base de datos las comprobaciones existsById con las que
+ * empiezan casi todas las operaciones de dominio.
+ */
+@Component
+public class ExistenceCaches {
+
+    private final ExistenceCache hotels;
+
+    private final ExistenceCache rooms;
+
+    private final ExistenceCache guests;
+
+    /**
+     * Constructor de las caches.
+     *
+     * @param hotelMaxEntries Ids de hotel guardados como maximo
+     * @param roomMaxEntries  Ids de habitacion guardados como maximo
+     * @param guestMaxEntries Ids de huesped guardados como maximo
+     * @param ttlSeconds      Tiempo de vida de cada entrada en segundos
+     */
+    public ExistenceCaches(@Value("${hotel.existence-cache.hotel.max-entries:10000}") long hotelMaxEntries,
+            @Value("${hotel.existence-cache.room.max-entries:50000}") long roomMaxEntries,
+            @Value("${hotel.existence-cache.guest.max-entries:100000}") long guestMaxEntries,
+            @Value("${hotel.existence-cache.ttl-seconds:600}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+
+        this.hotels = new ExistenceCache("hotel", hotelMaxEntries, ttl);
+        this.rooms = new ExistenceCache("room", roomMaxEntries, ttl);
+        this.guests = new ExistenceCache("guest", guestMaxEntries, ttl);
+    }
+
+    /**
+     * @return Cache de existencia de hoteles
+     */
+    public ExistenceCache hotels() {
+        return hotels;
+    }
+
+    /**
+     * @return Cache de existencia de habitaciones
+     */
+    public ExistenceCache rooms() {
+        return rooms;
+    }
+
+    /**
+     * @return Cache de existencia de huespedes
+     */
+    public ExistenceCache guests() {
+        return guests;
+    }
+
+    /**
+     * @return Contadores de las tres caches, en orden fijo
+     */
+    public List<ExistenceCacheStats> statistics() {
+        return List.of(hotels.stats(), rooms.stats(), guests.stats());
+    }
+}
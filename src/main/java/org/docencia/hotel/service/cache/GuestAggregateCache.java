@@ -0,0 +1,83 @@
+package org.docencia.hotel.service.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.GuestPreferences;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache de lectura del huesped completo, con sus preferencias.
+ *
+ * Montar un huesped cuesta una consulta a H2 y otra a Mongo; esta cache
+ * guarda el resultado ya montado. Solo guarda huespedes que existen, y
+ * entrega siempre una copia, porque el modelo es mutable y quien lo recibe
+ * puede modificarlo. Cualquier escritura del huesped o de sus preferencias
+ * debe invalidar la entrada.
+ */
+@Component
+public class GuestAggregateCache {
+
+    /**
+     * Huespedes montados, indexados por id.
+     */
+    private final Cache<String, Guest> cache;
+
+    /**
+     * Constructor de la cache.
+     *
+     * @param maxEntries Numero maximo de huespedes guardados
+     * @param ttlSeconds Tiempo de vida de cada entrada en segundos
+     */
+    public GuestAggregateCache(@Value("${hotel.guest-cache.max-entries:10000}") long maxEntries,
+            @Value("${hotel.guest-cache.ttl-seconds:300}") long ttlSeconds) {
+        if (maxEntries <= 0 || ttlSeconds <= 0) {
+            throw new IllegalArgumentException("guest cache size and ttl must be positive");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Devuelve el huesped, montandolo con loader si no esta en la cache.
+     *
+     * @param id     Identificador del huesped
+     * @param loader Lectura del huesped completo en las dos bases de datos
+     * @return Copia del huesped, o vacio si no existe
+     */
+    public Optional<Guest> get(String id, Function<String, Optional<Guest>> loader) {
+        // Si loader devuelve null no se guarda nada: los huespedes inexistentes no se cachean
+        Guest guest = cache.get(id, key -> loader.apply(key).orElse(null));
+        return Optional.ofNullable(guest).map(GuestAggregateCache::copy);
+    }
+
+    /**
+     * Olvida un huesped, ahora y al terminar la transaccion en curso.
+     *
+     * @param id Identificador del huesped
+     */
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+
+        CacheInvalidation.nowAndAfterCompletion(() -> cache.invalidate(id));
+    }
+
+    private static Guest copy(Guest guest) {
+        GuestPreferences prefs = guest.getPreferences();
+
+        return new Guest(guest.getId(), guest.getName(), guest.getEmail(), guest.getPhone(),
+                prefs == null ? null
+                        : new GuestPreferences(prefs.getGuestId(), prefs.isPrefersSmokingRoom(),
+                                prefs.getBedTypePreference(), prefs.isNeedsAccessibilityFeatures()));
+    }
+}
@@ -0,0 +1,198 @@
+package org.docencia.hotel.service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.persistence.nosql.document.GuestPreferencesDocument;
+import org.docencia.hotel.persistence.repository.nosql.GuestPreferencesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache cercana en proceso de las preferencias de Mongo, para que las
+ * lecturas de huespedes no crucen la red en cada peticion.
+ *
+ * Guarda tambien que un huesped no tiene preferencias. Es de escritura
+ * directa: el servicio escribe en Mongo y, en la misma llamada, deja en la
+ * cache el documento guardado o la ausencia del borrado. La caducidad solo
+ * es una red de seguridad frente a escrituras que no pasen por el servicio.
+ *
+ * Las cargas desde Mongo (lecturas en bloque y precarga) solo rellenan
+ * huecos: si mientras tanto una escritura ha dejado su valor, no lo pisan
+ * con el leido antes. Entrega siempre copias, porque el documento es mutable.
+ *
+ * La precarga es opcional y se hace en segundo plano: el arranque no espera
+ * a Mongo, y si falla la cache simplemente se va llenando con las lecturas.
+ */
+@Component
+public class GuestPreferencesCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GuestPreferencesCache.class);
+
+    /**
+     * Repositorio NoSQL de preferencias, usado para la precarga.
+     */
+    private final GuestPreferencesRepository guestPreferencesRepository;
+
+    /**
+     * Numero maximo de huespedes guardados.
+     */
+    private final long maxEntries;
+
+    /**
+     * Indica si la cache se precarga al arrancar.
+     */
+    private final boolean warmOnStartup;
+
+    /**
+     * Preferencias de cada huesped, o vacio si no tiene.
+     */
+    private final Cache<String, Optional<GuestPreferencesDocument>> cache;
+
+    /**
+     * Constructor de la cache.
+     *
+     * @param guestPreferencesRepository Repositorio NoSQL de preferencias
+     * @param maxEntries                 Numero maximo de huespedes guardados
+     * @param ttlSeconds                 Tiempo de vida de cada entrada en segundos
+     * @param warmOnStartup              Si se precarga al arrancar
+     */
+    public GuestPreferencesCache(GuestPreferencesRepository guestPreferencesRepository,
+            @Value("${hotel.guest-preferences-cache.max-entries:100000}") long maxEntries,
+            @Value("${hotel.guest-preferences-cache.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${hotel.guest-preferences-cache.warm-on-startup:false}") boolean warmOnStartup) {
+        if (maxEntries <= 0 || ttlSeconds <= 0) {
+            throw new IllegalArgumentException("guest preferences cache size and ttl must be positive");
+        }
+        this.guestPreferencesRepository = guestPreferencesRepository;
+        this.maxEntries = maxEntries;
+        this.warmOnStartup = warmOnStartup;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Devuelve las preferencias del huesped, leyendolas con loader si no estan en la cache.
+     *
+     * @param guestId Identificador del huesped
+     * @param loader  Lectura de las preferencias en Mongo
+     * @return Copia de las preferencias, o vacio si no tiene
+     */
+    public Optional<GuestPreferencesDocument> get(String guestId,
+            Function<String, Optional<GuestPreferencesDocument>> loader) {
+        return cache.get(guestId, loader).map(GuestPreferencesCache::copy);
+    }
+
+    /**
+     * Devuelve las preferencias de varios huespedes, leyendo con una sola
+     * llamada a loader las que no estan en la cache.
+     *
+     * @param guestIds Identificadores de los huespedes
+     * @param loader   Lectura en bloque de las preferencias en Mongo
+     * @return Copias de las preferencias, indexadas por huesped; sin los que no tienen
+     */
+    public Map<String, GuestPreferencesDocument> getAll(Collection<String> guestIds,
+            Function<List<String>, List<GuestPreferencesDocument>> loader) {
+        Map<String, Optional<GuestPreferencesDocument>> found = new HashMap<>(cache.getAllPresent(guestIds));
+        List<String> missing = guestIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .distinct()
+                .toList();
+
+        if (!missing.isEmpty()) {
+            Map<String, Optional<GuestPreferencesDocument>> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(id, Optional.empty()));
+            loader.apply(missing).forEach(doc -> loaded.put(doc.getGuestId(), Optional.of(copy(doc))));
+
+            loaded.forEach((id, doc) -> found.put(id, putIfAbsent(id, doc)));
+        }
+
+        Map<String, GuestPreferencesDocument> result = new HashMap<>();
+        found.forEach((id, doc) -> doc.ifPresent(d -> result.put(id, copy(d))));
+        return result;
+    }
+
+    /**
+     * Guarda las preferencias recien escritas en Mongo.
+     *
+     * @param saved Documento devuelto por Mongo
+     */
+    public void put(GuestPreferencesDocument saved) {
+        cache.put(saved.getGuestId(), Optional.of(copy(saved)));
+    }
+
+    /**
+     * Recuerda que el huesped ya no tiene preferencias, tras borrarlas de Mongo.
+     *
+     * @param guestId Identificador del huesped
+     */
+    public void putAbsent(String guestId) {
+        cache.put(guestId, Optional.empty());
+    }
+
+    /**
+     * Lanza la precarga en un hilo propio al arrancar, si
+     * hotel.guest-preferences-cache.warm-on-startup esta activo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmInBackground() {
+        if (!warmOnStartup) {
+            return;
+        }
+
+        Thread warmer = new Thread(this::warm, "guest-preferences-cache-warm");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    /**
+     * Precarga la cache recorriendo la coleccion con un unico cursor, hasta
+     * llenarla. Un fallo de Mongo solo se registra: lo ya cargado se queda
+     * y el resto se lee bajo demanda.
+     */
+    public void warm() {
+        try (Stream<GuestPreferencesDocument> docs = guestPreferencesRepository.streamAll()) {
+            docs.limit(maxEntries).forEach(doc -> putIfAbsent(doc.getGuestId(), Optional.of(doc)));
+        } catch (RuntimeException e) {
+            LOG.warn("Guest preferences cache warm-up failed; preferences will be loaded on demand", e);
+        }
+    }
+
+    /**
+     * Numero aproximado de huespedes en la cache. Solo para pruebas.
+     */
+    long estimatedSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Guarda un valor leido de Mongo salvo que una escritura ya haya dejado el suyo.
+     *
+     * @return Valor que queda en la cache
+     */
+    private Optional<GuestPreferencesDocument> putIfAbsent(String guestId, Optional<GuestPreferencesDocument> doc) {
+        Optional<GuestPreferencesDocument> current = cache.asMap().putIfAbsent(guestId, doc);
+        return current == null ? doc : current;
+    }
+
+    private static GuestPreferencesDocument copy(GuestPreferencesDocument doc) {
+        return new GuestPreferencesDocument(doc.getGuestId(), doc.isPrefersSmokingRoom(),
+                doc.getBedTypePreference(), doc.isNeedsAccessibilityFeatures());
+    }
+}
@@ -0,0 +1,226 @@
+package org.docencia.hotel.service.hold;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Rueda de temporizadores con cubetas (hashed timing wheel).
+ *
+ * El tiempo se divide en ticks de duracion fija y cada temporizador se
+ * guarda en la cubeta de su tick de vencimiento modulo el tamaño de la
+ * rueda, junto con el numero de vueltas completas que le faltan. Programar
+ * y cancelar cuestan O(1) y cada avance solo recorre la cubeta del tick
+ * actual, de forma que el coste no depende del numero de temporizadores
+ * pendientes sino de los que vencen.
+ *
+ * Las altas se encolan sin bloqueo y se reparten en las cubetas desde
+ * el hilo que avanza la rueda; advance no debe invocarse en paralelo.
+ *
+ * @param <T> Tipo del elemento asociado a cada temporizador
+ */
+public final class HashedTimingWheel<T> {
+
+    /**
+     * Duracion de un tick en milisegundos.
+     */
+    private final long tickMillis;
+
+    /**
+     * Mascara para calcular la cubeta de un tick (tamaño - 1).
+     */
+    private final int mask;
+
+    /**
+     * Cubetas de la rueda; solo las toca el hilo que avanza.
+     */
+    private final Queue<Timeout<T>>[] buckets;
+
+    /**
+     * Temporizadores programados pendientes de colocar en su cubeta.
+     */
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Reloj en milisegundos.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Accion invocada con el elemento de cada temporizador vencido.
+     */
+    private final Consumer<T> onExpire;
+
+    /**
+     * Instante de referencia del tick 0.
+     */
+    private final long startMillis;
+
+    /**
+     * Siguiente tick a procesar.
+     */
+    private long currentTick;
+
+    /**
+     * Constructor de la rueda.
+     *
+     * @param tickMillis Duracion de un tick en milisegundos
+     * @param wheelSize  Numero minimo de cubetas; se redondea a potencia de dos
+     * @param clock      Reloj en milisegundos
+     * @param onExpire   Accion invocada al vencer cada temporizador
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, LongSupplier clock, Consumer<T> onExpire) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick and wheel size must be positive");
+        }
+
+        int size = Math.max(Integer.highestOneBit(wheelSize - 1) << 1, 1);
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.clock = clock;
+        this.onExpire = onExpire;
+        this.startMillis = clock.getAsLong();
+    }
+
+    /**
+     * Programa un temporizador.
+     *
+     * @param item        Elemento entregado a onExpire al vencer
+     * @param delayMillis Retardo en milisegundos
+     * @return Temporizador, que puede cancelarse
+     */
+    public Timeout<T> schedule(T item, long delayMillis) {
+        Timeout<T> timeout = new Timeout<>(item, clock.getAsLong() + Math.max(delayMillis, 0));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Procesa todos los ticks transcurridos hasta el instante actual,
+     * invocando onExpire para cada temporizador vencido y no cancelado.
+     *
+     * @return Numero de temporizadores vencidos
+     */
+    public int advance() {
+        long lastTick = (clock.getAsLong() - startMillis) / tickMillis;
+        int expired = 0;
+
+        while (currentTick <= lastTick) {
+            transferPending();
+            expired += expireBucket(buckets[(int) (currentTick & mask)]);
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * Devuelve el tamaño de la rueda.
+     *
+     * @return Numero de cubetas
+     */
+    public int wheelSize() {
+        return buckets.length;
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+
+            // Redondeo hacia arriba: nunca vence antes de su plazo
+            long deadlineTick = Math.max(
+                    Math.floorDiv(timeout.deadlineMillis - startMillis + tickMillis - 1, tickMillis), currentTick);
+            timeout.remainingRounds = (deadlineTick - currentTick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private int expireBucket(Queue<Timeout<T>> bucket) {
+        int expired = 0;
+
+        for (Iterator<Timeout<T>> it = bucket.iterator(); it.hasNext();) {
+            Timeout<T> timeout = it.next();
+
+            if (timeout.isCancelled()) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                it.remove();
+                if (timeout.expire()) {
+                    onExpire.accept(timeout.item);
+                    expired++;
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Temporizador programado en la rueda.
+     *
+     * @param <T> Tipo del elemento asociado
+     */
+    public static final class Timeout<T> {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final T item;
+        private final long deadlineMillis;
+        private final AtomicInteger state = new AtomicInteger();
+        private long remainingRounds;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        /**
+         * @return Elemento asociado al temporizador
+         */
+        public T item() {
+            return item;
+        }
+
+        /**
+         * @return Instante de vencimiento en milisegundos
+         */
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * Cancela el temporizador si aun no ha vencido.
+         *
+         * @return true si se ha cancelado, false si ya habia vencido o estaba cancelado
+         */
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        /**
+         * @return true si el temporizador se ha cancelado
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private boolean expire() {
+            return state.compareAndSet(WAITING, EXPIRED);
+        }
+    }
+}
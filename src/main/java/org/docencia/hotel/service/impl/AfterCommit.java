@@ -0,0 +1,38 @@
+package org.docencia.hotel.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cambios en los indices en memoria que solo deben verse si la
+ * transaccion en curso confirma.
+ *
+ * Los indices se comparten entre peticiones: si se modificaran antes del
+ * commit, otras transacciones verian estancias o habitaciones que un
+ * rollback deja sin existir, y un rollback no los devolveria a su estado.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Ejecuta la accion tras el commit de la transaccion en curso, o ahora
+     * si no hay ninguna. Si la transaccion se deshace, no se ejecuta.
+     *
+     * @param action Cambio a aplicar
+     */
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
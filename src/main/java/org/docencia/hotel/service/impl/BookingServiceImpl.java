@@ -1,18 +1,44 @@
 package org.docencia.hotel.service.impl;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.docencia.hotel.domain.model.Booking;
 import org.docencia.hotel.mapper.jpa.BookingMapper;
 import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
+import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
+import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.BookingReferences;
 import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.persistence.routing.ReadOnlyTransactional;
 import org.docencia.hotel.service.api.BookingService;
+import org.docencia.hotel.service.api.OccupancyService;
+import org.docencia.hotel.service.api.OccupancyService.StayChange;
+import org.docencia.hotel.service.index.BookingIdFilter;
+import org.docencia.hotel.service.index.BookingIntervalIndex;
+import org.docencia.hotel.service.index.BookingIntervalIndex.Gap;
+import org.docencia.hotel.service.index.BookingIntervalIndex.Stay;
 import org.docencia.hotel.validation.Guard;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
 @Service
 public class BookingServiceImpl implements BookingService {
+    /**
+     * Coste de un lado del hueco sin reserva vecina al asignar habitación.
+     */
+    private static final long OPEN_GAP_COST = Integer.MAX_VALUE;
+
     /**
      * Repositorio JPA de reservas.
      */
@@ -23,26 +49,190 @@ public class BookingServiceImpl implements BookingService {
      */
     private final BookingMapper bookingMapper;
 
-    public BookingServiceImpl(BookingRepository bookingRepository, BookingMapper bookingMapper) {
+    /**
+     * Indice en memoria de estancias por habitación.
+     */
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    /**
+     * Filtro de Bloom de ids de reserva, para no consultar ids que seguro no existen.
+     */
+    private final BookingIdFilter bookingIdFilter;
+
+    /**
+     * Contadores de ocupación diaria por hotel.
+     */
+    private final OccupancyService occupancyService;
+
+    /**
+     * Contexto de persistencia, para referenciar habitación y huésped sin cargarlos.
+     */
+    private final EntityManager entityManager;
+
+    public BookingServiceImpl(BookingRepository bookingRepository, BookingMapper bookingMapper,
+            BookingIntervalIndex bookingIntervalIndex, BookingIdFilter bookingIdFilter,
+            OccupancyService occupancyService, EntityManager entityManager) {
         this.bookingRepository = bookingRepository;
         this.bookingMapper = bookingMapper;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingIdFilter = bookingIdFilter;
+        this.occupancyService = occupancyService;
+        this.entityManager = entityManager;
     }
 
     @Override
-    public Booking save(Booking booking) {
+    @Transactional
+    public Booking save(Booking booking, Long expectedVersion) {
         Guard.requireNonNull(booking, "booking");
+        Guard.requireNonBlank(booking.getId(), "booking id");
+
+        Optional<BookingEntity> current = bookingRepository.findById(booking.getId());
+
+        if (current.isEmpty()) {
+            return write(toNewEntity(booking));
+        }
+
+        BookingEntity entityToSave = current.get();
+        VersionCheck.requireExpected(BookingEntity.class, booking.getId(), expectedVersion, entityToSave.getVersion());
+        bookingMapper.updateEntity(booking, entityToSave);
+        entityToSave.setRoom(entityManager.getReference(RoomEntity.class, booking.getRoomId()));
+        entityToSave.setGuest(entityManager.getReference(GuestEntity.class, booking.getGuestId()));
+        return write(entityToSave);
+    }
 
-        BookingEntity entityToSave = bookingMapper.toEntity(booking);
+    /**
+     * Guarda la entidad y actualiza la ocupación y, tras el commit, el
+     * índice de estancias.
+     *
+     * @param entityToSave Entidad a guardar.
+     * @return Reserva guardada.
+     */
+    private Booking write(BookingEntity entityToSave) {
+        // antes de escribir: una fila visible debe estar ya en el filtro; si
+        // hay rollback el id solo queda como un falso positivo más
+        bookingIdFilter.put(entityToSave.getId());
         BookingEntity saved = bookingRepository.save(entityToSave);
+        Booking savedBooking = bookingMapper.toDomain(saved);
+
+        if (savedBooking != null) {
+            Optional<Stay> previous = bookingIntervalIndex.findStay(savedBooking.getId());
+
+            LocalDate checkIn = saved.getCheckIn();
+            LocalDate checkOut = saved.getCheckOut();
+
+            applyOccupancy(occupancyChanges(previous, savedBooking.getRoomId(), checkIn, checkOut));
+            AfterCommit.run(() -> bookingIntervalIndex.put(savedBooking.getId(), savedBooking.getRoomId(),
+                    savedBooking.getGuestId(), checkIn, checkOut));
+        }
 
-        return bookingMapper.toDomain(saved);
+        return savedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<Booking> saveAll(List<Booking> bookings) {
+        Guard.requireNonNull(bookings, "bookings");
+
+        List<Booking> result = new ArrayList<>(bookings.size());
+        List<StayChange> occupancy = new ArrayList<>();
+
+        // Se guarda por bloques del tamaño del lote JDBC; tras cada bloque completo
+        // se envian los INSERT y se vacia el contexto de persistencia, para que un
+        // lote de cientos de miles de reservas no quede entero en memoria
+        for (int from = 0; from < bookings.size(); from += IdChunks.SIZE) {
+            List<Booking> chunk = bookings.subList(from, Math.min(from + IdChunks.SIZE, bookings.size()));
+
+            for (BookingEntity entity : saveChunk(chunk, occupancy)) {
+                result.add(bookingMapper.toDomain(entity));
+            }
+            if (chunk.size() == IdChunks.SIZE) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        // una sola escritura de contadores para todo el lote
+        applyOccupancy(occupancy);
+
+        return result;
+    }
+
+    /**
+     * Inserta un bloque de reservas nuevas, anota sus cambios de ocupacion y
+     * deja su indexacion para despues del commit.
+     *
+     * @param bookings  Reservas del bloque.
+     * @param occupancy Cambios de ocupacion acumulados del lote.
+     * @return Entidades guardadas.
+     */
+    private List<BookingEntity> saveChunk(List<Booking> bookings, List<StayChange> occupancy) {
+        List<BookingEntity> entitiesToSave = bookings.stream()
+                .map(this::toNewEntity)
+                .toList();
+        entitiesToSave.forEach(entity -> bookingIdFilter.put(entity.getId()));
+        List<BookingEntity> saved = bookingRepository.saveAll(entitiesToSave);
+
+        for (BookingEntity entity : saved) {
+            Optional<Stay> previous = bookingIntervalIndex.findStay(entity.getId());
+
+            String id = entity.getId();
+            String roomId = entity.getRoom().getId();
+            String guestId = entity.getGuest().getId();
+            LocalDate checkIn = entity.getCheckIn();
+            LocalDate checkOut = entity.getCheckOut();
+
+            occupancy.addAll(occupancyChanges(previous, roomId, checkIn, checkOut));
+            AfterCommit.run(() -> bookingIntervalIndex.put(id, roomId, guestId, checkIn, checkOut));
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Booking insert(Booking booking) {
+        Guard.requireNonNull(booking, "booking");
+
+        BookingReferences refs = findReferences(booking);
+
+        if (refs.bookings() > 0) {
+            throw new IllegalStateException("booking already exists: " + booking.getId());
+        }
+        return write(toNewEntity(booking));
+    }
+
+    @Override
+    @Transactional
+    public Booking update(Booking booking, Long expectedVersion) {
+        Guard.requireNonNull(booking, "booking");
+
+        BookingReferences refs = findReferences(booking);
+
+        if (refs.bookings() == 0) {
+            throw new IllegalArgumentException("booking not found: " + booking.getId());
+        }
+        return save(booking, expectedVersion);
     }
 
     @Override
     public boolean existsById(String id) {
         Guard.requireNonBlank(id, "booking id");
 
-        return bookingRepository.existsById(id);
+        return bookingIdFilter.mightContain(id) && bookingRepository.existsById(id);
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Guard.requireNonNull(ids, "booking ids");
+
+        // solo se consultan los ids que el filtro no descarta
+        List<String> candidates = ids.stream()
+                .filter(bookingIdFilter::mightContain)
+                .toList();
+
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        return IdChunks.findExisting(candidates, bookingRepository::findExistingIds);
     }
 
     @Override
@@ -64,14 +254,47 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> findAll() {
-        return bookingRepository.findAll()
+    public boolean existsOverlappingBooking(String roomId, String checkIn, String checkOut, String excludeBookingId) {
+        Guard.requireNonBlank(roomId, "room id");
+        Guard.requireNonBlank(checkIn, "checkIn");
+        Guard.requireNonBlank(checkOut, "checkOut");
+
+        return bookingIntervalIndex.overlaps(roomId, LocalDate.parse(checkIn), LocalDate.parse(checkOut),
+                excludeBookingId);
+    }
+
+    @Override
+    public List<String> rankRoomsByFit(Collection<String> roomIds, String checkIn, String checkOut) {
+        Guard.requireNonNull(roomIds, "room ids");
+        Guard.requireNonBlank(checkIn, "checkIn");
+        Guard.requireNonBlank(checkOut, "checkOut");
+
+        LocalDate in = LocalDate.parse(checkIn);
+        LocalDate out = LocalDate.parse(checkOut);
+        Map<String, Long> costs = new HashMap<>();
+
+        for (String roomId : roomIds) {
+            bookingIntervalIndex.findGap(roomId, in, out)
+                    .ifPresent(gap -> costs.put(roomId, fitCost(gap, in, out)));
+        }
+
+        return costs.keySet()
+                .stream()
+                .sorted(Comparator.<String>comparingLong(costs::get).thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Booking> findAll(String after, int limit) {
+        return bookingRepository.findRowsAfter(firstKey(after), Limit.of(limit))
                 .stream()
                 .map(bookingMapper::toDomain)
                 .toList();
     }
 
     @Override
+    @ReadOnlyTransactional
     public Optional<Booking> findById(String id) {
         Guard.requireNonBlank(id, "booking id");
 
@@ -80,58 +303,228 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> findAllByRoomId(String roomId) {
+    @ReadOnlyTransactional
+    public Optional<Long> findVersionById(String id) {
+        Guard.requireNonBlank(id, "booking id");
+
+        return bookingRepository.findVersionById(id);
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Booking> findAllByRoomId(String roomId, String after, int limit) {
         Guard.requireNonBlank(roomId, "room id");
 
-        return bookingRepository.findByRoomId(roomId)
+        return bookingRepository.findRowsByRoomIdAfter(roomId, firstKey(after), Limit.of(limit))
                 .stream()
                 .map(bookingMapper::toDomain)
                 .toList();
     }
 
     @Override
-    public List<Booking> findAllByGuestId(String guestId) {
+    @ReadOnlyTransactional
+    public List<Booking> findAllByGuestId(String guestId, String after, int limit) {
         Guard.requireNonBlank(guestId, "guest id");
 
-        return bookingRepository.findByGuestId(guestId)
+        return bookingRepository.findRowsByGuestIdAfter(guestId, firstKey(after), Limit.of(limit))
+                .stream()
+                .map(bookingMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Booking> findAllByHotelId(String hotelId, String after, int limit) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+
+        return bookingRepository.findRowsByHotelIdAfter(hotelId, firstKey(after), Limit.of(limit))
+                .stream()
+                .map(bookingMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Booking> findAllByRoomIdBetween(String roomId, String from, String to) {
+        Guard.requireNonBlank(roomId, "room id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        return bookingRepository.findOverlapping(roomId, LocalDate.parse(from), LocalDate.parse(to))
                 .stream()
                 .map(bookingMapper::toDomain)
                 .toList();
     }
 
     @Override
-    public List<Booking> findAllByHotelId(String hotelId) {
+    @ReadOnlyTransactional
+    public List<Booking> findArrivalsByHotelId(String hotelId, String date) {
         Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(date, "date");
 
-        return bookingRepository.findByRoomHotelId(hotelId)
+        return bookingRepository.findArrivals(hotelId, LocalDate.parse(date))
                 .stream()
                 .map(bookingMapper::toDomain)
                 .toList();
     }
 
     @Override
+    @Transactional
     public boolean deleteById(String id) {
         Guard.requireNonBlank(id, "booking id");
 
-        if (!bookingRepository.existsById(id)) {
+        if (bookingRepository.removeById(id) == 0) {
             return false;
         }
 
-        bookingRepository.deleteById(id);
+        bookingIntervalIndex.findStay(id).ifPresent(this::removeOccupancy);
+        AfterCommit.run(() -> bookingIntervalIndex.remove(id));
         return true;
     }
 
     @Override
+    @Transactional
     public int deleteByGuestId(String guestId) {
         Guard.requireNonBlank(guestId, "guest id");
 
-        return bookingRepository.deleteByGuestId(guestId);
+        int deleted = bookingRepository.deleteByGuestId(guestId);
+        removeOccupancy(bookingIntervalIndex.findStaysByGuest(guestId));
+        AfterCommit.run(() -> bookingIntervalIndex.removeByGuest(guestId));
+        return deleted;
     }
 
     @Override
+    @Transactional
     public int deleteByRoomId(String roomId) {
         Guard.requireNonBlank(roomId, "room id");
 
-        return bookingRepository.deleteByRoomId(roomId);
+        int deleted = bookingRepository.deleteByRoomId(roomId);
+        removeOccupancy(bookingIntervalIndex.findStaysByRoom(roomId));
+        AfterCommit.run(() -> bookingIntervalIndex.removeByRoom(roomId));
+        return deleted;
+    }
+
+    /**
+     * Calcula los cambios de ocupación de una reserva que pasa de la
+     * estancia anterior (si la había) a la nueva.
+     *
+     * @param previous Estancia indexada antes de guardar.
+     * @param roomId   Habitación de la nueva estancia.
+     * @param checkIn  Fecha de entrada de la nueva estancia.
+     * @param checkOut Fecha de salida de la nueva estancia.
+     * @return Estancias que salen y entran en la ocupación; vacío si no cambia.
+     */
+    private static List<StayChange> occupancyChanges(Optional<Stay> previous, String roomId, LocalDate checkIn,
+            LocalDate checkOut) {
+        if (previous.isEmpty()) {
+            return List.of(StayChange.added(roomId, checkIn, checkOut));
+        }
+
+        Stay stay = previous.get();
+        if (stay.roomId().equals(roomId) && stay.checkIn().equals(checkIn) && stay.checkOut().equals(checkOut)) {
+            return List.of();
+        }
+        return List.of(StayChange.removed(stay.roomId(), stay.checkIn(), stay.checkOut()),
+                StayChange.added(roomId, checkIn, checkOut));
+    }
+
+    /**
+     * Calcula las noches libres que quedarían sueltas a ambos lados de la estancia.
+     * Un lado sin reserva vecina cuenta como el peor encaje posible, de forma que
+     * los huecos abiertos se reservan para estancias que no caben en otro sitio.
+     *
+     * @param gap      Hueco libre que contiene la estancia.
+     * @param checkIn  Fecha de entrada.
+     * @param checkOut Fecha de salida.
+     * @return Coste del encaje, menor cuanto más ajustado.
+     */
+    private static long fitCost(Gap gap, LocalDate checkIn, LocalDate checkOut) {
+        long before = gap.start() == Gap.OPEN_START ? OPEN_GAP_COST : checkIn.toEpochDay() - gap.start();
+        long after = gap.end() == Gap.OPEN_END ? OPEN_GAP_COST : gap.end() - checkOut.toEpochDay();
+        return before + after;
+    }
+
+    /**
+     * Resta una estancia eliminada de los contadores de ocupación.
+     *
+     * @param stay Estancia eliminada.
+     */
+    private void removeOccupancy(Stay stay) {
+        occupancyService.removeStay(stay.roomId(), stay.checkIn(), stay.checkOut());
+    }
+
+    /**
+     * Resta de una vez varias estancias eliminadas de los contadores de ocupación.
+     *
+     * @param stays Estancias eliminadas.
+     */
+    private void removeOccupancy(List<Stay> stays) {
+        applyOccupancy(stays.stream()
+                .map(stay -> StayChange.removed(stay.roomId(), stay.checkIn(), stay.checkOut()))
+                .toList());
+    }
+
+    /**
+     * Aplica los cambios de ocupación en una sola escritura, si hay alguno.
+     *
+     * @param changes Estancias que entran o salen de la ocupación.
+     */
+    private void applyOccupancy(List<StayChange> changes) {
+        if (!changes.isEmpty()) {
+            occupancyService.applyStays(changes);
+        }
+    }
+
+    /**
+     * Convierte el cursor de paginación en la clave desde la que empezar.
+     * Los ids nunca están vacíos, así que "" precede a cualquiera.
+     *
+     * @param after Último id de la página anterior, o null.
+     * @return Clave de inicio.
+     */
+    private static String firstKey(String after) {
+        return after == null ? "" : after;
+    }
+
+    /**
+     * Convierte una reserva que aún no existe en una entidad marcada como
+     * nueva, para que se inserte con persist y sin SELECT previo. La
+     * habitación y el huésped se enlazan como referencias sin cargar, de
+     * modo que tampoco se consulta su existencia al insertar.
+     *
+     * @param booking Reserva nueva.
+     * @return Entidad lista para insertar.
+     */
+    private BookingEntity toNewEntity(Booking booking) {
+        BookingEntity entity = bookingMapper.toEntity(booking);
+
+        entity.setRoom(entityManager.getReference(RoomEntity.class, booking.getRoomId()));
+        entity.setGuest(entityManager.getReference(GuestEntity.class, booking.getGuestId()));
+        entity.markNew();
+        return entity;
+    }
+
+    /**
+     * Comprueba con una sola consulta que el huésped y la habitación de la
+     * reserva existen, y devuelve también cuántas reservas tienen su id.
+     *
+     * @param booking Reserva a validar.
+     * @return Coincidencias de cada referencia.
+     */
+    private BookingReferences findReferences(Booking booking) {
+        Guard.requireNonBlank(booking.getId(), "booking id");
+        Guard.requireNonBlank(booking.getGuestId(), "guest id");
+        Guard.requireNonBlank(booking.getRoomId(), "room id");
+
+        BookingReferences refs = bookingRepository.findReferences(
+                booking.getId(), booking.getGuestId(), booking.getRoomId());
+
+        if (refs.guests() == 0) {
+            throw new IllegalArgumentException("guest not found: " + booking.getGuestId());
+        }
+        if (refs.rooms() == 0) {
+            throw new IllegalArgumentException("room not found: " + booking.getRoomId());
+        }
+        return refs;
     }
-}
\ No newline at end of file
+}
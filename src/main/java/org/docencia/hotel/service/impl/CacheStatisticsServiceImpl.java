@@ -0,0 +1,96 @@
+package org.docencia.hotel.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.docencia.hotel.persistence.jpa.CacheRegions;
+import org.docencia.hotel.service.api.CacheStatisticsService;
+import org.docencia.hotel.service.cache.ExistenceCaches;
+import org.docencia.hotel.service.index.BookingIdFilter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Implementacion del servicio de estadisticas de cache, a partir de
+ * las estadisticas de Hibernate (hibernate.generate_statistics), de
+ * las de las caches de existencia y de las del filtro de ids de reserva.
+ */
+@Service
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    /**
+     * Estadisticas de la factoria de sesiones.
+     */
+    private final Statistics statistics;
+
+    /**
+     * Caches de existencia.
+     */
+    private final ExistenceCaches existenceCaches;
+
+    /**
+     * Filtro de ids de reserva.
+     */
+    private final BookingIdFilter bookingIdFilter;
+
+    /**
+     * Constructor del servicio de estadisticas.
+     *
+     * @param entityManagerFactory Factoria JPA, respaldada por Hibernate
+     * @param existenceCaches      Caches de existencia
+     * @param bookingIdFilter      Filtro de ids de reserva
+     */
+    public CacheStatisticsServiceImpl(EntityManagerFactory entityManagerFactory, ExistenceCaches existenceCaches,
+            BookingIdFilter bookingIdFilter) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.existenceCaches = existenceCaches;
+        this.bookingIdFilter = bookingIdFilter;
+    }
+
+    @Override
+    public List<CacheRegionStats> findRegionStatistics() {
+        List<CacheRegionStats> result = new ArrayList<>();
+
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            result.add(toStats(region, statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : CacheRegions.QUERY_REGIONS) {
+            result.add(toStats(region, statistics.getQueryRegionStatistics(region)));
+        }
+        return result;
+    }
+
+    @Override
+    public List<ExistenceCacheStats> findExistenceStatistics() {
+        return existenceCaches.statistics();
+    }
+
+    @Override
+    public BookingIdFilterStats findBookingIdFilterStatistics() {
+        return bookingIdFilter.stats();
+    }
+
+    /**
+     * Convierte los contadores de Hibernate de una region; una region
+     * sin actividad aun se devuelve con todos los contadores a cero.
+     *
+     * @param region Nombre de la region
+     * @param stats  Contadores de Hibernate, o null
+     * @return Contadores de la region
+     */
+    private static CacheRegionStats toStats(String region, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return new CacheRegionStats(region, 0, 0, 0, 0);
+        }
+
+        return new CacheRegionStats(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                stats.getElementCountInMemory());
+    }
+}
@@ -0,0 +1,196 @@
+package org.docencia.hotel.service.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.GuestPreferences;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.mapper.jpa.BookingMapper;
+import org.docencia.hotel.mapper.jpa.GuestMapper;
+import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.mapper.nosql.GuestPreferencesMapper;
+import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
+import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
+import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.persistence.repository.jpa.GuestJpaRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.persistence.repository.nosql.GuestPreferencesRepository;
+import org.docencia.hotel.service.api.ExportService;
+import org.docencia.hotel.validation.Guard;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Implementacion del servicio de exportacion.
+ *
+ * Las entidades se leen con un cursor de solo lectura y se entregan
+ * al destino una a una. Cada CHUNK_SIZE filas se vacia el contexto de
+ * persistencia, de forma que la memoria usada no crece con el tamaño
+ * de la tabla. Las preferencias de los huespedes se cargan de Mongo
+ * con una consulta por bloque, no por huesped.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    /**
+     * Filas entre dos vaciados del contexto de persistencia; coincide
+     * con el tamaño de lectura del cursor.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    /**
+     * Repositorio JPA de reservas.
+     */
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Repositorio JPA de huespedes.
+     */
+    private final GuestJpaRepository guestJpaRepository;
+
+    /**
+     * Repositorio JPA de habitaciones.
+     */
+    private final RoomRepository roomRepository;
+
+    /**
+     * Repositorio NoSQL de preferencias de huespedes.
+     */
+    private final GuestPreferencesRepository guestPreferencesRepository;
+
+    /**
+     * Mapeador de reservas.
+     */
+    private final BookingMapper bookingMapper;
+
+    /**
+     * Mapeador de huespedes.
+     */
+    private final GuestMapper guestMapper;
+
+    /**
+     * Mapeador de habitaciones.
+     */
+    private final RoomMapper roomMapper;
+
+    /**
+     * Mapeador de preferencias de huespedes.
+     */
+    private final GuestPreferencesMapper guestPreferencesMapper;
+
+    /**
+     * Contexto de persistencia, que se vacia periodicamente durante la lectura.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor del servicio de exportacion.
+     *
+     * @param bookingRepository          Repositorio JPA de reservas
+     * @param guestJpaRepository         Repositorio JPA de huespedes
+     * @param roomRepository             Repositorio JPA de habitaciones
+     * @param guestPreferencesRepository Repositorio NoSQL de preferencias
+     * @param bookingMapper              Mapeador de reservas
+     * @param guestMapper                Mapeador de huespedes
+     * @param roomMapper                 Mapeador de habitaciones
+     * @param guestPreferencesMapper     Mapeador de preferencias
+     * @param entityManager              Contexto de persistencia
+     */
+    public ExportServiceImpl(BookingRepository bookingRepository, GuestJpaRepository guestJpaRepository,
+            RoomRepository roomRepository, GuestPreferencesRepository guestPreferencesRepository,
+            BookingMapper bookingMapper, GuestMapper guestMapper, RoomMapper roomMapper,
+            GuestPreferencesMapper guestPreferencesMapper, EntityManager entityManager) {
+        this.bookingRepository = bookingRepository;
+        this.guestJpaRepository = guestJpaRepository;
+        this.roomRepository = roomRepository;
+        this.guestPreferencesRepository = guestPreferencesRepository;
+        this.bookingMapper = bookingMapper;
+        this.guestMapper = guestMapper;
+        this.roomMapper = roomMapper;
+        this.guestPreferencesMapper = guestPreferencesMapper;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public long exportBookings(Consumer<Booking> sink) {
+        Guard.requireNonNull(sink, "sink");
+
+        try (Stream<BookingEntity> rows = bookingRepository.streamAll()) {
+            return drain(rows, chunk -> chunk.forEach(entity -> sink.accept(bookingMapper.toDomain(entity))));
+        }
+    }
+
+    @Override
+    @Transactional
+    public long exportGuests(Consumer<Guest> sink) {
+        Guard.requireNonNull(sink, "sink");
+
+        try (Stream<GuestEntity> rows = guestJpaRepository.streamAll()) {
+            return drain(rows, chunk -> {
+                List<Guest> guests = chunk.stream().map(guestMapper::toDomain).toList();
+                Map<String, GuestPreferences> prefsById = guestPreferencesRepository
+                        .findAllById(guests.stream().map(Guest::getId).toList())
+                        .stream()
+                        .map(guestPreferencesMapper::toDomain)
+                        .collect(Collectors.toMap(GuestPreferences::getGuestId, Function.identity(), (a, b) -> a));
+
+                for (Guest guest : guests) {
+                    guest.setPreferences(prefsById.get(guest.getId()));
+                    sink.accept(guest);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public long exportRooms(Consumer<Room> sink) {
+        Guard.requireNonNull(sink, "sink");
+
+        try (Stream<RoomEntity> rows = roomRepository.streamAll()) {
+            return drain(rows, chunk -> chunk.forEach(entity -> sink.accept(roomMapper.toDomain(entity))));
+        }
+    }
+
+    /**
+     * Recorre el cursor en bloques de CHUNK_SIZE filas, entregando cada bloque
+     * y vaciando el contexto de persistencia despues.
+     *
+     * @param <E>     Tipo de entidad
+     * @param rows    Cursor de entidades
+     * @param onChunk Accion sobre cada bloque
+     * @return Numero de filas recorridas
+     */
+    private <E> long drain(Stream<E> rows, Consumer<List<E>> onChunk) {
+        List<E> chunk = new ArrayList<>(CHUNK_SIZE);
+        long count = 0;
+
+        for (Iterator<E> it = rows.iterator(); it.hasNext();) {
+            chunk.add(it.next());
+            count++;
+
+            if (chunk.size() == CHUNK_SIZE) {
+                onChunk.accept(chunk);
+                chunk.clear();
+                // Solo lectura: no hay cambios pendientes que se pierdan al vaciar
+                entityManager.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            onChunk.accept(chunk);
+        }
+        return count;
+    }
+}
@@ -1,9 +1,11 @@
 package org.docencia.hotel.service.impl;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.docencia.hotel.domain.model.Guest;
@@ -15,9 +17,16 @@ import org.docencia.hotel.persistence.nosql.document.GuestPreferencesDocument;
 import org.docencia.hotel.persistence.repository.jpa.GuestJpaRepository;
 import org.docencia.hotel.persistence.repository.nosql.GuestPreferencesRepository;
 import org.docencia.hotel.service.api.GuestService;
+import org.docencia.hotel.service.cache.ExistenceCache;
+import org.docencia.hotel.service.cache.ExistenceCaches;
+import org.docencia.hotel.service.cache.GuestAggregateCache;
+import org.docencia.hotel.service.cache.GuestPreferencesCache;
 import org.docencia.hotel.validation.Guard;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import jakarta.transaction.Transactional;
+
 /**
  * Implementacion del servicio de gestion de huespedes.
  * 
@@ -47,6 +56,21 @@ public class GuestServiceImpl implements GuestService {
      */
     private final GuestPreferencesMapper guestPreferencesMapper;
 
+    /**
+     * Cache de existencia de huespedes.
+     */
+    private final ExistenceCache existenceCache;
+
+    /**
+     * Cache de huespedes montados con sus preferencias.
+     */
+    private final GuestAggregateCache guestCache;
+
+    /**
+     * Cache cercana de las preferencias de Mongo.
+     */
+    private final GuestPreferencesCache preferencesCache;
+
     /**
      * Constructor de la clase GuestServiceImpl.
      * 
@@ -56,23 +80,61 @@ public class GuestServiceImpl implements GuestService {
      * @param guestMapper                Mapeador entre Guest y GuestEntity.
      * @param guestPreferencesMapper     Mapeador entre GuestPreferences y
      *                                   GuestPreferencesDocument.
+     * @param existenceCaches            Caches de existencia.
+     * @param guestCache                 Cache de huespedes montados.
+     * @param preferencesCache           Cache cercana de preferencias.
      */
     public GuestServiceImpl(GuestJpaRepository guestJpaRepository,
             GuestPreferencesRepository guestPreferencesRepository, GuestMapper guestMapper,
-            GuestPreferencesMapper guestPreferencesMapper) {
+            GuestPreferencesMapper guestPreferencesMapper, ExistenceCaches existenceCaches,
+            GuestAggregateCache guestCache, GuestPreferencesCache preferencesCache) {
         this.guestJpaRepository = guestJpaRepository;
         this.guestPreferencesRepository = guestPreferencesRepository;
         this.guestMapper = guestMapper;
         this.guestPreferencesMapper = guestPreferencesMapper;
+        this.existenceCache = existenceCaches.guests();
+        this.guestCache = guestCache;
+        this.preferencesCache = preferencesCache;
     }
 
 
     @Override
-    public Guest save(Guest guest) {
+    @Transactional
+    public Guest save(Guest guest, Long expectedVersion) {
+        Guard.requireNonNull(guest, "guest");
+        Guard.requireNonBlank(guest.getId(), "guest id");
+
+        Optional<GuestEntity> current = guestJpaRepository.findById(guest.getId());
+
+        if (current.isEmpty()) {
+            return insert(guest);
+        }
+
+        GuestEntity entity = current.get();
+        VersionCheck.requireExpected(GuestEntity.class, guest.getId(), expectedVersion, entity.getVersion());
+        guestMapper.updateEntity(guest, entity);
+        return write(guest, entity);
+    }
+
+    @Override
+    public Guest insert(Guest guest) {
         Guard.requireNonNull(guest, "guest");
 
         GuestEntity entity = guestMapper.toEntity(guest);
+        entity.markNew();
+        return write(guest, entity);
+    }
+
+    /**
+     * Guarda la entidad del huesped y sus preferencias.
+     *
+     * @param guest  Huesped de origen, con sus preferencias
+     * @param entity Entidad a guardar
+     * @return Huesped guardado
+     */
+    private Guest write(Guest guest, GuestEntity entity) {
         GuestEntity savedEntity = guestJpaRepository.save(entity);
+        existenceCache.invalidate(entity.getId());
         Guest savedGuest = guestMapper.toDomain(savedEntity);
 
         GuestPreferences prefs = guest.getPreferences();
@@ -84,11 +146,15 @@ public class GuestServiceImpl implements GuestService {
             doc.setGuestId(savedGuest.getId());
 
             GuestPreferencesDocument savedDoc = guestPreferencesRepository.save(doc);
+            preferencesCache.put(savedDoc);
+            // Si solo cambian las preferencias, la fila no se actualiza ni cambia su version
+            guestJpaRepository.incrementVersion(savedGuest.getId());
             savedGuest.setPreferences(guestPreferencesMapper.toDomain(savedDoc));
         } else {
             savedGuest.setPreferences(null);
         }
 
+        guestCache.invalidate(entity.getId());
         return savedGuest;
     }
 
@@ -99,6 +165,10 @@ public class GuestServiceImpl implements GuestService {
 
         GuestPreferencesDocument doc = guestPreferencesMapper.toDocument(preferences);
         GuestPreferencesDocument savedDoc = guestPreferencesRepository.save(doc);
+        preferencesCache.put(savedDoc);
+        // Despues de escribir en Mongo: una version nueva nunca acompaña a preferencias antiguas
+        guestJpaRepository.incrementVersion(preferences.getGuestId());
+        guestCache.invalidate(preferences.getGuestId());
 
         return guestPreferencesMapper.toDomain(savedDoc);
     }
@@ -106,13 +176,41 @@ public class GuestServiceImpl implements GuestService {
     @Override
     public boolean existsById(String id) {
         Guard.requireNonBlank(id, "guest id");
-        return guestJpaRepository.existsById(id);
+        return existenceCache.exists(id, key -> guestJpaRepository.existsById(key));
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Guard.requireNonNull(ids, "guest ids");
+
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+
+        return IdChunks.findExisting(ids, guestJpaRepository::findExistingIds);
     }
 
     @Override
     public Optional<Guest> findGuestById(String id) {
         Guard.requireNonBlank(id, "guest id");
 
+        return guestCache.get(id, this::loadGuest);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(String id) {
+        Guard.requireNonBlank(id, "guest id");
+
+        return guestJpaRepository.findVersionById(id);
+    }
+
+    /**
+     * Monta el huesped con sus preferencias a partir de las dos bases de datos.
+     *
+     * @param id Identificador del huesped
+     * @return Huesped con sus preferencias, o vacio si no existe
+     */
+    private Optional<Guest> loadGuest(String id) {
         Optional<Guest> guestOpt = guestJpaRepository.findById(id).map(guestMapper::toDomain);
         
         if (guestOpt.isEmpty()) {
@@ -121,7 +219,7 @@ public class GuestServiceImpl implements GuestService {
 
         Guest guest = guestOpt.get();
 
-        GuestPreferences prefs = guestPreferencesRepository.findById(id)
+        GuestPreferences prefs = preferencesCache.get(id, guestPreferencesRepository::findById)
                 .map(guestPreferencesMapper::toDomain)
                 .orElse(null);
 
@@ -130,8 +228,10 @@ public class GuestServiceImpl implements GuestService {
     }
 
     @Override
-    public List<Guest> findAllGuests() {
-        List<Guest> guests = guestJpaRepository.findAll()
+    public List<Guest> findAllGuests(String after, int limit) {
+        // Los ids nunca estan vacios, asi que "" precede a cualquiera
+        List<Guest> guests = guestJpaRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after,
+                Limit.of(limit))
                 .stream()
                 .map(guestMapper::toDomain)
                 .toList();
@@ -142,7 +242,9 @@ public class GuestServiceImpl implements GuestService {
 
         List<String> ids = guests.stream().map(Guest::getId).toList();
 
-        Map<String, GuestPreferences> prefsById = guestPreferencesRepository.findAllById(ids)
+        Map<String, GuestPreferences> prefsById = preferencesCache
+                .getAll(ids, guestPreferencesRepository::findAllById)
+                .values()
                 .stream()
                 .map(guestPreferencesMapper::toDomain)
                 .collect(Collectors.toMap(
@@ -159,7 +261,7 @@ public class GuestServiceImpl implements GuestService {
     public Optional<GuestPreferences> findPreferencesByGuestId(String guestId) {
         Guard.requireNonBlank(guestId, "guest id");
 
-        return guestPreferencesRepository.findById(guestId)
+        return preferencesCache.get(guestId, guestPreferencesRepository::findById)
                 .map(guestPreferencesMapper::toDomain);
     }
 
@@ -172,6 +274,9 @@ public class GuestServiceImpl implements GuestService {
         }
 
         guestPreferencesRepository.deleteById(guestId);
+        preferencesCache.putAbsent(guestId);
+        guestJpaRepository.incrementVersion(guestId);
+        guestCache.invalidate(guestId);
         return true;
     }
 
@@ -184,6 +289,8 @@ public class GuestServiceImpl implements GuestService {
         }
 
         guestJpaRepository.deleteById(id);
+        existenceCache.invalidate(id);
+        guestCache.invalidate(id);
         return true;
     }
 
@@ -7,10 +7,16 @@ import org.docencia.hotel.domain.model.Hotel;
 import org.docencia.hotel.mapper.jpa.HotelMapper;
 import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
 import org.docencia.hotel.persistence.repository.jpa.HotelRepository;
+import org.docencia.hotel.persistence.routing.ReadOnlyTransactional;
 import org.docencia.hotel.service.api.HotelService;
+import org.docencia.hotel.service.cache.ExistenceCache;
+import org.docencia.hotel.service.cache.ExistenceCaches;
 import org.docencia.hotel.validation.Guard;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import jakarta.transaction.Transactional;
+
 @Service
 public class HotelServiceImpl implements HotelService {
 
@@ -24,34 +30,67 @@ public class HotelServiceImpl implements HotelService {
      */
     private final HotelMapper hotelMapper;
 
+    /**
+     * Cache de existencia de hoteles.
+     */
+    private final ExistenceCache existenceCache;
+
     /**
      * Constructor de la implementación del servicio de hoteles.
      * 
      * @param hotelRepository Repositorio JPA de hoteles
      * @param hotelMapper     Mapeador entre la entidad JPA y el modelo de dominio
+     * @param existenceCaches Caches de existencia
      */
-    public HotelServiceImpl(HotelRepository hotelRepository, HotelMapper hotelMapper) {
+    public HotelServiceImpl(HotelRepository hotelRepository, HotelMapper hotelMapper,
+            ExistenceCaches existenceCaches) {
         this.hotelRepository = hotelRepository;
         this.hotelMapper = hotelMapper;
+        this.existenceCache = existenceCaches.hotels();
     }
 
     @Override
-    public Hotel save(Hotel hotel) {
+    @Transactional
+    public Hotel save(Hotel hotel, Long expectedVersion) {
         Guard.requireNonNull(hotel, "hotel");
+        Guard.requireNonBlank(hotel.getId(), "hotel id");
 
-        HotelEntity hotelEntityToSave = hotelMapper.toEntity(hotel);
+        Optional<HotelEntity> current = hotelRepository.findById(hotel.getId());
+
+        if (current.isEmpty()) {
+            return insert(hotel);
+        }
+
+        HotelEntity hotelEntityToSave = current.get();
+        VersionCheck.requireExpected(HotelEntity.class, hotel.getId(), expectedVersion, hotelEntityToSave.getVersion());
+        hotelMapper.updateEntity(hotel, hotelEntityToSave);
         HotelEntity savHotelEntity = hotelRepository.save(hotelEntityToSave);
+        existenceCache.invalidate(hotelEntityToSave.getId());
         return hotelMapper.toDomain(savHotelEntity);
     }
 
+    @Override
+    public Hotel insert(Hotel hotel) {
+        Guard.requireNonNull(hotel, "hotel");
+
+        HotelEntity hotelEntityToSave = hotelMapper.toEntity(hotel);
+        hotelEntityToSave.markNew();
+        HotelEntity savedHotelEntity = hotelRepository.save(hotelEntityToSave);
+        existenceCache.invalidate(hotelEntityToSave.getId());
+        return hotelMapper.toDomain(savedHotelEntity);
+    }
+
     @Override
     public boolean existsById(String id) {
         Guard.requireNonBlank(id, "hotel id");
 
-        return hotelRepository.existsById(id);
+        // Si no esta en la cache de existencia, findById pasa por la cache de segundo nivel;
+        // existsById lanzaria un count contra la tabla
+        return existenceCache.exists(id, key -> hotelRepository.findById(key).isPresent());
     }
 
     @Override
+    @ReadOnlyTransactional
     public Optional<Hotel> findById(String id) {
         Guard.requireNonBlank(id, "hotel id");
 
@@ -60,14 +99,25 @@ public class HotelServiceImpl implements HotelService {
     }
 
     @Override
-    public List<Hotel> findAll() {
-        return hotelRepository.findAll()
+    @ReadOnlyTransactional
+    public Optional<Long> findVersionById(String id) {
+        Guard.requireNonBlank(id, "hotel id");
+
+        return hotelRepository.findVersionById(id);
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Hotel> findAll(String after, int limit) {
+        // Los ids nunca estan vacios, asi que "" precede a cualquiera
+        return hotelRepository.findByIdGreaterThanOrderByIdAsc(after == null ? "" : after, Limit.of(limit))
                 .stream()
                 .map(hotelMapper::toDomain)
                 .toList();
     }
 
     @Override
+    @ReadOnlyTransactional
     public List<Hotel> findByName(String name) {
         Guard.requireNonBlank(name, "hotel name");
 
@@ -78,14 +128,12 @@ public class HotelServiceImpl implements HotelService {
     }
 
     @Override
+    @Transactional
     public boolean deleteById(String id) {
         Guard.requireNonBlank(id, "hotel id");
 
-        if (!hotelRepository.existsById(id)) {
-            return false;
-        }
-
-        hotelRepository.deleteById(id);
-        return true;
+        boolean deleted = hotelRepository.removeById(id) > 0;
+        existenceCache.invalidate(id);
+        return deleted;
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package org.docencia.hotel.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Consultas "id in (...)" repartidas en bloques de tamaño acotado.
+ *
+ * Un lote puede traer cientos de miles de ids; en una sola lista IN la
+ * sentencia y sus parametros crecerian sin limite. Se consulta por bloques
+ * de SIZE ids, el mismo tamaño que el lote JDBC (hibernate.jdbc.batch_size).
+ */
+final class IdChunks {
+
+    /**
+     * Numero maximo de ids por consulta.
+     */
+    static final int SIZE = 500;
+
+    private IdChunks() {
+    }
+
+    /**
+     * Obtiene, de entre los ids indicados, los que la consulta da por existentes,
+     * con una consulta por cada bloque de SIZE ids.
+     *
+     * @param ids   Identificadores a comprobar
+     * @param query Consulta de los existentes de un bloque
+     * @return Identificadores existentes
+     */
+    static Set<String> findExisting(Collection<String> ids, Function<List<String>, List<String>> query) {
+        List<String> all = new ArrayList<>(ids);
+        Set<String> existing = new HashSet<>();
+
+        for (int from = 0; from < all.size(); from += SIZE) {
+            existing.addAll(query.apply(all.subList(from, Math.min(from + SIZE, all.size()))));
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,191 @@
+package org.docencia.hotel.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.docencia.hotel.domain.model.DailyOccupancy;
+import org.docencia.hotel.persistence.jpa.entity.HotelOccupancyEntity;
+import org.docencia.hotel.persistence.jpa.entity.HotelOccupancyId;
+import org.docencia.hotel.persistence.jpa.projection.RoomHotel;
+import org.docencia.hotel.persistence.repository.jpa.HotelOccupancyRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.service.api.OccupancyService;
+import org.docencia.hotel.validation.Guard;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Implementacion del servicio de ocupacion diaria.
+ *
+ * Los contadores viven en la tabla hotel_occupancy. Los cambios de una
+ * operacion se suman en memoria por hotel y noche y se escriben con un
+ * unico MERGE; las filas que quedan a cero se eliminan para que la tabla
+ * solo contenga noches ocupadas.
+ *
+ * La tabla se recalcula al arrancar, antes de que la aplicacion atienda
+ * peticiones, con una sentencia que agrupa las reservas en la base de datos.
+ */
+@Service
+public class OccupancyServiceImpl implements OccupancyService {
+
+    /**
+     * Repositorio JPA de contadores de ocupacion.
+     */
+    private final HotelOccupancyRepository hotelOccupancyRepository;
+
+    /**
+     * Repositorio JPA de habitaciones, usado para resolver el hotel.
+     */
+    private final RoomRepository roomRepository;
+
+    /**
+     * Transacciones del recalculo, que se lanza fuera de cualquier peticion.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor del servicio de ocupacion.
+     *
+     * @param hotelOccupancyRepository Repositorio JPA de contadores de ocupacion
+     * @param roomRepository           Repositorio JPA de habitaciones
+     * @param transactionManager       Gestor de transacciones
+     */
+    public OccupancyServiceImpl(HotelOccupancyRepository hotelOccupancyRepository, RoomRepository roomRepository,
+            PlatformTransactionManager transactionManager) {
+        this.hotelOccupancyRepository = hotelOccupancyRepository;
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void addStay(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        applyStays(List.of(StayChange.added(roomId, checkIn, checkOut)));
+    }
+
+    @Override
+    public void removeStay(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        applyStays(List.of(StayChange.removed(roomId, checkIn, checkOut)));
+    }
+
+    @Override
+    public void applyStays(List<StayChange> changes) {
+        Guard.requireNonNull(changes, "stay changes");
+
+        List<StayChange> dated = changes.stream()
+                .filter(OccupancyServiceImpl::hasNights)
+                .toList();
+
+        if (dated.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> hotelByRoom = roomRepository.findHotelIdsByIds(dated.stream()
+                .map(StayChange::roomId)
+                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(RoomHotel::roomId, RoomHotel::hotelId));
+
+        Map<HotelOccupancyId, Integer> deltas = new HashMap<>();
+        for (StayChange change : dated) {
+            String hotelId = hotelByRoom.get(change.roomId());
+            if (hotelId == null) {
+                continue;
+            }
+            for (LocalDate night = change.checkIn(); night.isBefore(change.checkOut()); night = night.plusDays(1)) {
+                deltas.merge(new HotelOccupancyId(hotelId, night), change.delta(), Integer::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        write(deltas);
+    }
+
+    @Override
+    public List<DailyOccupancy> findByHotelId(String hotelId, String from, String to) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        LocalDate first = LocalDate.parse(from);
+        LocalDate end = LocalDate.parse(to);
+        Iterator<HotelOccupancyEntity> rows = hotelOccupancyRepository.findRange(hotelId, first, end).iterator();
+        HotelOccupancyEntity row = rows.hasNext() ? rows.next() : null;
+
+        List<DailyOccupancy> result = new ArrayList<>();
+        for (LocalDate night = first; night.isBefore(end); night = night.plusDays(1)) {
+            int occupied = 0;
+            if (row != null && row.getNight().equals(night)) {
+                occupied = row.getOccupiedRooms();
+                row = rows.hasNext() ? rows.next() : null;
+            }
+            result.add(new DailyOccupancy(night.toString(), occupied));
+        }
+        return result;
+    }
+
+    @Override
+    @PostConstruct
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            hotelOccupancyRepository.deleteAllInBatch();
+            hotelOccupancyRepository.insertFromBookings();
+        });
+    }
+
+    /**
+     * Escribe los cambios con un solo MERGE y elimina las noches que
+     * hayan podido quedar a cero. Las filas van ordenadas por hotel y
+     * noche, de forma que transacciones concurrentes las bloquean en el
+     * mismo orden.
+     *
+     * @param deltas Cambio de cada contador, distinto de cero
+     */
+    private void write(Map<HotelOccupancyId, Integer> deltas) {
+        List<Map.Entry<HotelOccupancyId, Integer>> rows = new ArrayList<>(deltas.entrySet());
+        rows.sort(Map.Entry.comparingByKey(Comparator.comparing(HotelOccupancyId::getHotelId)
+                .thenComparing(HotelOccupancyId::getNight)));
+
+        String[] hotelIds = new String[rows.size()];
+        LocalDate[] nights = new LocalDate[rows.size()];
+        Integer[] values = new Integer[rows.size()];
+        Set<String> decreased = new HashSet<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            HotelOccupancyId id = rows.get(i).getKey();
+            hotelIds[i] = id.getHotelId();
+            nights[i] = id.getNight();
+            values[i] = rows.get(i).getValue();
+            if (values[i] < 0) {
+                decreased.add(id.getHotelId());
+            }
+        }
+
+        hotelOccupancyRepository.addAll(hotelIds, nights, values);
+        if (!decreased.isEmpty()) {
+            hotelOccupancyRepository.deleteEmpty(decreased);
+        }
+    }
+
+    /**
+     * Indica si la estancia ocupa alguna noche.
+     */
+    private static boolean hasNights(StayChange change) {
+        return change.roomId() != null && change.checkIn() != null && change.checkOut() != null
+                && change.checkIn().isBefore(change.checkOut());
+    }
+}
@@ -0,0 +1,127 @@
+package org.docencia.hotel.service.impl;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.persistence.jpa.projection.HotelRoomCount;
+import org.docencia.hotel.persistence.jpa.projection.StayRevenue;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.persistence.routing.ReadOnlyTransactional;
+import org.docencia.hotel.service.api.RevenueService;
+import org.docencia.hotel.validation.Guard;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementacion del servicio de ingresos.
+ *
+ * Las reservas se leen con un cursor de solo lectura y se acumulan
+ * en arrays primitivos por hotel (un hueco por mes), de forma que la
+ * memoria usada depende del numero de hoteles y meses del informe y
+ * no del numero de reservas.
+ */
+@Service
+public class RevenueServiceImpl implements RevenueService {
+
+    /**
+     * Repositorio JPA de reservas.
+     */
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Repositorio JPA de habitaciones, usado para contar las disponibles.
+     */
+    private final RoomRepository roomRepository;
+
+    /**
+     * Constructor del servicio de ingresos.
+     *
+     * @param bookingRepository Repositorio JPA de reservas
+     * @param roomRepository    Repositorio JPA de habitaciones
+     */
+    public RevenueServiceImpl(BookingRepository bookingRepository, RoomRepository roomRepository) {
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<MonthlyRevenue> findMonthlyRevenue(String from, String to) {
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        YearMonth firstMonth = YearMonth.parse(from);
+        int months = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.parse(to));
+        LocalDate start = firstMonth.atDay(1);
+        LocalDate end = start.plusMonths(months);
+
+        Map<String, Accumulator> byHotel = new HashMap<>();
+
+        try (Stream<StayRevenue> stays = bookingRepository.streamStayRevenues(start, end)) {
+            stays.forEach(stay -> byHotel
+                    .computeIfAbsent(stay.hotelId(), id -> new Accumulator(months))
+                    .add(stay, firstMonth, start, end));
+        }
+
+        List<MonthlyRevenue> result = new ArrayList<>();
+        for (HotelRoomCount count : roomRepository.countRoomsByHotel()) {
+            Accumulator acc = byHotel.getOrDefault(count.hotelId(), new Accumulator(months));
+
+            for (int i = 0; i < months; i++) {
+                YearMonth month = firstMonth.plusMonths(i);
+                long available = count.rooms() * month.lengthOfMonth();
+                double revenue = acc.revenue[i];
+                long sold = acc.nights[i];
+
+                result.add(new MonthlyRevenue(count.hotelId(), month.toString(), sold, available,
+                        round(revenue), sold == 0 ? 0 : round(revenue / sold), round(revenue / available)));
+            }
+        }
+        return result;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    /**
+     * Noches vendidas e ingresos de un hotel, un hueco por mes del informe.
+     */
+    private static final class Accumulator {
+
+        private final long[] nights;
+        private final double[] revenue;
+
+        Accumulator(int months) {
+            this.nights = new long[months];
+            this.revenue = new double[months];
+        }
+
+        /**
+         * Reparte las noches de la estancia dentro de [start, end) entre sus meses.
+         */
+        void add(StayRevenue stay, YearMonth firstMonth, LocalDate start, LocalDate end) {
+            LocalDate night = stay.checkIn().isBefore(start) ? start : stay.checkIn();
+            LocalDate last = stay.checkOut().isAfter(end) ? end : stay.checkOut();
+
+            while (night.isBefore(last)) {
+                YearMonth month = YearMonth.from(night);
+                LocalDate monthEnd = month.plusMonths(1).atDay(1);
+                LocalDate segmentEnd = monthEnd.isBefore(last) ? monthEnd : last;
+                int slot = (int) ChronoUnit.MONTHS.between(firstMonth, month);
+                long count = ChronoUnit.DAYS.between(night, segmentEnd);
+
+                nights[slot] += count;
+                revenue[slot] += count * stay.pricePerNight();
+                night = segmentEnd;
+            }
+        }
+    }
+}
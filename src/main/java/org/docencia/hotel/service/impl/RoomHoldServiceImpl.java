@@ -0,0 +1,209 @@
+package org.docencia.hotel.service.impl;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.docencia.hotel.domain.model.RoomHold;
+import org.docencia.hotel.service.api.RoomHoldService;
+import org.docencia.hotel.service.hold.HashedTimingWheel;
+import org.docencia.hotel.validation.Guard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementacion en memoria del servicio de retenciones.
+ *
+ * Cada retencion se indexa por id y por habitacion, y programa su
+ * caducidad en una rueda de temporizadores: crear, liberar y caducar
+ * cuestan O(1) y el tick periodico solo recorre las retenciones que
+ * vencen en ese momento, no todas las activas. Como el tick tiene
+ * una granularidad fija, las consultas ignoran ademas las retenciones
+ * cuyo plazo ya ha pasado aunque la rueda aun no las haya retirado.
+ */
+@Service
+public class RoomHoldServiceImpl implements RoomHoldService {
+
+    /**
+     * Retenciones activas indexadas por id.
+     */
+    private final ConcurrentMap<String, ActiveHold> holdsById = new ConcurrentHashMap<>();
+
+    /**
+     * Retenciones activas de cada habitacion, indexadas por id de habitacion y de retencion.
+     */
+    private final ConcurrentMap<String, Map<String, ActiveHold>> holdsByRoom = new ConcurrentHashMap<>();
+
+    /**
+     * Rueda que programa la caducidad de cada retencion.
+     */
+    private final HashedTimingWheel<String> wheel;
+
+    /**
+     * Reloj usado para calcular y comprobar la caducidad.
+     */
+    private final Clock clock;
+
+    /**
+     * Tiempo de vida de las retenciones en milisegundos.
+     */
+    private final long ttlMillis;
+
+    /**
+     * Constructor del servicio de retenciones.
+     *
+     * @param ttlSeconds Tiempo de vida de las retenciones en segundos
+     * @param tickMillis Duracion de un tick de la rueda en milisegundos
+     * @param wheelSize  Numero de cubetas de la rueda
+     */
+    @Autowired
+    public RoomHoldServiceImpl(@Value("${hotel.hold.ttl-seconds:600}") long ttlSeconds,
+            @Value("${hotel.hold.tick-millis:1000}") long tickMillis,
+            @Value("${hotel.hold.wheel-size:512}") int wheelSize) {
+        this(Clock.systemUTC(), ttlSeconds, tickMillis, wheelSize);
+    }
+
+    /**
+     * Constructor con reloj explicito.
+     *
+     * @param clock      Reloj
+     * @param ttlSeconds Tiempo de vida de las retenciones en segundos
+     * @param tickMillis Duracion de un tick de la rueda en milisegundos
+     * @param wheelSize  Numero de cubetas de la rueda
+     */
+    RoomHoldServiceImpl(Clock clock, long ttlSeconds, long tickMillis, int wheelSize) {
+        if (ttlSeconds <= 0) {
+            throw new IllegalArgumentException("hold ttl must be positive");
+        }
+
+        this.clock = clock;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, clock::millis, this::evict);
+    }
+
+    @Override
+    public RoomHold create(String roomId, String checkIn, String checkOut) {
+        Guard.requireNonBlank(roomId, "room id");
+        Guard.requireNonBlank(checkIn, "checkIn");
+        Guard.requireNonBlank(checkOut, "checkOut");
+
+        String id = UUID.randomUUID().toString();
+        ActiveHold hold = new ActiveHold(id, roomId, LocalDate.parse(checkIn), LocalDate.parse(checkOut),
+                clock.millis() + ttlMillis);
+
+        holdsById.put(id, hold);
+        holdsByRoom.computeIfAbsent(roomId, key -> new ConcurrentHashMap<>()).put(id, hold);
+        hold.timeout = wheel.schedule(id, ttlMillis);
+
+        return hold.toDomain();
+    }
+
+    @Override
+    public Optional<RoomHold> findById(String id) {
+        Guard.requireNonBlank(id, "hold id");
+
+        ActiveHold hold = holdsById.get(id);
+
+        if (hold == null || hold.isExpired(clock.millis())) {
+            return Optional.empty();
+        }
+        return Optional.of(hold.toDomain());
+    }
+
+    @Override
+    public boolean release(String id) {
+        Guard.requireNonBlank(id, "hold id");
+
+        ActiveHold hold = evict(id);
+
+        if (hold == null) {
+            return false;
+        }
+        if (hold.timeout != null) {
+            hold.timeout.cancel();
+        }
+        return !hold.isExpired(clock.millis());
+    }
+
+    @Override
+    public boolean isHeld(String roomId, String checkIn, String checkOut, String excludeHoldId) {
+        Map<String, ActiveHold> holds = holdsByRoom.get(roomId);
+
+        if (holds == null || holds.isEmpty() || checkIn == null || checkOut == null) {
+            return false;
+        }
+
+        LocalDate from = LocalDate.parse(checkIn);
+        LocalDate to = LocalDate.parse(checkOut);
+        long now = clock.millis();
+
+        for (ActiveHold hold : holds.values()) {
+            if (!hold.id.equals(excludeHoldId) && !hold.isExpired(now)
+                    && hold.checkIn.isBefore(to) && from.isBefore(hold.checkOut)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${hotel.hold.tick-millis:1000}")
+    public int expire() {
+        return wheel.advance();
+    }
+
+    /**
+     * Retira una retencion de los indices.
+     *
+     * @param id Identificador de la retencion
+     * @return Retencion retirada, o null si no estaba
+     */
+    private ActiveHold evict(String id) {
+        ActiveHold hold = holdsById.remove(id);
+
+        if (hold != null) {
+            holdsByRoom.computeIfPresent(hold.roomId, (roomId, holds) -> {
+                holds.remove(id);
+                return holds.isEmpty() ? null : holds;
+            });
+        }
+        return hold;
+    }
+
+    /**
+     * Retencion activa con sus fechas ya convertidas.
+     */
+    private static final class ActiveHold {
+
+        private final String id;
+        private final String roomId;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+        private final long expiresAtMillis;
+        private volatile HashedTimingWheel.Timeout<String> timeout;
+
+        private ActiveHold(String id, String roomId, LocalDate checkIn, LocalDate checkOut, long expiresAtMillis) {
+            this.id = id;
+            this.roomId = roomId;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+
+        private RoomHold toDomain() {
+            return new RoomHold(id, roomId, checkIn.toString(), checkOut.toString(),
+                    Instant.ofEpochMilli(expiresAtMillis).toString());
+        }
+    }
+}
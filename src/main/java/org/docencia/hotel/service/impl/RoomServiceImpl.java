@@ -1,16 +1,31 @@
 package org.docencia.hotel.service.impl;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.docencia.hotel.domain.model.GuestPreferences;
 import org.docencia.hotel.domain.model.Room;
 import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
 import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
 import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.persistence.routing.ReadOnlyTransactional;
+import org.docencia.hotel.service.api.RoomHoldService;
 import org.docencia.hotel.service.api.RoomService;
+import org.docencia.hotel.service.cache.ExistenceCache;
+import org.docencia.hotel.service.cache.ExistenceCaches;
+import org.docencia.hotel.service.index.RoomAttributeIndex;
+import org.docencia.hotel.service.index.RoomAvailabilityCalendar;
 import org.docencia.hotel.validation.Guard;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
 @Service
 public class RoomServiceImpl implements RoomService {
 
@@ -24,34 +39,127 @@ public class RoomServiceImpl implements RoomService {
      */
     private final RoomMapper roomMapper;
 
+    /**
+     * Calendario de disponibilidad en memoria.
+     */
+    private final RoomAvailabilityCalendar roomAvailabilityCalendar;
+
+    /**
+     * Indice en memoria de atributos de habitaciones.
+     */
+    private final RoomAttributeIndex roomAttributeIndex;
+
+    /**
+     * Servicio de retenciones, para no ofrecer habitaciones bloqueadas.
+     */
+    private final RoomHoldService roomHoldService;
+
+    /**
+     * Contexto de persistencia, para enlazar el hotel sin cargarlo al insertar.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Cache de existencia de habitaciones.
+     */
+    private final ExistenceCache existenceCache;
+
     /**
      * Constructor de la implementación del servicio de habitaciones.
      * 
-     * @param roomRepository Repositorio JPA de habitaciones
-     * @param roomMapper     Mapeador entre la entidad JPA y el modelo de dominio
+     * @param roomRepository           Repositorio JPA de habitaciones
+     * @param roomMapper               Mapeador entre la entidad JPA y el modelo de dominio
+     * @param roomAvailabilityCalendar Calendario de disponibilidad en memoria
+     * @param roomAttributeIndex       Indice en memoria de atributos de habitaciones
+     * @param roomHoldService          Servicio de retenciones
+     * @param entityManager            Contexto de persistencia
+     * @param existenceCaches          Caches de existencia
      */
-    public RoomServiceImpl(RoomRepository roomRepository, RoomMapper roomMapper) {
+    public RoomServiceImpl(RoomRepository roomRepository, RoomMapper roomMapper,
+            RoomAvailabilityCalendar roomAvailabilityCalendar, RoomAttributeIndex roomAttributeIndex,
+            RoomHoldService roomHoldService, EntityManager entityManager, ExistenceCaches existenceCaches) {
         this.roomRepository = roomRepository;
         this.roomMapper = roomMapper;
+        this.roomAvailabilityCalendar = roomAvailabilityCalendar;
+        this.roomAttributeIndex = roomAttributeIndex;
+        this.roomHoldService = roomHoldService;
+        this.entityManager = entityManager;
+        this.existenceCache = existenceCaches.rooms();
+    }
+
+    @Override
+    @Transactional
+    public Room save(Room room, Long expectedVersion) {
+        Guard.requireNonNull(room, "room");
+        Guard.requireNonBlank(room.getId(), "room id");
+        Guard.requireNonBlank(room.getHotelId(), "hotel id");
+
+        Optional<RoomEntity> current = roomRepository.findById(room.getId());
+
+        if (current.isEmpty()) {
+            return insert(room);
+        }
+
+        RoomEntity roomEntityToSave = current.get();
+        VersionCheck.requireExpected(RoomEntity.class, room.getId(), expectedVersion, roomEntityToSave.getVersion());
+        roomMapper.updateEntity(room, roomEntityToSave);
+        roomEntityToSave.setHotel(entityManager.getReference(HotelEntity.class, room.getHotelId()));
+        return write(roomEntityToSave);
     }
 
     @Override
-    public Room save(Room room) {
+    @Transactional
+    public Room insert(Room room) {
         Guard.requireNonNull(room, "room");
+        Guard.requireNonBlank(room.getHotelId(), "hotel id");
 
         RoomEntity roomEntityToSave = roomMapper.toEntity(room);
+        // Referencia sin cargar: persist no consulta si el hotel existe
+        roomEntityToSave.setHotel(entityManager.getReference(HotelEntity.class, room.getHotelId()));
+        roomEntityToSave.markNew();
+        return write(roomEntityToSave);
+    }
+
+    /**
+     * Guarda la entidad y, tras el commit, la registra en los indices en memoria.
+     * 
+     * @param roomEntityToSave Entidad a guardar
+     * @return Habitacion guardada
+     */
+    private Room write(RoomEntity roomEntityToSave) {
         RoomEntity savedRoomEntity = roomRepository.save(roomEntityToSave);
-        return roomMapper.toDomain(savedRoomEntity);
+        existenceCache.invalidate(roomEntityToSave.getId());
+        Room savedRoom = roomMapper.toDomain(savedRoomEntity);
+
+        AfterCommit.run(() -> {
+            roomAvailabilityCalendar.registerRoom(savedRoom);
+            roomAttributeIndex.registerRoom(savedRoom);
+        });
+        return savedRoom;
     }
 
     @Override
     public boolean existsById(String id) {
         Guard.requireNonBlank(id, "room id");
 
-        return roomRepository.existsById(id);
+        // Si no esta en la cache de existencia, findById pasa por la cache de segundo nivel;
+        // existsById lanzaria un count contra la tabla
+        return existenceCache.exists(id, key -> roomRepository.findById(key).isPresent());
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Guard.requireNonNull(ids, "room ids");
+
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+
+        return IdChunks.findExisting(ids, roomRepository::findExistingIds);
     }
 
     @Override
+    @ReadOnlyTransactional
     public Optional<Room> findById(String id) {
         Guard.requireNonBlank(id, "room id");
 
@@ -60,50 +168,109 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public List<Room> findAll() {
-        return roomRepository.findAll()
+    @ReadOnlyTransactional
+    public Optional<Long> findVersionById(String id) {
+        Guard.requireNonBlank(id, "room id");
+
+        return roomRepository.findVersionById(id);
+    }
+
+    @Override
+    @ReadOnlyTransactional
+    public List<Room> findAll(String after, int limit) {
+        // Los ids nunca estan vacios, asi que "" precede a cualquiera
+        return roomRepository.findRowsAfter(after == null ? "" : after, Limit.of(limit))
                 .stream()
                 .map(roomMapper::toDomain)
                 .toList();
     }
 
     @Override
+    @ReadOnlyTransactional
     public List<Room> findByHotelId(String hotelId) {
         Guard.requireNonBlank(hotelId, "hotel id");
 
-        return roomRepository.findByHotel_Id(hotelId)
+        return roomRepository.findRowsByHotelId(hotelId)
                 .stream()
                 .map(roomMapper::toDomain)
                 .toList();
     }
 
     @Override
+    @ReadOnlyTransactional
     public List<Room> findByHotelIdAndType(String hotelId, String type) {
         Guard.requireNonBlank(hotelId, "hotel id");
         Guard.requireNonBlank(type, "room type");
 
-        return roomRepository.findByHotel_IdAndType(hotelId, type)
+        return roomRepository.findRowsByHotelIdAndType(hotelId, type)
                 .stream()
                 .map(roomMapper::toDomain)
                 .toList();
     }
 
     @Override
+    public List<Room> findAvailableByHotelId(String hotelId, String from, String to, String type) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        return roomAvailabilityCalendar.findFreeRooms(hotelId, LocalDate.parse(from), LocalDate.parse(to), type)
+                .stream()
+                .filter(room -> !roomHoldService.isHeld(room.getId(), from, to, null))
+                .toList();
+    }
+
+    @Override
+    public List<Room> findRecommendedByHotelId(String hotelId, GuestPreferences preferences, String from, String to,
+            int limit) {
+        Guard.requireNonBlank(hotelId, "hotel id");
+        Guard.requireNonNull(preferences, "preferences");
+        Guard.requireNonBlank(from, "from");
+        Guard.requireNonBlank(to, "to");
+
+        LocalDate checkIn = LocalDate.parse(from);
+        LocalDate checkOut = LocalDate.parse(to);
+
+        return roomAttributeIndex.rankRooms(hotelId, preferences)
+                .stream()
+                .filter(room -> roomAvailabilityCalendar.isFree(room.getId(), checkIn, checkOut))
+                .filter(room -> !roomHoldService.isHeld(room.getId(), from, to, null))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    @Transactional
     public boolean deleteById(String id) {
         Guard.requireNonBlank(id, "room id");
 
-        if (!roomRepository.existsById(id)) {
+        int deleted = roomRepository.removeById(id);
+        existenceCache.invalidate(id);
+        if (deleted == 0) {
             return false;
         }
 
-        roomRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            roomAvailabilityCalendar.unregisterRoom(id);
+            roomAttributeIndex.unregisterRoom(id);
+        });
         return true;
     }
 
     @Override
+    @Transactional
     public int deleteByHotelId(String hotelId) {
         Guard.requireNonBlank(hotelId, "hotel id");
 
-        return roomRepository.deleteByHotel_Id(hotelId);
+        int deleted = roomRepository.deleteByHotel_Id(hotelId);
+        if (deleted > 0) {
+            // El borrado masivo no devuelve los ids; es raro y basta con vaciar la cache
+            existenceCache.invalidateAll();
+        }
+        AfterCommit.run(() -> {
+            roomAvailabilityCalendar.unregisterHotel(hotelId);
+            roomAttributeIndex.unregisterHotel(hotelId);
+        });
+        return deleted;
     }
 }
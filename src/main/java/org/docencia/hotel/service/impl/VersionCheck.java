@@ -0,0 +1,34 @@
+package org.docencia.hotel.service.impl;
+
+import org.docencia.hotel.service.api.VersionMismatchException;
+
+/**
+ * Comprobacion de la version que el cliente espera modificar.
+ *
+ * El cliente la envia en If-Match con el ETag que leyo. Se compara con la
+ * version de la entidad cargada en la transaccion de la escritura; si no
+ * coincide la escritura no se intenta (412). Si la fila cambia despues, la
+ * comprobacion de version de Hibernate al hacer flush rechaza igualmente la
+ * actualizacion (409).
+ */
+final class VersionCheck {
+
+    private VersionCheck() {
+    }
+
+    /**
+     * Verifica que la entidad sigue en la version esperada.
+     *
+     * @param entityClass     Clase de la entidad
+     * @param id              Identificador de la entidad
+     * @param expectedVersion Version esperada, o null si el cliente no la indica
+     * @param currentVersion  Version de la entidad cargada
+     * @throws VersionMismatchException Si las versiones no coinciden
+     */
+    static void requireExpected(Class<?> entityClass, String id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new VersionMismatchException(entityClass.getSimpleName() + " " + id + " is at version "
+                    + currentVersion + ", not " + expectedVersion);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.docencia.hotel.service.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Filtro de Bloom con los ids de todas las reservas.
+ *
+ * Responde si un id de reserva puede existir sin consultar la base de
+ * datos: un no es definitivo, y solo un quiza obliga a consultarla. Como
+ * casi todos los ids nuevos son unicos, la comprobacion de duplicados se
+ * queda casi siempre en memoria.
+ *
+ * El filtro se carga a partir de BookingRepository al arrancar y el
+ * servicio de reservas anade cada id antes de escribir la fila, de forma
+ * que nunca hay falsos negativos. Los borrados no se pueden quitar del
+ * filtro: los ids borrados siguen dando quiza y acaban en la base de datos,
+ * igual que los falsos positivos.
+ *
+ * Se dimensiona para el numero de ids y la tasa de falsos positivos
+ * configurados; si se superan esos ids la tasa real crece, y la estimada
+ * se publica en las estadisticas junto a la configurada.
+ */
+@Component
+public class BookingIdFilter {
+
+    /**
+     * Repositorio JPA de reservas, usado para la carga inicial.
+     */
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Numero de ids para el que se dimensiona el filtro.
+     */
+    private final long expectedIds;
+
+    /**
+     * Tasa de falsos positivos configurada para expectedIds.
+     */
+    private final double falsePositiveRate;
+
+    /**
+     * Numero de bits del filtro.
+     */
+    private final long bitCount;
+
+    /**
+     * Numero de posiciones que se marcan por id.
+     */
+    private final int hashFunctions;
+
+    /**
+     * Bits del filtro, en palabras de 64.
+     */
+    private final AtomicLongArray words;
+
+    /**
+     * Consultas respondidas con un no definitivo.
+     */
+    private final LongAdder negatives = new LongAdder();
+
+    /**
+     * Consultas respondidas con un quiza.
+     */
+    private final LongAdder positives = new LongAdder();
+
+    /**
+     * Constructor del filtro.
+     *
+     * @param bookingRepository Repositorio JPA de reservas
+     * @param expectedIds       Numero de ids para el que se dimensiona
+     * @param falsePositiveRate Tasa de falsos positivos con ese numero de ids
+     */
+    public BookingIdFilter(BookingRepository bookingRepository,
+            @Value("${hotel.booking-id-filter.expected-ids:1000000}") long expectedIds,
+            @Value("${hotel.booking-id-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedIds <= 0) {
+            throw new IllegalArgumentException("expected booking ids must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false positive rate must be between 0 and 1");
+        }
+        this.bookingRepository = bookingRepository;
+        this.expectedIds = expectedIds;
+        this.falsePositiveRate = falsePositiveRate;
+
+        // m = -n ln p / (ln 2)^2 y k = m/n ln 2, que minimiza la tasa para ese m
+        long bits = (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE);
+
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedIds * Math.log(2)));
+        this.words = new AtomicLongArray(wordCount);
+    }
+
+    /**
+     * Carga en el filtro los ids de las reservas persistidas. Solo debe
+     * invocarse al arrancar: mientras se vacia podria dar falsos negativos.
+     */
+    @PostConstruct
+    public void rebuild() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+        for (String id : bookingRepository.findAllIds()) {
+            put(id);
+        }
+    }
+
+    /**
+     * Anade un id al filtro. Debe hacerse antes de que la fila sea visible.
+     *
+     * @param id Id de reserva
+     */
+    public void put(String id) {
+        long hash1 = hash(id);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+
+            if ((words.get(word) & mask) == 0) {
+                words.getAndUpdate(word, value -> value | mask);
+            }
+        }
+    }
+
+    /**
+     * Indica si el id puede pertenecer a una reserva.
+     *
+     * @param id Id de reserva
+     * @return false si seguro que no existe; true si puede existir
+     */
+    public boolean mightContain(String id) {
+        long hash1 = hash(id);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        positives.increment();
+        return true;
+    }
+
+    /**
+     * Devuelve el dimensionado del filtro y sus contadores desde el arranque.
+     *
+     * @return Tasas de falsos positivos, memoria y respuestas
+     */
+    public BookingIdFilterStats stats() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+
+        // Con una fraccion f de bits a uno, un id ausente da quiza con probabilidad f^k
+        double estimatedRate = Math.pow((double) setBits / bitCount, hashFunctions);
+
+        return new BookingIdFilterStats(expectedIds, falsePositiveRate, estimatedRate, bitCount, hashFunctions,
+                bitCount / Byte.SIZE, negatives.sum(), positives.sum());
+    }
+
+    /**
+     * Hash de 64 bits del id (FNV-1a sobre los caracteres, con mezcla final).
+     */
+    private static long hash(String id) {
+        long hash = 0xCBF29CE484222325L;
+
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Mezcla final de MurmurHash3, para repartir todos los bits del hash.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB93FE53E1A63L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,477 @@
+package org.docencia.hotel.service.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.persistence.jpa.projection.BookingRow;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Indice en memoria de las estancias reservadas por habitacion.
+ *
+ * Para cada habitacion mantiene un array ordenado por fecha de entrada
+ * con los rangos [checkIn, checkOut) expresados en dias epoch, de forma
+ * que comprobar si un rango se solapa con alguna reserva cuesta una
+ * busqueda binaria y no requiere consultar la base de datos.
+ *
+ * El indice se construye a partir de BookingRepository al arrancar,
+ * recorriendo proyecciones con un cursor en lugar de cargar las entidades,
+ * y se mantiene actualizado desde el servicio de reservas en cada
+ * alta, modificacion y borrado, una vez confirmada su transaccion.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    /**
+     * Repositorio JPA de reservas, usado para la carga inicial.
+     */
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Transaccion de solo lectura en la que se recorre el cursor de la carga inicial.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Estancias de cada habitacion, indexadas por id de habitacion.
+     */
+    private final ConcurrentMap<String, RoomStays> staysByRoom = new ConcurrentHashMap<>();
+
+    /**
+     * Estancia indexada de cada reserva, indexada por id de reserva.
+     */
+    private final ConcurrentMap<String, Stay> staysByBooking = new ConcurrentHashMap<>();
+
+    /**
+     * Oyentes notificados con el id de cada habitacion cuyas estancias cambian.
+     */
+    private final List<Consumer<String>> roomChangeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor del indice.
+     *
+     * @param bookingRepository  Repositorio JPA de reservas
+     * @param transactionManager Gestor de transacciones
+     */
+    public BookingIntervalIndex(BookingRepository bookingRepository, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reconstruye el indice completo a partir de las reservas persistidas.
+     */
+    @PostConstruct
+    public void rebuild() {
+        staysByRoom.clear();
+        staysByBooking.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingRow> rows = bookingRepository.streamRows()) {
+                rows.filter(row -> row.roomId() != null && row.guestId() != null)
+                        .forEach(row -> put(row.id(), row.roomId(), row.guestId(), row.checkIn(), row.checkOut()));
+            }
+        });
+    }
+
+    /**
+     * Registra (o reemplaza) la estancia de una reserva.
+     *
+     * Si la reserva no tiene fechas, solo se elimina su estancia anterior.
+     *
+     * @param bookingId Identificador de la reserva
+     * @param roomId    Identificador de la habitacion
+     * @param guestId   Identificador del huesped
+     * @param checkIn   Fecha de entrada, o null
+     * @param checkOut  Fecha de salida, o null
+     */
+    public void put(String bookingId, String roomId, String guestId, LocalDate checkIn, LocalDate checkOut) {
+        remove(bookingId);
+
+        if (roomId == null || checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+            return;
+        }
+
+        Stay stay = new Stay(bookingId, roomId, guestId, (int) checkIn.toEpochDay(), (int) checkOut.toEpochDay());
+        staysByRoom.compute(roomId, (id, stays) -> (stays == null ? RoomStays.EMPTY : stays).with(stay));
+        staysByBooking.put(bookingId, stay);
+        notifyRoomChanged(roomId);
+    }
+
+    /**
+     * Elimina la estancia de una reserva, si estaba indexada.
+     *
+     * @param bookingId Identificador de la reserva
+     */
+    public void remove(String bookingId) {
+        Stay stay = staysByBooking.remove(bookingId);
+
+        if (stay == null) {
+            return;
+        }
+
+        staysByRoom.computeIfPresent(stay.roomId(), (id, stays) -> {
+            RoomStays updated = stays.without(bookingId);
+            return updated.isEmpty() ? null : updated;
+        });
+        notifyRoomChanged(stay.roomId());
+    }
+
+    /**
+     * Elimina todas las estancias de una habitacion.
+     *
+     * @param roomId Identificador de la habitacion
+     * @return Estancias eliminadas
+     */
+    public List<Stay> removeByRoom(String roomId) {
+        RoomStays stays = staysByRoom.remove(roomId);
+
+        if (stays == null) {
+            return List.of();
+        }
+
+        List<Stay> removed = new ArrayList<>(stays.bookingIds.length);
+        for (String bookingId : stays.bookingIds) {
+            Stay stay = staysByBooking.remove(bookingId);
+            if (stay != null) {
+                removed.add(stay);
+            }
+        }
+        notifyRoomChanged(roomId);
+        return removed;
+    }
+
+    /**
+     * Elimina todas las estancias de un huesped.
+     *
+     * @param guestId Identificador del huesped
+     * @return Estancias eliminadas
+     */
+    public List<Stay> removeByGuest(String guestId) {
+        List<Stay> removed = findStaysByGuest(guestId);
+
+        removed.forEach(stay -> remove(stay.bookingId()));
+        return removed;
+    }
+
+    /**
+     * Devuelve las estancias indexadas de una habitacion, sin eliminarlas.
+     *
+     * @param roomId Identificador de la habitacion
+     * @return Estancias de la habitacion
+     */
+    public List<Stay> findStaysByRoom(String roomId) {
+        RoomStays stays = staysByRoom.get(roomId);
+
+        if (stays == null) {
+            return List.of();
+        }
+
+        List<Stay> found = new ArrayList<>(stays.bookingIds.length);
+        for (String bookingId : stays.bookingIds) {
+            Stay stay = staysByBooking.get(bookingId);
+            if (stay != null) {
+                found.add(stay);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Devuelve las estancias indexadas de un huesped, sin eliminarlas.
+     *
+     * @param guestId Identificador del huesped
+     * @return Estancias del huesped
+     */
+    public List<Stay> findStaysByGuest(String guestId) {
+        return staysByBooking.values().stream()
+                .filter(stay -> guestId.equals(stay.guestId()))
+                .toList();
+    }
+
+    /**
+     * Devuelve la estancia indexada de una reserva.
+     *
+     * @param bookingId Identificador de la reserva
+     * @return Estancia de la reserva, o vacio si no tiene fechas o no existe
+     */
+    public Optional<Stay> findStay(String bookingId) {
+        return Optional.ofNullable(staysByBooking.get(bookingId));
+    }
+
+    /**
+     * Indica si el rango [checkIn, checkOut) se solapa con alguna
+     * estancia de la habitacion.
+     *
+     * @param roomId           Identificador de la habitacion
+     * @param checkIn          Fecha de entrada
+     * @param checkOut         Fecha de salida
+     * @param excludeBookingId Reserva a ignorar (la propia reserva al modificarla), o null
+     * @return true si existe solapamiento, false en caso contrario
+     */
+    public boolean overlaps(String roomId, LocalDate checkIn, LocalDate checkOut, String excludeBookingId) {
+        RoomStays stays = staysByRoom.get(roomId);
+
+        if (stays == null) {
+            return false;
+        }
+
+        return stays.overlaps((int) checkIn.toEpochDay(), (int) checkOut.toEpochDay(), excludeBookingId);
+    }
+
+    /**
+     * Devuelve el hueco libre de la habitacion que contiene el rango
+     * [checkIn, checkOut): desde la salida de la estancia anterior
+     * hasta la entrada de la siguiente.
+     *
+     * @param roomId   Identificador de la habitacion
+     * @param checkIn  Fecha de entrada
+     * @param checkOut Fecha de salida
+     * @return Hueco libre, o vacio si el rango se solapa con alguna estancia
+     */
+    public Optional<Gap> findGap(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        int start = (int) checkIn.toEpochDay();
+        int end = (int) checkOut.toEpochDay();
+        RoomStays stays = staysByRoom.get(roomId);
+
+        if (stays == null) {
+            return Optional.of(new Gap(Gap.OPEN_START, Gap.OPEN_END));
+        }
+
+        return Optional.ofNullable(stays.gap(start, end));
+    }
+
+    /**
+     * Recorre las estancias de una habitacion en orden de entrada.
+     *
+     * @param roomId   Identificador de la habitacion
+     * @param consumer Receptor de cada estancia en dias epoch [entrada, salida)
+     */
+    public void forEachStay(String roomId, StayConsumer consumer) {
+        RoomStays stays = staysByRoom.get(roomId);
+
+        if (stays == null) {
+            return;
+        }
+
+        for (int i = 0; i < stays.starts.length; i++) {
+            consumer.accept(stays.starts[i], stays.ends[i]);
+        }
+    }
+
+    /**
+     * Registra un oyente que se invoca cada vez que cambian las
+     * estancias de una habitacion.
+     *
+     * @param listener Oyente que recibe el id de la habitacion
+     */
+    public void addRoomChangeListener(Consumer<String> listener) {
+        roomChangeListeners.add(listener);
+    }
+
+    /**
+     * Devuelve el numero de estancias indexadas.
+     *
+     * @return Numero de estancias
+     */
+    public int size() {
+        return staysByBooking.size();
+    }
+
+    private void notifyRoomChanged(String roomId) {
+        roomChangeListeners.forEach(listener -> listener.accept(roomId));
+    }
+
+    /**
+     * Receptor de estancias expresadas en dias epoch.
+     */
+    @FunctionalInterface
+    public interface StayConsumer {
+
+        /**
+         * @param startEpochDay Dia de entrada (incluido)
+         * @param endEpochDay   Dia de salida (excluido)
+         */
+        void accept(int startEpochDay, int endEpochDay);
+    }
+
+    /**
+     * Estancia de una reserva en dias epoch, con salida exclusiva.
+     *
+     * @param bookingId Identificador de la reserva
+     * @param roomId    Identificador de la habitacion
+     * @param guestId   Identificador del huesped
+     * @param start     Dia epoch de entrada (incluido)
+     * @param end       Dia epoch de salida (excluido)
+     */
+    public record Stay(String bookingId, String roomId, String guestId, int start, int end) {
+
+        /**
+         * @return Fecha de entrada
+         */
+        public LocalDate checkIn() {
+            return LocalDate.ofEpochDay(start);
+        }
+
+        /**
+         * @return Fecha de salida
+         */
+        public LocalDate checkOut() {
+            return LocalDate.ofEpochDay(end);
+        }
+    }
+
+    /**
+     * Hueco libre entre dos estancias de una habitacion, en dias epoch.
+     *
+     * @param start Dia de salida de la estancia anterior, u OPEN_START si no la hay
+     * @param end   Dia de entrada de la estancia siguiente, u OPEN_END si no la hay
+     */
+    public record Gap(int start, int end) {
+
+        /**
+         * Inicio de un hueco sin estancia anterior.
+         */
+        public static final int OPEN_START = Integer.MIN_VALUE;
+
+        /**
+         * Fin de un hueco sin estancia siguiente.
+         */
+        public static final int OPEN_END = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Estancias inmutables de una habitacion ordenadas por dia de entrada.
+     *
+     * maxEnds[i] guarda el mayor dia de salida entre las posiciones 0..i,
+     * lo que permite detectar solapamientos en O(log n) incluso si los
+     * datos heredados contienen estancias solapadas entre si.
+     */
+    static final class RoomStays {
+
+        static final RoomStays EMPTY = new RoomStays(new String[0], new int[0], new int[0]);
+
+        private final String[] bookingIds;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+
+        private RoomStays(String[] bookingIds, int[] starts, int[] ends) {
+            this.bookingIds = bookingIds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        RoomStays with(Stay stay) {
+            int pos = firstStartNotBefore(stay.start() + 1);
+            int n = starts.length;
+
+            String[] newIds = new String[n + 1];
+            int[] newStarts = new int[n + 1];
+            int[] newEnds = new int[n + 1];
+
+            System.arraycopy(bookingIds, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+
+            newIds[pos] = stay.bookingId();
+            newStarts[pos] = stay.start();
+            newEnds[pos] = stay.end();
+
+            System.arraycopy(bookingIds, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+
+            return new RoomStays(newIds, newStarts, newEnds);
+        }
+
+        RoomStays without(String bookingId) {
+            int pos = Arrays.asList(bookingIds).indexOf(bookingId);
+
+            if (pos < 0) {
+                return this;
+            }
+
+            int n = starts.length;
+            String[] newIds = new String[n - 1];
+            int[] newStarts = new int[n - 1];
+            int[] newEnds = new int[n - 1];
+
+            System.arraycopy(bookingIds, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+
+            System.arraycopy(bookingIds, pos + 1, newIds, pos, n - pos - 1);
+            System.arraycopy(starts, pos + 1, newStarts, pos, n - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, n - pos - 1);
+
+            return new RoomStays(newIds, newStarts, newEnds);
+        }
+
+        boolean overlaps(int start, int end, String excludeBookingId) {
+            // Ultima estancia que empieza antes de la salida solicitada
+            for (int i = firstStartNotBefore(end) - 1; i >= 0 && maxEnds[i] > start; i--) {
+                if (ends[i] > start && !bookingIds[i].equals(excludeBookingId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Gap gap(int start, int end) {
+            if (overlaps(start, end, null)) {
+                return null;
+            }
+
+            // Sin solapamiento, las estancias anteriores acaban como tarde en start
+            // y la primera que empieza en start o despues lo hace como pronto en end
+            int pos = firstStartNotBefore(start);
+            int previousEnd = pos == 0 ? Gap.OPEN_START : maxEnds[pos - 1];
+            int nextStart = pos == starts.length ? Gap.OPEN_END : starts[pos];
+            return new Gap(previousEnd, nextStart);
+        }
+
+        /**
+         * Devuelve la primera posicion cuyo dia de entrada es mayor o igual que day.
+         */
+        private int firstStartNotBefore(int day) {
+            int low = 0;
+            int high = starts.length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
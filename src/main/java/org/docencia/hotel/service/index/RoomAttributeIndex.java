@@ -0,0 +1,256 @@
+package org.docencia.hotel.service.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.GuestPreferences;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Indice en memoria de los atributos de las habitaciones de cada hotel.
+ *
+ * Cada habitacion ocupa una posicion fija dentro de su hotel y cada valor
+ * de atributo (fumador, adaptada, tipo de cama) tiene un mapa de bits con
+ * las posiciones de las habitaciones que lo cumplen. Las preferencias de
+ * un huesped se resuelven intersecando esos mapas, sin recorrer las
+ * habitaciones una a una.
+ */
+@Component
+public class RoomAttributeIndex {
+
+    /**
+     * Repositorio JPA de habitaciones, usado para la carga inicial.
+     */
+    private final RoomRepository roomRepository;
+
+    /**
+     * Mapeador entre la proyeccion JPA y el modelo de dominio.
+     */
+    private final RoomMapper roomMapper;
+
+    /**
+     * Transaccion de solo lectura en la que se recorre el cursor de la carga inicial.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Habitaciones y mapas de bits de cada hotel, indexados por id de hotel.
+     */
+    private final ConcurrentMap<String, HotelRooms> roomsByHotel = new ConcurrentHashMap<>();
+
+    /**
+     * Hotel de cada habitacion indexada, indexado por id de habitacion.
+     */
+    private final ConcurrentMap<String, String> hotelByRoom = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor del indice.
+     *
+     * @param roomRepository     Repositorio JPA de habitaciones
+     * @param roomMapper         Mapeador entre la entidad JPA y el modelo de dominio
+     * @param transactionManager Gestor de transacciones
+     */
+    public RoomAttributeIndex(RoomRepository roomRepository, RoomMapper roomMapper,
+            PlatformTransactionManager transactionManager) {
+        this.roomRepository = roomRepository;
+        this.roomMapper = roomMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Reconstruye el indice completo a partir de las habitaciones persistidas.
+     */
+    @PostConstruct
+    public void rebuild() {
+        roomsByHotel.clear();
+        hotelByRoom.clear();
+
+        // Se recorren proyecciones con un cursor: no se cargan entidades gestionadas
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<RoomRow> rows = roomRepository.streamRows()) {
+                rows.map(roomMapper::toDomain).forEach(this::registerRoom);
+            }
+        });
+    }
+
+    /**
+     * Registra (o actualiza) los atributos de una habitacion.
+     *
+     * @param room Habitacion a registrar
+     */
+    public void registerRoom(Room room) {
+        if (room == null || room.getId() == null || room.getHotelId() == null) {
+            return;
+        }
+
+        unregisterRoom(room.getId());
+        roomsByHotel.computeIfAbsent(room.getHotelId(), id -> new HotelRooms()).add(room);
+        hotelByRoom.put(room.getId(), room.getHotelId());
+    }
+
+    /**
+     * Elimina una habitacion del indice.
+     *
+     * @param roomId Identificador de la habitacion
+     */
+    public void unregisterRoom(String roomId) {
+        String hotelId = hotelByRoom.remove(roomId);
+
+        if (hotelId != null) {
+            HotelRooms rooms = roomsByHotel.get(hotelId);
+            if (rooms != null) {
+                rooms.remove(roomId);
+            }
+        }
+    }
+
+    /**
+     * Elimina todas las habitaciones de un hotel del indice.
+     *
+     * @param hotelId Identificador del hotel
+     */
+    public void unregisterHotel(String hotelId) {
+        HotelRooms rooms = roomsByHotel.remove(hotelId);
+
+        if (rooms != null) {
+            rooms.roomIds().forEach(hotelByRoom::remove);
+        }
+    }
+
+    /**
+     * Devuelve las habitaciones de un hotel ordenadas por numero de
+     * preferencias del huesped que cumplen (fumador y tipo de cama).
+     * Si el huesped necesita una habitacion adaptada, las que no lo
+     * estan se descartan.
+     *
+     * @param hotelId     Identificador del hotel
+     * @param preferences Preferencias del huesped
+     * @return Habitaciones candidatas, de mejor a peor coincidencia
+     */
+    public List<Room> rankRooms(String hotelId, GuestPreferences preferences) {
+        HotelRooms rooms = roomsByHotel.get(hotelId);
+
+        if (rooms == null) {
+            return List.of();
+        }
+
+        return rooms.rank(preferences);
+    }
+
+    /**
+     * Habitaciones de un hotel con sus mapas de bits por valor de atributo.
+     * Las posiciones libres se reutilizan al registrar nuevas habitaciones.
+     */
+    static final class HotelRooms {
+
+        private final List<Room> slots = new ArrayList<>();
+        private final Map<String, Integer> slotByRoom = new HashMap<>();
+        private final BitSet present = new BitSet();
+        private final BitSet smoking = new BitSet();
+        private final BitSet accessible = new BitSet();
+        private final Map<String, BitSet> byBedType = new HashMap<>();
+
+        synchronized void add(Room room) {
+            int slot = present.nextClearBit(0);
+
+            if (slot == slots.size()) {
+                slots.add(room);
+            } else {
+                slots.set(slot, room);
+            }
+            slotByRoom.put(room.getId(), slot);
+            present.set(slot);
+            smoking.set(slot, room.isSmoking());
+            accessible.set(slot, room.isAccessible());
+
+            String bedType = normalize(room.getBedType());
+            if (bedType != null) {
+                byBedType.computeIfAbsent(bedType, type -> new BitSet()).set(slot);
+            }
+        }
+
+        synchronized void remove(String roomId) {
+            Integer slot = slotByRoom.remove(roomId);
+
+            if (slot == null) {
+                return;
+            }
+
+            slots.set(slot, null);
+            present.clear(slot);
+            smoking.clear(slot);
+            accessible.clear(slot);
+            byBedType.values().forEach(bits -> bits.clear(slot));
+        }
+
+        synchronized List<String> roomIds() {
+            return new ArrayList<>(slotByRoom.keySet());
+        }
+
+        synchronized List<Room> rank(GuestPreferences preferences) {
+            BitSet candidates = (BitSet) present.clone();
+
+            if (preferences.isNeedsAccessibilityFeatures()) {
+                candidates.and(accessible);
+            }
+
+            List<BitSet> criteria = new ArrayList<>();
+            criteria.add(preferences.isPrefersSmokingRoom() ? smoking : not(smoking));
+
+            String bedType = normalize(preferences.getBedTypePreference());
+            if (bedType != null) {
+                criteria.add(byBedType.getOrDefault(bedType, new BitSet()));
+            }
+
+            // byScore[j] contiene las candidatas que cumplen exactamente j criterios
+            BitSet[] byScore = new BitSet[criteria.size() + 1];
+            byScore[0] = candidates;
+            for (int j = 1; j < byScore.length; j++) {
+                byScore[j] = new BitSet();
+            }
+            for (BitSet criterion : criteria) {
+                for (int j = byScore.length - 1; j > 0; j--) {
+                    BitSet promoted = (BitSet) byScore[j - 1].clone();
+                    promoted.and(criterion);
+                    byScore[j].or(promoted);
+                    byScore[j - 1].andNot(criterion);
+                }
+            }
+
+            List<Room> ranked = new ArrayList<>(candidates.cardinality());
+            for (int j = byScore.length - 1; j >= 0; j--) {
+                BitSet bits = byScore[j];
+                for (int slot = bits.nextSetBit(0); slot >= 0; slot = bits.nextSetBit(slot + 1)) {
+                    ranked.add(slots.get(slot));
+                }
+            }
+            return ranked;
+        }
+
+        private BitSet not(BitSet bits) {
+            BitSet complement = (BitSet) present.clone();
+            complement.andNot(bits);
+            return complement;
+        }
+
+        private static String normalize(String value) {
+            return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+        }
+    }
+}
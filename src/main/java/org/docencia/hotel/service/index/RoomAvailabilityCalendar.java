@@ -0,0 +1,338 @@
+package org.docencia.hotel.service.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Calendario de disponibilidad en memoria basado en mapas de bits.
+ *
+ * Cada habitacion tiene un bit por noche dentro de un horizonte movil
+ * que empieza el dia en que se construye el calendario. Un bit a 1
+ * indica que la noche esta reservada. Ademas mantiene el catalogo de
+ * habitaciones agrupado por hotel, de forma que la busqueda de
+ * habitaciones libres no necesita consultar la base de datos.
+ *
+ * Las noches reservadas se obtienen de BookingIntervalIndex, que avisa
+ * de cada cambio en las estancias de una habitacion. El horizonte se
+ * desplaza reconstruyendo el calendario una vez al dia.
+ *
+ * El primer dia del horizonte y los mapas viajan juntos en una instantanea
+ * inmutable. La reconstruccion prepara mapas nuevos y los publica con una
+ * sola escritura volatil, de forma que las lecturas nunca ven el catalogo a
+ * medio cargar ni mapas de bits calculados para otro primer dia. Las
+ * lecturas no bloquean; las escrituras se serializan entre si.
+ */
+@Component
+public class RoomAvailabilityCalendar {
+
+    /**
+     * Repositorio JPA de habitaciones, usado para cargar el catalogo.
+     */
+    private final RoomRepository roomRepository;
+
+    /**
+     * Mapeador entre la proyeccion JPA y el modelo de dominio.
+     */
+    private final RoomMapper roomMapper;
+
+    /**
+     * Transaccion de solo lectura en la que se recorre el cursor de la carga.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Indice de estancias del que se obtienen las noches reservadas.
+     */
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    /**
+     * Numero de noches cubiertas por el calendario.
+     */
+    private final int horizonDays;
+
+    /**
+     * Calendario vigente.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor del calendario.
+     *
+     * @param roomRepository       Repositorio JPA de habitaciones
+     * @param roomMapper           Mapeador entre la entidad JPA y el modelo de dominio
+     * @param bookingIntervalIndex Indice de estancias por habitacion
+     * @param transactionManager   Gestor de transacciones
+     * @param horizonDays          Numero de noches cubiertas por el calendario
+     */
+    public RoomAvailabilityCalendar(RoomRepository roomRepository, RoomMapper roomMapper,
+            BookingIntervalIndex bookingIntervalIndex, PlatformTransactionManager transactionManager,
+            @Value("${hotel.availability.horizon-days:730}") int horizonDays) {
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("availability horizon must be positive");
+        }
+        this.roomRepository = roomRepository;
+        this.roomMapper = roomMapper;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.horizonDays = horizonDays;
+        this.snapshot = Snapshot.startingToday();
+    }
+
+    /**
+     * Se suscribe a los cambios de estancias y carga el calendario.
+     */
+    @PostConstruct
+    public void init() {
+        bookingIntervalIndex.addRoomChangeListener(this::refreshRoom);
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el catalogo y los mapas de bits desplazando
+     * el horizonte para que empiece en el dia actual.
+     */
+    @Scheduled(cron = "${hotel.availability.rebuild-cron:0 5 0 * * *}")
+    public synchronized void rebuild() {
+        Snapshot next = Snapshot.startingToday();
+
+        // Se recorren proyecciones con un cursor: no se cargan entidades gestionadas
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<RoomRow> rows = roomRepository.streamRows()) {
+                rows.map(roomMapper::toDomain).forEach(room -> register(next, room));
+            }
+        });
+
+        snapshot = next;
+    }
+
+    /**
+     * Registra (o actualiza) una habitacion en el catalogo
+     * y recalcula sus noches reservadas.
+     *
+     * @param room Habitacion a registrar
+     */
+    public synchronized void registerRoom(Room room) {
+        register(snapshot, room);
+    }
+
+    /**
+     * Elimina una habitacion del catalogo.
+     *
+     * @param roomId Identificador de la habitacion
+     */
+    public synchronized void unregisterRoom(String roomId) {
+        unregister(snapshot, roomId);
+    }
+
+    /**
+     * Elimina todas las habitaciones de un hotel del catalogo.
+     *
+     * @param hotelId Identificador del hotel
+     */
+    public synchronized void unregisterHotel(String hotelId) {
+        Snapshot current = snapshot;
+        Map<String, Room> rooms = current.roomsByHotel().remove(hotelId);
+
+        if (rooms != null) {
+            rooms.keySet().forEach(current.nightsByRoom()::remove);
+        }
+    }
+
+    /**
+     * Recalcula el mapa de bits de una habitacion a partir de sus estancias.
+     *
+     * @param roomId Identificador de la habitacion
+     */
+    public synchronized void refreshRoom(String roomId) {
+        refresh(snapshot, roomId);
+    }
+
+    /**
+     * Devuelve las habitaciones de un hotel libres todas las noches
+     * del rango [from, to), opcionalmente filtradas por tipo.
+     *
+     * @param hotelId Identificador del hotel
+     * @param from    Primera noche (fecha de entrada)
+     * @param to      Fecha de salida (excluida)
+     * @param type    Tipo de habitacion, o null para cualquier tipo
+     * @return Habitaciones libres en el rango
+     * @throws IllegalArgumentException si el rango queda fuera del horizonte
+     */
+    public List<Room> findFreeRooms(String hotelId, LocalDate from, LocalDate to, String type) {
+        Snapshot current = snapshot;
+        int fromBit = (int) from.toEpochDay() - current.firstDay();
+        int toBit = (int) to.toEpochDay() - current.firstDay();
+
+        requireWithinHorizon(fromBit, toBit);
+
+        Map<String, Room> rooms = current.roomsByHotel().get(hotelId);
+
+        if (rooms == null) {
+            return List.of();
+        }
+
+        List<Room> free = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            if (type != null && !type.equals(room.getType())) {
+                continue;
+            }
+            long[] nights = current.nightsByRoom().get(room.getId());
+            if (nights == null || isClear(nights, fromBit, toBit)) {
+                free.add(copyOf(room));
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Indica si una habitacion esta libre todas las noches del rango [from, to).
+     *
+     * @param roomId Identificador de la habitacion
+     * @param from   Primera noche (fecha de entrada)
+     * @param to     Fecha de salida (excluida)
+     * @return true si ninguna noche del rango esta reservada
+     * @throws IllegalArgumentException si el rango queda fuera del horizonte
+     */
+    public boolean isFree(String roomId, LocalDate from, LocalDate to) {
+        Snapshot current = snapshot;
+        int fromBit = (int) from.toEpochDay() - current.firstDay();
+        int toBit = (int) to.toEpochDay() - current.firstDay();
+
+        requireWithinHorizon(fromBit, toBit);
+
+        long[] nights = current.nightsByRoom().get(roomId);
+        return nights == null || isClear(nights, fromBit, toBit);
+    }
+
+    /**
+     * Registra la habitacion en la instantanea y calcula sus noches reservadas.
+     */
+    private void register(Snapshot target, Room room) {
+        if (room == null || room.getId() == null || room.getHotelId() == null) {
+            return;
+        }
+
+        Room copy = copyOf(room);
+        unregister(target, room.getId());
+        target.roomsByHotel().computeIfAbsent(room.getHotelId(), id -> new ConcurrentHashMap<>())
+                .put(room.getId(), copy);
+        refresh(target, room.getId());
+    }
+
+    private static void unregister(Snapshot target, String roomId) {
+        target.roomsByHotel().values().forEach(rooms -> rooms.remove(roomId));
+        target.nightsByRoom().remove(roomId);
+    }
+
+    /**
+     * Calcula el mapa de bits de la habitacion respecto al primer dia de la instantanea.
+     */
+    private void refresh(Snapshot target, String roomId) {
+        int start = target.firstDay();
+        long[] nights = new long[(horizonDays + 63) >>> 6];
+
+        bookingIntervalIndex.forEachStay(roomId, (checkIn, checkOut) -> {
+            int from = Math.max(checkIn - start, 0);
+            int to = Math.min(checkOut - start, horizonDays);
+            if (from < to) {
+                setRange(nights, from, to);
+            }
+        });
+
+        target.nightsByRoom().put(roomId, nights);
+    }
+
+    private void requireWithinHorizon(int fromBit, int toBit) {
+        if (fromBit < 0 || toBit > horizonDays) {
+            throw new IllegalArgumentException("date range must be within the next " + horizonDays + " days");
+        }
+    }
+
+    /**
+     * Marca como reservados los bits [from, to).
+     */
+    static void setRange(long[] bits, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+
+        bits[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            bits[i] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    /**
+     * Indica si todos los bits [from, to) estan libres.
+     */
+    static boolean isClear(long[] bits, int from, int to) {
+        if (from >= to) {
+            return true;
+        }
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (firstWord == lastWord) {
+            return (bits[firstWord] & firstMask & lastMask) == 0;
+        }
+
+        if ((bits[firstWord] & firstMask) != 0 || (bits[lastWord] & lastMask) != 0) {
+            return false;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (bits[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Primer dia del horizonte junto a los mapas calculados para el.
+     *
+     * @param firstDay     Primer dia (epoch) del horizonte
+     * @param roomsByHotel Habitaciones de cada hotel, indexadas por id de hotel y de habitacion
+     * @param nightsByRoom Noches reservadas de cada habitacion, indexadas por id de habitacion
+     */
+    private record Snapshot(int firstDay, ConcurrentMap<String, Map<String, Room>> roomsByHotel,
+            ConcurrentMap<String, long[]> nightsByRoom) {
+
+        static Snapshot startingToday() {
+            return new Snapshot((int) LocalDate.now().toEpochDay(), new ConcurrentHashMap<>(),
+                    new ConcurrentHashMap<>());
+        }
+    }
+
+    private static Room copyOf(Room room) {
+        return new Room(room.getId(), room.getNumber(), room.getType(), room.getPricePerNight(), room.getHotelId(),
+                room.isSmoking(), room.getBedType(), room.isAccessible());
+    }
+}
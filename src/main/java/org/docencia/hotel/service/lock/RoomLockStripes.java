@@ -0,0 +1,119 @@
+package org.docencia.hotel.service.lock;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cerrojos por habitacion repartidos en un numero fijo de franjas.
+ *
+ * Cada id de habitacion se asigna siempre a la misma franja, de forma
+ * que las operaciones sobre una misma habitacion se ejecutan en serie
+ * mientras que las de habitaciones distintas (en franjas distintas)
+ * siguen ejecutandose en paralelo. El numero de franjas acota la
+ * memoria usada independientemente del numero de habitaciones.
+ *
+ * Los cerrojos son locales al proceso: solo serializan las peticiones
+ * atendidas por la misma instancia de la aplicacion.
+ */
+@Component
+public class RoomLockStripes {
+
+    /**
+     * Cerrojos de cada franja. Su numero es siempre potencia de dos.
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Constructor de las franjas.
+     *
+     * @param stripes Numero minimo de franjas; se redondea a la siguiente potencia de dos
+     */
+    public RoomLockStripes(@Value("${hotel.booking.lock-stripes:256}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("lock stripes must be positive");
+        }
+
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Ejecuta una accion con el cerrojo de la habitacion adquirido.
+     *
+     * @param <T>    Tipo del resultado
+     * @param roomId Identificador de la habitacion
+     * @param action Accion a ejecutar
+     * @return Resultado de la accion
+     */
+    public <T> T withRoomLock(String roomId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(roomId);
+
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta una accion con los cerrojos de varias habitaciones adquiridos.
+     *
+     * Las franjas se adquieren siempre en orden creciente, de forma que
+     * dos lotes con habitaciones en comun no pueden bloquearse entre si.
+     *
+     * @param <T>     Tipo del resultado
+     * @param roomIds Identificadores de las habitaciones
+     * @param action  Accion a ejecutar
+     * @return Resultado de la accion
+     */
+    public <T> T withRoomLocks(Collection<String> roomIds, Supplier<T> action) {
+        int[] indexes = roomIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Devuelve el numero de franjas.
+     *
+     * @return Numero de franjas
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    /**
+     * Devuelve el cerrojo de la franja a la que pertenece la habitacion.
+     */
+    ReentrantLock lockFor(String roomId) {
+        return stripes[stripeOf(roomId)];
+    }
+
+    private int stripeOf(String roomId) {
+        int h = roomId.hashCode();
+        h ^= h >>> 16;
+        return h & (stripes.length - 1);
+    }
+}
@@ -39,5 +39,21 @@ public final class Guard {
     public static <T> T requireNonNull(T value, String fieldName) {
         return Objects.requireNonNull(value, fieldName + " must not be null");
     }
-}
 
+    /**
+     * Verifica que un entero este dentro del rango [min, max].
+     * 
+     * @param value     Valor a verificar
+     * @param min       Minimo permitido
+     * @param max       Maximo permitido
+     * @param fieldName Nombre del campo para el mensaje de error
+     * @return El valor si es valido
+     * @throws IllegalArgumentException Si el valor esta fuera del rango
+     */
+    public static int requireInRange(int value, int min, int max, String fieldName) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(fieldName + " must be between " + min + " and " + max);
+        }
+        return value;
+    }
+}
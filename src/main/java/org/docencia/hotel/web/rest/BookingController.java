@@ -5,8 +5,11 @@ import java.util.List;
 
 import org.docencia.hotel.domain.api.BookingDomain;
 import org.docencia.hotel.domain.model.Booking;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,7 +34,7 @@ public class BookingController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Reserva creada correctamente"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos (ids vacíos, fechas inválidas, etc.)"),
-            @ApiResponse(responseCode = "409", description = "Ya existe una reserva con ese id"),
+            @ApiResponse(responseCode = "409", description = "Ya existe una reserva con ese id o la habitación está ocupada en esas fechas"),
             @ApiResponse(responseCode = "404", description = "Guest/Room/Hotel no encontrado")
     })
     @PostMapping
@@ -47,9 +50,47 @@ public class BookingController {
         return ResponseEntity.created(location).body(created);
     }
 
+    @Operation(summary = "Crear reservas en lote",
+            description = "Crea todas las reservas del lote en una sola transacción, o ninguna si alguna es inválida. "
+                    + "Guests, rooms e ids de reserva se validan con una consulta por tipo para todo el lote.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Reservas creadas correctamente"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos, ids repetidos en el lote o Guest/Room no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Alguna reserva ya existe o la habitación está ocupada en esas fechas")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<Booking>> createBookings(@RequestBody List<Booking> bookings) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookingDomain.createBookings(bookings));
+    }
+
+    @Operation(summary = "Crear una reserva con asignación de habitación",
+            description = "Crea una reserva en el hotel indicado sin especificar habitación. Se elige, entre las "
+                    + "habitaciones libres del tipo pedido, la que deja menos noches sueltas entre reservas.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Reserva creada con la habitación asignada"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o Hotel/Guest no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Ya existe una reserva con ese id o no hay habitaciones libres")
+    })
+    @PostMapping("/assign")
+    public ResponseEntity<Booking> createBookingWithAssignedRoom(
+            @Parameter(description = "Identificador del hotel") @RequestParam String hotelId,
+            @Parameter(description = "Tipo de habitación") @RequestParam String type,
+            @RequestBody Booking booking) {
+        Booking created = bookingDomain.createBookingWithAssignedRoom(hotelId, type, booking);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/api/bookings/{id}")
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(created);
+    }
+
     @Operation(summary = "Listar reservas",
-            description = "Devuelve todas las reservas. "
-                    + "Opcionalmente filtra por roomId, guestId o hotelId (solo uno a la vez).")
+            description = "Devuelve una página de reservas ordenadas por id; si está llena, la cabecera Link (rel=next) "
+                    + "apunta a la siguiente. Opcionalmente filtra por roomId, guestId o hotelId (solo uno a la vez). "
+                    + "Con roomId se puede indicar además el rango [from, to) para obtener solo las reservas solapadas.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lista de reservas devuelta correctamente"),
             @ApiResponse(responseCode = "400", description = "Parámetros inválidos o combinaciones no permitidas"),
@@ -59,41 +100,63 @@ public class BookingController {
     public ResponseEntity<List<Booking>> getBookings(
             @Parameter(description = "Filtrar por id de habitación (opcional)") @RequestParam(required = false) String roomId,
             @Parameter(description = "Filtrar por id de huésped (opcional)") @RequestParam(required = false) String guestId,
-            @Parameter(description = "Filtrar por id de hotel (opcional)") @RequestParam(required = false) String hotelId) {
+            @Parameter(description = "Filtrar por id de hotel (opcional)") @RequestParam(required = false) String hotelId,
+            @Parameter(description = "Inicio del rango (yyyy-MM-dd), solo con roomId") @RequestParam(required = false) String from,
+            @Parameter(description = "Fin del rango, excluido (yyyy-MM-dd), solo con roomId") @RequestParam(required = false) String to,
+            @Parameter(description = "Último id de la página anterior (opcional)") @RequestParam(required = false) String after,
+            @Parameter(description = "Tamaño de página (1-1000)") @RequestParam(defaultValue = KeysetPages.DEFAULT_LIMIT) int limit) {
 
         int filters = (roomId != null ? 1 : 0) + (guestId != null ? 1 : 0) + (hotelId != null ? 1 : 0);
+        boolean hasRange = from != null || to != null;
 
-        if (filters > 1) {
+        if (filters > 1 || (hasRange && roomId == null)) {
             return ResponseEntity.badRequest().build();
         }
 
+        if (roomId != null && hasRange) {
+            return ResponseEntity.ok(bookingDomain.getBookingsByRoomIdBetween(roomId, from, to));
+        }
         if (roomId != null) {
-            return ResponseEntity.ok(bookingDomain.getBookingsByRoomId(roomId));
+            return KeysetPages.ok(bookingDomain.getBookingsByRoomId(roomId, after, limit), limit, Booking::getId);
         }
         if (guestId != null) {
-            return ResponseEntity.ok(bookingDomain.getBookingsByGuestId(guestId));
+            return KeysetPages.ok(bookingDomain.getBookingsByGuestId(guestId, after, limit), limit, Booking::getId);
         }
         if (hotelId != null) {
-            return ResponseEntity.ok(bookingDomain.getBookingsByHotelId(hotelId));
+            return KeysetPages.ok(bookingDomain.getBookingsByHotelId(hotelId, after, limit), limit, Booking::getId);
         }
 
-        return ResponseEntity.ok(bookingDomain.getAllBookings());
+        return KeysetPages.ok(bookingDomain.getAllBookings(after, limit), limit, Booking::getId);
+    }
+
+    @Operation(summary = "Listar llegadas",
+            description = "Devuelve las reservas del hotel cuya fecha de entrada es el día indicado.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de llegadas devuelta correctamente"),
+            @ApiResponse(responseCode = "400", description = "Hotel no encontrado o fecha inválida")
+    })
+    @GetMapping("/arrivals")
+    public ResponseEntity<List<Booking>> getArrivals(
+            @Parameter(description = "Identificador del hotel") @RequestParam String hotelId,
+            @Parameter(description = "Día de llegada (yyyy-MM-dd)") @RequestParam String date) {
+
+        return ResponseEntity.ok(bookingDomain.getArrivalsByHotelId(hotelId, date));
     }
 
     @Operation(summary = "Obtener reserva por id",
             description = "Devuelve la reserva que coincide con el id proporcionado.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Reserva encontrada"),
+            @ApiResponse(responseCode = "304", description = "La reserva no ha cambiado desde el ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
             @ApiResponse(responseCode = "400", description = "Id inválido")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Booking> getBookingById(
-            @Parameter(description = "Identificador de la reserva") @PathVariable String id) {
+            @Parameter(description = "Identificador de la reserva") @PathVariable String id,
+            WebRequest request) {
 
-        return bookingDomain.getBookingById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return ConditionalGets.ok(request, bookingDomain.getBookingVersion(id), () -> bookingDomain.getBookingById(id));
     }
 
     @Operation(summary = "Actualizar una reserva",
@@ -102,18 +165,20 @@ public class BookingController {
             @ApiResponse(responseCode = "200", description = "Reserva actualizada correctamente"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
-            @ApiResponse(responseCode = "409", description = "Conflicto/validación de negocio (si aplica)")
+            @ApiResponse(responseCode = "409", description = "La habitación ya está reservada en esas fechas o la reserva se ha modificado a la vez"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión actual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Booking> updateBooking(
             @PathVariable String id,
-            @RequestBody Booking booking) {
+            @RequestBody Booking booking,
+            @Parameter(description = "ETag leído antes de modificar (opcional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (bookingDomain.getBookingById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        Booking updated = bookingDomain.updateBooking(id, booking);
+        Booking updated = bookingDomain.updateBooking(id, booking, ConditionalGets.expectedVersion(ifMatch));
         return ResponseEntity.ok(updated);
     }
 
@@ -0,0 +1,64 @@
+package org.docencia.hotel.web.rest;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.api.CacheDomain;
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Cache", description = "Estado de la cache de segundo nivel, de las caches de existencia y del filtro "
+        + "de ids de reserva")
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final CacheDomain cacheDomain;
+
+    public CacheController(CacheDomain cacheDomain) {
+        this.cacheDomain = cacheDomain;
+    }
+
+    @Operation(summary = "Estadísticas de la cache",
+            description = "Devuelve, por región (hoteles, habitaciones y consultas de habitaciones), los aciertos, "
+                    + "fallos, inserciones y entradas en memoria acumulados desde el arranque.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas devueltas correctamente")
+    })
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStats>> getStatistics() {
+        return ResponseEntity.ok(cacheDomain.getRegionStatistics());
+    }
+
+    @Operation(summary = "Estadísticas de las caches de existencia",
+            description = "Devuelve, para hoteles, habitaciones y huéspedes, los aciertos, fallos, tasa de aciertos, "
+                    + "desalojos y entradas de la cache que responde a las comprobaciones de existencia.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas devueltas correctamente")
+    })
+    @GetMapping("/existence")
+    public ResponseEntity<List<ExistenceCacheStats>> getExistenceStatistics() {
+        return ResponseEntity.ok(cacheDomain.getExistenceStatistics());
+    }
+
+    @Operation(summary = "Estadísticas del filtro de ids de reserva",
+            description = "Devuelve la tasa de falsos positivos configurada y la estimada con los ids actuales, "
+                    + "la memoria que ocupa el filtro y cuántas comprobaciones de id se resolvieron sin consultar "
+                    + "la base de datos.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estadísticas devueltas correctamente")
+    })
+    @GetMapping("/booking-ids")
+    public ResponseEntity<BookingIdFilterStats> getBookingIdFilterStatistics() {
+        return ResponseEntity.ok(cacheDomain.getBookingIdFilterStatistics());
+    }
+}
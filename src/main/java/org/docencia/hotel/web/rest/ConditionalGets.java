@@ -0,0 +1,79 @@
+package org.docencia.hotel.web.rest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Respuestas de las consultas por id con ETag, y lectura del ETag que
+ * las actualizaciones reciben en If-Match.
+ *
+ * El ETag es la version de la fila. Se consulta primero solo la version:
+ * si coincide con If-None-Match se responde 304 sin cargar, mapear ni
+ * serializar el recurso. Leerla antes que el recurso garantiza que el
+ * ETag nunca es mas nuevo que el cuerpo que lo acompaña; como mucho el
+ * cliente vuelve a descargar una vez un recurso que no ha cambiado.
+ */
+final class ConditionalGets {
+
+    private ConditionalGets() {
+    }
+
+    /**
+     * Construye la respuesta de una consulta por id.
+     *
+     * @param <T>      Tipo del recurso
+     * @param request  Peticion en curso
+     * @param version  Version actual del recurso, o vacio si no existe
+     * @param resource Carga del recurso, solo si hay que enviarlo
+     * @return 404 si no existe, 304 si el cliente tiene la version actual
+     *         (null: la respuesta ya esta completa) o 200 con el recurso y su ETag
+     */
+    static <T> ResponseEntity<T> ok(WebRequest request, Optional<Long> version, Supplier<Optional<T>> resource) {
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Si coincide pone el estado 304; en ambos casos añade la cabecera ETag
+        if (request.checkNotModified(etag(version.get()))) {
+            return null;
+        }
+
+        return resource.get()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Obtiene la version que el cliente espera modificar a partir de If-Match.
+     *
+     * @param ifMatch Cabecera If-Match, o null si no se envia
+     * @return Version del ETag, o null si no hay cabecera o es "*"
+     * @throws IllegalArgumentException Si no es un unico ETag de esta API
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // se informa abajo
+            }
+        }
+        throw new IllegalArgumentException("If-Match must be a single ETag returned by this API");
+    }
+
+    /**
+     * @param version Version del recurso
+     * @return ETag fuerte de esa version
+     */
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
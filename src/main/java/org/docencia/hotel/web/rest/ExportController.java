@@ -0,0 +1,98 @@
+package org.docencia.hotel.web.rest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.docencia.hotel.domain.api.ExportDomain;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Export", description = "Exportación completa de datos en NDJSON")
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportDomain exportDomain;
+
+    private final ObjectMapper objectMapper;
+
+    public ExportController(ExportDomain exportDomain, ObjectMapper objectMapper) {
+        this.exportDomain = exportDomain;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Exportar reservas",
+            description = "Devuelve todas las reservas en NDJSON (un objeto JSON por línea). La respuesta se escribe "
+                    + "a medida que se leen las filas, sin cargar la tabla en memoria.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportación en curso")
+    })
+    @GetMapping(value = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        return ndjson(exportDomain::exportBookings);
+    }
+
+    @Operation(summary = "Exportar huéspedes",
+            description = "Devuelve todos los huéspedes, con sus preferencias, en NDJSON (un objeto JSON por línea).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportación en curso")
+    })
+    @GetMapping(value = "/guests", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportGuests() {
+        return ndjson(exportDomain::exportGuests);
+    }
+
+    @Operation(summary = "Exportar habitaciones",
+            description = "Devuelve todas las habitaciones en NDJSON (un objeto JSON por línea).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Exportación en curso")
+    })
+    @GetMapping(value = "/rooms", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRooms() {
+        return ndjson(exportDomain::exportRooms);
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> ndjson(ToLongFunction<Consumer<T>> export) {
+        // Sin vaciado por elemento: el buffer del generador agrupa las líneas en escrituras grandes.
+        // El separador entre valores raíz es el salto de línea que se escribe tras cada uno.
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+                export.applyAsLong(item -> {
+                    try {
+                        writer.writeValue(generator, item);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.flush();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -2,6 +2,8 @@ package org.docencia.hotel.web.rest;
 
 import java.time.Instant;
 
+import org.docencia.hotel.service.api.VersionMismatchException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -39,6 +41,37 @@ public class GlobalExceptionHandler {
                 .body(ApiError.of(409, "Conflict", ex.getMessage(), req.getRequestURI()));
     }
 
+    /**
+     * Maneja OptimisticLockingFailureException lanzando un 409 Conflict:
+     * otra peticion ha modificado el recurso a la vez
+     * 
+     * @param ex la excepción OptimisticLockingFailureException lanzada
+     * @param req la solicitud HTTP que causó la excepción
+     * @return una respuesta HTTP con el error formateado
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleConcurrentUpdate(OptimisticLockingFailureException ex,
+            HttpServletRequest req) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiError.of(409, "Conflict", "resource was modified concurrently", req.getRequestURI()));
+    }
+
+    /**
+     * Maneja VersionMismatchException lanzando un 412 Precondition Failed:
+     * la version de If-Match ya no es la actual
+     * 
+     * @param ex la excepción VersionMismatchException lanzada
+     * @param req la solicitud HTTP que causó la excepción
+     * @return una respuesta HTTP con el error formateado
+     */
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailed(VersionMismatchException ex, HttpServletRequest req) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiError.of(412, "Precondition Failed", ex.getMessage(), req.getRequestURI()));
+    }
+
     /**
      * Maneja NullPointerException lanzando un 400 Bad Request
      * 
@@ -6,11 +6,14 @@ import java.util.List;
 import org.docencia.hotel.domain.api.GuestDomain;
 import org.docencia.hotel.domain.model.Guest;
 import org.docencia.hotel.domain.model.GuestPreferences;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -45,26 +48,30 @@ public class GuestController {
         return ResponseEntity.created(location).body(created);
     }
 
-    @Operation(summary = "Listar huéspedes", description = "Devuelve todos los huéspedes con sus preferencias si existen")
+    @Operation(summary = "Listar huéspedes", description = "Devuelve una página de huéspedes, ordenados por id, con sus "
+            + "preferencias si existen. Si la página está llena, la cabecera Link (rel=next) apunta a la siguiente.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lista de huéspedes devuelta correctamente")
+            @ApiResponse(responseCode = "200", description = "Página de huéspedes devuelta correctamente"),
+            @ApiResponse(responseCode = "400", description = "Tamaño de página inválido")
     })
     @GetMapping
-    public ResponseEntity<List<Guest>> getAllGuests() {
-        return ResponseEntity.ok(guestDomain.getAllGuests());
+    public ResponseEntity<List<Guest>> getAllGuests(
+            @Parameter(description = "Último id de la página anterior (opcional)") @RequestParam(required = false) String after,
+            @Parameter(description = "Tamaño de página (1-1000)") @RequestParam(defaultValue = KeysetPages.DEFAULT_LIMIT) int limit) {
+
+        return KeysetPages.ok(guestDomain.getAllGuests(after, limit), limit, Guest::getId);
     }
 
     @Operation(summary = "Obtener huésped por id", description = "Devuelve un huésped con sus preferencias si existen")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Huésped encontrado"),
+            @ApiResponse(responseCode = "304", description = "El huésped y sus preferencias no han cambiado desde el ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Huésped no encontrado"),
             @ApiResponse(responseCode = "400", description = "Id inválido")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Guest> getGuestById(@PathVariable String id) {
-        return guestDomain.getGuestById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Guest> getGuestById(@PathVariable String id, WebRequest request) {
+        return ConditionalGets.ok(request, guestDomain.getGuestVersion(id), () -> guestDomain.getGuestById(id));
     }
 
     @Operation(summary = "Obtener preferencias de un huésped",
@@ -86,11 +93,14 @@ public class GuestController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Huésped actualizado"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
-            @ApiResponse(responseCode = "404", description = "Huésped no encontrado")
+            @ApiResponse(responseCode = "404", description = "Huésped no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Otra peticion ha modificado el recurso a la vez"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la version actual")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Guest> updateGuest(@PathVariable String id, @RequestBody Guest guest) {
-        Guest updated = guestDomain.updateGuest(id, guest);
+    public ResponseEntity<Guest> updateGuest(@PathVariable String id, @RequestBody Guest guest,
+            @Parameter(description = "ETag leido antes de modificar (opcional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Guest updated = guestDomain.updateGuest(id, guest, ConditionalGets.expectedVersion(ifMatch));
 
         if(guestDomain.getGuestById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,110 @@
+package org.docencia.hotel.web.rest;
+
+import java.net.URI;
+
+import org.docencia.hotel.domain.api.BookingDomain;
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.RoomHold;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Holds", description = "Retenciones temporales de habitaciones")
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+
+    private final BookingDomain bookingDomain;
+
+    public HoldController(BookingDomain bookingDomain) {
+        this.bookingDomain = bookingDomain;
+    }
+
+    @Operation(summary = "Retener una habitación",
+            description = "Bloquea la habitación en el rango [checkIn, checkOut) durante el tiempo de vida configurado. "
+                    + "Mientras dure, ninguna otra reserva ni retención puede ocupar esas noches.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Retención creada correctamente"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o Room no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La habitación está reservada o retenida en esas fechas")
+    })
+    @PostMapping
+    public ResponseEntity<RoomHold> createHold(
+            @Parameter(description = "Identificador de la habitación") @RequestParam String roomId,
+            @Parameter(description = "Fecha de entrada (yyyy-MM-dd)") @RequestParam String checkIn,
+            @Parameter(description = "Fecha de salida, excluida (yyyy-MM-dd)") @RequestParam String checkOut) {
+        RoomHold created = bookingDomain.createHold(roomId, checkIn, checkOut);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQuery(null)
+                .path("/{id}")
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(created);
+    }
+
+    @Operation(summary = "Obtener retención por id",
+            description = "Devuelve la retención si sigue activa.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Retención activa"),
+            @ApiResponse(responseCode = "404", description = "Retención no encontrada o caducada")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<RoomHold> getHold(
+            @Parameter(description = "Identificador de la retención") @PathVariable String id) {
+
+        return bookingDomain.getHold(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Confirmar una retención",
+            description = "Crea la reserva con la habitación y fechas de la retención y la libera.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Reserva creada correctamente"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o Guest no encontrado"),
+            @ApiResponse(responseCode = "404", description = "Retención no encontrada o caducada"),
+            @ApiResponse(responseCode = "409", description = "Ya existe una reserva con ese id")
+    })
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<Booking> confirmHold(
+            @Parameter(description = "Identificador de la retención") @PathVariable String id,
+            @RequestBody Booking booking) {
+
+        if (bookingDomain.getHold(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Booking created = bookingDomain.createBookingFromHold(id, booking);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/api/bookings/{id}")
+                .buildAndExpand(created.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(created);
+    }
+
+    @Operation(summary = "Liberar una retención",
+            description = "Libera la habitación antes de que la retención caduque.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Retención liberada correctamente"),
+            @ApiResponse(responseCode = "404", description = "Retención no encontrada o caducada")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String id) {
+        if (!bookingDomain.releaseHold(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,9 +4,14 @@ import java.net.URI;
 import java.util.List;
 
 import org.docencia.hotel.domain.api.HotelDomain;
+import org.docencia.hotel.domain.model.DailyOccupancy;
 import org.docencia.hotel.domain.model.Hotel;
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.domain.model.Room;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -45,53 +50,124 @@ public class HotelController {
         return ResponseEntity.created(location).body(createdHotel);
     }
 
-    @Operation(summary = "Listar hoteles", description = "Devuelve todos los hoteles. Si se pasa el parámetro 'name', filtra por nombre exacto.")
+    @Operation(summary = "Listar hoteles", description = "Devuelve una página de hoteles ordenados por id. Si se pasa el parámetro 'name', filtra por nombre exacto.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lista de hoteles devuelta correctamente"),
             @ApiResponse(responseCode = "400", description = "Parámetro de búsqueda inválido")
     })
     @GetMapping
     public ResponseEntity<List<Hotel>> getHotels(
-            @Parameter(description = "Nombre del hotel para filtrar (opcional)") @RequestParam(required = false) String name) {
+            @Parameter(description = "Nombre del hotel para filtrar (opcional)") @RequestParam(required = false) String name,
+            @Parameter(description = "Último id de la página anterior (opcional)") @RequestParam(required = false) String after,
+            @Parameter(description = "Tamaño de página (1-1000)") @RequestParam(defaultValue = KeysetPages.DEFAULT_LIMIT) int limit) {
 
         if (name != null) {
             return ResponseEntity.ok(hotelDomain.getHotelsByName(name));
         }
 
-        return ResponseEntity.ok(hotelDomain.getAllHotels());
+        return KeysetPages.ok(hotelDomain.getAllHotels(after, limit), limit, Hotel::getId);
+    }
+
+    @Operation(summary = "Informe de ingresos",
+            description = "Devuelve, para cada hotel y cada mes entre 'from' (incluido) y 'to' (excluido), "
+                    + "los ingresos, el ADR (tarifa media por noche vendida) y el RevPAR (ingreso por habitación disponible).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Informe devuelto correctamente"),
+            @ApiResponse(responseCode = "400", description = "Rango de meses inválido")
+    })
+    @GetMapping("/revenue")
+    public ResponseEntity<List<MonthlyRevenue>> getRevenueReport(
+            @Parameter(description = "Primer mes (yyyy-MM)") @RequestParam String from,
+            @Parameter(description = "Mes siguiente al último (yyyy-MM)") @RequestParam String to) {
+
+        return ResponseEntity.ok(hotelDomain.getRevenueReport(from, to));
     }
 
     @Operation(summary = "Listar hoteles por id", description = "Devuelve el hotel que coincide con el id proporcionado.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lista de hoteles devuelta correctamente"),
+            @ApiResponse(responseCode = "304", description = "El hotel no ha cambiado desde el ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Hotel no encontrado"),
             @ApiResponse(responseCode = "400", description = "Id inválido")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Hotel> getHotelById(
-            @Parameter(description = "Identificador del hotel") @PathVariable String id) {
-        return hotelDomain.getHotelById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "Identificador del hotel") @PathVariable String id,
+            WebRequest request) {
+        return ConditionalGets.ok(request, hotelDomain.getHotelVersion(id), () -> hotelDomain.getHotelById(id));
+    }
+
+    @Operation(summary = "Buscar habitaciones disponibles",
+            description = "Devuelve las habitaciones del hotel libres todas las noches entre 'from' (incluida) y 'to' (excluida). "
+                    + "Si se pasa 'type' filtra por tipo de habitación.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lista de habitaciones disponibles devuelta correctamente"),
+            @ApiResponse(responseCode = "400", description = "Hotel no encontrado, fechas inválidas o fuera del horizonte de disponibilidad")
+    })
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<List<Room>> getAvailability(
+            @Parameter(description = "Identificador del hotel") @PathVariable String id,
+            @Parameter(description = "Fecha de entrada (yyyy-MM-dd)") @RequestParam String from,
+            @Parameter(description = "Fecha de salida (yyyy-MM-dd)") @RequestParam String to,
+            @Parameter(description = "Tipo de habitación para filtrar (opcional)") @RequestParam(required = false) String type) {
+
+        return ResponseEntity.ok(hotelDomain.getAvailableRooms(id, from, to, type));
+    }
 
+    @Operation(summary = "Recomendar habitaciones para un huésped",
+            description = "Devuelve las habitaciones del hotel libres entre 'from' (incluida) y 'to' (excluida), "
+                    + "ordenadas según las preferencias del huésped: fumador y tipo de cama. "
+                    + "Si el huésped necesita accesibilidad solo se devuelven habitaciones adaptadas.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Habitaciones recomendadas devueltas correctamente"),
+            @ApiResponse(responseCode = "400", description = "Hotel o huésped no encontrado, fechas o límite inválidos")
+    })
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<List<Room>> getRecommendedRooms(
+            @Parameter(description = "Identificador del hotel") @PathVariable String id,
+            @Parameter(description = "Identificador del huésped") @RequestParam String guestId,
+            @Parameter(description = "Fecha de entrada (yyyy-MM-dd)") @RequestParam String from,
+            @Parameter(description = "Fecha de salida (yyyy-MM-dd)") @RequestParam String to,
+            @Parameter(description = "Número máximo de habitaciones") @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(hotelDomain.getRecommendedRooms(id, guestId, from, to, limit));
+    }
+
+    @Operation(summary = "Consultar ocupación diaria",
+            description = "Devuelve el número de habitaciones ocupadas del hotel para cada noche entre 'from' (incluida) "
+                    + "y 'to' (excluida). Las noches sin reservas aparecen con ocupación 0.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ocupación devuelta correctamente"),
+            @ApiResponse(responseCode = "400", description = "Hotel no encontrado o rango de fechas inválido")
+    })
+    @GetMapping("/{id}/occupancy")
+    public ResponseEntity<List<DailyOccupancy>> getOccupancy(
+            @Parameter(description = "Identificador del hotel") @PathVariable String id,
+            @Parameter(description = "Primera noche (yyyy-MM-dd)") @RequestParam String from,
+            @Parameter(description = "Noche siguiente a la última (yyyy-MM-dd)") @RequestParam String to) {
+
+        return ResponseEntity.ok(hotelDomain.getOccupancy(id, from, to));
     }
 
     @Operation(summary = "Actualizar un hotel", description = "Actualiza los datos de un hotel existente.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Hotel actualizado correctamente"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
-            @ApiResponse(responseCode = "404", description = "Hotel no encontrado")
+            @ApiResponse(responseCode = "404", description = "Hotel no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Otra peticion ha modificado el recurso a la vez"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la version actual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Hotel> updateHotel(
             @PathVariable String id,
-            @RequestBody Hotel hotel) {
+            @RequestBody Hotel hotel,
+            @Parameter(description = "ETag leido antes de modificar (opcional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (hotelDomain.getHotelById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        Hotel updated = hotelDomain.updateHotel(id, hotel);
+        Hotel updated = hotelDomain.updateHotel(id, hotel, ConditionalGets.expectedVersion(ifMatch));
         return ResponseEntity.ok(updated);
     }
 
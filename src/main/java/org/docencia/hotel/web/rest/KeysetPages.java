@@ -0,0 +1,65 @@
+package org.docencia.hotel.web.rest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Respuestas de los listados paginados por clave.
+ *
+ * El cuerpo sigue siendo un array JSON; si la pagina esta llena se anade
+ * una cabecera Link con rel="next" que apunta a la misma peticion con
+ * after igual al id del ultimo elemento.
+ *
+ * Los filtros del enlace salen de los parametros ya recibidos y no de la
+ * query string en bruto, que no siempre existe (por ejemplo, cuando la
+ * peticion no llega como URL o los parametros se añaden por otra via).
+ */
+final class KeysetPages {
+
+    /**
+     * Tamaño de pagina cuando no se indica limit.
+     */
+    static final String DEFAULT_LIMIT = "100";
+
+    private KeysetPages() {
+    }
+
+    /**
+     * Construye la respuesta 200 de una pagina.
+     *
+     * @param <T>   Tipo de los elementos
+     * @param page  Elementos de la pagina
+     * @param limit Tamaño de pagina pedido
+     * @param idOf  Funcion que obtiene el id de un elemento
+     * @return Respuesta con la pagina y, si procede, el enlace a la siguiente
+     */
+    static <T> ResponseEntity<List<T>> ok(List<T> page, int limit, Function<T, String> idOf) {
+        if (page.isEmpty() || page.size() < limit) {
+            return ResponseEntity.ok(page);
+        }
+
+        UriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentRequestUri();
+        Map<String, String[]> parameters = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest()
+                .getParameterMap();
+
+        parameters.forEach((name, values) -> builder.queryParam(name, (Object[]) values));
+
+        String next = builder
+                .replaceQueryParam("after", idOf.apply(page.get(page.size() - 1)))
+                .replaceQueryParam("limit", limit)
+                .toUriString();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page);
+    }
+}
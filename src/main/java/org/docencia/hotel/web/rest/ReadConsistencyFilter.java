@@ -0,0 +1,60 @@
+package org.docencia.hotel.web.rest;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.docencia.hotel.persistence.routing.ReadConsistency;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Lee la cabecera X-Max-Staleness, con el retraso maximo en segundos que el
+ * cliente admite en las lecturas servidas desde la replica, y lo deja en
+ * ReadConsistency mientras dura la peticion. Con 0 todas las lecturas de la
+ * peticion van a la base de datos principal.
+ */
+@Component
+@Profile("replica")
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+
+    /**
+     * Cabecera con el retraso maximo admitido, en segundos.
+     */
+    public static final String MAX_STALENESS_HEADER = "X-Max-Staleness";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(MAX_STALENESS_HEADER);
+
+        if (header == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long seconds;
+        try {
+            seconds = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            seconds = -1;
+        }
+        if (seconds < 0) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), MAX_STALENESS_HEADER + " must be a non-negative integer");
+            return;
+        }
+
+        ReadConsistency.setMaxStaleness(Duration.ofSeconds(seconds));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadConsistency.clear();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.docencia.hotel.domain.api.RoomDomain;
 import org.docencia.hotel.domain.model.Room;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,9 +13,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,7 +57,7 @@ public class RoomController {
         return ResponseEntity.created(location).body(createdRoom);
     }
 
-    @Operation(summary = "Listar habitaciones", description = "Devuelve todas las habitaciones. Si se le pasa el parametro 'hotelId' filtra por hotel y si se anade 'type' filtra por tipo de habitacion.")
+    @Operation(summary = "Listar habitaciones", description = "Devuelve una página de habitaciones ordenadas por id. Si se le pasa el parametro 'hotelId' filtra por hotel y si se anade 'type' filtra por tipo de habitacion.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lista de habitaciones devuelta correctamente"),
             @ApiResponse(responseCode = "400", description = "Parámetro de búsqueda inválido")
@@ -62,7 +65,9 @@ public class RoomController {
     @GetMapping
     public ResponseEntity<List<Room>> getRooms(
             @Parameter(description = "Identificador del hotel para filtrar (opcional)") @RequestParam(required = false) String hotelId,
-            @Parameter(description = "Tipo de habitación para filtrar (opcional)") @RequestParam(required = false) String type) {
+            @Parameter(description = "Tipo de habitación para filtrar (opcional)") @RequestParam(required = false) String type,
+            @Parameter(description = "Último id de la página anterior (opcional)") @RequestParam(required = false) String after,
+            @Parameter(description = "Tamaño de página (1-1000)") @RequestParam(defaultValue = KeysetPages.DEFAULT_LIMIT) int limit) {
 
         if (hotelId != null && type != null) {
             return ResponseEntity.ok(roomDomain.getRoomsByHotelAndType(hotelId, type));
@@ -70,39 +75,42 @@ public class RoomController {
             return ResponseEntity.ok(roomDomain.getRoomsByHotel(hotelId));
         }
 
-        return ResponseEntity.ok(roomDomain.getAllRooms());
+        return KeysetPages.ok(roomDomain.getAllRooms(after, limit), limit, Room::getId);
     }
 
     @Operation(summary = "Listar habitaciones por id", description = "Devuelve la habitacion que coincide con el id proporcionado.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lista de habitaciones devuelta correctamente"),
+            @ApiResponse(responseCode = "304", description = "La habitación no ha cambiado desde el ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Habitación no encontrada"),
             @ApiResponse(responseCode = "400", description = "Id inválido")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Room> getRoomById(
-            @Parameter(description = "Identificador de la habitación") @PathVariable String id) {
-        return roomDomain.getRoomById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Parameter(description = "Identificador de la habitación") @PathVariable String id,
+            WebRequest request) {
+        return ConditionalGets.ok(request, roomDomain.getRoomVersion(id), () -> roomDomain.getRoomById(id));
     }
 
     @Operation(summary = "Actualizar una habitación", description = "Actualiza los datos de una habitación existente.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Habitación actualizada correctamente"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
-            @ApiResponse(responseCode = "404", description = "Habitación no encontrada")
+            @ApiResponse(responseCode = "404", description = "Habitación no encontrada"),
+            @ApiResponse(responseCode = "409", description = "Otra peticion ha modificado el recurso a la vez"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la version actual")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Room> updateRoom(
             @PathVariable String id,
-            @RequestBody Room room) {
+            @RequestBody Room room,
+            @Parameter(description = "ETag leido antes de modificar (opcional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         if (roomDomain.getRoomById(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        Room updated = roomDomain.updateRoom(id, room);
+        Room updated = roomDomain.updateRoom(id, room, ConditionalGets.expectedVersion(ifMatch));
         return ResponseEntity.ok(updated);
     }
 
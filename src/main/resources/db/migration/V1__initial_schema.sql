@@ -0,0 +1,53 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto=update.
+-- Se usa IF NOT EXISTS para que una base de datos creada antes de las
+-- migraciones (marcada como version 0 por baseline-on-migrate) conserve
+-- sus tablas y sus datos.
+
+CREATE TABLE IF NOT EXISTS hotel (
+    id      VARCHAR(255) NOT NULL,
+    name    VARCHAR(255) NOT NULL,
+    address VARCHAR(255),
+    CONSTRAINT pk_hotel PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS guest (
+    id        VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    email     VARCHAR(255),
+    phone     VARCHAR(255),
+    CONSTRAINT pk_guest PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS room (
+    id              VARCHAR(255) NOT NULL,
+    number          VARCHAR(255) NOT NULL,
+    type            VARCHAR(255),
+    price_per_night FLOAT(53)    NOT NULL,
+    smoking         BOOLEAN      DEFAULT FALSE NOT NULL,
+    bed_type        VARCHAR(255),
+    accessible      BOOLEAN      DEFAULT FALSE NOT NULL,
+    hotel_id        VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_room PRIMARY KEY (id),
+    CONSTRAINT fk_room_hotel FOREIGN KEY (hotel_id) REFERENCES hotel (id)
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+    id        VARCHAR(255) NOT NULL,
+    room_id   VARCHAR(255) NOT NULL,
+    guest_id  VARCHAR(255) NOT NULL,
+    check_in  DATE,
+    check_out DATE,
+    CONSTRAINT pk_booking PRIMARY KEY (id),
+    CONSTRAINT fk_booking_room FOREIGN KEY (room_id) REFERENCES room (id),
+    CONSTRAINT fk_booking_guest FOREIGN KEY (guest_id) REFERENCES guest (id)
+);
+
+CREATE TABLE IF NOT EXISTS hotel_occupancy (
+    hotel_id       VARCHAR(255) NOT NULL,
+    night          DATE         NOT NULL,
+    occupied_rooms INTEGER      NOT NULL,
+    CONSTRAINT pk_hotel_occupancy PRIMARY KEY (hotel_id, night)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_room_dates ON booking (room_id, check_in, check_out);
+CREATE INDEX IF NOT EXISTS idx_booking_check_in ON booking (check_in);
@@ -0,0 +1,12 @@
+-- Indices para los filtros de los repositorios.
+-- booking.room_id ya esta cubierto por idx_booking_room_dates (primera columna).
+
+-- BookingRepository: findRowsByGuestIdAfter, existsByGuestId, deleteByGuestId
+CREATE INDEX IF NOT EXISTS idx_booking_guest ON booking (guest_id, id);
+
+-- RoomRepository: findRowsByHotelId, findRowsByHotelIdAndType, deleteByHotel_Id;
+-- tambien el join de las consultas de reservas por hotel
+CREATE INDEX IF NOT EXISTS idx_room_hotel_type ON room (hotel_id, type);
+
+-- HotelRepository: findByHotelName
+CREATE INDEX IF NOT EXISTS idx_hotel_name ON hotel (name);
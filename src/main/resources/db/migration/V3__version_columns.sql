@@ -0,0 +1,7 @@
+-- Columnas de version para el bloqueo optimista y los ETag de las consultas por id.
+-- Las filas existentes empiezan en la version 0.
+
+ALTER TABLE hotel ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE room ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE guest ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
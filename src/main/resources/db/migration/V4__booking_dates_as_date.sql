@@ -0,0 +1,7 @@
+-- Las bases de datos anteriores a las migraciones guardan las fechas de
+-- las reservas como VARCHAR (yyyy-MM-dd); V1 no las toca porque la tabla
+-- ya existe. Se convierten a DATE, que es lo que valida Hibernate.
+-- En una base de datos creada por V1 las columnas ya son DATE y no cambia nada.
+
+ALTER TABLE booking ALTER COLUMN check_in SET DATA TYPE DATE;
+ALTER TABLE booking ALTER COLUMN check_out SET DATA TYPE DATE;
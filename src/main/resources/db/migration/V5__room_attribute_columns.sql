@@ -0,0 +1,7 @@
+-- Atributos de habitacion que no existian antes de las migraciones; V1 no
+-- los anade porque la tabla room ya existe. Las habitaciones existentes
+-- quedan como no fumadores, sin tipo de cama y no adaptadas.
+
+ALTER TABLE room ADD COLUMN IF NOT EXISTS smoking BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE room ADD COLUMN IF NOT EXISTS bed_type VARCHAR(255);
+ALTER TABLE room ADD COLUMN IF NOT EXISTS accessible BOOLEAN DEFAULT FALSE NOT NULL;
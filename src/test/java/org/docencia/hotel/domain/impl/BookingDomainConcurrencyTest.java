@@ -0,0 +1,144 @@
+package org.docencia.hotel.domain.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.mapper.jpa.BookingMapper;
+import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
+import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
+import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.BookingReferences;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.service.api.GuestService;
+import org.docencia.hotel.service.api.HotelService;
+import org.docencia.hotel.service.api.OccupancyService;
+import org.docencia.hotel.service.api.RoomHoldService;
+import org.docencia.hotel.service.api.RoomService;
+import org.docencia.hotel.service.impl.BookingServiceImpl;
+import org.docencia.hotel.service.index.BookingIdFilter;
+import org.docencia.hotel.service.index.BookingIntervalIndex;
+import org.docencia.hotel.service.lock.RoomLockStripes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Prueba de estres de la creacion concurrente de reservas.
+ *
+ * Usa el dominio, el servicio y el indice reales; solo se simulan
+ * los repositorios y los servicios auxiliares.
+ */
+class BookingDomainConcurrencyTest {
+
+    private static final int WRITERS = 64;
+    private static final int ATTEMPTS_PER_WRITER = 200;
+    private static final int ROOMS = 16;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private BookingDomainImpl domain;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.save(any(BookingEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(bookingRepository.findReferences(anyString(), anyString(), anyString()))
+                .thenReturn(new BookingReferences(1, 1, 0));
+
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getReference(eq(RoomEntity.class), anyString()))
+                .thenAnswer(inv -> new RoomEntity(inv.getArgument(1)));
+        when(entityManager.getReference(eq(GuestEntity.class), anyString()))
+                .thenAnswer(inv -> new GuestEntity(inv.getArgument(1)));
+
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, mock(PlatformTransactionManager.class));
+        BookingServiceImpl bookingService = new BookingServiceImpl(bookingRepository,
+                Mappers.getMapper(BookingMapper.class), bookingIntervalIndex,
+                new BookingIdFilter(bookingRepository, 100_000, 0.01), mock(OccupancyService.class), entityManager);
+
+        domain = new BookingDomainImpl(bookingService, mock(RoomService.class), mock(GuestService.class),
+                mock(HotelService.class), mock(RoomHoldService.class), new RoomLockStripes(256));
+    }
+
+    @Test
+    void createBooking_with64ConcurrentWriters_neverDoubleBooksARoom(TestReporter testReporter) throws Exception {
+        Queue<Booking> created = new ConcurrentLinkedQueue<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                Random random = new Random(writer);
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_WRITER; i++) {
+                    LocalDate in = FIRST_DAY.plusDays(random.nextInt(90));
+                    Booking booking = new Booking("b-" + writer + "-" + i, "r" + random.nextInt(ROOMS), "g1",
+                            in.toString(), in.plusDays(1 + random.nextInt(4)).toString());
+                    try {
+                        created.add(domain.createBooking(booking));
+                    } catch (IllegalStateException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+
+        int attempts = WRITERS * ATTEMPTS_PER_WRITER;
+        // Se publica en el informe de la prueba, sin escribir en la salida estandar
+        testReporter.publishEntry(Map.of(
+                "writers", String.valueOf(WRITERS),
+                "attempts", String.valueOf(attempts),
+                "created", String.valueOf(created.size()),
+                "conflicts", String.valueOf(conflicts.get()),
+                "throughputOpsPerSecond", String.format("%.0f", attempts / (elapsed / 1e9))));
+
+        assertEquals(attempts, created.size() + conflicts.get());
+        assertEquals(created.size(), bookingIntervalIndex.size());
+
+        Map<String, List<Booking>> byRoom = created.stream().collect(Collectors.groupingBy(Booking::getRoomId));
+        for (List<Booking> stays : byRoom.values()) {
+            stays.sort(Comparator.comparing(Booking::getCheckIn));
+            for (int i = 1; i < stays.size(); i++) {
+                assertTrue(stays.get(i - 1).getCheckOut().compareTo(stays.get(i).getCheckIn()) <= 0,
+                        () -> "double booking in room " + stays.get(0).getRoomId());
+            }
+        }
+    }
+}
@@ -2,20 +2,27 @@ package org.docencia.hotel.domain.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.domain.model.RoomHold;
 import org.docencia.hotel.service.api.BookingService;
 import org.docencia.hotel.service.api.GuestService;
 import org.docencia.hotel.service.api.HotelService;
+import org.docencia.hotel.service.api.RoomHoldService;
 import org.docencia.hotel.service.api.RoomService;
+import org.docencia.hotel.service.lock.RoomLockStripes;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +40,12 @@ class BookingDomainImplTest {
     @Mock
     private HotelService hotelService;
 
+    @Mock
+    private RoomHoldService roomHoldService;
+
+    @Spy
+    private RoomLockStripes roomLockStripes = new RoomLockStripes(16);
+
     @InjectMocks
     private BookingDomainImpl domain;
 
@@ -47,11 +60,6 @@ class BookingDomainImplTest {
         return b;
     }
 
-    private void stubsAllExistForCreateOrUpdate(Booking b) {
-        when(guestService.existsById(b.getGuestId())).thenReturn(true);
-        when(roomService.existsById(b.getRoomId())).thenReturn(true);
-    }
-
     // ===================== createBooking =====================
 
     @Test
@@ -109,163 +117,424 @@ class BookingDomainImplTest {
     }
 
     @Test
-    void createBooking_whenGuestDoesNotExist_throwsIllegalArgumentException_andDoesNotSave() {
+    void createBooking_whenReferenceInvalid_propagatesServiceError() {
         Booking b = booking("b1", "r1", "g404", null, null);
 
-        when(guestService.existsById("g404")).thenReturn(false);
+        when(bookingService.insert(b)).thenThrow(new IllegalArgumentException("guest not found: g404"));
 
         IllegalArgumentException ex =
                 assertThrows(IllegalArgumentException.class, () -> domain.createBooking(b));
         assertEquals("guest not found: g404", ex.getMessage());
 
-        verify(guestService).existsById("g404");
-        verifyNoMoreInteractions(guestService);
-        verifyNoInteractions(roomService, bookingService, hotelService);
-    }
-
-    @Test
-    void createBooking_whenRoomDoesNotExist_throwsIllegalArgumentException_andDoesNotSave() {
-        Booking b = booking("b1", "r404", "g1", null, null);
-
-        when(guestService.existsById("g1")).thenReturn(true);
-        when(roomService.existsById("r404")).thenReturn(false);
-
-        IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.createBooking(b));
-        assertEquals("room not found: r404", ex.getMessage());
-
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r404");
-        verifyNoMoreInteractions(guestService, roomService);
-        verifyNoInteractions(bookingService, hotelService);
+        verify(bookingService).insert(b);
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(roomService, guestService, hotelService);
     }
 
     @Test
-    void createBooking_whenDatesBothNullOrBlank_allowsAndSaves() {
+    void createBooking_whenDatesBothNullOrBlank_allowsAndInserts() {
         Booking b = booking("b1", "r1", "g1", null, null);
 
-        stubsAllExistForCreateOrUpdate(b);
-        when(bookingService.existsById("b1")).thenReturn(false);
-
         Booking saved = booking("b1", "r1", "g1", null, null);
-        when(bookingService.save(b)).thenReturn(saved);
+        when(bookingService.insert(b)).thenReturn(saved);
 
         Booking result = domain.createBooking(b);
 
         assertSame(saved, result);
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verify(bookingService).existsById("b1");
-        verify(bookingService).save(b);
-        verifyNoMoreInteractions(bookingService, roomService, guestService);
-        verifyNoInteractions(hotelService);
+        verify(bookingService).insert(b);
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(roomService, guestService, hotelService);
     }
 
     @Test
     void createBooking_whenOnlyCheckInProvided_throwsIllegalArgumentException() {
         Booking b = booking("b1", "r1", "g1", "2025-01-01", null);
 
-        stubsAllExistForCreateOrUpdate(b);
-
         IllegalArgumentException ex =
                 assertThrows(IllegalArgumentException.class, () -> domain.createBooking(b));
         assertEquals("checkIn and checkOut must be provided together", ex.getMessage());
 
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verifyNoMoreInteractions(roomService, guestService);
-        verifyNoInteractions(bookingService, hotelService);
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void createBooking_whenOnlyCheckOutProvided_throwsIllegalArgumentException() {
         Booking b = booking("b1", "r1", "g1", null, "2025-01-02");
 
-        stubsAllExistForCreateOrUpdate(b);
-
         IllegalArgumentException ex =
                 assertThrows(IllegalArgumentException.class, () -> domain.createBooking(b));
         assertEquals("checkIn and checkOut must be provided together", ex.getMessage());
 
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verifyNoMoreInteractions(roomService, guestService);
-        verifyNoInteractions(bookingService, hotelService);
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void createBooking_whenInvalidDateFormat_throwsIllegalArgumentException() {
         Booking b = booking("b1", "r1", "g1", "01-01-2025", "02-01-2025");
 
-        stubsAllExistForCreateOrUpdate(b);
-
         IllegalArgumentException ex =
                 assertThrows(IllegalArgumentException.class, () -> domain.createBooking(b));
         assertEquals("invalid date format. Expected yyyy-MM-dd", ex.getMessage());
 
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verifyNoMoreInteractions(roomService, guestService);
-        verifyNoInteractions(bookingService, hotelService);
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void createBooking_whenCheckInNotBeforeCheckOut_throwsIllegalArgumentException() {
         Booking b = booking("b1", "r1", "g1", "2025-01-02", "2025-01-02");
 
-        stubsAllExistForCreateOrUpdate(b);
-
         IllegalArgumentException ex =
                 assertThrows(IllegalArgumentException.class, () -> domain.createBooking(b));
         assertEquals("checkIn must be before checkOut", ex.getMessage());
 
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verifyNoMoreInteractions(roomService, guestService);
-        verifyNoInteractions(bookingService, hotelService);
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
-    void createBooking_whenAlreadyExists_throwsIllegalStateException_andDoesNotSave() {
+    void createBooking_whenAlreadyExists_throwsIllegalStateException() {
         Booking b = booking("b1", "r1", "g1", "2025-01-01", "2025-01-02");
 
-        stubsAllExistForCreateOrUpdate(b);
-        when(bookingService.existsById("b1")).thenReturn(true);
+        when(bookingService.insert(b)).thenThrow(new IllegalStateException("booking already exists: b1"));
 
         IllegalStateException ex =
                 assertThrows(IllegalStateException.class, () -> domain.createBooking(b));
         assertEquals("booking already exists: b1", ex.getMessage());
 
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verify(bookingService).existsById("b1");
-        verify(bookingService, never()).save(any());
-        verifyNoMoreInteractions(bookingService, roomService, guestService);
-        verifyNoInteractions(hotelService);
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", null);
+        verify(bookingService).insert(b);
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(roomService, guestService, hotelService);
     }
 
     @Test
-    void createBooking_ok_withValidDates_saves() {
+    void createBooking_ok_withValidDates_checksAvailabilityUnderLock_andInserts() {
         Booking b = booking("b1", "r1", "g1", "2025-01-01", "2025-01-02");
 
-        stubsAllExistForCreateOrUpdate(b);
-        when(bookingService.existsById("b1")).thenReturn(false);
-
         Booking saved = booking("b1", "r1", "g1", "2025-01-01", "2025-01-02");
-        when(bookingService.save(b)).thenReturn(saved);
+        when(bookingService.insert(b)).thenReturn(saved);
 
         Booking result = domain.createBooking(b);
 
         assertSame(saved, result);
 
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verify(bookingService).existsById("b1");
-        verify(bookingService).save(b);
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", null);
+        verify(bookingService).insert(b);
+        verify(roomLockStripes).withRoomLock(eq("r1"), any());
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(roomService, guestService, hotelService);
+    }
+
+    @Test
+    void createBooking_whenRoomAlreadyBooked_throwsIllegalStateException_andDoesNotInsert() {
+        Booking b = booking("b1", "r1", "g1", "2025-01-01", "2025-01-05");
+
+        when(bookingService.existsOverlappingBooking("r1", "2025-01-01", "2025-01-05", null)).thenReturn(true);
+
+        IllegalStateException ex =
+                assertThrows(IllegalStateException.class, () -> domain.createBooking(b));
+        assertEquals("room r1 is already booked between 2025-01-01 and 2025-01-05", ex.getMessage());
+
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-05", null);
+        verify(bookingService, never()).insert(any());
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(hotelService);
+    }
+
+    // ===================== createBookings =====================
+
+    @Test
+    void createBookings_whenListNull_throwsNullPointerException_andNoInteractions() {
+        assertThrows(NullPointerException.class, () -> domain.createBookings(null));
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
+    @Test
+    void createBookings_whenDuplicateIdInBatch_throwsIllegalArgumentException_andNoInteractions() {
+        List<Booking> batch = List.of(
+                booking("b1", "r1", "g1", null, null),
+                booking("b1", "r2", "g1", null, null));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> domain.createBookings(batch));
+        assertEquals("duplicate booking id in batch: b1", ex.getMessage());
+
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
+    @Test
+    void createBookings_whenGuestMissing_throwsIllegalArgumentException_afterSingleQuery() {
+        List<Booking> batch = List.of(
+                booking("b1", "r1", "g1", null, null),
+                booking("b2", "r1", "g2", null, null));
+        when(guestService.findExistingIds(Set.of("g1", "g2"))).thenReturn(Set.of("g1"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> domain.createBookings(batch));
+        assertEquals("guest not found: g2", ex.getMessage());
+
+        verify(guestService).findExistingIds(Set.of("g1", "g2"));
+        verifyNoMoreInteractions(guestService);
+        verifyNoInteractions(bookingService, roomService, hotelService);
+    }
+
+    @Test
+    void createBookings_whenBookingAlreadyExists_throwsIllegalStateException_andDoesNotSave() {
+        List<Booking> batch = List.of(booking("b1", "r1", "g1", null, null));
+        when(guestService.findExistingIds(Set.of("g1"))).thenReturn(Set.of("g1"));
+        when(roomService.findExistingIds(Set.of("r1"))).thenReturn(Set.of("r1"));
+        when(bookingService.findExistingIds(Set.of("b1"))).thenReturn(Set.of("b1"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> domain.createBookings(batch));
+        assertEquals("booking already exists: b1", ex.getMessage());
+
+        verify(bookingService, never()).saveAll(any());
+    }
+
+    @Test
+    void createBookings_whenBatchOverlapsItself_throwsIllegalStateException_andDoesNotSave() {
+        List<Booking> batch = List.of(
+                booking("b1", "r1", "g1", "2025-01-01", "2025-01-05"),
+                booking("b2", "r1", "g1", "2025-01-04", "2025-01-06"),
+                booking("b3", "r2", "g1", "2025-01-04", "2025-01-06"));
+        when(guestService.findExistingIds(Set.of("g1"))).thenReturn(Set.of("g1"));
+        when(roomService.findExistingIds(Set.of("r1", "r2"))).thenReturn(Set.of("r1", "r2"));
+        when(bookingService.findExistingIds(Set.of("b1", "b2", "b3"))).thenReturn(Set.of());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> domain.createBookings(batch));
+        assertEquals("room r1 is already booked between 2025-01-04 and 2025-01-06", ex.getMessage());
+
+        verify(bookingService, never()).saveAll(any());
+    }
+
+    @Test
+    void createBookings_ok_validatesWithOneQueryPerKind_andSavesAll() {
+        List<Booking> batch = List.of(
+                booking("b1", "r1", "g1", "2025-01-01", "2025-01-03"),
+                booking("b2", "r1", "g2", "2025-01-03", "2025-01-05"),
+                booking("b3", "r2", "g1", null, null));
+        List<Booking> saved = List.of(new Booking("b1"), new Booking("b2"), new Booking("b3"));
+        when(guestService.findExistingIds(Set.of("g1", "g2"))).thenReturn(Set.of("g1", "g2"));
+        when(roomService.findExistingIds(Set.of("r1", "r2"))).thenReturn(Set.of("r1", "r2"));
+        when(bookingService.findExistingIds(Set.of("b1", "b2", "b3"))).thenReturn(Set.of());
+        when(bookingService.saveAll(batch)).thenReturn(saved);
+
+        List<Booking> result = domain.createBookings(batch);
+
+        assertSame(saved, result);
+
+        verify(guestService).findExistingIds(Set.of("g1", "g2"));
+        verify(roomService).findExistingIds(Set.of("r1", "r2"));
+        verify(bookingService).findExistingIds(Set.of("b1", "b2", "b3"));
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-03", null);
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-03", "2025-01-05", null);
+        verify(bookingService).saveAll(batch);
+        verify(roomLockStripes).withRoomLocks(eq(Set.of("r1", "r2")), any());
         verifyNoMoreInteractions(bookingService, roomService, guestService);
         verifyNoInteractions(hotelService);
     }
 
+    // ===================== createBookingWithAssignedRoom =====================
+
+    @Test
+    void createBookingWithAssignedRoom_whenDatesMissing_throwsNullPointerException_andNoInteractions() {
+        Booking b = booking("b1", null, "g1", null, null);
+
+        assertThrows(NullPointerException.class, () -> domain.createBookingWithAssignedRoom("h1", "DOUBLE", b));
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
+    @Test
+    void createBookingWithAssignedRoom_whenHotelNotFound_throwsIllegalArgumentException() {
+        Booking b = booking("b1", null, "g1", "2025-01-01", "2025-01-03");
+        when(hotelService.existsById("h404")).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.createBookingWithAssignedRoom("h404", "DOUBLE", b));
+
+        assertEquals("hotel not found: h404", ex.getMessage());
+        verifyNoInteractions(bookingService, roomService, guestService);
+    }
+
+    @Test
+    void createBookingWithAssignedRoom_ok_insertsInBestRankedRoom() {
+        Booking b = booking("b1", null, "g1", "2025-01-01", "2025-01-03");
+        Booking saved = booking("b1", "r2", "g1", "2025-01-01", "2025-01-03");
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(roomService.findByHotelIdAndType("h1", "DOUBLE")).thenReturn(List.of(
+                new Room("r1", "101", "DOUBLE", 80.0, "h1"),
+                new Room("r2", "102", "DOUBLE", 80.0, "h1")));
+        when(bookingService.rankRoomsByFit(List.of("r1", "r2"), "2025-01-01", "2025-01-03"))
+                .thenReturn(List.of("r2", "r1"));
+        when(bookingService.existsOverlappingBooking("r2", "2025-01-01", "2025-01-03", null)).thenReturn(false);
+        when(bookingService.insert(b)).thenReturn(saved);
+
+        Booking result = domain.createBookingWithAssignedRoom("h1", "DOUBLE", b);
+
+        assertSame(saved, result);
+        assertEquals("r2", b.getRoomId());
+        verify(roomLockStripes).withRoomLock(eq("r2"), any());
+        verify(bookingService).insert(b);
+        verify(bookingService, never()).existsOverlappingBooking(eq("r1"), any(), any(), any());
+    }
+
+    @Test
+    void createBookingWithAssignedRoom_whenRankedRoomTakenMeanwhile_triesNextRoom() {
+        Booking b = booking("b1", null, "g1", "2025-01-01", "2025-01-03");
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(roomService.findByHotelIdAndType("h1", "DOUBLE")).thenReturn(List.of(
+                new Room("r1", "101", "DOUBLE", 80.0, "h1"),
+                new Room("r2", "102", "DOUBLE", 80.0, "h1")));
+        when(bookingService.rankRoomsByFit(List.of("r1", "r2"), "2025-01-01", "2025-01-03"))
+                .thenReturn(List.of("r2", "r1"));
+        when(bookingService.existsOverlappingBooking("r2", "2025-01-01", "2025-01-03", null)).thenReturn(true);
+        when(bookingService.existsOverlappingBooking("r1", "2025-01-01", "2025-01-03", null)).thenReturn(false);
+        when(bookingService.insert(b)).thenReturn(b);
+
+        Booking result = domain.createBookingWithAssignedRoom("h1", "DOUBLE", b);
+
+        assertEquals("r1", result.getRoomId());
+        verify(bookingService).insert(b);
+    }
+
+    @Test
+    void createBookingWithAssignedRoom_whenNoRoomFree_throwsIllegalStateException_andDoesNotInsert() {
+        Booking b = booking("b1", null, "g1", "2025-01-01", "2025-01-03");
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(roomService.findByHotelIdAndType("h1", "SUITE")).thenReturn(List.of(
+                new Room("r9", "901", "SUITE", 300.0, "h1")));
+        when(bookingService.rankRoomsByFit(List.of("r9"), "2025-01-01", "2025-01-03")).thenReturn(List.of());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> domain.createBookingWithAssignedRoom("h1", "SUITE", b));
+
+        assertEquals("no SUITE room available in hotel h1 between 2025-01-01 and 2025-01-03", ex.getMessage());
+        verify(bookingService, never()).insert(any());
+    }
+
+    @Test
+    void createBookingWithAssignedRoom_skipsRoomOnHold() {
+        Booking b = booking("b1", null, "g1", "2025-01-01", "2025-01-03");
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(roomService.findByHotelIdAndType("h1", "DOUBLE")).thenReturn(List.of(
+                new Room("r1", "101", "DOUBLE", 80.0, "h1"),
+                new Room("r2", "102", "DOUBLE", 80.0, "h1")));
+        when(bookingService.rankRoomsByFit(List.of("r1", "r2"), "2025-01-01", "2025-01-03"))
+                .thenReturn(List.of("r2", "r1"));
+        when(roomHoldService.isHeld("r2", "2025-01-01", "2025-01-03", null)).thenReturn(true);
+        when(bookingService.insert(b)).thenReturn(b);
+
+        Booking result = domain.createBookingWithAssignedRoom("h1", "DOUBLE", b);
+
+        assertEquals("r1", result.getRoomId());
+        verify(bookingService).insert(b);
+    }
+
+    // ===================== holds =====================
+
+    @Test
+    void createBooking_whenRoomOnHold_throwsIllegalStateException_andDoesNotSave() {
+        Booking b = booking("b1", "r1", "g1", "2025-01-01", "2025-01-05");
+        when(roomHoldService.isHeld("r1", "2025-01-01", "2025-01-05", null)).thenReturn(true);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> domain.createBooking(b));
+
+        assertEquals("room r1 is on hold between 2025-01-01 and 2025-01-05", ex.getMessage());
+        verify(bookingService, never()).insert(any());
+    }
+
+    @Test
+    void createHold_whenCheckOutNotAfterCheckIn_throwsIllegalArgumentException_andNoInteractions() {
+        assertThrows(IllegalArgumentException.class, () -> domain.createHold("r1", "2025-01-03", "2025-01-03"));
+        verifyNoInteractions(bookingService, roomService, roomHoldService);
+    }
+
+    @Test
+    void createHold_whenRoomNotFound_throwsIllegalArgumentException() {
+        when(roomService.existsById("r404")).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.createHold("r404", "2025-01-01", "2025-01-03"));
+
+        assertEquals("room not found: r404", ex.getMessage());
+        verifyNoInteractions(bookingService, roomHoldService);
+    }
+
+    @Test
+    void createHold_whenRoomBooked_throwsIllegalStateException_andDoesNotHold() {
+        when(roomService.existsById("r1")).thenReturn(true);
+        when(bookingService.existsOverlappingBooking("r1", "2025-01-01", "2025-01-03", null)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> domain.createHold("r1", "2025-01-01", "2025-01-03"));
+
+        verify(roomHoldService, never()).create(any(), any(), any());
+    }
+
+    @Test
+    void createHold_whenRoomAlreadyHeld_throwsIllegalStateException_andDoesNotHold() {
+        when(roomService.existsById("r1")).thenReturn(true);
+        when(roomHoldService.isHeld("r1", "2025-01-01", "2025-01-03", null)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> domain.createHold("r1", "2025-01-01", "2025-01-03"));
+
+        verify(roomHoldService, never()).create(any(), any(), any());
+    }
+
+    @Test
+    void createHold_ok_createsHoldUnderRoomLock() {
+        RoomHold hold = new RoomHold("h1", "r1", "2025-01-01", "2025-01-03", "2025-01-01T10:10:00Z");
+        when(roomService.existsById("r1")).thenReturn(true);
+        when(roomHoldService.create("r1", "2025-01-01", "2025-01-03")).thenReturn(hold);
+
+        RoomHold result = domain.createHold("r1", "2025-01-01", "2025-01-03");
+
+        assertSame(hold, result);
+        verify(roomLockStripes).withRoomLock(eq("r1"), any());
+    }
+
+    @Test
+    void releaseHold_delegatesToService() {
+        when(roomHoldService.release("h1")).thenReturn(true);
+
+        assertTrue(domain.releaseHold("h1"));
+        verify(roomHoldService).release("h1");
+        verifyNoMoreInteractions(roomHoldService);
+    }
+
+    @Test
+    void createBookingFromHold_whenHoldNotFound_throwsIllegalArgumentException_andDoesNotSave() {
+        Booking b = booking("b1", null, "g1", null, null);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(roomHoldService.findById("h404")).thenReturn(Optional.empty());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.createBookingFromHold("h404", b));
+
+        assertEquals("hold not found: h404", ex.getMessage());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void createBookingFromHold_ok_copiesRoomAndDates_insertsAndReleasesHold() {
+        Booking b = booking("b1", null, "g1", null, null);
+        RoomHold hold = new RoomHold("h1", "r1", "2025-01-01", "2025-01-03", "2025-01-01T10:10:00Z");
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(roomHoldService.findById("h1")).thenReturn(Optional.of(hold));
+        when(bookingService.existsOverlappingBooking("r1", "2025-01-01", "2025-01-03", null)).thenReturn(false);
+        when(bookingService.insert(b)).thenReturn(b);
+
+        Booking result = domain.createBookingFromHold("h1", b);
+
+        assertEquals("r1", result.getRoomId());
+        assertEquals("2025-01-01", result.getCheckIn());
+        assertEquals("2025-01-03", result.getCheckOut());
+        verify(roomLockStripes).withRoomLock(eq("r1"), any());
+        verify(roomHoldService, times(2)).findById("h1");
+        verify(roomHoldService).release("h1");
+        verifyNoMoreInteractions(roomHoldService);
+    }
+
     // ===================== getBookingById =====================
 
     @Test
@@ -295,32 +564,60 @@ class BookingDomainImplTest {
         verifyNoInteractions(roomService, guestService, hotelService);
     }
 
+        // ===================== getBookingVersion =====================
+
+    @Test
+    void getBookingVersion_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> domain.getBookingVersion("   "));
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getBookingVersion_ok_delegatesToFindVersionById() {
+        when(bookingService.findVersionById("b1")).thenReturn(Optional.of(5L));
+
+        assertEquals(Optional.of(5L), domain.getBookingVersion("b1"));
+
+        verify(bookingService).findVersionById("b1");
+        verifyNoMoreInteractions(bookingService);
+    }
+
     // ===================== getAllBookings =====================
 
     @Test
     void getAllBookings_delegates() {
         List<Booking> expected = List.of(booking("b1", "r1", "g1", null, null));
-        when(bookingService.findAll()).thenReturn(expected);
+        when(bookingService.findAll("b0", 20)).thenReturn(expected);
 
-        List<Booking> result = domain.getAllBookings();
+        List<Booking> result = domain.getAllBookings("b0", 20);
 
         assertSame(expected, result);
-        verify(bookingService).findAll();
+        verify(bookingService).findAll("b0", 20);
         verifyNoMoreInteractions(bookingService);
         verifyNoInteractions(roomService, guestService, hotelService);
     }
 
+    @Test
+    void getAllBookings_whenLimitOutOfRange_throwsIllegalArgumentException_andNoInteractions() {
+        IllegalArgumentException ex =
+                assertThrows(IllegalArgumentException.class, () -> domain.getAllBookings(null, 0));
+        assertEquals("limit must be between 1 and 1000", ex.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> domain.getAllBookings(null, 1001));
+
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
     // ===================== getBookingsByRoomId =====================
 
     @Test
     void getBookingsByRoomId_whenNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> domain.getBookingsByRoomId(null));
+        assertThrows(NullPointerException.class, () -> domain.getBookingsByRoomId(null, null, 20));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void getBookingsByRoomId_whenBlank_throwsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByRoomId("  "));
+        assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByRoomId("  ", null, 20));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -329,7 +626,7 @@ class BookingDomainImplTest {
         when(roomService.existsById("r404")).thenReturn(false);
 
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByRoomId("r404"));
+                assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByRoomId("r404", null, 20));
         assertEquals("room not found: r404", ex.getMessage());
 
         verify(roomService).existsById("r404");
@@ -341,14 +638,14 @@ class BookingDomainImplTest {
     void getBookingsByRoomId_ok_requiresRoomAndDelegates() {
         when(roomService.existsById("r1")).thenReturn(true);
         List<Booking> expected = List.of(booking("b1", "r1", "g1", null, null));
-        when(bookingService.findAllByRoomId("r1")).thenReturn(expected);
+        when(bookingService.findAllByRoomId("r1", null, 20)).thenReturn(expected);
 
-        List<Booking> result = domain.getBookingsByRoomId("r1");
+        List<Booking> result = domain.getBookingsByRoomId("r1", null, 20);
 
         assertSame(expected, result);
 
         verify(roomService).existsById("r1");
-        verify(bookingService).findAllByRoomId("r1");
+        verify(bookingService).findAllByRoomId("r1", null, 20);
         verifyNoMoreInteractions(roomService, bookingService);
         verifyNoInteractions(guestService, hotelService);
     }
@@ -357,13 +654,13 @@ class BookingDomainImplTest {
 
     @Test
     void getBookingsByGuestId_whenNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> domain.getBookingsByGuestId(null));
+        assertThrows(NullPointerException.class, () -> domain.getBookingsByGuestId(null, null, 20));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void getBookingsByGuestId_whenBlank_throwsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByGuestId("  "));
+        assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByGuestId("  ", null, 20));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -372,7 +669,7 @@ class BookingDomainImplTest {
         when(guestService.existsById("g404")).thenReturn(false);
 
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByGuestId("g404"));
+                assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByGuestId("g404", null, 20));
         assertEquals("guest not found: g404", ex.getMessage());
 
         verify(guestService).existsById("g404");
@@ -384,14 +681,14 @@ class BookingDomainImplTest {
     void getBookingsByGuestId_ok_requiresGuestAndDelegates() {
         when(guestService.existsById("g1")).thenReturn(true);
         List<Booking> expected = List.of(booking("b1", "r1", "g1", null, null));
-        when(bookingService.findAllByGuestId("g1")).thenReturn(expected);
+        when(bookingService.findAllByGuestId("g1", null, 20)).thenReturn(expected);
 
-        List<Booking> result = domain.getBookingsByGuestId("g1");
+        List<Booking> result = domain.getBookingsByGuestId("g1", null, 20);
 
         assertSame(expected, result);
 
         verify(guestService).existsById("g1");
-        verify(bookingService).findAllByGuestId("g1");
+        verify(bookingService).findAllByGuestId("g1", null, 20);
         verifyNoMoreInteractions(guestService, bookingService);
         verifyNoInteractions(roomService, hotelService);
     }
@@ -400,13 +697,13 @@ class BookingDomainImplTest {
 
     @Test
     void getBookingsByHotelId_whenNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> domain.getBookingsByHotelId(null));
+        assertThrows(NullPointerException.class, () -> domain.getBookingsByHotelId(null, null, 20));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void getBookingsByHotelId_whenBlank_throwsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByHotelId("  "));
+        assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByHotelId("  ", null, 20));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -415,7 +712,7 @@ class BookingDomainImplTest {
         when(hotelService.existsById("h404")).thenReturn(false);
 
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByHotelId("h404"));
+                assertThrows(IllegalArgumentException.class, () -> domain.getBookingsByHotelId("h404", null, 20));
         assertEquals("hotel not found: h404", ex.getMessage());
 
         verify(hotelService).existsById("h404");
@@ -427,14 +724,87 @@ class BookingDomainImplTest {
     void getBookingsByHotelId_ok_requiresHotelAndDelegates() {
         when(hotelService.existsById("h1")).thenReturn(true);
         List<Booking> expected = List.of(booking("b1", "r1", "g1", null, null));
-        when(bookingService.findAllByHotelId("h1")).thenReturn(expected);
+        when(bookingService.findAllByHotelId("h1", null, 20)).thenReturn(expected);
+
+        List<Booking> result = domain.getBookingsByHotelId("h1", null, 20);
+
+        assertSame(expected, result);
+
+        verify(hotelService).existsById("h1");
+        verify(bookingService).findAllByHotelId("h1", null, 20);
+        verifyNoMoreInteractions(hotelService, bookingService);
+        verifyNoInteractions(roomService, guestService);
+    }
+
+    // ===================== getBookingsByRoomIdBetween =====================
+
+    @Test
+    void getBookingsByRoomIdBetween_whenInvalidFormat_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getBookingsByRoomIdBetween("r1", "2025/01/01", "2025-01-05"));
+        assertEquals("invalid date format. Expected yyyy-MM-dd", ex.getMessage());
+
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
+    @Test
+    void getBookingsByRoomIdBetween_whenFromNotBeforeTo_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getBookingsByRoomIdBetween("r1", "2025-01-05", "2025-01-05"));
+        assertEquals("from must be before to", ex.getMessage());
 
-        List<Booking> result = domain.getBookingsByHotelId("h1");
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
+    @Test
+    void getBookingsByRoomIdBetween_ok_requiresRoomAndDelegates() {
+        when(roomService.existsById("r1")).thenReturn(true);
+        List<Booking> expected = List.of(booking("b1", "r1", "g1", "2025-01-02", "2025-01-04"));
+        when(bookingService.findAllByRoomIdBetween("r1", "2025-01-01", "2025-01-05")).thenReturn(expected);
+
+        List<Booking> result = domain.getBookingsByRoomIdBetween("r1", "2025-01-01", "2025-01-05");
+
+        assertSame(expected, result);
+
+        verify(roomService).existsById("r1");
+        verify(bookingService).findAllByRoomIdBetween("r1", "2025-01-01", "2025-01-05");
+        verifyNoMoreInteractions(roomService, bookingService);
+        verifyNoInteractions(guestService, hotelService);
+    }
+
+    // ===================== getArrivalsByHotelId =====================
+
+    @Test
+    void getArrivalsByHotelId_whenInvalidFormat_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> domain.getArrivalsByHotelId("h1", "01-01-2025"));
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
+    }
+
+    @Test
+    void getArrivalsByHotelId_whenHotelNotFound_throwsIllegalArgumentException() {
+        when(hotelService.existsById("h404")).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getArrivalsByHotelId("h404", "2025-01-01"));
+        assertEquals("hotel not found: h404", ex.getMessage());
+
+        verify(hotelService).existsById("h404");
+        verifyNoMoreInteractions(hotelService);
+        verifyNoInteractions(bookingService, roomService, guestService);
+    }
+
+    @Test
+    void getArrivalsByHotelId_ok_requiresHotelAndDelegates() {
+        when(hotelService.existsById("h1")).thenReturn(true);
+        List<Booking> expected = List.of(booking("b1", "r1", "g1", "2025-01-01", "2025-01-03"));
+        when(bookingService.findArrivalsByHotelId("h1", "2025-01-01")).thenReturn(expected);
+
+        List<Booking> result = domain.getArrivalsByHotelId("h1", "2025-01-01");
 
         assertSame(expected, result);
 
         verify(hotelService).existsById("h1");
-        verify(bookingService).findAllByHotelId("h1");
+        verify(bookingService).findArrivalsByHotelId("h1", "2025-01-01");
         verifyNoMoreInteractions(hotelService, bookingService);
         verifyNoInteractions(roomService, guestService);
     }
@@ -445,7 +815,7 @@ class BookingDomainImplTest {
     void updateBooking_whenIdNull_throwsNullPointerException() {
         Booking b = booking("x", "r1", "g1", null, null);
 
-        assertThrows(NullPointerException.class, () -> domain.updateBooking(null, b));
+        assertThrows(NullPointerException.class, () -> domain.updateBooking(null, b, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -453,13 +823,13 @@ class BookingDomainImplTest {
     void updateBooking_whenIdBlank_throwsIllegalArgumentException() {
         Booking b = booking("x", "r1", "g1", null, null);
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("  ", b));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("  ", b, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
     void updateBooking_whenBookingNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> domain.updateBooking("b1", null));
+        assertThrows(NullPointerException.class, () -> domain.updateBooking("b1", null, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -467,7 +837,7 @@ class BookingDomainImplTest {
     void updateBooking_whenRoomIdNull_throwsNullPointerException() {
         Booking b = booking("x", null, "g1", null, null);
 
-        assertThrows(NullPointerException.class, () -> domain.updateBooking("b1", b));
+        assertThrows(NullPointerException.class, () -> domain.updateBooking("b1", b, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -475,7 +845,7 @@ class BookingDomainImplTest {
     void updateBooking_whenRoomIdBlank_throwsIllegalArgumentException() {
         Booking b = booking("x", "  ", "g1", null, null);
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -483,7 +853,7 @@ class BookingDomainImplTest {
     void updateBooking_whenGuestIdNull_throwsNullPointerException() {
         Booking b = booking("x", "r1", null, null, null);
 
-        assertThrows(NullPointerException.class, () -> domain.updateBooking("b1", b));
+        assertThrows(NullPointerException.class, () -> domain.updateBooking("b1", b, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
@@ -491,102 +861,67 @@ class BookingDomainImplTest {
     void updateBooking_whenGuestIdBlank_throwsIllegalArgumentException() {
         Booking b = booking("x", "r1", "   ", null, null);
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b, null));
         verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     @Test
-    void updateBooking_whenBookingNotExists_throwsIllegalArgumentException_andDoesNotSave() {
+    void updateBooking_whenBookingNotExists_propagatesServiceError() {
         Booking b = booking("ignored", "r1", "g1", "2025-01-01", "2025-01-02");
-        when(bookingService.existsById("b404")).thenReturn(false);
+        when(bookingService.update(b, null)).thenThrow(new IllegalArgumentException("booking not found: b404"));
 
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b404", b));
+                assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b404", b, null));
         assertEquals("booking not found: b404", ex.getMessage());
 
-        verify(bookingService).existsById("b404");
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", "b404");
+        verify(bookingService).update(b, null);
         verifyNoMoreInteractions(bookingService);
         verifyNoInteractions(roomService, guestService, hotelService);
     }
 
     @Test
-    void updateBooking_whenGuestNotFound_throwsIllegalArgumentException_andDoesNotSave() {
-        Booking b = booking("x", "r1", "g404", "2025-01-01", "2025-01-02");
-
-        when(bookingService.existsById("b1")).thenReturn(true);
-        when(guestService.existsById("g404")).thenReturn(false);
-
-        IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b));
-        assertEquals("guest not found: g404", ex.getMessage());
-
-        verify(bookingService).existsById("b1");
-        verify(guestService).existsById("g404");
-        verifyNoMoreInteractions(bookingService, guestService);
-        verifyNoInteractions(roomService, hotelService);
-    }
+    void updateBooking_ok_setsId_checksAvailabilityUnderLock_andUpdates() {
+        Booking b = booking("original", "r1", "g1", "2025-01-01", "2025-01-02");
 
-    @Test
-    void updateBooking_whenRoomNotFound_throwsIllegalArgumentException_andDoesNotSave() {
-        Booking b = booking("x", "r404", "g1", "2025-01-01", "2025-01-02");
+        Booking saved = booking("b1", "r1", "g1", "2025-01-01", "2025-01-02");
+        when(bookingService.update(b, null)).thenReturn(saved);
 
-        when(bookingService.existsById("b1")).thenReturn(true);
-        when(guestService.existsById("g1")).thenReturn(true);
-        when(roomService.existsById("r404")).thenReturn(false);
+        Booking result = domain.updateBooking("b1", b, null);
 
-        IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b));
-        assertEquals("room not found: r404", ex.getMessage());
+        assertEquals("b1", b.getId(), "Debe forzar el id recibido por parámetro");
+        assertSame(saved, result);
 
-        verify(bookingService).existsById("b1");
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r404");
-        verifyNoMoreInteractions(bookingService, guestService, roomService);
-        verifyNoInteractions(hotelService);
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", "b1");
+        verify(bookingService).update(b, null);
+        verify(roomLockStripes).withRoomLock(eq("r1"), any());
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(roomService, guestService, hotelService);
     }
 
     @Test
-    void updateBooking_ok_setsId_validatesAndSaves() {
+    void updateBooking_whenRoomAlreadyBooked_throwsIllegalStateException_andDoesNotUpdate() {
         Booking b = booking("original", "r1", "g1", "2025-01-01", "2025-01-02");
 
-        when(bookingService.existsById("b1")).thenReturn(true);
-        when(guestService.existsById("g1")).thenReturn(true);
-        when(roomService.existsById("r1")).thenReturn(true);
-
-        Booking saved = booking("b1", "r1", "g1", "2025-01-01", "2025-01-02");
-        when(bookingService.save(b)).thenReturn(saved);
+        when(bookingService.existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", "b1")).thenReturn(true);
 
-        Booking result = domain.updateBooking("b1", b);
+        assertThrows(IllegalStateException.class, () -> domain.updateBooking("b1", b, null));
 
-        assertEquals("b1", b.getId(), "Debe forzar el id recibido por parámetro");
-        assertSame(saved, result);
-
-        verify(bookingService).existsById("b1");
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verify(bookingService).save(b);
-        verifyNoMoreInteractions(bookingService, roomService, guestService);
+        verify(bookingService).existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", "b1");
+        verify(bookingService, never()).update(any(), any());
+        verifyNoMoreInteractions(bookingService);
         verifyNoInteractions(hotelService);
     }
 
     @Test
-    void updateBooking_whenDatesInvalid_throwsIllegalArgumentException_andDoesNotSave() {
+    void updateBooking_whenDatesInvalid_throwsIllegalArgumentException_andNoInteractions() {
         Booking b = booking("original", "r1", "g1", "2025-01-02", "2025-01-01");
 
-        when(bookingService.existsById("b1")).thenReturn(true);
-        when(guestService.existsById("g1")).thenReturn(true);
-        when(roomService.existsById("r1")).thenReturn(true);
-
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b));
+                assertThrows(IllegalArgumentException.class, () -> domain.updateBooking("b1", b, null));
         assertEquals("checkIn must be before checkOut", ex.getMessage());
 
-        verify(bookingService).existsById("b1");
-        verify(guestService).existsById("g1");
-        verify(roomService).existsById("r1");
-        verify(bookingService, never()).save(any());
-        verifyNoMoreInteractions(bookingService, roomService, guestService);
-        verifyNoInteractions(hotelService);
+        verifyNoInteractions(bookingService, roomService, guestService, hotelService);
     }
 
     // ===================== deleteBooking =====================
@@ -0,0 +1,43 @@
+package org.docencia.hotel.domain.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.function.Consumer;
+
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.service.api.ExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportDomainImplTest {
+
+    @Mock
+    private ExportService exportService;
+
+    @InjectMocks
+    private ExportDomainImpl domain;
+
+    // ===================== exports =====================
+
+    @Test
+    void exportBookings_delegatesToService() {
+        Consumer<Booking> sink = b -> { };
+        when(exportService.exportBookings(sink)).thenReturn(3L);
+
+        assertEquals(3L, domain.exportBookings(sink));
+        verify(exportService).exportBookings(sink);
+        verifyNoMoreInteractions(exportService);
+    }
+
+    @Test
+    void exportGuests_whenSinkNull_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> domain.exportGuests((Consumer<Guest>) null));
+        verifyNoInteractions(exportService);
+    }
+}
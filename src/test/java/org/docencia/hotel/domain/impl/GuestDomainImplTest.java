@@ -97,32 +97,33 @@ class GuestDomainImplTest {
     }
 
     @Test
-    void createGuest_whenNoPreferences_checksExists_thenDelegatesToSave() {
+    void createGuest_whenNoPreferences_checksExists_thenDelegatesToInsert() {
         Guest input = guest("g1", "Ana");
         Guest saved = guest("g1", "Ana");
 
         when(guestService.existsById("g1")).thenReturn(false);
-        when(guestService.save(input)).thenReturn(saved);
+        when(guestService.insert(input)).thenReturn(saved);
 
         Guest result = domain.createGuest(input);
 
         assertSame(saved, result);
 
         verify(guestService).existsById("g1");
-        verify(guestService).save(input);
+        verify(guestService).insert(input);
+        verify(guestService, never()).save(any(), any());
         verifyNoMoreInteractions(guestService);
         verifyNoInteractions(bookingService);
     }
 
     @Test
-    void createGuest_whenPreferencesPresent_setsGuestIdInPreferences_thenDelegatesToSave() {
+    void createGuest_whenPreferencesPresent_setsGuestIdInPreferences_thenDelegatesToInsert() {
         Guest input = guest("g1", "Ana");
         GuestPreferences gp = prefs("willBeOverwritten");
         input.setPreferences(gp);
 
         Guest saved = guest("g1", "Ana");
         when(guestService.existsById("g1")).thenReturn(false);
-        when(guestService.save(input)).thenReturn(saved);
+        when(guestService.insert(input)).thenReturn(saved);
 
         Guest result = domain.createGuest(input);
 
@@ -130,7 +131,8 @@ class GuestDomainImplTest {
         assertSame(saved, result);
 
         verify(guestService).existsById("g1");
-        verify(guestService).save(input);
+        verify(guestService).insert(input);
+        verify(guestService, never()).save(any(), any());
         verifyNoMoreInteractions(guestService);
         verifyNoInteractions(bookingService);
     }
@@ -164,18 +166,36 @@ class GuestDomainImplTest {
         verifyNoInteractions(bookingService);
     }
 
+        // ===================== getGuestVersion =====================
+
+    @Test
+    void getGuestVersion_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> domain.getGuestVersion("   "));
+        verifyNoInteractions(guestService);
+    }
+
+    @Test
+    void getGuestVersion_ok_delegatesToFindVersionById() {
+        when(guestService.findVersionById("g1")).thenReturn(Optional.of(5L));
+
+        assertEquals(Optional.of(5L), domain.getGuestVersion("g1"));
+
+        verify(guestService).findVersionById("g1");
+        verifyNoMoreInteractions(guestService);
+    }
+
     // ===================== getAllGuests =====================
 
     @Test
     void getAllGuests_delegates() {
         List<Guest> expected = List.of(guest("g1", "Ana"));
-        when(guestService.findAllGuests()).thenReturn(expected);
+        when(guestService.findAllGuests("x1", 20)).thenReturn(expected);
 
-        List<Guest> result = domain.getAllGuests();
+        List<Guest> result = domain.getAllGuests("x1", 20);
 
         assertSame(expected, result);
 
-        verify(guestService).findAllGuests();
+        verify(guestService).findAllGuests("x1", 20);
         verifyNoMoreInteractions(guestService);
         verifyNoInteractions(bookingService);
     }
@@ -186,7 +206,7 @@ class GuestDomainImplTest {
     void updateGuest_whenIdNull_throwsNullPointerException() {
         Guest g = guest("x", "Ana");
 
-        assertThrows(NullPointerException.class, () -> domain.updateGuest(null, g));
+        assertThrows(NullPointerException.class, () -> domain.updateGuest(null, g, null));
         verifyNoInteractions(guestService, bookingService);
     }
 
@@ -194,13 +214,13 @@ class GuestDomainImplTest {
     void updateGuest_whenIdBlank_throwsIllegalArgumentException() {
         Guest g = guest("x", "Ana");
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateGuest("  ", g));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateGuest("  ", g, null));
         verifyNoInteractions(guestService, bookingService);
     }
 
     @Test
     void updateGuest_whenGuestNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> domain.updateGuest("g1", null));
+        assertThrows(NullPointerException.class, () -> domain.updateGuest("g1", null, null));
         verifyNoInteractions(guestService, bookingService);
     }
 
@@ -208,7 +228,7 @@ class GuestDomainImplTest {
     void updateGuest_whenNameNull_throwsNullPointerException() {
         Guest g = guest("x", null);
 
-        assertThrows(NullPointerException.class, () -> domain.updateGuest("g1", g));
+        assertThrows(NullPointerException.class, () -> domain.updateGuest("g1", g, null));
         verifyNoInteractions(guestService, bookingService);
     }
 
@@ -216,7 +236,7 @@ class GuestDomainImplTest {
     void updateGuest_whenNameBlank_throwsIllegalArgumentException() {
         Guest g = guest("x", "   ");
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateGuest("g1", g));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateGuest("g1", g, null));
         verifyNoInteractions(guestService, bookingService);
     }
 
@@ -226,7 +246,7 @@ class GuestDomainImplTest {
         when(guestService.existsById("g404")).thenReturn(false);
 
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.updateGuest("g404", g));
+                assertThrows(IllegalArgumentException.class, () -> domain.updateGuest("g404", g, null));
         assertEquals("guest not found: g404", ex.getMessage());
 
         verify(guestService).existsById("g404");
@@ -240,15 +260,15 @@ class GuestDomainImplTest {
         Guest saved = guest("g1", "Ana");
 
         when(guestService.existsById("g1")).thenReturn(true);
-        when(guestService.save(g)).thenReturn(saved);
+        when(guestService.save(g, null)).thenReturn(saved);
 
-        Guest result = domain.updateGuest("g1", g);
+        Guest result = domain.updateGuest("g1", g, null);
 
         assertEquals("g1", g.getId(), "Debe forzar el id recibido por parámetro");
         assertSame(saved, result);
 
         verify(guestService).existsById("g1");
-        verify(guestService).save(g);
+        verify(guestService).save(g, null);
         verifyNoMoreInteractions(guestService);
         verifyNoInteractions(bookingService);
     }
@@ -260,15 +280,15 @@ class GuestDomainImplTest {
         g.setPreferences(gp);
 
         when(guestService.existsById("g1")).thenReturn(true);
-        when(guestService.save(g)).thenReturn(g);
+        when(guestService.save(g, null)).thenReturn(g);
 
-        domain.updateGuest("g1", g);
+        domain.updateGuest("g1", g, null);
 
         assertEquals("g1", g.getId());
         assertEquals("g1", gp.getGuestId(), "Debe forzar guestId en preferences al actualizar");
 
         verify(guestService).existsById("g1");
-        verify(guestService).save(g);
+        verify(guestService).save(g, null);
         verifyNoMoreInteractions(guestService);
         verifyNoInteractions(bookingService);
     }
@@ -1,14 +1,24 @@
 package org.docencia.hotel.domain.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
 import java.util.Optional;
 
+import org.docencia.hotel.domain.model.DailyOccupancy;
+import org.docencia.hotel.domain.model.GuestPreferences;
 import org.docencia.hotel.domain.model.Hotel;
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.domain.model.Room;
 import org.docencia.hotel.service.api.BookingService;
+import org.docencia.hotel.service.api.GuestService;
 import org.docencia.hotel.service.api.HotelService;
+import org.docencia.hotel.service.api.OccupancyService;
+import org.docencia.hotel.service.api.RevenueService;
 import org.docencia.hotel.service.api.RoomService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +38,15 @@ class HotelDomainImplTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private GuestService guestService;
+
+    @Mock
+    private OccupancyService occupancyService;
+
+    @Mock
+    private RevenueService revenueService;
+
     @InjectMocks
     private HotelDomainImpl domain;
 
@@ -94,19 +113,20 @@ class HotelDomainImplTest {
     }
 
     @Test
-    void createHotel_ok_checksExists_thenDelegatesToHotelServiceSave() {
+    void createHotel_ok_checksExists_thenDelegatesToHotelServiceInsert() {
         Hotel input = hotel("h1", "Hilton");
         Hotel saved = hotel("h1", "Hilton");
 
         when(hotelService.existsById("h1")).thenReturn(false);
-        when(hotelService.save(input)).thenReturn(saved);
+        when(hotelService.insert(input)).thenReturn(saved);
 
         Hotel result = domain.createHotel(input);
 
         assertSame(saved, result);
 
         verify(hotelService).existsById("h1");
-        verify(hotelService).save(input);
+        verify(hotelService).insert(input);
+        verify(hotelService, never()).save(any(), any());
         verifyNoMoreInteractions(hotelService);
         verifyNoInteractions(roomService, bookingService);
     }
@@ -140,18 +160,36 @@ class HotelDomainImplTest {
         verifyNoInteractions(roomService, bookingService);
     }
 
+        // ===================== getHotelVersion =====================
+
+    @Test
+    void getHotelVersion_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> domain.getHotelVersion("   "));
+        verifyNoInteractions(hotelService);
+    }
+
+    @Test
+    void getHotelVersion_ok_delegatesToFindVersionById() {
+        when(hotelService.findVersionById("h1")).thenReturn(Optional.of(5L));
+
+        assertEquals(Optional.of(5L), domain.getHotelVersion("h1"));
+
+        verify(hotelService).findVersionById("h1");
+        verifyNoMoreInteractions(hotelService);
+    }
+
     // ===================== getAllHotels =====================
 
     @Test
     void getAllHotels_delegatesToFindAll() {
         List<Hotel> expected = List.of(hotel("h1", "Hilton"), hotel("h2", "Ritz"));
-        when(hotelService.findAll()).thenReturn(expected);
+        when(hotelService.findAll("x1", 20)).thenReturn(expected);
 
-        List<Hotel> result = domain.getAllHotels();
+        List<Hotel> result = domain.getAllHotels("x1", 20);
 
         assertSame(expected, result);
 
-        verify(hotelService).findAll();
+        verify(hotelService).findAll("x1", 20);
         verifyNoMoreInteractions(hotelService);
         verifyNoInteractions(roomService, bookingService);
     }
@@ -184,13 +222,220 @@ class HotelDomainImplTest {
         verifyNoInteractions(roomService, bookingService);
     }
 
+    // ===================== getAvailableRooms =====================
+
+    @Test
+    void getAvailableRooms_whenHotelIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> domain.getAvailableRooms("  ", "2025-01-01", "2025-01-02", null));
+        verifyNoInteractions(hotelService, roomService, bookingService);
+    }
+
+    @Test
+    void getAvailableRooms_whenFromNull_throwsNullPointerException() {
+        assertThrows(NullPointerException.class,
+                () -> domain.getAvailableRooms("h1", null, "2025-01-02", null));
+        verifyNoInteractions(hotelService, roomService, bookingService);
+    }
+
+    @Test
+    void getAvailableRooms_whenInvalidDateFormat_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getAvailableRooms("h1", "01-01-2025", "2025-01-02", null));
+
+        assertEquals("invalid date format. Expected yyyy-MM-dd", ex.getMessage());
+        verifyNoInteractions(hotelService, roomService, bookingService);
+    }
+
+    @Test
+    void getAvailableRooms_whenFromNotBeforeTo_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getAvailableRooms("h1", "2025-01-02", "2025-01-02", null));
+
+        assertEquals("from must be before to", ex.getMessage());
+        verifyNoInteractions(hotelService, roomService, bookingService);
+    }
+
+    @Test
+    void getAvailableRooms_whenHotelNotFound_throwsIllegalArgumentException() {
+        when(hotelService.existsById("h404")).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getAvailableRooms("h404", "2025-01-01", "2025-01-02", null));
+
+        assertEquals("hotel not found: h404", ex.getMessage());
+        verify(hotelService).existsById("h404");
+        verifyNoMoreInteractions(hotelService);
+        verifyNoInteractions(roomService, bookingService);
+    }
+
+    @Test
+    void getAvailableRooms_ok_blankTypeMeansAnyType_andDelegates() {
+        List<Room> expected = List.of(new Room("r1", "101", "DOUBLE", 80.0, "h1"));
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(roomService.findAvailableByHotelId("h1", "2025-01-01", "2025-01-03", null)).thenReturn(expected);
+
+        List<Room> result = domain.getAvailableRooms("h1", "2025-01-01", "2025-01-03", "  ");
+
+        assertSame(expected, result);
+        verify(hotelService).existsById("h1");
+        verify(roomService).findAvailableByHotelId("h1", "2025-01-01", "2025-01-03", null);
+        verifyNoMoreInteractions(hotelService, roomService);
+        verifyNoInteractions(bookingService);
+    }
+
+    // ===================== getRecommendedRooms =====================
+
+    @Test
+    void getRecommendedRooms_whenLimitOutOfRange_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getRecommendedRooms("h1", "g1", "2025-01-01", "2025-01-03", 0));
+
+        assertEquals("limit must be between 1 and 100", ex.getMessage());
+        verifyNoInteractions(hotelService, guestService, roomService);
+    }
+
+    @Test
+    void getRecommendedRooms_whenGuestNotFound_throwsIllegalArgumentException() {
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g404")).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getRecommendedRooms("h1", "g404", "2025-01-01", "2025-01-03", 10));
+
+        assertEquals("guest not found: g404", ex.getMessage());
+        verifyNoInteractions(roomService);
+    }
+
+    @Test
+    void getRecommendedRooms_ok_usesGuestPreferences() {
+        GuestPreferences preferences = new GuestPreferences("g1", true, "KING", false);
+        List<Room> expected = List.of(new Room("r1", "101", "DOUBLE", 80.0, "h1"));
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(guestService.findPreferencesByGuestId("g1")).thenReturn(Optional.of(preferences));
+        when(roomService.findRecommendedByHotelId("h1", preferences, "2025-01-01", "2025-01-03", 10))
+                .thenReturn(expected);
+
+        List<Room> result = domain.getRecommendedRooms("h1", "g1", "2025-01-01", "2025-01-03", 10);
+
+        assertSame(expected, result);
+        verify(roomService).findRecommendedByHotelId("h1", preferences, "2025-01-01", "2025-01-03", 10);
+        verifyNoMoreInteractions(roomService);
+    }
+
+    @Test
+    void getRecommendedRooms_whenGuestHasNoPreferences_usesDefaults() {
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(guestService.existsById("g1")).thenReturn(true);
+        when(guestService.findPreferencesByGuestId("g1")).thenReturn(Optional.empty());
+        when(roomService.findRecommendedByHotelId(eq("h1"), any(GuestPreferences.class), eq("2025-01-01"),
+                eq("2025-01-03"), eq(5))).thenReturn(List.of());
+
+        domain.getRecommendedRooms("h1", "g1", "2025-01-01", "2025-01-03", 5);
+
+        verify(roomService).findRecommendedByHotelId(eq("h1"), argThat(p -> "g1".equals(p.getGuestId())
+                && !p.isPrefersSmokingRoom() && p.getBedTypePreference() == null), eq("2025-01-01"),
+                eq("2025-01-03"), eq(5));
+    }
+
+    // ===================== getOccupancy =====================
+
+    @Test
+    void getOccupancy_whenFromNotBeforeTo_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getOccupancy("h1", "2025-01-02", "2025-01-01"));
+
+        assertEquals("from must be before to", ex.getMessage());
+        verifyNoInteractions(hotelService, occupancyService);
+    }
+
+    @Test
+    void getOccupancy_whenRangeTooLong_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getOccupancy("h1", "2025-01-01", "2027-01-03"));
+
+        assertEquals("date range must not exceed 731 nights", ex.getMessage());
+        verifyNoInteractions(hotelService, occupancyService);
+    }
+
+    @Test
+    void getOccupancy_whenHotelNotFound_throwsIllegalArgumentException() {
+        when(hotelService.existsById("h404")).thenReturn(false);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getOccupancy("h404", "2025-01-01", "2025-01-02"));
+
+        assertEquals("hotel not found: h404", ex.getMessage());
+        verify(hotelService).existsById("h404");
+        verifyNoMoreInteractions(hotelService);
+        verifyNoInteractions(occupancyService);
+    }
+
+    @Test
+    void getOccupancy_ok_delegates() {
+        List<DailyOccupancy> expected = List.of(new DailyOccupancy("2025-01-01", 3));
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(occupancyService.findByHotelId("h1", "2025-01-01", "2025-01-02")).thenReturn(expected);
+
+        List<DailyOccupancy> result = domain.getOccupancy("h1", "2025-01-01", "2025-01-02");
+
+        assertSame(expected, result);
+        verify(hotelService).existsById("h1");
+        verify(occupancyService).findByHotelId("h1", "2025-01-01", "2025-01-02");
+        verifyNoMoreInteractions(hotelService, occupancyService);
+        verifyNoInteractions(roomService, bookingService);
+    }
+
+    // ===================== getRevenueReport =====================
+
+    @Test
+    void getRevenueReport_whenInvalidMonthFormat_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getRevenueReport("2025-01-01", "2025-02"));
+
+        assertEquals("invalid month format. Expected yyyy-MM", ex.getMessage());
+        verifyNoInteractions(revenueService);
+    }
+
+    @Test
+    void getRevenueReport_whenFromNotBeforeTo_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getRevenueReport("2025-02", "2025-02"));
+
+        assertEquals("from must be before to", ex.getMessage());
+        verifyNoInteractions(revenueService);
+    }
+
+    @Test
+    void getRevenueReport_whenRangeTooLong_throwsIllegalArgumentException() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> domain.getRevenueReport("2020-01", "2025-02"));
+
+        assertEquals("month range must not exceed 60 months", ex.getMessage());
+        verifyNoInteractions(revenueService);
+    }
+
+    @Test
+    void getRevenueReport_ok_delegates() {
+        List<MonthlyRevenue> expected = List.of(new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03));
+        when(revenueService.findMonthlyRevenue("2020-01", "2025-01")).thenReturn(expected);
+
+        List<MonthlyRevenue> result = domain.getRevenueReport("2020-01", "2025-01");
+
+        assertSame(expected, result);
+        verify(revenueService).findMonthlyRevenue("2020-01", "2025-01");
+        verifyNoMoreInteractions(revenueService);
+        verifyNoInteractions(hotelService, roomService, bookingService, occupancyService);
+    }
+
     // ===================== updateHotel =====================
 
     @Test
     void updateHotel_whenIdNull_throwsNullPointerException() {
         Hotel h = hotel("x", "Hilton");
 
-        assertThrows(NullPointerException.class, () -> domain.updateHotel(null, h));
+        assertThrows(NullPointerException.class, () -> domain.updateHotel(null, h, null));
         verifyNoInteractions(hotelService, roomService, bookingService);
     }
 
@@ -198,13 +443,13 @@ class HotelDomainImplTest {
     void updateHotel_whenIdBlank_throwsIllegalArgumentException() {
         Hotel h = hotel("x", "Hilton");
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateHotel("   ", h));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateHotel("   ", h, null));
         verifyNoInteractions(hotelService, roomService, bookingService);
     }
 
     @Test
     void updateHotel_whenHotelNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> domain.updateHotel("h1", null));
+        assertThrows(NullPointerException.class, () -> domain.updateHotel("h1", null, null));
         verifyNoInteractions(hotelService, roomService, bookingService);
     }
 
@@ -212,7 +457,7 @@ class HotelDomainImplTest {
     void updateHotel_whenHotelNameNull_throwsNullPointerException() {
         Hotel h = hotel("x", null);
 
-        assertThrows(NullPointerException.class, () -> domain.updateHotel("h1", h));
+        assertThrows(NullPointerException.class, () -> domain.updateHotel("h1", h, null));
         verifyNoInteractions(hotelService, roomService, bookingService);
     }
 
@@ -220,7 +465,7 @@ class HotelDomainImplTest {
     void updateHotel_whenHotelNameBlank_throwsIllegalArgumentException() {
         Hotel h = hotel("x", "   ");
 
-        assertThrows(IllegalArgumentException.class, () -> domain.updateHotel("h1", h));
+        assertThrows(IllegalArgumentException.class, () -> domain.updateHotel("h1", h, null));
         verifyNoInteractions(hotelService, roomService, bookingService);
     }
 
@@ -230,7 +475,7 @@ class HotelDomainImplTest {
         when(hotelService.existsById("h404")).thenReturn(false);
 
         IllegalArgumentException ex =
-                assertThrows(IllegalArgumentException.class, () -> domain.updateHotel("h404", h));
+                assertThrows(IllegalArgumentException.class, () -> domain.updateHotel("h404", h, null));
         assertEquals("hotel not found: h404", ex.getMessage());
 
         verify(hotelService).existsById("h404");
@@ -244,19 +489,31 @@ class HotelDomainImplTest {
         Hotel saved = hotel("h1", "Hilton");
 
         when(hotelService.existsById("h1")).thenReturn(true);
-        when(hotelService.save(h)).thenReturn(saved);
+        when(hotelService.save(h, null)).thenReturn(saved);
 
-        Hotel result = domain.updateHotel("h1", h);
+        Hotel result = domain.updateHotel("h1", h, null);
 
         assertEquals("h1", h.getId(), "El dominio debe forzar el id recibido por parámetro");
         assertSame(saved, result);
 
         verify(hotelService).existsById("h1");
-        verify(hotelService).save(h);
+        verify(hotelService).save(h, null);
         verifyNoMoreInteractions(hotelService);
         verifyNoInteractions(roomService, bookingService);
     }
 
+    @Test
+    void updateHotel_passesExpectedVersionToService() {
+        Hotel h = hotel("h1", "Hilton");
+
+        when(hotelService.existsById("h1")).thenReturn(true);
+        when(hotelService.save(h, 4L)).thenReturn(h);
+
+        domain.updateHotel("h1", h, 4L);
+
+        verify(hotelService).save(h, 4L);
+    }
+
     // ===================== deleteHotel =====================
 
     @Test
@@ -272,35 +529,33 @@ class HotelDomainImplTest {
     }
 
     @Test
-    void deleteHotel_whenHotelNotExists_returnsFalse_andDoesNotCheckBookings_orDeleteAnything() {
-        when(hotelService.existsById("h404")).thenReturn(false);
+    void deleteHotel_whenHotelNotExists_returnsFalse_withoutExistenceQuery() {
+        when(bookingService.existsByHotelId("h404")).thenReturn(false);
+        when(hotelService.deleteById("h404")).thenReturn(false);
 
         boolean result = domain.deleteHotel("h404");
 
         assertFalse(result);
 
-        verify(hotelService).existsById("h404");
-        verifyNoMoreInteractions(hotelService);
-
-        verifyNoInteractions(roomService, bookingService);
+        verify(bookingService).existsByHotelId("h404");
+        verify(roomService).deleteByHotelId("h404");
+        verify(hotelService).deleteById("h404");
+        verifyNoMoreInteractions(hotelService, roomService, bookingService);
     }
 
     @Test
     void deleteHotel_whenHotelHasBookings_throwsIllegalStateException_andDoesNotDelete() {
-        when(hotelService.existsById("h1")).thenReturn(true);
         when(bookingService.existsByHotelId("h1")).thenReturn(true);
         IllegalStateException ex =
                 assertThrows(IllegalStateException.class, () -> domain.deleteHotel("h1"));
         assertEquals("cannot delete hotel h1 because it has bookings in its rooms", ex.getMessage());   
-        verify(hotelService).existsById("h1");
         verify(bookingService).existsByHotelId("h1");
-        verifyNoMoreInteractions(hotelService, bookingService);
-        verifyNoInteractions(roomService);
+        verifyNoMoreInteractions(bookingService);
+        verifyNoInteractions(hotelService, roomService);
     }
 
     @Test
     void deleteHotel_whenNoBookings_deletesRoomsThenDeletesHotel_andReturnsResult() {
-        when(hotelService.existsById("h1")).thenReturn(true);
         when(bookingService.existsByHotelId("h1")).thenReturn(false);
         when(hotelService.deleteById("h1")).thenReturn(true);
 
@@ -308,7 +563,6 @@ class HotelDomainImplTest {
 
         assertTrue(result);
 
-        verify(hotelService).existsById("h1");
         verify(bookingService).existsByHotelId("h1");
         verify(roomService).deleteByHotelId("h1");
         verify(hotelService).deleteById("h1");
@@ -318,7 +572,6 @@ class HotelDomainImplTest {
 
     @Test
     void deleteHotel_whenNoBookings_deletesRoomsThenDeletesHotel_andReturnsFalseIfServiceReturnsFalse() {
-        when(hotelService.existsById("h1")).thenReturn(true);
         when(bookingService.existsByHotelId("h1")).thenReturn(false);
         when(hotelService.deleteById("h1")).thenReturn(false);
 
@@ -326,7 +579,6 @@ class HotelDomainImplTest {
 
         assertFalse(result);
 
-        verify(hotelService).existsById("h1");
         verify(bookingService).existsByHotelId("h1");
         verify(roomService).deleteByHotelId("h1");
         verify(hotelService).deleteById("h1");
@@ -135,19 +135,19 @@ class RoomDomainImplTest {
             verify(roomService).existsById("r1");
             verify(hotelService).existsById("h404");
             verifyNoMoreInteractions(roomService, hotelService);
-            verify(roomService, never()).save(any());
+            verify(roomService, never()).save(any(), any());
             verifyNoInteractions(bookingService);
         }
 
         @Test
         @DisplayName("createRoom: ok -> comprueba exists, comprueba hotel, guarda y devuelve lo que devuelve el service")
-        void createRoom_ok_saves() {
+        void createRoom_ok_inserts() {
             Room input = room("r1", "101", "h1");
             Room saved = room("r1", "101", "h1");
 
             when(roomService.existsById("r1")).thenReturn(false);
             when(hotelService.existsById("h1")).thenReturn(true);
-            when(roomService.save(input)).thenReturn(saved);
+            when(roomService.insert(input)).thenReturn(saved);
 
             Room result = domain.createRoom(input);
 
@@ -155,7 +155,8 @@ class RoomDomainImplTest {
 
             verify(roomService).existsById("r1");
             verify(hotelService).existsById("h1");
-            verify(roomService).save(input);
+            verify(roomService).insert(input);
+            verify(roomService, never()).save(any(), any());
             verifyNoMoreInteractions(roomService, hotelService);
             verifyNoInteractions(bookingService);
         }
@@ -196,18 +197,36 @@ class RoomDomainImplTest {
         }
     }
 
+        // ===================== getRoomVersion =====================
+
+    @Test
+    void getRoomVersion_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> domain.getRoomVersion("   "));
+        verifyNoInteractions(roomService);
+    }
+
+    @Test
+    void getRoomVersion_ok_delegatesToFindVersionById() {
+        when(roomService.findVersionById("r1")).thenReturn(Optional.of(5L));
+
+        assertEquals(Optional.of(5L), domain.getRoomVersion("r1"));
+
+        verify(roomService).findVersionById("r1");
+        verifyNoMoreInteractions(roomService);
+    }
+
     // ===================== getAllRooms =====================
     @Test
     @DisplayName("getAllRooms: delega en roomService.findAll")
     void getAllRooms_delegates() {
         List<Room> expected = List.of(room("r1", "101", "h1"));
-        when(roomService.findAll()).thenReturn(expected);
+        when(roomService.findAll("x1", 20)).thenReturn(expected);
 
-        List<Room> result = domain.getAllRooms();
+        List<Room> result = domain.getAllRooms("x1", 20);
 
         assertSame(expected, result);
 
-        verify(roomService).findAll();
+        verify(roomService).findAll("x1", 20);
         verifyNoMoreInteractions(roomService);
         verifyNoInteractions(hotelService, bookingService);
     }
@@ -334,7 +353,7 @@ class RoomDomainImplTest {
         @DisplayName("updateRoom: id null -> NullPointerException")
         void updateRoom_idNull_throws() {
             Room r = room("x", "101", "h1");
-            assertThrows(NullPointerException.class, () -> domain.updateRoom(null, r));
+            assertThrows(NullPointerException.class, () -> domain.updateRoom(null, r, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
@@ -342,14 +361,14 @@ class RoomDomainImplTest {
         @DisplayName("updateRoom: id blank -> IllegalArgumentException")
         void updateRoom_idBlank_throws() {
             Room r = room("x", "101", "h1");
-            assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("   ", r));
+            assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("   ", r, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
         @Test
         @DisplayName("updateRoom: room null -> NullPointerException")
         void updateRoom_roomNull_throws() {
-            assertThrows(NullPointerException.class, () -> domain.updateRoom("r1", null));
+            assertThrows(NullPointerException.class, () -> domain.updateRoom("r1", null, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
@@ -357,7 +376,7 @@ class RoomDomainImplTest {
         @DisplayName("updateRoom: number null -> NullPointerException")
         void updateRoom_numberNull_throws() {
             Room r = room("x", null, "h1");
-            assertThrows(NullPointerException.class, () -> domain.updateRoom("r1", r));
+            assertThrows(NullPointerException.class, () -> domain.updateRoom("r1", r, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
@@ -365,7 +384,7 @@ class RoomDomainImplTest {
         @DisplayName("updateRoom: number blank -> IllegalArgumentException")
         void updateRoom_numberBlank_throws() {
             Room r = room("x", "   ", "h1");
-            assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r1", r));
+            assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r1", r, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
@@ -373,7 +392,7 @@ class RoomDomainImplTest {
         @DisplayName("updateRoom: hotelId null -> NullPointerException")
         void updateRoom_hotelIdNull_throws() {
             Room r = room("x", "101", null);
-            assertThrows(NullPointerException.class, () -> domain.updateRoom("r1", r));
+            assertThrows(NullPointerException.class, () -> domain.updateRoom("r1", r, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
@@ -381,7 +400,7 @@ class RoomDomainImplTest {
         @DisplayName("updateRoom: hotelId blank -> IllegalArgumentException")
         void updateRoom_hotelIdBlank_throws() {
             Room r = room("x", "101", "   ");
-            assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r1", r));
+            assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r1", r, null));
             verifyNoInteractions(roomService, hotelService, bookingService);
         }
 
@@ -391,7 +410,7 @@ class RoomDomainImplTest {
             Room r = room("x", "101", "h1");
             when(roomService.existsById("r404")).thenReturn(false);
 
-            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r404", r));
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r404", r, null));
             assertEquals("Room with id r404 does not exist", ex.getMessage());
 
             verify(roomService).existsById("r404");
@@ -406,14 +425,14 @@ class RoomDomainImplTest {
             when(roomService.existsById("r1")).thenReturn(true);
             when(hotelService.existsById("h404")).thenReturn(false);
 
-            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r1", r));
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> domain.updateRoom("r1", r, null));
             assertEquals("Hotel with id h404 does not exist", ex.getMessage());
 
             verify(roomService).existsById("r1");
             verify(hotelService).existsById("h404");
             verifyNoMoreInteractions(roomService, hotelService);
 
-            verify(roomService, never()).save(any());
+            verify(roomService, never()).save(any(), any());
             verifyNoInteractions(bookingService);
         }
 
@@ -425,16 +444,16 @@ class RoomDomainImplTest {
 
             when(roomService.existsById("r1")).thenReturn(true);
             when(hotelService.existsById("h1")).thenReturn(true);
-            when(roomService.save(r)).thenReturn(saved);
+            when(roomService.save(r, null)).thenReturn(saved);
 
-            Room result = domain.updateRoom("r1", r);
+            Room result = domain.updateRoom("r1", r, null);
 
             assertEquals("r1", r.getId(), "El dominio debe forzar el id recibido por parámetro");
             assertSame(saved, result);
 
             verify(roomService).existsById("r1");
             verify(hotelService).existsById("h1");
-            verify(roomService).save(r);
+            verify(roomService).save(r, null);
             verifyNoMoreInteractions(roomService, hotelService);
             verifyNoInteractions(bookingService);
         }
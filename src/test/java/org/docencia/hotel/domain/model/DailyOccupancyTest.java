@@ -0,0 +1,43 @@
+package org.docencia.hotel.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class DailyOccupancyTest {
+
+    // ===================== equals =====================
+
+    @Test
+    void equals_sameDateAndCount_true() {
+        DailyOccupancy a = new DailyOccupancy("2025-01-01", 2);
+        DailyOccupancy b = new DailyOccupancy("2025-01-01", 2);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void equals_differentCount_false() {
+        DailyOccupancy a = new DailyOccupancy("2025-01-01", 2);
+        DailyOccupancy b = new DailyOccupancy("2025-01-01", 3);
+
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void equals_differentDate_false() {
+        DailyOccupancy a = new DailyOccupancy("2025-01-01", 2);
+        DailyOccupancy b = new DailyOccupancy("2025-01-02", 2);
+
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void equals_nullAndDifferentType_false() {
+        DailyOccupancy a = new DailyOccupancy("2025-01-01", 2);
+
+        assertNotEquals(a, null);
+        assertNotEquals(a, "not an occupancy");
+    }
+}
@@ -0,0 +1,43 @@
+package org.docencia.hotel.domain.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MonthlyRevenueTest {
+
+    // ===================== equals =====================
+
+    @Test
+    void equals_sameFields_true() {
+        MonthlyRevenue a = new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03);
+        MonthlyRevenue b = new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    @Test
+    void equals_differentMonth_false() {
+        MonthlyRevenue a = new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03);
+        MonthlyRevenue b = new MonthlyRevenue("h1", "2025-02", 3, 62, 250.0, 83.33, 4.03);
+
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void equals_differentRevenue_false() {
+        MonthlyRevenue a = new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03);
+        MonthlyRevenue b = new MonthlyRevenue("h1", "2025-01", 3, 62, 251.0, 83.33, 4.03);
+
+        assertNotEquals(a, b);
+    }
+
+    @Test
+    void equals_nullAndDifferentType_false() {
+        MonthlyRevenue a = new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03);
+
+        assertNotEquals(a, null);
+        assertNotEquals(a, "not a revenue");
+    }
+}
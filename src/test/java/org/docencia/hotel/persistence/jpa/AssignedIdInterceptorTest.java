@@ -0,0 +1,36 @@
+package org.docencia.hotel.persistence.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
+import org.docencia.hotel.persistence.jpa.entity.HotelOccupancyEntity;
+import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.junit.jupiter.api.Test;
+
+class AssignedIdInterceptorTest {
+
+    private final AssignedIdInterceptor interceptor = new AssignedIdInterceptor();
+
+    @Test
+    void isTransient_referenceBuiltFromId_isNotTransient_evenWithoutVersion() {
+        RoomEntity reference = new RoomEntity("r1");
+
+        assertNull(reference.getVersion());
+        assertEquals(Boolean.FALSE, interceptor.isTransient(reference));
+    }
+
+    @Test
+    void isTransient_entityMarkedNew_isTransient() {
+        HotelEntity hotel = new HotelEntity("h1", "Hotel Puerto", null);
+        hotel.markNew();
+
+        assertEquals(Boolean.TRUE, interceptor.isTransient(hotel));
+    }
+
+    @Test
+    void isTransient_otherEntities_leaveDecisionToHibernate() {
+        assertNull(interceptor.isTransient(new HotelOccupancyEntity("h1", LocalDate.of(2025, 1, 1), 3)));
+    }
+}
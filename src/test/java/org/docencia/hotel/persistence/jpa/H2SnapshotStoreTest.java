@@ -0,0 +1,131 @@
+package org.docencia.hotel.persistence.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class H2SnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:15:30.250Z");
+
+    @TempDir
+    Path directory;
+
+    private Connection connection;
+
+    private Statement statement;
+
+    private H2SnapshotStore store;
+
+    // ===== helpers mínimos =====
+    private H2SnapshotStore store(int keep, Instant now) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return new H2SnapshotStore(dataSource, directory, keep, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private List<String> files() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+
+        // SCRIPT TO '<fichero>' crea el fichero, como haria H2
+        when(statement.execute(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.startsWith("SCRIPT TO '")) {
+                Files.createFile(Path.of(sql.substring(11, sql.indexOf("' COMPRESSION"))));
+            }
+            return true;
+        });
+
+        store = store(2, NOW);
+    }
+
+    // ===================== write =====================
+
+    @Test
+    void write_dumpsInSerializableTransaction_andRenamesToTimestampedFile() throws Exception {
+        Path snapshot = store.write();
+
+        assertEquals("hotel-20250301-101530-250.zip", snapshot.getFileName().toString());
+        assertEquals(List.of("hotel-20250301-101530-250.zip"), files());
+
+        verify(connection).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        verify(connection).setAutoCommit(false);
+        verify(statement).execute(startsWith("SCRIPT TO '" + directory.toAbsolutePath()));
+        verify(connection).rollback();
+        verify(connection).close();
+    }
+
+    @Test
+    void write_keepsOnlyNewestSnapshots() throws Exception {
+        store(2, NOW).write();
+        store(2, NOW.plusSeconds(30)).write();
+        store(2, NOW.plusSeconds(60)).write();
+
+        assertEquals(List.of("hotel-20250301-101600-250.zip", "hotel-20250301-101630-250.zip"), files());
+    }
+
+    @Test
+    void write_whenScriptFails_throwsIllegalStateException_andLeavesNoSnapshot() throws Exception {
+        when(statement.execute(anyString())).thenThrow(new SQLException("disk full"));
+
+        assertThrows(IllegalStateException.class, () -> store.write());
+        assertEquals(List.of(), files());
+        verify(connection).rollback();
+    }
+
+    // ===================== restoreLatest =====================
+
+    @Test
+    void restoreLatest_runsNewestSnapshot_ignoringOtherFiles() throws Exception {
+        Files.createFile(directory.resolve("hotel-20250101-000000-000.zip"));
+        Files.createFile(directory.resolve("hotel-20250201-000000-000.zip"));
+        Files.createFile(directory.resolve("hotel-20250301-000000-000.zip.tmp"));
+        Files.createFile(directory.resolve("notes.zip"));
+
+        Optional<Path> restored = store.restoreLatest();
+
+        assertEquals("hotel-20250201-000000-000.zip", restored.orElseThrow().getFileName().toString());
+        verify(statement).execute("RUNSCRIPT FROM '" + directory.toAbsolutePath()
+                .resolve("hotel-20250201-000000-000.zip") + "' COMPRESSION ZIP");
+    }
+
+    @Test
+    void restoreLatest_whenNoSnapshots_doesNothing() throws Exception {
+        assertTrue(store.restoreLatest().isEmpty());
+        verifyNoInteractions(statement);
+    }
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_whenKeepNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new H2SnapshotStore(mock(DataSource.class), directory, 0, Clock.systemUTC()));
+    }
+}
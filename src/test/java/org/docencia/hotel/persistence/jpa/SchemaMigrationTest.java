@@ -0,0 +1,145 @@
+package org.docencia.hotel.persistence.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Aplica las migraciones sobre una H2 creada con el esquema que generaba
+ * Hibernate con ddl-auto=update antes de usar Flyway, con datos, y comprueba
+ * que queda el esquema que valida Hibernate.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:schema-migration;DB_CLOSE_DELAY=-1";
+
+    private Connection connection;
+
+    // ===== helpers mínimos =====
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String columnType(String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("""
+                        SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS
+                        WHERE TABLE_NAME = '%s' AND COLUMN_NAME = '%s'
+                        """.formatted(table.toUpperCase(), column.toUpperCase()))) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+
+        // Esquema de la version sin migraciones, tal como lo dejaba Hibernate
+        execute("CREATE TABLE hotel (id VARCHAR(255) NOT NULL, address VARCHAR(255), name VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+        execute("CREATE TABLE guest (id VARCHAR(255) NOT NULL, email VARCHAR(255), full_name VARCHAR(255) NOT NULL, phone VARCHAR(255), PRIMARY KEY (id))");
+        execute("""
+                CREATE TABLE room (id VARCHAR(255) NOT NULL, number VARCHAR(255) NOT NULL, price_per_night FLOAT(53) NOT NULL,
+                    type VARCHAR(255), hotel_id VARCHAR(255) NOT NULL, PRIMARY KEY (id),
+                    CONSTRAINT fk_room_hotel FOREIGN KEY (hotel_id) REFERENCES hotel (id))
+                """);
+        execute("""
+                CREATE TABLE booking (id VARCHAR(255) NOT NULL, check_in VARCHAR(255), check_out VARCHAR(255),
+                    guest_id VARCHAR(255) NOT NULL, room_id VARCHAR(255) NOT NULL, PRIMARY KEY (id),
+                    CONSTRAINT fk_booking_guest FOREIGN KEY (guest_id) REFERENCES guest (id),
+                    CONSTRAINT fk_booking_room FOREIGN KEY (room_id) REFERENCES room (id))
+                """);
+
+        execute("INSERT INTO hotel (id, name) VALUES ('H1', 'Hotel')");
+        execute("INSERT INTO guest (id, full_name) VALUES ('G1', 'Ana')");
+        execute("INSERT INTO room (id, number, price_per_night, type, hotel_id) VALUES ('R1', '101', 80, 'DOUBLE', 'H1')");
+        execute("INSERT INTO booking VALUES ('B1', '2025-01-10', '2025-01-12', 'G1', 'R1')");
+        execute("INSERT INTO booking VALUES ('B2', NULL, NULL, 'G1', 'R1')");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+        connection.close();
+    }
+
+    // ===================== booking =====================
+
+    @Test
+    void migrate_convertsBookingDatesToDate_keepingValues() throws SQLException {
+        migrate();
+
+        assertEquals("DATE", columnType("booking", "check_in"));
+        assertEquals("DATE", columnType("booking", "check_out"));
+
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT check_in, check_out FROM booking ORDER BY id")) {
+            assertTrue(rs.next());
+            assertEquals(LocalDate.of(2025, 1, 10), rs.getObject(1, LocalDate.class));
+            assertEquals(LocalDate.of(2025, 1, 12), rs.getObject(2, LocalDate.class));
+            assertTrue(rs.next());
+            assertNull(rs.getObject(1, LocalDate.class));
+            assertNull(rs.getObject(2, LocalDate.class));
+        }
+    }
+
+    @Test
+    void migrate_onEmptyDatabase_createsCurrentSchema() throws SQLException {
+        execute("DROP ALL OBJECTS");
+
+        migrate();
+
+        assertEquals("DATE", columnType("booking", "check_in"));
+        assertEquals("DATE", columnType("booking", "check_out"));
+        assertEquals("BOOLEAN", columnType("room", "smoking"));
+        assertEquals("CHARACTER VARYING", columnType("room", "bed_type"));
+        assertEquals("BOOLEAN", columnType("room", "accessible"));
+    }
+
+    // ===================== room =====================
+
+    @Test
+    void migrate_addsRoomAttributes_withDefaultsForExistingRooms() throws SQLException {
+        migrate();
+
+        assertEquals("BOOLEAN", columnType("room", "smoking"));
+        assertEquals("CHARACTER VARYING", columnType("room", "bed_type"));
+        assertEquals("BOOLEAN", columnType("room", "accessible"));
+
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT smoking, bed_type, accessible, version FROM room WHERE id = 'R1'")) {
+            assertTrue(rs.next());
+            assertFalse(rs.getBoolean(1));
+            assertNull(rs.getString(2));
+            assertFalse(rs.getBoolean(3));
+            assertEquals(0L, rs.getLong(4));
+        }
+    }
+
+    @Test
+    void migrate_createsTablesMissingFromOldSchema() throws SQLException {
+        migrate();
+
+        assertEquals("INTEGER", columnType("hotel_occupancy", "occupied_rooms"));
+    }
+}
@@ -0,0 +1,105 @@
+package org.docencia.hotel.persistence.repository.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.docencia.hotel.config.HibernateCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Ejecuta sobre H2 las sentencias nativas de los contadores de ocupacion.
+ */
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+class HotelOccupancyRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private HotelOccupancyRepository hotelOccupancyRepository;
+
+    // ===== helpers mínimos =====
+    private static LocalDate d(String date) {
+        return LocalDate.parse(date);
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    private List<String> rows() {
+        entityManager.clear();
+        return hotelOccupancyRepository.findAll()
+                .stream()
+                .map(o -> o.getHotelId() + "/" + o.getNight() + "=" + o.getOccupiedRooms())
+                .sorted()
+                .toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        execute("INSERT INTO hotel (id, name) VALUES ('h1', 'Hotel 1'), ('h2', 'Hotel 2')");
+        execute("INSERT INTO guest (id, full_name) VALUES ('g1', 'Ana')");
+        execute("""
+                INSERT INTO room (id, number, type, price_per_night, hotel_id)
+                VALUES ('r1', '1', 'DOUBLE', 100, 'h1'), ('r2', '2', 'DOUBLE', 100, 'h1'),
+                       ('r3', '3', 'SUITE', 200, 'h2')
+                """);
+    }
+
+    // ===================== addAll =====================
+
+    @Test
+    void addAll_createsMissingRows_andAddsToExistingOnes_inOneStatement() {
+        hotelOccupancyRepository.addAll(new String[] { "h1", "h1" },
+                new LocalDate[] { d("2025-01-01"), d("2025-01-02") }, new Integer[] { 1, 2 });
+
+        hotelOccupancyRepository.addAll(new String[] { "h1", "h2" },
+                new LocalDate[] { d("2025-01-02"), d("2025-01-01") }, new Integer[] { -1, 1 });
+
+        assertEquals(List.of("h1/2025-01-01=1", "h1/2025-01-02=1", "h2/2025-01-01=1"), rows());
+    }
+
+    @Test
+    void deleteEmpty_removesOnlyZeroRowsOfTheGivenHotels() {
+        hotelOccupancyRepository.addAll(new String[] { "h1", "h1", "h2" },
+                new LocalDate[] { d("2025-01-01"), d("2025-01-02"), d("2025-01-01") }, new Integer[] { 0, 1, 0 });
+
+        hotelOccupancyRepository.deleteEmpty(List.of("h1"));
+
+        assertEquals(List.of("h1/2025-01-02=1", "h2/2025-01-01=0"), rows());
+    }
+
+    // ===================== insertFromBookings =====================
+
+    @Test
+    void insertFromBookings_countsEveryNightOfEveryDatedBookingPerHotel() {
+        execute("""
+                INSERT INTO booking (id, room_id, guest_id, check_in, check_out)
+                VALUES ('b1', 'r1', 'g1', DATE '2025-01-01', DATE '2025-01-03'),
+                       ('b2', 'r2', 'g1', DATE '2025-01-02', DATE '2025-01-03'),
+                       ('b3', 'r3', 'g1', DATE '2025-01-01', DATE '2025-01-02'),
+                       ('b4', 'r3', 'g1', NULL, NULL)
+                """);
+
+        int inserted = hotelOccupancyRepository.insertFromBookings();
+
+        assertEquals(3, inserted);
+        assertEquals(List.of("h1/2025-01-01=1", "h1/2025-01-02=2", "h2/2025-01-01=1"), rows());
+    }
+
+    @Test
+    void insertFromBookings_whenNoBookings_insertsNothing() {
+        assertEquals(0, hotelOccupancyRepository.insertFromBookings());
+        assertEquals(List.of(), rows());
+    }
+}
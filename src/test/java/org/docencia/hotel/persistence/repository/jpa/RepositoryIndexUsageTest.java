@@ -0,0 +1,226 @@
+package org.docencia.hotel.persistence.repository.jpa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.docencia.hotel.config.HibernateCacheConfig;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Comprueba con EXPLAIN que cada consulta de los repositorios se resuelve
+ * con un indice y no recorriendo la tabla entera.
+ *
+ * El esquema lo crean las migraciones de Flyway sobre una H2 en memoria,
+ * igual que en la aplicacion. Cada prueba llama al metodo real del
+ * repositorio, recoge con un StatementInspector el SQL que genera
+ * Hibernate y pide a H2 el plan de ese mismo SQL.
+ */
+@DataJpaTest
+@Import({ HibernateCacheConfig.class, RepositoryIndexUsageTest.SqlCaptureConfig.class })
+class RepositoryIndexUsageTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private GuestJpaRepository guestJpaRepository;
+
+    /**
+     * Guarda el SQL que Hibernate envia a la base de datos.
+     */
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    // ===== helpers mínimos =====
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    private void assertUsesIndex(Runnable repositoryCall) {
+        entityManager.flush();
+        sqlCapture.statements.clear();
+
+        repositoryCall.run();
+        entityManager.flush();
+
+        List<String> statements = new ArrayList<>(sqlCapture.statements);
+        assertFalse(statements.isEmpty(), "El repositorio no ha lanzado ninguna consulta");
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), () -> "Recorre la tabla entera: " + plan);
+        }
+    }
+
+    /**
+     * Plan de H2 para el SQL generado. H2 decide el plan al preparar la
+     * sentencia, sin mirar los valores, asi que los parametros van a NULL.
+     */
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Algunas filas para que el optimizador no compare tablas vacias
+        execute("INSERT INTO hotel (id, name) SELECT 'h' || X, 'Hotel ' || X FROM SYSTEM_RANGE(1, 20)");
+        execute("INSERT INTO guest (id, full_name) SELECT 'g' || X, 'Guest ' || X FROM SYSTEM_RANGE(1, 200)");
+        execute("""
+                INSERT INTO room (id, number, type, price_per_night, hotel_id)
+                SELECT 'r' || X, CAST(X AS VARCHAR), CASE MOD(X, 2) WHEN 0 THEN 'DOUBLE' ELSE 'SUITE' END,
+                       100, 'h' || (MOD(X, 20) + 1)
+                FROM SYSTEM_RANGE(1, 400)
+                """);
+        execute("""
+                INSERT INTO booking (id, room_id, guest_id, check_in, check_out)
+                SELECT 'b' || X, 'r' || (MOD(X, 400) + 1), 'g' || (MOD(X, 200) + 1),
+                       DATEADD(DAY, MOD(X, 300), DATE '2025-01-01'), DATEADD(DAY, MOD(X, 300) + 2, DATE '2025-01-01')
+                FROM SYSTEM_RANGE(1, 2000)
+                """);
+
+        // Las consultas de habitaciones son cacheables: sin esto no llegarian a la base de datos
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    // ===================== HotelRepository =====================
+
+    @Test
+    void findByHotelName_usesNameIndex() {
+        assertUsesIndex(() -> hotelRepository.findByHotelName("Hotel 7"));
+    }
+
+    // ===================== RoomRepository =====================
+
+    @Test
+    void findRowsByHotelId_usesHotelIndex() {
+        assertUsesIndex(() -> roomRepository.findRowsByHotelId("h1"));
+    }
+
+    @Test
+    void findRowsByHotelIdAndType_usesHotelTypeIndex() {
+        assertUsesIndex(() -> roomRepository.findRowsByHotelIdAndType("h1", "DOUBLE"));
+    }
+
+    @Test
+    void deleteByHotelId_usesHotelIndex() {
+        // Un hotel sin habitaciones: las de h1 tienen reservas que lo impedirian
+        assertUsesIndex(() -> roomRepository.deleteByHotel_Id("h0"));
+    }
+
+    // ===================== BookingRepository =====================
+
+    @Test
+    void findRowsByGuestIdAfter_usesGuestIndex() {
+        assertUsesIndex(() -> bookingRepository.findRowsByGuestIdAfter("g1", "", Limit.of(50)));
+    }
+
+    @Test
+    void existsByGuestId_usesGuestIndex() {
+        assertUsesIndex(() -> bookingRepository.existsByGuestId("g1"));
+    }
+
+    @Test
+    void findRowsByRoomIdAfter_usesRoomIndex() {
+        assertUsesIndex(() -> bookingRepository.findRowsByRoomIdAfter("r1", "", Limit.of(50)));
+    }
+
+    @Test
+    void findOverlapping_usesRoomDatesIndex() {
+        assertUsesIndex(() -> bookingRepository.findOverlapping("r1",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1)));
+    }
+
+    @Test
+    void findRowsByHotelIdAfter_usesRoomHotelIndex_andBookingRoomIndex() {
+        assertUsesIndex(() -> bookingRepository.findRowsByHotelIdAfter("h1", "", Limit.of(50)));
+    }
+
+    @Test
+    void findArrivals_usesIndexes() {
+        assertUsesIndex(() -> bookingRepository.findArrivals("h1", LocalDate.of(2025, 1, 5)));
+    }
+
+    @Test
+    void deleteByGuestId_andDeleteByRoomId_useIndexes() {
+        assertUsesIndex(() -> bookingRepository.deleteByGuestId("g1"));
+        assertUsesIndex(() -> bookingRepository.deleteByRoomId("r1"));
+    }
+
+    // ===================== findVersionById (ETag) =====================
+
+    @Test
+    void findVersionById_usesPrimaryKey_inEveryVersionedTable() {
+        assertUsesIndex(() -> hotelRepository.findVersionById("h1"));
+        assertUsesIndex(() -> roomRepository.findVersionById("r1"));
+        assertUsesIndex(() -> bookingRepository.findVersionById("b1"));
+        assertUsesIndex(() -> guestJpaRepository.findVersionById("g1"));
+    }
+}
@@ -0,0 +1,99 @@
+package org.docencia.hotel.persistence.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prueba la replica con bases de datos H2 en memoria reales.
+ */
+class H2ReplicaDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+
+    private DataSource primary;
+
+    private Clock clock;
+
+    private H2ReplicaDataSource replica;
+
+    // ===== helpers mínimos =====
+    private static DataSource memoryDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String hotelName(DataSource dataSource, String id) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT name FROM hotel WHERE id = '" + id + "'")) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = memoryDatabase();
+        execute(primary, "CREATE TABLE hotel (id VARCHAR(36) PRIMARY KEY, name VARCHAR(255))");
+        execute(primary, "INSERT INTO hotel VALUES ('h1', 'Mar')");
+
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        replica = new H2ReplicaDataSource(primary, memoryDatabase(), memoryDatabase(), clock);
+    }
+
+    // ===================== sync =====================
+
+    @Test
+    void sync_copiesPrimary_andLaterWritesOnlyShowAfterNextSync() throws Exception {
+        replica.sync();
+        assertEquals("Mar", hotelName(replica, "h1"));
+
+        execute(primary, "UPDATE hotel SET name = 'Sol' WHERE id = 'h1'");
+        execute(primary, "INSERT INTO hotel VALUES ('h2', 'Luna')");
+        assertEquals("Mar", hotelName(replica, "h1"));
+        assertNull(hotelName(replica, "h2"));
+
+        replica.sync();
+        assertEquals("Sol", hotelName(replica, "h1"));
+        assertEquals("Luna", hotelName(replica, "h2"));
+
+        // La tercera sincronizacion reutiliza la primera copia, que ya tenia datos
+        execute(primary, "DELETE FROM hotel WHERE id = 'h2'");
+        replica.sync();
+        assertNull(hotelName(replica, "h2"));
+    }
+
+    // ===================== lag =====================
+
+    @Test
+    void lag_isUnboundedBeforeFirstSync_andTimeSinceDumpAfterwards() {
+        assertTrue(replica.lag().compareTo(Duration.ofDays(365)) > 0);
+
+        replica.sync();
+        when(clock.instant()).thenReturn(NOW.plusSeconds(4));
+
+        assertEquals(Duration.ofSeconds(4), replica.lag());
+    }
+}
@@ -0,0 +1,92 @@
+package org.docencia.hotel.persistence.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private H2ReplicaDataSource replica;
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        replica = mock(H2ReplicaDataSource.class);
+        routing = new ReadWriteRoutingDataSource(mock(DataSource.class), replica, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaReads.end();
+        ReadConsistency.clear();
+    }
+
+    // ===================== determineCurrentLookupKey =====================
+
+    @Test
+    void outsideReadOnlyTransaction_routesToPrimary() {
+        when(replica.lag()).thenReturn(Duration.ZERO);
+
+        assertEquals(DataSourceRoute.PRIMARY, routing.determineCurrentLookupKey());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void readOnlyTransaction_notOpenedWithReadOnlyTransactional_routesToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReads.begin(false);
+        when(replica.lag()).thenReturn(Duration.ZERO);
+
+        assertEquals(DataSourceRoute.PRIMARY, routing.determineCurrentLookupKey());
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void readOnlyTransaction_withFreshReplica_routesToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReads.begin(true);
+        when(replica.lag()).thenReturn(Duration.ofSeconds(3));
+
+        assertEquals(DataSourceRoute.REPLICA, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_withReplicaBehindDefaultBound_routesToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReads.begin(true);
+        when(replica.lag()).thenReturn(Duration.ofSeconds(10));
+
+        assertEquals(DataSourceRoute.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_usesRequestBound_overDefault() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReads.begin(true);
+        when(replica.lag()).thenReturn(Duration.ofSeconds(30));
+
+        ReadConsistency.setMaxStaleness(Duration.ofMinutes(1));
+        assertEquals(DataSourceRoute.REPLICA, routing.determineCurrentLookupKey());
+
+        ReadConsistency.setMaxStaleness(Duration.ZERO);
+        assertEquals(DataSourceRoute.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_whenBoundNegative_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReadWriteRoutingDataSource(mock(DataSource.class), replica, Duration.ofSeconds(-1)));
+    }
+}
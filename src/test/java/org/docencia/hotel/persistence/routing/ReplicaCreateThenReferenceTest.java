@@ -0,0 +1,65 @@
+package org.docencia.hotel.persistence.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.docencia.hotel.HotelApplication;
+import org.docencia.hotel.domain.api.BookingDomain;
+import org.docencia.hotel.domain.api.GuestDomain;
+import org.docencia.hotel.domain.api.HotelDomain;
+import org.docencia.hotel.domain.api.RoomDomain;
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.Hotel;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.domain.model.RoomHold;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Con el perfil replica, lo recien creado puede referenciarse enseguida
+ * aunque la replica todavia no lo tenga.
+ */
+@SpringBootTest(classes = HotelApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica_create_then_reference;DB_CLOSE_DELAY=-1",
+        "hotel.replica.name=replica_create_then_reference",
+        // La replica solo se sincroniza a mano
+        "hotel.replica.sync-millis=3600000",
+        "hotel.guest-preferences-cache.warm-on-startup=false"
+})
+@ActiveProfiles("replica")
+class ReplicaCreateThenReferenceTest {
+
+    @Autowired
+    private H2ReplicaDataSource replica;
+
+    @Autowired
+    private HotelDomain hotelDomain;
+
+    @Autowired
+    private RoomDomain roomDomain;
+
+    @Autowired
+    private GuestDomain guestDomain;
+
+    @Autowired
+    private BookingDomain bookingDomain;
+
+    @Test
+    void createThenReference_whileReplicaIsBehind_succeeds() {
+        replica.sync();
+
+        hotelDomain.createHotel(new Hotel("h-new", "Hotel nuevo", "Calle 1"));
+        roomDomain.createRoom(new Room("r-new", "101", "DOUBLE", 100.0, "h-new"));
+        guestDomain.createGuest(new Guest("g-new", "Ana", "ana@example.com", "600000000"));
+        // Reservar desde un bloqueo comprueba antes que el huesped exista
+        RoomHold hold = bookingDomain.createHold("r-new", "2030-01-10", "2030-01-12");
+        Booking booking = bookingDomain.createBookingFromHold(hold.getId(),
+                new Booking("b-new", null, "g-new", null, null));
+
+        assertEquals("r-new", booking.getRoomId());
+        // Las lecturas de @ReadOnlyTransactional siguen yendo a la replica, que aun no las tiene
+        assertTrue(roomDomain.getRoomsByHotel("h-new").isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+package org.docencia.hotel.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ExistenceCacheTest {
+
+    private final List<String> loaded = new ArrayList<>();
+
+    private final ExistenceCache cache = new ExistenceCache("hotel", 100, Duration.ofMinutes(10));
+
+    // ===== helpers mínimos =====
+    private Predicate<String> loader(boolean exists) {
+        return id -> {
+            loaded.add(id);
+            return exists;
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    // ===================== exists =====================
+
+    @Test
+    void exists_cachesHitsAndMisses() {
+        assertTrue(cache.exists("h1", loader(true)));
+        assertFalse(cache.exists("h2", loader(false)));
+        assertTrue(cache.exists("h1", loader(false)));
+        assertFalse(cache.exists("h2", loader(true)));
+
+        assertEquals(List.of("h1", "h2"), loaded);
+    }
+
+    @Test
+    void exists_insideReadOnlyTransaction_usesCachedValue_butDoesNotStoreNewOnes() {
+        cache.exists("h1", loader(true));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertTrue(cache.exists("h1", loader(false)));
+        // Lo leido puede venir de la replica atrasada
+        assertFalse(cache.exists("h2", loader(false)));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertTrue(cache.exists("h2", loader(true)));
+        assertEquals(List.of("h1", "h2", "h2"), loaded);
+    }
+
+    // ===================== invalidate =====================
+
+    @Test
+    void invalidate_forcesReload() {
+        cache.exists("h1", loader(true));
+
+        cache.invalidate("h1");
+
+        assertFalse(cache.exists("h1", loader(false)));
+        assertEquals(List.of("h1", "h1"), loaded);
+    }
+
+    @Test
+    void invalidate_insideTransaction_invalidatesAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.exists("h1", loader(true));
+
+        cache.invalidate("h1");
+        // Lectura concurrente anterior al commit: vuelve a dejar el valor antiguo
+        cache.exists("h1", loader(true));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertFalse(cache.exists("h1", loader(false)));
+        assertEquals(List.of("h1", "h1", "h1"), loaded);
+    }
+
+    @Test
+    void invalidate_nullId_isIgnored() {
+        assertDoesNotThrow(() -> cache.invalidate(null));
+    }
+
+    @Test
+    void invalidateAll_forcesReloadOfEveryId() {
+        cache.exists("h1", loader(true));
+        cache.exists("h2", loader(true));
+
+        cache.invalidateAll();
+
+        cache.exists("h1", loader(true));
+        cache.exists("h2", loader(true));
+        assertEquals(List.of("h1", "h2", "h1", "h2"), loaded);
+    }
+
+    // ===================== stats =====================
+
+    @Test
+    void stats_reportHitRate() {
+        cache.exists("h1", loader(true));
+        cache.exists("h1", loader(true));
+        cache.exists("h1", loader(true));
+        cache.exists("h2", loader(false));
+
+        ExistenceCacheStats stats = cache.stats();
+
+        assertEquals("hotel", stats.getCache());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate(), 1e-9);
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void stats_reportEvictions_whenOverMaxEntries() {
+        ExistenceCache small = new ExistenceCache("room", 2, Duration.ofMinutes(10));
+        for (int i = 0; i < 10; i++) {
+            small.exists("r" + i, loader(true));
+        }
+        small.cleanUp();
+
+        ExistenceCacheStats stats = small.stats();
+
+        assertEquals(2, stats.getSize());
+        assertEquals(8, stats.getEvictionCount());
+    }
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_whenSizeNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ExistenceCache("hotel", 0, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,190 @@
+package org.docencia.hotel.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.persistence.nosql.document.GuestPreferencesDocument;
+import org.docencia.hotel.persistence.repository.nosql.GuestPreferencesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GuestPreferencesCacheTest {
+
+    private final List<List<String>> loaded = new ArrayList<>();
+
+    private GuestPreferencesRepository guestPreferencesRepository;
+
+    private GuestPreferencesCache cache;
+
+    // ===== helpers mínimos =====
+    private static GuestPreferencesDocument doc(String guestId, String bedType) {
+        return new GuestPreferencesDocument(guestId, false, bedType, false);
+    }
+
+    @BeforeEach
+    void setUp() {
+        guestPreferencesRepository = mock(GuestPreferencesRepository.class);
+        cache = new GuestPreferencesCache(guestPreferencesRepository, 100, 600, true);
+    }
+
+    // ===================== get =====================
+
+    @Test
+    void get_cachesPresentAndMissingPreferences() {
+        cache.get("g1", id -> {
+            loaded.add(List.of(id));
+            return Optional.of(doc(id, "KING"));
+        });
+        cache.get("g2", id -> {
+            loaded.add(List.of(id));
+            return Optional.empty();
+        });
+
+        assertEquals("KING", cache.get("g1", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+        assertTrue(cache.get("g2", id -> Optional.of(doc(id, "TWIN"))).isEmpty());
+        assertEquals(List.of(List.of("g1"), List.of("g2")), loaded);
+    }
+
+    @Test
+    void get_returnsIndependentCopies() {
+        cache.put(doc("g1", "KING"));
+
+        cache.get("g1", id -> Optional.empty()).orElseThrow().setBedTypePreference("TWIN");
+
+        assertEquals("KING", cache.get("g1", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+    }
+
+    // ===================== getAll =====================
+
+    @Test
+    void getAll_loadsOnlyMissingIds_inOneCall_andRemembersAbsence() {
+        cache.put(doc("g1", "KING"));
+
+        Map<String, GuestPreferencesDocument> first = cache.getAll(List.of("g1", "g2", "g3"), ids -> {
+            loaded.add(ids);
+            return List.of(doc("g2", "TWIN"));
+        });
+        Map<String, GuestPreferencesDocument> second = cache.getAll(List.of("g1", "g2", "g3"), ids -> {
+            loaded.add(ids);
+            return List.of();
+        });
+
+        assertEquals(List.of(List.of("g2", "g3")), loaded);
+        assertEquals(first.keySet(), second.keySet());
+        assertEquals("KING", second.get("g1").getBedTypePreference());
+        assertEquals("TWIN", second.get("g2").getBedTypePreference());
+        assertFalse(second.containsKey("g3"));
+    }
+
+    @Test
+    void getAll_doesNotOverwriteValueWrittenWhileLoading() {
+        Map<String, GuestPreferencesDocument> result = cache.getAll(List.of("g1"), ids -> {
+            // una escritura termina mientras se lee de Mongo el valor anterior
+            cache.put(doc("g1", "NEW"));
+            return List.of(doc("g1", "OLD"));
+        });
+
+        assertEquals("NEW", result.get("g1").getBedTypePreference());
+        assertEquals("NEW", cache.get("g1", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+    }
+
+    // ===================== put / putAbsent =====================
+
+    @Test
+    void put_replacesCachedValue_andPutAbsentRemembersDeletion() {
+        cache.get("g1", id -> Optional.of(doc(id, "OLD")));
+
+        cache.put(doc("g1", "NEW"));
+        assertEquals("NEW", cache.get("g1", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+
+        cache.putAbsent("g1");
+        assertTrue(cache.get("g1", id -> Optional.of(doc(id, "OLD"))).isEmpty());
+    }
+
+    // ===================== warm =====================
+
+    @Test
+    void warm_loadsFromSingleCursor_upToMaxEntries_andClosesIt() {
+        AtomicBoolean closed = new AtomicBoolean();
+        cache = new GuestPreferencesCache(guestPreferencesRepository, 2, 600, true);
+        when(guestPreferencesRepository.streamAll()).thenReturn(
+                Stream.of(doc("g1", "KING"), doc("g2", "TWIN"), doc("g3", "KING")).onClose(() -> closed.set(true)));
+
+        cache.warm();
+
+        assertEquals(2, cache.estimatedSize());
+        assertEquals("TWIN", cache.get("g2", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+        assertTrue(closed.get());
+        verify(guestPreferencesRepository).streamAll();
+        verifyNoMoreInteractions(guestPreferencesRepository);
+    }
+
+    @Test
+    void warm_keepsValuesAlreadyWritten() {
+        cache.put(doc("g1", "NEW"));
+        when(guestPreferencesRepository.streamAll()).thenReturn(Stream.of(doc("g1", "OLD")));
+
+        cache.warm();
+
+        assertEquals("NEW", cache.get("g1", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+    }
+
+    @Test
+    void warm_whenMongoFails_doesNotThrow_andKeepsWhatWasLoaded() {
+        when(guestPreferencesRepository.streamAll()).thenReturn(Stream.concat(Stream.of(doc("g1", "KING")),
+                Stream.<GuestPreferencesDocument>generate(() -> {
+                    throw new IllegalStateException("cursor lost");
+                })));
+
+        assertDoesNotThrow(cache::warm);
+
+        assertEquals("KING", cache.get("g1", id -> Optional.empty()).orElseThrow().getBedTypePreference());
+    }
+
+    @Test
+    void warmInBackground_whenDisabled_doesNotReadMongo() {
+        cache = new GuestPreferencesCache(guestPreferencesRepository, 100, 600, false);
+
+        cache.warmInBackground();
+
+        assertEquals(0, cache.estimatedSize());
+        verifyNoInteractions(guestPreferencesRepository);
+    }
+
+    @Test
+    void warmInBackground_whenEnabled_loadsOffTheCallingThread() throws InterruptedException {
+        cache = new GuestPreferencesCache(guestPreferencesRepository, 100, 600, true);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Thread> loader = new AtomicReference<>();
+        when(guestPreferencesRepository.streamAll()).thenAnswer(inv -> {
+            loader.set(Thread.currentThread());
+            return Stream.of(doc("g1", "KING")).onClose(done::countDown);
+        });
+
+        cache.warmInBackground();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), loader.get());
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_whenSizeOrTtlNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GuestPreferencesCache(guestPreferencesRepository, 0, 600, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GuestPreferencesCache(guestPreferencesRepository, 100, 0, true));
+    }
+}
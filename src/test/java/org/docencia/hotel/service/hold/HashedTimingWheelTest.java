@@ -0,0 +1,115 @@
+package org.docencia.hotel.service.hold;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTest {
+
+    private AtomicLong now;
+
+    private List<String> expired;
+
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000);
+        expired = new ArrayList<>();
+        wheel = new HashedTimingWheel<>(100, 8, now::get, expired::add);
+    }
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_roundsWheelSizeUpToPowerOfTwo() {
+        assertEquals(8, wheel.wheelSize());
+        assertEquals(16, new HashedTimingWheel<String>(100, 9, now::get, expired::add).wheelSize());
+        assertEquals(1, new HashedTimingWheel<String>(100, 1, now::get, expired::add).wheelSize());
+    }
+
+    @Test
+    void constructor_whenTickOrSizeNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>(0, 8, now::get, expired::add));
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>(100, 0, now::get, expired::add));
+    }
+
+    // ===================== advance =====================
+
+    @Test
+    void advance_expiresTimeoutOnlyOnceItsDeadlineHasPassed() {
+        wheel.schedule("a", 250);
+
+        now.addAndGet(200);
+        assertEquals(0, wheel.advance());
+
+        now.addAndGet(100);
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("a"), expired);
+
+        now.addAndGet(1_000);
+        assertEquals(0, wheel.advance());
+    }
+
+    @Test
+    void advance_handlesDelaysLongerThanOneRevolution() {
+        // 8 cubetas de 100 ms: 2500 ms son mas de tres vueltas
+        wheel.schedule("long", 2_500);
+        wheel.schedule("short", 300);
+
+        now.addAndGet(300);
+        wheel.advance();
+        assertEquals(List.of("short"), expired);
+
+        now.addAndGet(2_100);
+        wheel.advance();
+        assertEquals(List.of("short"), expired);
+
+        now.addAndGet(100);
+        wheel.advance();
+        assertEquals(List.of("short", "long"), expired);
+    }
+
+    @Test
+    void advance_afterLongPause_catchesUpAllElapsedTicks() {
+        wheel.schedule("a", 100);
+        wheel.schedule("b", 500);
+        wheel.schedule("c", 1_500);
+
+        now.addAndGet(5_000);
+
+        assertEquals(3, wheel.advance());
+        assertEquals(List.of("a", "b", "c"), expired);
+    }
+
+    @Test
+    void advance_withZeroDelay_expiresOnNextAdvance() {
+        wheel.schedule("now", 0);
+
+        assertEquals(1, wheel.advance());
+        assertEquals(List.of("now"), expired);
+    }
+
+    // ===================== cancel =====================
+
+    @Test
+    void cancel_preventsExpiry_andReportsWhetherItWasStillWaiting() {
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("a", 100);
+        HashedTimingWheel.Timeout<String> kept = wheel.schedule("b", 100);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        now.addAndGet(100);
+        wheel.advance();
+
+        assertEquals(List.of("b"), expired);
+        assertTrue(cancelled.isCancelled());
+        assertFalse(kept.cancel());
+    }
+}
@@ -2,20 +2,41 @@ package org.docencia.hotel.service.impl;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.docencia.hotel.domain.model.Booking;
 import org.docencia.hotel.mapper.jpa.BookingMapper;
 import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
+import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
+import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.BookingReferences;
+import org.docencia.hotel.persistence.jpa.projection.BookingRow;
 import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.service.api.OccupancyService;
+import org.docencia.hotel.service.api.OccupancyService.StayChange;
+import org.docencia.hotel.service.api.VersionMismatchException;
+import org.docencia.hotel.service.index.BookingIdFilter;
+import org.docencia.hotel.service.index.BookingIntervalIndex;
+import org.docencia.hotel.service.index.BookingIntervalIndex.Gap;
+import org.docencia.hotel.service.index.BookingIntervalIndex.Stay;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
@@ -26,6 +47,18 @@ class BookingServiceImplTest {
     @Mock
     private BookingMapper bookingMapper;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingIdFilter bookingIdFilter;
+
+    @Mock
+    private OccupancyService occupancyService;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private BookingServiceImpl service;
 
@@ -38,33 +71,415 @@ class BookingServiceImplTest {
         return new BookingEntity(); // asumes ctor vacío
     }
 
+    private static BookingRow bookingRow(String id) {
+        return new BookingRow(id, "r1", "g1", null, null); // los records se comparan por valor
+    }
+
     // ===================== save =====================
 
     @Test
     void save_whenBookingNull_throwsNullPointerException_andNoInteractions() {
-        assertThrows(NullPointerException.class, () -> service.save(null));
+        assertThrows(NullPointerException.class, () -> service.save(null, null));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
-    void save_ok_mapsSavesAndMapsBack() {
-        Booking input = anyBooking();
-        BookingEntity toSave = anyBookingEntity();
+    void save_whenBookingExists_copiesOntoLoadedEntity_andMapsBack() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity current = new BookingEntity("b1");
+        current.setVersion(3L);
+        RoomEntity room = new RoomEntity("r1");
+        GuestEntity guest = new GuestEntity("g1");
+
+        when(bookingRepository.findById("b1")).thenReturn(Optional.of(current));
+        when(entityManager.getReference(RoomEntity.class, "r1")).thenReturn(room);
+        when(entityManager.getReference(GuestEntity.class, "g1")).thenReturn(guest);
+        when(bookingRepository.save(current)).thenReturn(current);
+        when(bookingMapper.toDomain(current)).thenReturn(input);
+
+        Booking result = service.save(input, 3L);
+
+        assertSame(input, result);
+        assertFalse(current.isNew(), "una reserva existente se actualiza, no se inserta");
+        assertEquals(3L, current.getVersion(), "la versión la incrementa Hibernate al escribir");
+        assertSame(room, current.getRoom());
+        assertSame(guest, current.getGuest());
+        verify(bookingMapper).updateEntity(input, current);
+        verify(bookingRepository).findById("b1");
+        verify(bookingRepository).save(current);
+        verify(bookingMapper).toDomain(current);
+        verify(bookingIntervalIndex).findStay("b1");
+        verify(bookingIntervalIndex).put("b1", "r1", "g1", null, null);
+        verify(occupancyService).applyStays(List.of(StayChange.added("r1", null, null)));
+
+        verifyNoMoreInteractions(bookingRepository, bookingMapper, bookingIntervalIndex, occupancyService);
+    }
+
+    @Test
+    void save_whenExpectedVersionIsStale_throwsOptimisticLock_andDoesNotWrite() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity current = new BookingEntity("b1");
+        current.setVersion(4L);
+
+        when(bookingRepository.findById("b1")).thenReturn(Optional.of(current));
+
+        assertThrows(VersionMismatchException.class, () -> service.save(input, 3L));
+
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(bookingMapper, bookingIntervalIndex, bookingIdFilter, occupancyService);
+    }
+
+    @Test
+    void save_ok_indexesSavedStay() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity toSave = new BookingEntity("b1");
         BookingEntity savedEntity = anyBookingEntity();
-        Booking expected = anyBooking();
+        savedEntity.setCheckIn(LocalDate.of(2025, 1, 1));
+        savedEntity.setCheckOut(LocalDate.of(2025, 1, 3));
+        Booking expected = new Booking("b1", "r1", "g1", "2025-01-01", "2025-01-03");
 
-        when(bookingMapper.toEntity(input)).thenReturn(toSave);
+        when(bookingRepository.findById("b1")).thenReturn(Optional.of(toSave));
+        when(bookingRepository.save(toSave)).thenReturn(savedEntity);
+        when(bookingMapper.toDomain(savedEntity)).thenReturn(expected);
+
+        service.save(input, null);
+
+        verify(bookingIntervalIndex).findStay("b1");
+        verify(bookingIntervalIndex).put("b1", "r1", "g1",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        verifyNoMoreInteractions(bookingIntervalIndex);
+    }
+
+    @Test
+    void save_whenStayMoves_movesOccupancyFromPreviousStay() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity toSave = new BookingEntity("b1");
+        BookingEntity savedEntity = anyBookingEntity();
+        savedEntity.setCheckIn(LocalDate.of(2025, 2, 1));
+        savedEntity.setCheckOut(LocalDate.of(2025, 2, 3));
+        Booking expected = new Booking("b1", "r2", "g1", "2025-02-01", "2025-02-03");
+        Stay previous = new Stay("b1", "r1", "g1",
+                (int) LocalDate.of(2025, 1, 1).toEpochDay(), (int) LocalDate.of(2025, 1, 3).toEpochDay());
+
+        when(bookingRepository.findById("b1")).thenReturn(Optional.of(toSave));
+        when(bookingRepository.save(toSave)).thenReturn(savedEntity);
+        when(bookingMapper.toDomain(savedEntity)).thenReturn(expected);
+        when(bookingIntervalIndex.findStay("b1")).thenReturn(Optional.of(previous));
+
+        service.save(input, null);
+
+        verify(occupancyService).applyStays(List.of(
+                StayChange.removed("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)),
+                StayChange.added("r2", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 3))));
+        verifyNoMoreInteractions(occupancyService);
+    }
+
+    @Test
+    void save_whenStayUnchanged_doesNotTouchOccupancy() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity toSave = new BookingEntity("b1");
+        BookingEntity savedEntity = anyBookingEntity();
+        savedEntity.setCheckIn(LocalDate.of(2025, 1, 1));
+        savedEntity.setCheckOut(LocalDate.of(2025, 1, 3));
+        Booking expected = new Booking("b1", "r1", "g2", "2025-01-01", "2025-01-03");
+        Stay previous = new Stay("b1", "r1", "g1",
+                (int) LocalDate.of(2025, 1, 1).toEpochDay(), (int) LocalDate.of(2025, 1, 3).toEpochDay());
+
+        when(bookingRepository.findById("b1")).thenReturn(Optional.of(toSave));
         when(bookingRepository.save(toSave)).thenReturn(savedEntity);
         when(bookingMapper.toDomain(savedEntity)).thenReturn(expected);
+        when(bookingIntervalIndex.findStay("b1")).thenReturn(Optional.of(previous));
+
+        service.save(input, null);
+
+        verifyNoInteractions(occupancyService);
+    }
+
+    // ===================== saveAll =====================
 
-        Booking result = service.save(input);
+    @Test
+    void saveAll_whenNull_throwsNullPointerException_andNoInteractions() {
+        assertThrows(NullPointerException.class, () -> service.saveAll(null));
+        verifyNoInteractions(bookingRepository, bookingMapper, bookingIntervalIndex);
+    }
 
-        assertSame(expected, result);
-        verify(bookingMapper).toEntity(input);
+    @Test
+    void saveAll_ok_savesInOneCall_andIndexesEveryStay() {
+        Booking b1 = anyBooking();
+        Booking b2 = anyBooking();
+        BookingEntity e1 = anyBookingEntity();
+        BookingEntity e2 = anyBookingEntity();
+        BookingEntity saved1 = new BookingEntity("b1", new RoomEntity("r1"), new GuestEntity("g1"),
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        BookingEntity saved2 = new BookingEntity("b2", new RoomEntity("r2"), new GuestEntity("g1"), null, null);
+        Booking out1 = anyBooking();
+        Booking out2 = anyBooking();
+
+        when(bookingMapper.toEntity(b1)).thenReturn(e1);
+        when(bookingMapper.toEntity(b2)).thenReturn(e2);
+        when(bookingRepository.saveAll(List.of(e1, e2))).thenReturn(List.of(saved1, saved2));
+        when(bookingMapper.toDomain(saved1)).thenReturn(out1);
+        when(bookingMapper.toDomain(saved2)).thenReturn(out2);
+
+        List<Booking> result = service.saveAll(List.of(b1, b2));
+
+        assertEquals(List.of(out1, out2), result);
+        assertTrue(e1.isNew() && e2.isNew(), "El lote se inserta con persist, sin merge");
+        verify(bookingRepository).saveAll(List.of(e1, e2));
+        verify(bookingIntervalIndex).findStay("b1");
+        verify(bookingIntervalIndex).findStay("b2");
+        verify(bookingIntervalIndex).put("b1", "r1", "g1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        verify(bookingIntervalIndex).put("b2", "r2", "g1", null, null);
+        // los contadores de todo el lote se aplican en una sola llamada
+        verify(occupancyService).applyStays(List.of(
+                StayChange.added("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)),
+                StayChange.added("r2", null, null)));
+        verifyNoMoreInteractions(bookingRepository, bookingIntervalIndex, occupancyService);
+    }
+
+    @Test
+    void saveAll_whenMoreThanOneChunk_flushesAndClearsAfterEachFullChunk() {
+        List<Booking> bookings = IntStream.range(0, 501)
+                .mapToObj(i -> new Booking("b" + i, "r1", "g1", null, null))
+                .toList();
+        when(bookingMapper.toEntity(any(Booking.class))).thenAnswer(inv -> new BookingEntity());
+        when(entityManager.getReference(eq(RoomEntity.class), any())).thenReturn(new RoomEntity("r1"));
+        when(entityManager.getReference(eq(GuestEntity.class), any())).thenReturn(new GuestEntity("g1"));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Booking> result = service.saveAll(bookings);
+
+        assertEquals(501, result.size());
+        InOrder inOrder = inOrder(bookingRepository, entityManager, occupancyService);
+        inOrder.verify(bookingRepository).saveAll(argThat(chunk -> ((List<?>) chunk).size() == 500));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(bookingRepository).saveAll(argThat(chunk -> ((List<?>) chunk).size() == 1));
+        inOrder.verify(occupancyService).applyStays(anyList());
+        verify(entityManager, times(1)).flush();
+        verify(entityManager, times(1)).clear();
+    }
+
+    // ===================== insert / update =====================
+
+    @Test
+    void insert_whenReferencesValid_persistsNewEntityWithinSameCall() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity toSave = anyBookingEntity();
+        RoomEntity room = new RoomEntity("r1");
+        GuestEntity guest = new GuestEntity("g1");
+        when(bookingRepository.findReferences("b1", "g1", "r1")).thenReturn(new BookingReferences(1, 1, 0));
+        when(bookingMapper.toEntity(input)).thenReturn(toSave);
+        when(entityManager.getReference(RoomEntity.class, "r1")).thenReturn(room);
+        when(entityManager.getReference(GuestEntity.class, "g1")).thenReturn(guest);
+        when(bookingRepository.save(toSave)).thenReturn(toSave);
+        when(bookingMapper.toDomain(toSave)).thenReturn(input);
+
+        assertSame(input, service.insert(input));
+
+        assertTrue(toSave.isNew());
+        assertSame(room, toSave.getRoom());
+        assertSame(guest, toSave.getGuest());
+        verify(bookingRepository).findReferences("b1", "g1", "r1");
         verify(bookingRepository).save(toSave);
-        verify(bookingMapper).toDomain(savedEntity);
+        verifyNoMoreInteractions(bookingRepository);
+    }
 
-        verifyNoMoreInteractions(bookingRepository, bookingMapper);
+    @Test
+    void insert_addsIdToFilter_beforeSaving() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity toSave = new BookingEntity("b1");
+        when(bookingRepository.findReferences("b1", "g1", "r1")).thenReturn(new BookingReferences(1, 1, 0));
+        when(bookingMapper.toEntity(input)).thenReturn(toSave);
+        when(bookingRepository.save(toSave)).thenReturn(toSave);
+
+        service.insert(input);
+
+        // una fila ya escrita nunca puede quedar fuera del filtro
+        InOrder order = inOrder(bookingIdFilter, bookingRepository);
+        order.verify(bookingIdFilter).put("b1");
+        order.verify(bookingRepository).save(toSave);
+    }
+
+    @Test
+    void insert_whenGuestMissing_throwsIllegalArgumentException_andDoesNotSave() {
+        Booking input = new Booking("b1", "r1", "g404", null, null);
+        when(bookingRepository.findReferences("b1", "g404", "r1")).thenReturn(new BookingReferences(0, 1, 0));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.insert(input));
+
+        assertEquals("guest not found: g404", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(bookingMapper);
+    }
+
+    @Test
+    void insert_whenRoomMissing_throwsIllegalArgumentException_andDoesNotSave() {
+        Booking input = new Booking("b1", "r404", "g1", null, null);
+        when(bookingRepository.findReferences("b1", "g1", "r404")).thenReturn(new BookingReferences(1, 0, 0));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.insert(input));
+
+        assertEquals("room not found: r404", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void insert_whenIdTaken_throwsIllegalStateException_andDoesNotSave() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        when(bookingRepository.findReferences("b1", "g1", "r1")).thenReturn(new BookingReferences(1, 1, 1));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> service.insert(input));
+
+        assertEquals("booking already exists: b1", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void insert_whenIdBlank_throwsIllegalArgumentException_andNoInteractions() {
+        Booking input = new Booking(" ", "r1", "g1", null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.insert(input));
+        verifyNoInteractions(bookingRepository, bookingMapper);
+    }
+
+    @Test
+    void update_whenBookingMissing_throwsIllegalArgumentException_andDoesNotSave() {
+        Booking input = new Booking("b404", "r1", "g1", null, null);
+        when(bookingRepository.findReferences("b404", "g1", "r1")).thenReturn(new BookingReferences(1, 1, 0));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.update(input, null));
+
+        assertEquals("booking not found: b404", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void update_whenReferencesValid_saves() {
+        Booking input = new Booking("b1", "r1", "g1", null, null);
+        BookingEntity toSave = new BookingEntity("b1");
+        when(bookingRepository.findReferences("b1", "g1", "r1")).thenReturn(new BookingReferences(1, 1, 1));
+        when(bookingRepository.findById("b1")).thenReturn(Optional.of(toSave));
+        when(bookingRepository.save(toSave)).thenReturn(toSave);
+        when(bookingMapper.toDomain(toSave)).thenReturn(input);
+
+        assertSame(input, service.update(input, null));
+        verify(bookingRepository).save(toSave);
+    }
+
+    // ===================== findExistingIds =====================
+
+    @Test
+    void findExistingIds_whenEmpty_returnsEmpty_withoutQuery() {
+        assertEquals(Set.of(), service.findExistingIds(List.of()));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findExistingIds_ok_singleQuery() {
+        when(bookingIdFilter.mightContain("b1")).thenReturn(true);
+        when(bookingIdFilter.mightContain("b2")).thenReturn(true);
+        when(bookingRepository.findExistingIds(List.of("b1", "b2"))).thenReturn(List.of("b2"));
+
+        Set<String> result = service.findExistingIds(List.of("b1", "b2"));
+
+        assertEquals(Set.of("b2"), result);
+        verify(bookingRepository).findExistingIds(List.of("b1", "b2"));
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(bookingMapper);
+    }
+
+    @Test
+    void findExistingIds_queriesOnlyIdsTheFilterCannotRuleOut() {
+        when(bookingIdFilter.mightContain("b1")).thenReturn(false);
+        when(bookingIdFilter.mightContain("b2")).thenReturn(true);
+        when(bookingRepository.findExistingIds(List.of("b2"))).thenReturn(List.of());
+
+        assertEquals(Set.of(), service.findExistingIds(List.of("b1", "b2")));
+        verify(bookingRepository).findExistingIds(List.of("b2"));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void findExistingIds_whenMoreCandidatesThanChunk_queriesInChunksOf500() {
+        List<String> ids = IntStream.range(0, 1001).mapToObj(i -> "b" + i).toList();
+        when(bookingIdFilter.mightContain(anyString())).thenReturn(true);
+        when(bookingRepository.findExistingIds(anyList())).thenReturn(List.of());
+
+        assertEquals(Set.of(), service.findExistingIds(ids));
+
+        verify(bookingRepository).findExistingIds(ids.subList(0, 500));
+        verify(bookingRepository).findExistingIds(ids.subList(500, 1000));
+        verify(bookingRepository).findExistingIds(ids.subList(1000, 1001));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void findExistingIds_whenFilterRulesOutAll_returnsEmpty_withoutQuery() {
+        when(bookingIdFilter.mightContain("b1")).thenReturn(false);
+        when(bookingIdFilter.mightContain("b2")).thenReturn(false);
+
+        assertEquals(Set.of(), service.findExistingIds(List.of("b1", "b2")));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    // ===================== existsOverlappingBooking =====================
+
+    @Test
+    void existsOverlappingBooking_whenRoomIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.existsOverlappingBooking("  ", "2025-01-01", "2025-01-02", null));
+        verifyNoInteractions(bookingRepository, bookingIntervalIndex);
+    }
+
+    @Test
+    void existsOverlappingBooking_ok_delegatesToIndex_withoutRepository() {
+        when(bookingIntervalIndex.overlaps("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), "b1"))
+                .thenReturn(true);
+
+        boolean result = service.existsOverlappingBooking("r1", "2025-01-01", "2025-01-02", "b1");
+
+        assertTrue(result);
+        verify(bookingIntervalIndex).overlaps("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), "b1");
+        verifyNoInteractions(bookingRepository, bookingMapper);
+    }
+
+    // ===================== rankRoomsByFit =====================
+
+    @Test
+    void rankRoomsByFit_ordersFreeRoomsByLeftoverNights_andSkipsBusyRooms() {
+        LocalDate in = LocalDate.of(2025, 1, 10);
+        LocalDate out = LocalDate.of(2025, 1, 12);
+        int start = (int) in.toEpochDay();
+        int end = (int) out.toEpochDay();
+        when(bookingIntervalIndex.findGap("r1", in, out)).thenReturn(Optional.of(new Gap(Gap.OPEN_START, Gap.OPEN_END)));
+        when(bookingIntervalIndex.findGap("r2", in, out)).thenReturn(Optional.of(new Gap(start, end + 5)));
+        when(bookingIntervalIndex.findGap("r3", in, out)).thenReturn(Optional.empty());
+        when(bookingIntervalIndex.findGap("r4", in, out)).thenReturn(Optional.of(new Gap(start - 2, end + 1)));
+        when(bookingIntervalIndex.findGap("r5", in, out)).thenReturn(Optional.of(new Gap(start, Gap.OPEN_END)));
+
+        List<String> result = service.rankRoomsByFit(List.of("r1", "r2", "r3", "r4", "r5"), "2025-01-10", "2025-01-12");
+
+        assertEquals(List.of("r4", "r2", "r5", "r1"), result);
+        verifyNoInteractions(bookingRepository, bookingMapper);
+    }
+
+    @Test
+    void rankRoomsByFit_tiesAreBrokenByRoomId() {
+        LocalDate in = LocalDate.of(2025, 1, 10);
+        LocalDate out = LocalDate.of(2025, 1, 12);
+        when(bookingIntervalIndex.findGap(any(), eq(in), eq(out)))
+                .thenReturn(Optional.of(new Gap(Gap.OPEN_START, Gap.OPEN_END)));
+
+        List<String> result = service.rankRoomsByFit(List.of("r3", "r1", "r2"), "2025-01-10", "2025-01-12");
+
+        assertEquals(List.of("r1", "r2", "r3"), result);
+    }
+
+    @Test
+    void rankRoomsByFit_whenCheckInBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.rankRoomsByFit(List.of("r1"), " ", "2025-01-12"));
+        verifyNoInteractions(bookingIntervalIndex);
     }
 
     // ===================== existsById =====================
@@ -83,6 +498,7 @@ class BookingServiceImplTest {
 
     @Test
     void existsById_ok_delegates() {
+        when(bookingIdFilter.mightContain("b1")).thenReturn(true);
         when(bookingRepository.existsById("b1")).thenReturn(true);
 
         boolean result = service.existsById("b1");
@@ -93,6 +509,14 @@ class BookingServiceImplTest {
         verifyNoInteractions(bookingMapper);
     }
 
+    @Test
+    void existsById_whenFilterRulesOut_returnsFalse_withoutQuery() {
+        when(bookingIdFilter.mightContain("b404")).thenReturn(false);
+
+        assertFalse(service.existsById("b404"));
+        verifyNoInteractions(bookingRepository, bookingMapper);
+    }
+
     // ===================== existsByGuestId =====================
 
     @Test
@@ -175,36 +599,36 @@ class BookingServiceImplTest {
 
     @Test
     void findAll_whenEmpty_returnsEmpty_andDoesNotMap() {
-        when(bookingRepository.findAll()).thenReturn(List.of());
+        when(bookingRepository.findRowsAfter("", Limit.of(50))).thenReturn(List.of());
 
-        List<Booking> result = service.findAll();
+        List<Booking> result = service.findAll(null, 50);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(bookingRepository).findAll();
+        verify(bookingRepository).findRowsAfter("", Limit.of(50));
         verifyNoMoreInteractions(bookingRepository);
         verifyNoInteractions(bookingMapper);
     }
 
     @Test
-    void findAll_mapsAllEntities() {
-        BookingEntity e1 = anyBookingEntity();
-        BookingEntity e2 = anyBookingEntity();
+    void findAll_startsAfterCursor_andMapsPage() {
+        BookingRow e1 = bookingRow("b1");
+        BookingRow e2 = bookingRow("b2");
         Booking b1 = anyBooking();
         Booking b2 = anyBooking();
 
-        when(bookingRepository.findAll()).thenReturn(List.of(e1, e2));
+        when(bookingRepository.findRowsAfter("b0", Limit.of(2))).thenReturn(List.of(e1, e2));
         when(bookingMapper.toDomain(e1)).thenReturn(b1);
         when(bookingMapper.toDomain(e2)).thenReturn(b2);
 
-        List<Booking> result = service.findAll();
+        List<Booking> result = service.findAll("b0", 2);
 
         assertEquals(2, result.size());
         assertSame(b1, result.get(0));
         assertSame(b2, result.get(1));
 
-        verify(bookingRepository).findAll();
+        verify(bookingRepository).findRowsAfter("b0", Limit.of(2));
         verify(bookingMapper).toDomain(e1);
         verify(bookingMapper).toDomain(e2);
         verifyNoMoreInteractions(bookingRepository, bookingMapper);
@@ -254,36 +678,56 @@ class BookingServiceImplTest {
         verifyNoMoreInteractions(bookingRepository, bookingMapper);
     }
 
+        // ===================== findVersionById =====================
+
+    @Test
+    void findVersionById_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findVersionById(" "));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findVersionById_readsOnlyTheVersion_withoutMapping() {
+        when(bookingRepository.findVersionById("b1")).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), service.findVersionById("b1"));
+
+        verify(bookingRepository).findVersionById("b1");
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(bookingMapper);
+    }
+
     // ===================== findAllByRoomId =====================
 
     @Test
     void findAllByRoomId_whenNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.findAllByRoomId(null));
+        assertThrows(NullPointerException.class, () -> service.findAllByRoomId(null, null, 50));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void findAllByRoomId_whenBlank_throwsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> service.findAllByRoomId("  "));
+        assertThrows(IllegalArgumentException.class, () -> service.findAllByRoomId("  ", null, 50));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void findAllByRoomId_ok_mapsList() {
-        BookingEntity e1 = anyBookingEntity();
-        BookingEntity e2 = anyBookingEntity();
+        BookingRow e1 = bookingRow("b1");
+        BookingRow e2 = bookingRow("b2");
         Booking b1 = anyBooking();
         Booking b2 = anyBooking();
 
-        when(bookingRepository.findByRoomId("r1")).thenReturn(List.of(e1, e2));
+        when(bookingRepository.findRowsByRoomIdAfter("r1", "", Limit.of(50))).thenReturn(List.of(e1, e2));
         when(bookingMapper.toDomain(e1)).thenReturn(b1);
         when(bookingMapper.toDomain(e2)).thenReturn(b2);
 
-        List<Booking> result = service.findAllByRoomId("r1");
+        List<Booking> result = service.findAllByRoomId("r1", null, 50);
 
         assertEquals(List.of(b1, b2), result);
 
-        verify(bookingRepository).findByRoomId("r1");
+        verify(bookingRepository).findRowsByRoomIdAfter("r1", "", Limit.of(50));
         verify(bookingMapper).toDomain(e1);
         verify(bookingMapper).toDomain(e2);
         verifyNoMoreInteractions(bookingRepository, bookingMapper);
@@ -293,32 +737,32 @@ class BookingServiceImplTest {
 
     @Test
     void findAllByGuestId_whenNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.findAllByGuestId(null));
+        assertThrows(NullPointerException.class, () -> service.findAllByGuestId(null, null, 50));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void findAllByGuestId_whenBlank_throwsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> service.findAllByGuestId("  "));
+        assertThrows(IllegalArgumentException.class, () -> service.findAllByGuestId("  ", null, 50));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void findAllByGuestId_ok_mapsList() {
-        BookingEntity e1 = anyBookingEntity();
-        BookingEntity e2 = anyBookingEntity();
+        BookingRow e1 = bookingRow("b1");
+        BookingRow e2 = bookingRow("b2");
         Booking b1 = anyBooking();
         Booking b2 = anyBooking();
 
-        when(bookingRepository.findByGuestId("g1")).thenReturn(List.of(e1, e2));
+        when(bookingRepository.findRowsByGuestIdAfter("g1", "", Limit.of(50))).thenReturn(List.of(e1, e2));
         when(bookingMapper.toDomain(e1)).thenReturn(b1);
         when(bookingMapper.toDomain(e2)).thenReturn(b2);
 
-        List<Booking> result = service.findAllByGuestId("g1");
+        List<Booking> result = service.findAllByGuestId("g1", null, 50);
 
         assertEquals(List.of(b1, b2), result);
 
-        verify(bookingRepository).findByGuestId("g1");
+        verify(bookingRepository).findRowsByGuestIdAfter("g1", "", Limit.of(50));
         verify(bookingMapper).toDomain(e1);
         verify(bookingMapper).toDomain(e2);
         verifyNoMoreInteractions(bookingRepository, bookingMapper);
@@ -328,37 +772,90 @@ class BookingServiceImplTest {
 
     @Test
     void findAllByHotelId_whenNull_throwsNullPointerException() {
-        assertThrows(NullPointerException.class, () -> service.findAllByHotelId(null));
+        assertThrows(NullPointerException.class, () -> service.findAllByHotelId(null, null, 50));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void findAllByHotelId_whenBlank_throwsIllegalArgumentException() {
-        assertThrows(IllegalArgumentException.class, () -> service.findAllByHotelId("  "));
+        assertThrows(IllegalArgumentException.class, () -> service.findAllByHotelId("  ", null, 50));
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void findAllByHotelId_ok_mapsList() {
-        BookingEntity e1 = anyBookingEntity();
-        BookingEntity e2 = anyBookingEntity();
+        BookingRow e1 = bookingRow("b1");
+        BookingRow e2 = bookingRow("b2");
         Booking b1 = anyBooking();
         Booking b2 = anyBooking();
 
-        when(bookingRepository.findByRoomHotelId("h1")).thenReturn(List.of(e1, e2));
+        when(bookingRepository.findRowsByHotelIdAfter("h1", "", Limit.of(50))).thenReturn(List.of(e1, e2));
         when(bookingMapper.toDomain(e1)).thenReturn(b1);
         when(bookingMapper.toDomain(e2)).thenReturn(b2);
 
-        List<Booking> result = service.findAllByHotelId("h1");
+        List<Booking> result = service.findAllByHotelId("h1", null, 50);
 
         assertEquals(List.of(b1, b2), result);
 
-        verify(bookingRepository).findByRoomHotelId("h1");
+        verify(bookingRepository).findRowsByHotelIdAfter("h1", "", Limit.of(50));
         verify(bookingMapper).toDomain(e1);
         verify(bookingMapper).toDomain(e2);
         verifyNoMoreInteractions(bookingRepository, bookingMapper);
     }
 
+    // ===================== findAllByRoomIdBetween =====================
+
+    @Test
+    void findAllByRoomIdBetween_whenRoomIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findAllByRoomIdBetween("  ", "2025-01-01", "2025-01-02"));
+        verifyNoInteractions(bookingRepository, bookingMapper);
+    }
+
+    @Test
+    void findAllByRoomIdBetween_ok_queriesRangeAndMapsList() {
+        BookingRow e1 = bookingRow("b1");
+        Booking b1 = anyBooking();
+
+        when(bookingRepository.findOverlapping("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 5)))
+                .thenReturn(List.of(e1));
+        when(bookingMapper.toDomain(e1)).thenReturn(b1);
+
+        List<Booking> result = service.findAllByRoomIdBetween("r1", "2025-01-01", "2025-01-05");
+
+        assertEquals(List.of(b1), result);
+
+        verify(bookingRepository).findOverlapping("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 5));
+        verify(bookingMapper).toDomain(e1);
+        verifyNoMoreInteractions(bookingRepository, bookingMapper);
+        verifyNoInteractions(bookingIntervalIndex);
+    }
+
+    // ===================== findArrivalsByHotelId =====================
+
+    @Test
+    void findArrivalsByHotelId_whenDateBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findArrivalsByHotelId("h1", " "));
+        verifyNoInteractions(bookingRepository, bookingMapper);
+    }
+
+    @Test
+    void findArrivalsByHotelId_ok_queriesDayAndMapsList() {
+        BookingRow e1 = bookingRow("b1");
+        Booking b1 = anyBooking();
+
+        when(bookingRepository.findArrivals("h1", LocalDate.of(2025, 1, 1))).thenReturn(List.of(e1));
+        when(bookingMapper.toDomain(e1)).thenReturn(b1);
+
+        List<Booking> result = service.findArrivalsByHotelId("h1", "2025-01-01");
+
+        assertEquals(List.of(b1), result);
+
+        verify(bookingRepository).findArrivals("h1", LocalDate.of(2025, 1, 1));
+        verify(bookingMapper).toDomain(e1);
+        verifyNoMoreInteractions(bookingRepository, bookingMapper);
+    }
+
     // ===================== deleteById =====================
 
     @Test
@@ -375,30 +872,65 @@ class BookingServiceImplTest {
 
     @Test
     void deleteById_whenNotExists_returnsFalse_andDoesNotDelete() {
-        when(bookingRepository.existsById("b404")).thenReturn(false);
+        when(bookingRepository.removeById("b404")).thenReturn(0);
 
         boolean result = service.deleteById("b404");
 
         assertFalse(result);
-        verify(bookingRepository).existsById("b404");
-        verify(bookingRepository, never()).deleteById(any());
+        verify(bookingRepository).removeById("b404");
         verifyNoMoreInteractions(bookingRepository);
         verifyNoInteractions(bookingMapper);
     }
 
     @Test
     void deleteById_whenExists_deletesAndReturnsTrue() {
-        when(bookingRepository.existsById("b1")).thenReturn(true);
+        when(bookingRepository.removeById("b1")).thenReturn(1);
+        when(bookingIntervalIndex.findStay("b1")).thenReturn(Optional.of(new Stay("b1", "r1", "g1",
+                (int) LocalDate.of(2025, 1, 1).toEpochDay(), (int) LocalDate.of(2025, 1, 3).toEpochDay())));
 
         boolean result = service.deleteById("b1");
 
         assertTrue(result);
-        verify(bookingRepository).existsById("b1");
-        verify(bookingRepository).deleteById("b1");
-        verifyNoMoreInteractions(bookingRepository);
+        verify(bookingRepository).removeById("b1");
+        verify(bookingIntervalIndex).remove("b1");
+        verify(occupancyService).removeStay("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        verifyNoMoreInteractions(bookingRepository, occupancyService);
         verifyNoInteractions(bookingMapper);
     }
 
+    @Test
+    void deleteById_insideTransaction_updatesIndexOnlyAfterCommit() {
+        when(bookingRepository.removeById("b1")).thenReturn(1);
+        when(bookingIntervalIndex.findStay("b1")).thenReturn(Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(service.deleteById("b1"));
+            verify(bookingIntervalIndex, never()).remove("b1");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(bookingIntervalIndex).remove("b1");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deleteByGuestId_insideTransaction_whenRolledBack_leavesIndexUntouched() {
+        when(bookingRepository.deleteByGuestId("g1")).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.deleteByGuestId("g1");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            verify(bookingIntervalIndex, never()).removeByGuest("g1");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     // ===================== deleteByGuestId =====================
 
     @Test
@@ -416,12 +948,18 @@ class BookingServiceImplTest {
     @Test
     void deleteByGuestId_ok_delegatesAndReturnsCount() {
         when(bookingRepository.deleteByGuestId("g1")).thenReturn(3);
+        when(bookingIntervalIndex.findStaysByGuest("g1")).thenReturn(List.of(new Stay("b1", "r1", "g1",
+                (int) LocalDate.of(2025, 1, 1).toEpochDay(), (int) LocalDate.of(2025, 1, 2).toEpochDay())));
 
         int result = service.deleteByGuestId("g1");
 
         assertEquals(3, result);
         verify(bookingRepository).deleteByGuestId("g1");
-        verifyNoMoreInteractions(bookingRepository);
+        verify(bookingIntervalIndex).findStaysByGuest("g1");
+        verify(bookingIntervalIndex).removeByGuest("g1");
+        verify(occupancyService).applyStays(List.of(
+                StayChange.removed("r1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2))));
+        verifyNoMoreInteractions(bookingRepository, occupancyService);
         verifyNoInteractions(bookingMapper);
     }
 
@@ -447,7 +985,9 @@ class BookingServiceImplTest {
 
         assertEquals(2, result);
         verify(bookingRepository).deleteByRoomId("r1");
+        verify(bookingIntervalIndex).removeByRoom("r1");
         verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(occupancyService);
         verifyNoInteractions(bookingMapper);
     }
 }
@@ -0,0 +1,102 @@
+package org.docencia.hotel.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.docencia.hotel.persistence.jpa.CacheRegions;
+import org.docencia.hotel.service.cache.ExistenceCaches;
+import org.docencia.hotel.service.index.BookingIdFilter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatisticsServiceImplTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private ExistenceCaches existenceCaches;
+
+    @Mock
+    private BookingIdFilter bookingIdFilter;
+
+    private CacheStatisticsServiceImpl service;
+
+    // ===== helpers mínimos =====
+    private static CacheRegionStatistics regionStats(long hits, long misses, long puts, long elements) {
+        CacheRegionStatistics stats = mock(CacheRegionStatistics.class);
+        when(stats.getHitCount()).thenReturn(hits);
+        when(stats.getMissCount()).thenReturn(misses);
+        when(stats.getPutCount()).thenReturn(puts);
+        when(stats.getElementCountInMemory()).thenReturn(elements);
+        return stats;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        service = new CacheStatisticsServiceImpl(entityManagerFactory, existenceCaches, bookingIdFilter);
+    }
+
+    // ===================== findRegionStatistics =====================
+
+    @Test
+    void findRegionStatistics_reportsEntityAndQueryRegions_inFixedOrder() {
+        CacheRegionStatistics hotel = regionStats(90, 10, 10, 5);
+        CacheRegionStatistics room = regionStats(40, 2, 2, 2);
+        CacheRegionStatistics roomQueries = regionStats(7, 3, 3, 1);
+        when(statistics.getDomainDataRegionStatistics(CacheRegions.HOTEL)).thenReturn(hotel);
+        when(statistics.getDomainDataRegionStatistics(CacheRegions.ROOM)).thenReturn(room);
+        when(statistics.getQueryRegionStatistics(CacheRegions.ROOM_QUERIES)).thenReturn(roomQueries);
+        when(statistics.getQueryRegionStatistics(CacheRegions.DEFAULT_QUERY_RESULTS)).thenReturn(null);
+
+        List<CacheRegionStats> result = service.findRegionStatistics();
+
+        assertEquals(List.of(
+                new CacheRegionStats(CacheRegions.HOTEL, 90, 10, 10, 5),
+                new CacheRegionStats(CacheRegions.ROOM, 40, 2, 2, 2),
+                new CacheRegionStats(CacheRegions.ROOM_QUERIES, 7, 3, 3, 1),
+                new CacheRegionStats(CacheRegions.DEFAULT_QUERY_RESULTS, 0, 0, 0, 0)), result);
+    }
+
+    // ===================== findExistenceStatistics =====================
+
+    @Test
+    void findExistenceStatistics_delegatesToExistenceCaches() {
+        List<ExistenceCacheStats> stats = List.of(new ExistenceCacheStats("hotel", 9, 1, 0.9, 0, 1));
+        when(existenceCaches.statistics()).thenReturn(stats);
+
+        assertEquals(stats, service.findExistenceStatistics());
+    }
+
+    // ===================== findBookingIdFilterStatistics =====================
+
+    @Test
+    void findBookingIdFilterStatistics_delegatesToFilter() {
+        BookingIdFilterStats stats = new BookingIdFilterStats(1000, 0.01, 0.002, 9600, 7, 1200, 40, 2);
+        when(bookingIdFilter.stats()).thenReturn(stats);
+
+        assertEquals(stats, service.findBookingIdFilterStatistics());
+    }
+}
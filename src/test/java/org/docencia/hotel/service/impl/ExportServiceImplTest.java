@@ -0,0 +1,148 @@
+package org.docencia.hotel.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Guest;
+import org.docencia.hotel.domain.model.GuestPreferences;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.mapper.jpa.BookingMapper;
+import org.docencia.hotel.mapper.jpa.GuestMapper;
+import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.mapper.nosql.GuestPreferencesMapper;
+import org.docencia.hotel.persistence.jpa.entity.BookingEntity;
+import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
+import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.nosql.document.GuestPreferencesDocument;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.persistence.repository.jpa.GuestJpaRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.persistence.repository.nosql.GuestPreferencesRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private GuestJpaRepository guestJpaRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private GuestPreferencesRepository guestPreferencesRepository;
+
+    @Mock
+    private BookingMapper bookingMapper;
+
+    @Mock
+    private GuestMapper guestMapper;
+
+    @Mock
+    private RoomMapper roomMapper;
+
+    @Mock
+    private GuestPreferencesMapper guestPreferencesMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportServiceImpl service;
+
+    // ===================== exportBookings =====================
+
+    @Test
+    void exportBookings_forwardsEveryRow_andClosesTheStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        BookingEntity e1 = new BookingEntity("b1");
+        BookingEntity e2 = new BookingEntity("b2");
+        when(bookingRepository.streamAll()).thenReturn(Stream.of(e1, e2).onClose(() -> closed.set(true)));
+        when(bookingMapper.toDomain(e1)).thenReturn(new Booking("b1"));
+        when(bookingMapper.toDomain(e2)).thenReturn(new Booking("b2"));
+        List<String> ids = new ArrayList<>();
+
+        long count = service.exportBookings(b -> ids.add(b.getId()));
+
+        assertEquals(2, count);
+        assertEquals(List.of("b1", "b2"), ids);
+        assertTrue(closed.get());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void exportBookings_clearsPersistenceContextEveryChunk() {
+        int rows = ExportServiceImpl.CHUNK_SIZE * 2 + 1;
+        when(bookingRepository.streamAll()).thenReturn(
+                IntStream.range(0, rows).mapToObj(i -> new BookingEntity("b" + i)));
+        when(bookingMapper.toDomain(any(BookingEntity.class))).thenReturn(new Booking());
+
+        long count = service.exportBookings(b -> { });
+
+        assertEquals(rows, count);
+        verify(bookingMapper, times(rows)).toDomain(any(BookingEntity.class));
+        verify(entityManager, times(2)).clear();
+    }
+
+    // ===================== exportGuests =====================
+
+    @Test
+    void exportGuests_loadsPreferencesOncePerChunk_andAttachesThem() {
+        GuestEntity e1 = new GuestEntity("g1");
+        GuestEntity e2 = new GuestEntity("g2");
+        GuestPreferencesDocument doc = new GuestPreferencesDocument("g1");
+        GuestPreferences prefs = new GuestPreferences("g1");
+        when(guestJpaRepository.streamAll()).thenReturn(Stream.of(e1, e2));
+        when(guestMapper.toDomain(e1)).thenReturn(new Guest("g1"));
+        when(guestMapper.toDomain(e2)).thenReturn(new Guest("g2"));
+        when(guestPreferencesRepository.findAllById(List.of("g1", "g2"))).thenReturn(List.of(doc));
+        when(guestPreferencesMapper.toDomain(doc)).thenReturn(prefs);
+        List<Guest> exported = new ArrayList<>();
+
+        long count = service.exportGuests(exported::add);
+
+        assertEquals(2, count);
+        assertSame(prefs, exported.get(0).getPreferences());
+        assertNull(exported.get(1).getPreferences());
+        verify(guestPreferencesRepository, times(1)).findAllById(anyList());
+    }
+
+    // ===================== exportRooms =====================
+
+    @Test
+    void exportRooms_forwardsEveryRow() {
+        RoomEntity entity = new RoomEntity("r1");
+        when(roomRepository.streamAll()).thenReturn(Stream.of(entity));
+        when(roomMapper.toDomain(entity)).thenReturn(new Room("r1", "101", "DOUBLE", 100.0, "h1"));
+        List<String> ids = new ArrayList<>();
+
+        long count = service.exportRooms(r -> ids.add(r.getId()));
+
+        assertEquals(1, count);
+        assertEquals(List.of("r1"), ids);
+    }
+
+    @Test
+    void exportRooms_whenSinkNull_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> service.exportRooms(null));
+        verifyNoInteractions(roomRepository);
+    }
+}
@@ -5,6 +5,8 @@ import static org.mockito.Mockito.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.docencia.hotel.domain.model.Guest;
 import org.docencia.hotel.domain.model.GuestPreferences;
@@ -14,11 +16,17 @@ import org.docencia.hotel.persistence.jpa.entity.GuestEntity;
 import org.docencia.hotel.persistence.nosql.document.GuestPreferencesDocument;
 import org.docencia.hotel.persistence.repository.jpa.GuestJpaRepository;
 import org.docencia.hotel.persistence.repository.nosql.GuestPreferencesRepository;
+import org.docencia.hotel.service.api.VersionMismatchException;
+import org.docencia.hotel.service.cache.ExistenceCaches;
+import org.docencia.hotel.service.cache.GuestAggregateCache;
+import org.docencia.hotel.service.cache.GuestPreferencesCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class GuestServiceImplTest {
@@ -27,6 +35,10 @@ class GuestServiceImplTest {
     @Mock private GuestPreferencesRepository guestPreferencesRepository;
     @Mock private GuestMapper guestMapper;
     @Mock private GuestPreferencesMapper guestPreferencesMapper;
+    @Spy private ExistenceCaches existenceCaches = new ExistenceCaches(100, 100, 100, 600);
+    @Spy private GuestAggregateCache guestCache = new GuestAggregateCache(100, 600);
+    @Spy private GuestPreferencesCache preferencesCache =
+            new GuestPreferencesCache(mock(GuestPreferencesRepository.class), 100, 600, false);
 
     @InjectMocks
     private GuestServiceImpl service;
@@ -61,7 +73,7 @@ class GuestServiceImplTest {
 
     @Test
     void save_whenGuestNull_throwsNullPointerException_andNoInteractions() {
-        assertThrows(NullPointerException.class, () -> service.save(null));
+        assertThrows(NullPointerException.class, () -> service.save(null, null));
         verifyNoInteractions(guestJpaRepository, guestPreferencesRepository, guestMapper, guestPreferencesMapper);
     }
 
@@ -75,16 +87,18 @@ class GuestServiceImplTest {
 
         Guest mappedBack = guest("g1", "Ana"); // lo que devuelve toDomain
 
-        when(guestMapper.toEntity(input)).thenReturn(entity);
+        entity.setVersion(2L);
+        when(guestJpaRepository.findById("g1")).thenReturn(Optional.of(entity));
         when(guestJpaRepository.save(entity)).thenReturn(savedEntity);
         when(guestMapper.toDomain(savedEntity)).thenReturn(mappedBack);
 
-        Guest result = service.save(input);
+        Guest result = service.save(input, 2L);
 
         assertSame(mappedBack, result);
         assertNull(result.getPreferences(), "Si prefs es null, el servicio debe devolver preferences=null");
 
-        verify(guestMapper).toEntity(input);
+        verify(guestJpaRepository).findById("g1");
+        verify(guestMapper).updateEntity(input, entity);
         verify(guestJpaRepository).save(entity);
         verify(guestMapper).toDomain(savedEntity);
 
@@ -107,7 +121,7 @@ class GuestServiceImplTest {
         GuestPreferencesDocument savedDoc = prefsDoc("g1");
         GuestPreferences prefsFromSavedDoc = prefs("g1");
 
-        when(guestMapper.toEntity(input)).thenReturn(entity);
+        when(guestJpaRepository.findById("g1")).thenReturn(Optional.of(entity));
         when(guestJpaRepository.save(entity)).thenReturn(savedEntity);
         when(guestMapper.toDomain(savedEntity)).thenReturn(mappedBack);
 
@@ -115,7 +129,7 @@ class GuestServiceImplTest {
         when(guestPreferencesRepository.save(docFromMapper)).thenReturn(savedDoc);
         when(guestPreferencesMapper.toDomain(savedDoc)).thenReturn(prefsFromSavedDoc);
 
-        Guest result = service.save(input);
+        Guest result = service.save(input, null);
 
         // Importante: el servicio fuerza guestId
         assertEquals("g1", inputPrefs.getGuestId(), "Debe forzar guestId en el objeto preferences de entrada");
@@ -125,17 +139,61 @@ class GuestServiceImplTest {
         assertNotNull(result.getPreferences());
         assertSame(prefsFromSavedDoc, result.getPreferences(), "Debe poner en el guest el resultado mapeado del doc guardado");
 
-        verify(guestMapper).toEntity(input);
+        verify(guestJpaRepository).findById("g1");
+        verify(guestMapper).updateEntity(input, entity);
         verify(guestJpaRepository).save(entity);
         verify(guestMapper).toDomain(savedEntity);
 
         verify(guestPreferencesMapper).toDocument(inputPrefs);
         verify(guestPreferencesRepository).save(docFromMapper);
+        // la fila no cambia ni su version si solo cambian las preferencias
+        verify(guestJpaRepository).incrementVersion("g1");
         verify(guestPreferencesMapper).toDomain(savedDoc);
 
         verifyNoMoreInteractions(guestJpaRepository, guestMapper, guestPreferencesRepository, guestPreferencesMapper);
     }
 
+    @Test
+    void save_whenExpectedVersionIsStale_throwsOptimisticLock_andWritesNothing() {
+        Guest input = guest("g1", "Ana");
+        input.setPreferences(prefs("g1"));
+        GuestEntity entity = guestEntity("g1");
+        entity.setVersion(4L);
+
+        when(guestJpaRepository.findById("g1")).thenReturn(Optional.of(entity));
+
+        assertThrows(VersionMismatchException.class, () -> service.save(input, 3L));
+
+        verify(guestJpaRepository, never()).save(any());
+        verifyNoInteractions(guestPreferencesRepository, guestMapper, guestPreferencesMapper);
+    }
+
+    // ===================== insert =====================
+
+    @Test
+    void insert_whenGuestNull_throwsNullPointerException_andNoInteractions() {
+        assertThrows(NullPointerException.class, () -> service.insert(null));
+        verifyNoInteractions(guestJpaRepository, guestPreferencesRepository, guestMapper, guestPreferencesMapper);
+    }
+
+    @Test
+    void insert_whenNoPreferences_marksEntityNew_andSavesOnlyGuest() {
+        Guest input = guest("g1", "Ana");
+        GuestEntity entity = guestEntity("g1");
+        Guest mappedBack = guest("g1", "Ana");
+
+        when(guestMapper.toEntity(input)).thenReturn(entity);
+        when(guestJpaRepository.save(entity)).thenReturn(entity);
+        when(guestMapper.toDomain(entity)).thenReturn(mappedBack);
+
+        Guest result = service.insert(input);
+
+        assertSame(mappedBack, result);
+        assertTrue(entity.isNew(), "insert debe persistir sin merge previo");
+        verify(guestJpaRepository).save(entity);
+        verifyNoInteractions(guestPreferencesRepository, guestPreferencesMapper);
+    }
+
     // ===================== savedPreferences =====================
 
     @Test
@@ -159,7 +217,7 @@ class GuestServiceImplTest {
     }
 
     @Test
-    void savedPreferences_ok_maps_saves_andReturnsDomain() {
+    void savedPreferences_ok_maps_saves_bumpsGuestVersion_andReturnsDomain() {
         GuestPreferences input = prefs("g1");
         GuestPreferencesDocument doc = prefsDoc("g1");
         GuestPreferencesDocument savedDoc = prefsDoc("g1");
@@ -176,9 +234,10 @@ class GuestServiceImplTest {
         verify(guestPreferencesMapper).toDocument(input);
         verify(guestPreferencesRepository).save(doc);
         verify(guestPreferencesMapper).toDomain(savedDoc);
+        verify(guestJpaRepository).incrementVersion("g1");
 
-        verifyNoMoreInteractions(guestPreferencesRepository, guestPreferencesMapper);
-        verifyNoInteractions(guestJpaRepository, guestMapper);
+        verifyNoMoreInteractions(guestPreferencesRepository, guestPreferencesMapper, guestJpaRepository);
+        verifyNoInteractions(guestMapper);
     }
 
     // ===================== existsById =====================
@@ -207,6 +266,56 @@ class GuestServiceImplTest {
         verifyNoInteractions(guestPreferencesRepository, guestMapper, guestPreferencesMapper);
     }
 
+    @Test
+    void existsById_repeated_isServedFromExistenceCache_untilGuestDeleted() {
+        when(guestJpaRepository.existsById("g1")).thenReturn(true, true, false);
+
+        assertTrue(service.existsById("g1"));
+        assertTrue(service.existsById("g1"));
+        verify(guestJpaRepository, times(1)).existsById("g1");
+
+        // deleteGuestById comprueba contra el repo, no contra la cache
+        service.deleteGuestById("g1");
+
+        assertFalse(service.existsById("g1"));
+        verify(guestJpaRepository, times(3)).existsById("g1");
+    }
+
+    // ===================== findExistingIds =====================
+
+    @Test
+    void findExistingIds_whenNull_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> service.findExistingIds(null));
+        verifyNoInteractions(guestJpaRepository, guestPreferencesRepository, guestMapper, guestPreferencesMapper);
+    }
+
+    @Test
+    void findExistingIds_ok_singleQuery() {
+        when(guestJpaRepository.findExistingIds(List.of("g1", "g2"))).thenReturn(List.of("g2"));
+
+        Set<String> result = service.findExistingIds(List.of("g1", "g2"));
+
+        assertEquals(Set.of("g2"), result);
+        verify(guestJpaRepository).findExistingIds(List.of("g1", "g2"));
+        verifyNoMoreInteractions(guestJpaRepository);
+        verifyNoInteractions(guestPreferencesRepository, guestMapper, guestPreferencesMapper);
+    }
+
+    @Test
+    void findExistingIds_whenMoreIdsThanChunk_queriesInChunksOf500() {
+        List<String> ids = IntStream.range(0, 1001).mapToObj(i -> "g" + i).toList();
+        when(guestJpaRepository.findExistingIds(anyList()))
+                .thenAnswer(inv -> List.of(inv.<List<String>>getArgument(0).get(0)));
+
+        Set<String> result = service.findExistingIds(ids);
+
+        assertEquals(Set.of("g0", "g500", "g1000"), result);
+        verify(guestJpaRepository).findExistingIds(ids.subList(0, 500));
+        verify(guestJpaRepository).findExistingIds(ids.subList(500, 1000));
+        verify(guestJpaRepository).findExistingIds(ids.subList(1000, 1001));
+        verifyNoMoreInteractions(guestJpaRepository);
+    }
+
     // ===================== findGuestById =====================
 
     @Test
@@ -248,8 +357,9 @@ class GuestServiceImplTest {
         Optional<Guest> result = service.findGuestById("g1");
 
         assertTrue(result.isPresent());
-        assertSame(domain, result.get());
-        assertNull(domain.getPreferences(), "Si no hay doc, debe dejar preferences a null");
+        assertEquals(domain, result.get());
+        assertEquals("Ana", result.get().getName());
+        assertNull(result.get().getPreferences(), "Si no hay doc, debe dejar preferences a null");
 
         verify(guestJpaRepository).findById("g1");
         verify(guestMapper).toDomain(entity);
@@ -276,8 +386,9 @@ class GuestServiceImplTest {
         Optional<Guest> result = service.findGuestById("g1");
 
         assertTrue(result.isPresent());
-        assertSame(domain, result.get());
+        assertEquals(domain, result.get());
         assertSame(mappedPrefs, domain.getPreferences());
+        assertEquals("g1", result.get().getPreferences().getGuestId());
 
         verify(guestJpaRepository).findById("g1");
         verify(guestMapper).toDomain(entity);
@@ -287,18 +398,104 @@ class GuestServiceImplTest {
         verifyNoMoreInteractions(guestJpaRepository, guestMapper, guestPreferencesRepository, guestPreferencesMapper);
     }
 
+    @Test
+    void findGuestById_repeated_isServedFromCache_asIndependentCopies() {
+        GuestEntity entity = guestEntity("g1");
+        when(guestJpaRepository.findById("g1")).thenReturn(Optional.of(entity));
+        when(guestMapper.toDomain(entity)).thenReturn(guest("g1", "Ana"));
+        when(guestPreferencesRepository.findById("g1")).thenReturn(Optional.empty());
+
+        Guest first = service.findGuestById("g1").orElseThrow();
+        first.setName("Modificado");
+        Guest second = service.findGuestById("g1").orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("Ana", second.getName(), "Modificar lo devuelto no debe cambiar la cache");
+        verify(guestJpaRepository, times(1)).findById("g1");
+        verify(guestPreferencesRepository, times(1)).findById("g1");
+    }
+
+    @Test
+    void findGuestById_whenNotFound_isNotCached() {
+        when(guestJpaRepository.findById("g404")).thenReturn(Optional.empty());
+
+        service.findGuestById("g404");
+        service.findGuestById("g404");
+
+        verify(guestJpaRepository, times(2)).findById("g404");
+    }
+
+    @Test
+    void findGuestById_afterWrites_reloadsGuest_withPreferencesWrittenThrough() {
+        GuestEntity entity = guestEntity("g1");
+        GuestPreferencesDocument doc = prefsDoc("g1");
+        when(guestJpaRepository.findById("g1")).thenReturn(Optional.of(entity));
+        when(guestMapper.toDomain(entity)).thenAnswer(inv -> guest("g1", "Ana"));
+        when(guestPreferencesRepository.findById("g1")).thenReturn(Optional.empty());
+
+        service.findGuestById("g1");
+
+        // save
+        Guest input = guest("g1", "Ana");
+        when(guestJpaRepository.save(entity)).thenReturn(entity);
+        service.save(input, null);
+        service.findGuestById("g1");
+
+        // savedPreferences
+        GuestPreferences prefs = prefs("g1");
+        when(guestPreferencesMapper.toDocument(prefs)).thenReturn(doc);
+        when(guestPreferencesRepository.save(doc)).thenReturn(doc);
+        service.savedPreferences(prefs);
+        service.findGuestById("g1");
+
+        // deletePreferencesByGuestId
+        when(guestPreferencesRepository.existsById("g1")).thenReturn(true);
+        service.deletePreferencesByGuestId("g1");
+        service.findGuestById("g1");
+
+        // deleteGuestById
+        when(guestJpaRepository.existsById("g1")).thenReturn(true);
+        service.deleteGuestById("g1");
+        service.findGuestById("g1");
+
+        // cinco lecturas y la carga de la fila que modifica save
+        verify(guestJpaRepository, times(6)).findById("g1");
+        // Las escrituras dejan las preferencias en la cache cercana: Mongo solo se lee la primera vez
+        verify(guestPreferencesRepository, times(1)).findById("g1");
+    }
+
+        // ===================== findVersionById =====================
+
+    @Test
+    void findVersionById_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findVersionById(" "));
+
+        verifyNoInteractions(guestJpaRepository);
+    }
+
+    @Test
+    void findVersionById_readsOnlyTheVersion_withoutMapping() {
+        when(guestJpaRepository.findVersionById("g1")).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), service.findVersionById("g1"));
+
+        verify(guestJpaRepository).findVersionById("g1");
+        verifyNoMoreInteractions(guestJpaRepository);
+        verifyNoInteractions(guestMapper);
+    }
+
     // ===================== findAllGuests =====================
 
     @Test
     void findAllGuests_whenEmpty_returnsEmpty_andDoesNotQueryPreferences() {
-        when(guestJpaRepository.findAll()).thenReturn(List.of());
+        when(guestJpaRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(50))).thenReturn(List.of());
 
-        List<Guest> result = service.findAllGuests();
+        List<Guest> result = service.findAllGuests(null, 50);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(guestJpaRepository).findAll();
+        verify(guestJpaRepository).findByIdGreaterThanOrderByIdAsc("", Limit.of(50));
         verifyNoMoreInteractions(guestJpaRepository);
 
         verifyNoInteractions(guestPreferencesRepository, guestMapper, guestPreferencesMapper);
@@ -312,7 +509,7 @@ class GuestServiceImplTest {
         Guest g1 = guest("g1", "Ana");
         Guest g2 = guest("g2", "Luis");
 
-        when(guestJpaRepository.findAll()).thenReturn(List.of(e1, e2));
+        when(guestJpaRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(50))).thenReturn(List.of(e1, e2));
         when(guestMapper.toDomain(e1)).thenReturn(g1);
         when(guestMapper.toDomain(e2)).thenReturn(g2);
 
@@ -322,7 +519,7 @@ class GuestServiceImplTest {
         when(guestPreferencesRepository.findAllById(List.of("g1", "g2"))).thenReturn(List.of(d1));
         when(guestPreferencesMapper.toDomain(d1)).thenReturn(p1);
 
-        List<Guest> result = service.findAllGuests();
+        List<Guest> result = service.findAllGuests(null, 50);
 
         assertEquals(2, result.size());
         assertSame(g1, result.get(0));
@@ -331,7 +528,7 @@ class GuestServiceImplTest {
         assertSame(p1, g1.getPreferences());
         assertNull(g2.getPreferences(), "Si no hay prefs para g2, debe quedar null");
 
-        verify(guestJpaRepository).findAll();
+        verify(guestJpaRepository).findByIdGreaterThanOrderByIdAsc("", Limit.of(50));
         verify(guestMapper).toDomain(e1);
         verify(guestMapper).toDomain(e2);
 
@@ -341,6 +538,27 @@ class GuestServiceImplTest {
         verifyNoMoreInteractions(guestJpaRepository, guestMapper, guestPreferencesRepository, guestPreferencesMapper);
     }
 
+    @Test
+    void findAllGuests_repeated_readsPreferencesOfEachGuestOnce() {
+        GuestEntity e1 = guestEntity("g1");
+        GuestEntity e2 = guestEntity("g2");
+        GuestPreferencesDocument d1 = prefsDoc("g1");
+
+        when(guestJpaRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(50))).thenReturn(List.of(e1, e2));
+        when(guestMapper.toDomain(any(GuestEntity.class)))
+                .thenAnswer(inv -> guest(inv.<GuestEntity>getArgument(0).getId(), "Ana"));
+        when(guestPreferencesRepository.findAllById(List.of("g1", "g2"))).thenReturn(List.of(d1));
+        when(guestPreferencesMapper.toDomain(d1)).thenAnswer(inv -> prefs("g1"));
+
+        service.findAllGuests(null, 50);
+        List<Guest> result = service.findAllGuests(null, 50);
+
+        assertEquals("g1", result.get(0).getPreferences().getGuestId());
+        assertNull(result.get(1).getPreferences(), "La ausencia de preferencias tambien queda en la cache");
+        verify(guestPreferencesRepository).findAllById(List.of("g1", "g2"));
+        verifyNoMoreInteractions(guestPreferencesRepository);
+    }
+
     // ===================== findPreferencesByGuestId =====================
 
     @Test
@@ -375,6 +593,54 @@ class GuestServiceImplTest {
         verifyNoInteractions(guestJpaRepository, guestMapper);
     }
 
+    @Test
+    void findPreferencesByGuestId_repeated_readsMongoOnce_includingMissingPreferences() {
+        GuestPreferencesDocument doc = prefsDoc("g1");
+        when(guestPreferencesRepository.findById("g1")).thenReturn(Optional.of(doc));
+        when(guestPreferencesRepository.findById("g2")).thenReturn(Optional.empty());
+        when(guestPreferencesMapper.toDomain(doc)).thenAnswer(inv -> prefs("g1"));
+
+        service.findPreferencesByGuestId("g1");
+        service.findPreferencesByGuestId("g2");
+        assertEquals("g1", service.findPreferencesByGuestId("g1").orElseThrow().getGuestId());
+        assertTrue(service.findPreferencesByGuestId("g2").isEmpty());
+
+        verify(guestPreferencesRepository).findById("g1");
+        verify(guestPreferencesRepository).findById("g2");
+        verifyNoMoreInteractions(guestPreferencesRepository);
+    }
+
+    @Test
+    void findPreferencesByGuestId_afterSave_isServedFromCache_withoutReadingMongo() {
+        GuestPreferences prefs = prefs("g1");
+        GuestPreferencesDocument doc = prefsDoc("g1");
+        GuestPreferencesDocument savedDoc = new GuestPreferencesDocument("g1", true, "KING", false);
+        when(guestPreferencesMapper.toDocument(prefs)).thenReturn(doc);
+        when(guestPreferencesRepository.save(doc)).thenReturn(savedDoc);
+        when(guestPreferencesMapper.toDomain(any(GuestPreferencesDocument.class))).thenAnswer(inv -> {
+            GuestPreferencesDocument d = inv.getArgument(0);
+            return new GuestPreferences(d.getGuestId(), d.isPrefersSmokingRoom(), d.getBedTypePreference(),
+                    d.isNeedsAccessibilityFeatures());
+        });
+
+        service.savedPreferences(prefs);
+        GuestPreferences result = service.findPreferencesByGuestId("g1").orElseThrow();
+
+        assertEquals("KING", result.getBedTypePreference());
+        assertTrue(result.isPrefersSmokingRoom());
+        verify(guestPreferencesRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void findPreferencesByGuestId_afterDelete_isEmpty_withoutReadingMongo() {
+        when(guestPreferencesRepository.existsById("g1")).thenReturn(true);
+
+        service.deletePreferencesByGuestId("g1");
+
+        assertTrue(service.findPreferencesByGuestId("g1").isEmpty());
+        verify(guestPreferencesRepository, never()).findById(anyString());
+    }
+
     // ===================== deletePreferencesByGuestId =====================
 
     @Test
@@ -405,7 +671,7 @@ class GuestServiceImplTest {
     }
 
     @Test
-    void deletePreferencesByGuestId_whenExists_deletesAndReturnsTrue() {
+    void deletePreferencesByGuestId_whenExists_deletesBumpsGuestVersionAndReturnsTrue() {
         when(guestPreferencesRepository.existsById("g1")).thenReturn(true);
 
         boolean result = service.deletePreferencesByGuestId("g1");
@@ -414,9 +680,10 @@ class GuestServiceImplTest {
 
         verify(guestPreferencesRepository).existsById("g1");
         verify(guestPreferencesRepository).deleteById("g1");
-        verifyNoMoreInteractions(guestPreferencesRepository);
+        verify(guestJpaRepository).incrementVersion("g1");
+        verifyNoMoreInteractions(guestPreferencesRepository, guestJpaRepository);
 
-        verifyNoInteractions(guestPreferencesMapper, guestJpaRepository, guestMapper);
+        verifyNoInteractions(guestPreferencesMapper, guestMapper);
     }
 
     // ===================== deleteGuestById =====================
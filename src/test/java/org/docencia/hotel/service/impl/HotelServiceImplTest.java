@@ -11,11 +11,15 @@ import org.docencia.hotel.domain.model.Hotel;
 import org.docencia.hotel.mapper.jpa.HotelMapper;
 import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
 import org.docencia.hotel.persistence.repository.jpa.HotelRepository;
+import org.docencia.hotel.service.api.VersionMismatchException;
+import org.docencia.hotel.service.cache.ExistenceCaches;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class HotelServiceImplTest {
@@ -26,6 +30,9 @@ class HotelServiceImplTest {
     @Mock
     private HotelMapper hotelMapper;
 
+    @Spy
+    private ExistenceCaches existenceCaches = new ExistenceCaches(100, 100, 100, 600);
+
     @InjectMocks
     private HotelServiceImpl service;
 
@@ -42,30 +49,87 @@ class HotelServiceImplTest {
 
     @Test
     void save_whenHotelIsNull_throwsNullPointerException_andNoInteractions() {
-        assertThrows(NullPointerException.class, () -> service.save(null));
+        assertThrows(NullPointerException.class, () -> service.save(null, null));
 
         verifyNoInteractions(hotelRepository);
         verifyNoInteractions(hotelMapper);
     }
 
     @Test
-    void save_ok_mapsSavesAndMapsBack() {
+    void save_whenHotelExists_copiesOntoLoadedEntity_andMapsBack() {
+        Hotel input = new Hotel("h1", "Hilton", "Calle 1");
+        HotelEntity current = new HotelEntity("h1");
+        current.setVersion(3L);
+        Hotel expected = anyHotel();
+
+        when(hotelRepository.findById("h1")).thenReturn(Optional.of(current));
+        when(hotelRepository.save(current)).thenReturn(current);
+        when(hotelMapper.toDomain(current)).thenReturn(expected);
+
+        Hotel result = service.save(input, 3L);
+
+        assertSame(expected, result);
+        assertEquals(3L, current.getVersion(), "la version la incrementa Hibernate al escribir");
+        verify(hotelMapper).updateEntity(input, current);
+        verify(hotelRepository).save(current);
+        verify(hotelRepository, never()).findVersionById(any());
+        verify(hotelMapper, never()).toEntity(any());
+    }
+
+    @Test
+    void save_whenExpectedVersionIsStale_throwsOptimisticLock_andDoesNotWrite() {
+        Hotel input = new Hotel("h1", "Hilton", "Calle 1");
+        HotelEntity current = new HotelEntity("h1");
+        current.setVersion(4L);
+
+        when(hotelRepository.findById("h1")).thenReturn(Optional.of(current));
+
+        assertThrows(VersionMismatchException.class, () -> service.save(input, 3L));
+
+        verify(hotelRepository, never()).save(any());
+        verifyNoInteractions(hotelMapper);
+    }
+
+    @Test
+    void save_whenHotelDoesNotExist_insertsIt() {
+        Hotel input = new Hotel("h1", "Hilton", "Calle 1");
+        HotelEntity toSave = new HotelEntity("h1");
+        Hotel expected = anyHotel();
+
+        when(hotelRepository.findById("h1")).thenReturn(Optional.empty());
+        when(hotelMapper.toEntity(input)).thenReturn(toSave);
+        when(hotelRepository.save(toSave)).thenReturn(toSave);
+        when(hotelMapper.toDomain(toSave)).thenReturn(expected);
+
+        assertSame(expected, service.save(input, null));
+        assertTrue(toSave.isNew());
+    }
+
+    // ===================== insert =====================
+
+    @Test
+    void insert_whenHotelIsNull_throwsNullPointerException_andNoInteractions() {
+        assertThrows(NullPointerException.class, () -> service.insert(null));
+
+        verifyNoInteractions(hotelRepository, hotelMapper);
+    }
+
+    @Test
+    void insert_ok_marksEntityNew_savesAndMapsBack() {
         Hotel input = anyHotel();
         HotelEntity toSave = anyHotelEntity();
-        HotelEntity savedEntity = anyHotelEntity();
         Hotel expected = anyHotel();
 
         when(hotelMapper.toEntity(input)).thenReturn(toSave);
-        when(hotelRepository.save(toSave)).thenReturn(savedEntity);
-        when(hotelMapper.toDomain(savedEntity)).thenReturn(expected);
+        when(hotelRepository.save(toSave)).thenReturn(toSave);
+        when(hotelMapper.toDomain(toSave)).thenReturn(expected);
 
-        Hotel result = service.save(input);
+        Hotel result = service.insert(input);
 
         assertSame(expected, result);
-        verify(hotelMapper).toEntity(input);
+        assertTrue(toSave.isNew(), "insert debe persistir sin merge previo");
         verify(hotelRepository).save(toSave);
-        verify(hotelMapper).toDomain(savedEntity);
-        verifyNoMoreInteractions(hotelRepository, hotelMapper);
+        verifyNoMoreInteractions(hotelRepository);
     }
 
     // ===================== existsById =====================
@@ -87,17 +151,61 @@ class HotelServiceImplTest {
     }
 
     @Test
-    void existsById_ok_delegatesToRepository() {
-        when(hotelRepository.existsById("h1")).thenReturn(true);
+    void existsById_ok_loadsByIdThroughSecondLevelCache() {
+        when(hotelRepository.findById("h1")).thenReturn(Optional.of(new HotelEntity()));
 
         boolean result = service.existsById("h1");
 
         assertTrue(result);
-        verify(hotelRepository).existsById("h1");
+        verify(hotelRepository).findById("h1");
         verifyNoMoreInteractions(hotelRepository);
         verifyNoInteractions(hotelMapper);
     }
 
+    @Test
+    void existsById_whenMissing_false() {
+        when(hotelRepository.findById("h404")).thenReturn(Optional.empty());
+
+        assertFalse(service.existsById("h404"));
+    }
+
+    @Test
+    void existsById_repeated_isServedFromExistenceCache() {
+        when(hotelRepository.findById("h1")).thenReturn(Optional.of(new HotelEntity("h1")));
+
+        assertTrue(service.existsById("h1"));
+        assertTrue(service.existsById("h1"));
+
+        verify(hotelRepository, times(1)).findById("h1");
+        assertEquals(1, existenceCaches.hotels().stats().getHitCount());
+    }
+
+    @Test
+    void existsById_afterInsert_reloadsCachedMiss() {
+        HotelEntity toSave = new HotelEntity("h1");
+        when(hotelRepository.findById("h1")).thenReturn(Optional.empty(), Optional.of(toSave));
+        when(hotelMapper.toEntity(any(Hotel.class))).thenReturn(toSave);
+        when(hotelRepository.save(toSave)).thenReturn(toSave);
+
+        assertFalse(service.existsById("h1"));
+        service.insert(anyHotel());
+
+        assertTrue(service.existsById("h1"));
+        verify(hotelRepository, times(2)).findById("h1");
+    }
+
+    @Test
+    void existsById_afterDelete_reloadsCachedHit() {
+        when(hotelRepository.findById("h1")).thenReturn(Optional.of(new HotelEntity("h1")), Optional.empty());
+        when(hotelRepository.removeById("h1")).thenReturn(1);
+
+        assertTrue(service.existsById("h1"));
+        service.deleteById("h1");
+
+        assertFalse(service.existsById("h1"));
+        verify(hotelRepository, times(2)).findById("h1");
+    }
+
     // ===================== findById =====================
 
     @Test
@@ -145,6 +253,26 @@ class HotelServiceImplTest {
         verifyNoMoreInteractions(hotelRepository, hotelMapper);
     }
 
+        // ===================== findVersionById =====================
+
+    @Test
+    void findVersionById_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findVersionById(" "));
+
+        verifyNoInteractions(hotelRepository);
+    }
+
+    @Test
+    void findVersionById_readsOnlyTheVersion_withoutMapping() {
+        when(hotelRepository.findVersionById("h1")).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), service.findVersionById("h1"));
+
+        verify(hotelRepository).findVersionById("h1");
+        verifyNoMoreInteractions(hotelRepository);
+        verifyNoInteractions(hotelMapper);
+    }
+
     // ===================== findAll =====================
 
     @Test
@@ -154,17 +282,17 @@ class HotelServiceImplTest {
         Hotel h1 = anyHotel();
         Hotel h2 = anyHotel();
 
-        when(hotelRepository.findAll()).thenReturn(List.of(e1, e2));
+        when(hotelRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(50))).thenReturn(List.of(e1, e2));
         when(hotelMapper.toDomain(e1)).thenReturn(h1);
         when(hotelMapper.toDomain(e2)).thenReturn(h2);
 
-        List<Hotel> result = service.findAll();
+        List<Hotel> result = service.findAll(null, 50);
 
         assertEquals(2, result.size());
         assertSame(h1, result.get(0));
         assertSame(h2, result.get(1));
 
-        verify(hotelRepository).findAll();
+        verify(hotelRepository).findByIdGreaterThanOrderByIdAsc("", Limit.of(50));
         verify(hotelMapper).toDomain(e1);
         verify(hotelMapper).toDomain(e2);
         verifyNoMoreInteractions(hotelRepository, hotelMapper);
@@ -172,14 +300,14 @@ class HotelServiceImplTest {
 
     @Test
     void findAll_whenEmpty_returnsEmpty_andDoesNotMap() {
-        when(hotelRepository.findAll()).thenReturn(List.of());
+        when(hotelRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(50))).thenReturn(List.of());
 
-        List<Hotel> result = service.findAll();
+        List<Hotel> result = service.findAll(null, 50);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(hotelRepository).findAll();
+        verify(hotelRepository).findByIdGreaterThanOrderByIdAsc("", Limit.of(50));
         verifyNoMoreInteractions(hotelRepository);
         verifyNoInteractions(hotelMapper);
     }
@@ -257,26 +385,24 @@ class HotelServiceImplTest {
 
     @Test
     void deleteById_whenNotExists_returnsFalse_andDoesNotDelete() {
-        when(hotelRepository.existsById("h404")).thenReturn(false);
+        when(hotelRepository.removeById("h404")).thenReturn(0);
 
         boolean result = service.deleteById("h404");
 
         assertFalse(result);
-        verify(hotelRepository).existsById("h404");
-        verify(hotelRepository, never()).deleteById(any());
+        verify(hotelRepository).removeById("h404");
         verifyNoMoreInteractions(hotelRepository);
         verifyNoInteractions(hotelMapper);
     }
 
     @Test
     void deleteById_whenExists_deletesAndReturnsTrue() {
-        when(hotelRepository.existsById("h1")).thenReturn(true);
+        when(hotelRepository.removeById("h1")).thenReturn(1);
 
         boolean result = service.deleteById("h1");
 
         assertTrue(result);
-        verify(hotelRepository).existsById("h1");
-        verify(hotelRepository).deleteById("h1");
+        verify(hotelRepository).removeById("h1");
         verifyNoMoreInteractions(hotelRepository);
         verifyNoInteractions(hotelMapper);
     }
@@ -0,0 +1,171 @@
+package org.docencia.hotel.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.docencia.hotel.domain.model.DailyOccupancy;
+import org.docencia.hotel.persistence.jpa.entity.HotelOccupancyEntity;
+import org.docencia.hotel.persistence.jpa.projection.RoomHotel;
+import org.docencia.hotel.persistence.repository.jpa.HotelOccupancyRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.service.api.OccupancyService.StayChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyServiceImplTest {
+
+    @Mock
+    private HotelOccupancyRepository hotelOccupancyRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OccupancyServiceImpl service;
+
+    // ===== helpers mínimos =====
+    private static LocalDate d(String date) {
+        return LocalDate.parse(date);
+    }
+
+    // ===================== addStay / removeStay =====================
+
+    @Test
+    void addStay_resolvesHotel_andAddsOneRoomToEveryNight() {
+        when(roomRepository.findHotelIdsByIds(Set.of("r1"))).thenReturn(List.of(new RoomHotel("r1", "h1")));
+
+        service.addStay("r1", d("2025-01-01"), d("2025-01-03"));
+
+        verify(roomRepository).findHotelIdsByIds(Set.of("r1"));
+        verify(hotelOccupancyRepository).addAll(new String[] { "h1", "h1" },
+                new LocalDate[] { d("2025-01-01"), d("2025-01-02") }, new Integer[] { 1, 1 });
+        verifyNoMoreInteractions(roomRepository, hotelOccupancyRepository);
+    }
+
+    @Test
+    void removeStay_subtractsOneRoom_andDeletesEmptyNights() {
+        when(roomRepository.findHotelIdsByIds(Set.of("r1"))).thenReturn(List.of(new RoomHotel("r1", "h1")));
+
+        service.removeStay("r1", d("2025-01-01"), d("2025-01-03"));
+
+        verify(hotelOccupancyRepository).addAll(new String[] { "h1", "h1" },
+                new LocalDate[] { d("2025-01-01"), d("2025-01-02") }, new Integer[] { -1, -1 });
+        verify(hotelOccupancyRepository).deleteEmpty(Set.of("h1"));
+        verifyNoMoreInteractions(hotelOccupancyRepository);
+    }
+
+    @Test
+    void addStay_whenDatesMissingOrInvalid_doesNothing() {
+        service.addStay("r1", null, d("2025-01-03"));
+        service.addStay("r1", d("2025-01-03"), d("2025-01-03"));
+
+        verifyNoInteractions(roomRepository, hotelOccupancyRepository);
+    }
+
+    @Test
+    void addStay_whenRoomUnknown_doesNotWrite() {
+        when(roomRepository.findHotelIdsByIds(Set.of("r404"))).thenReturn(List.of());
+
+        service.addStay("r404", d("2025-01-01"), d("2025-01-03"));
+
+        verifyNoInteractions(hotelOccupancyRepository);
+    }
+
+    // ===================== applyStays =====================
+
+    @Test
+    void applyStays_resolvesHotelsOnce_andWritesNetDeltasPerNight_inOneStatement() {
+        when(roomRepository.findHotelIdsByIds(Set.of("r1", "r2", "r3")))
+                .thenReturn(List.of(new RoomHotel("r1", "h1"), new RoomHotel("r2", "h1"), new RoomHotel("r3", "h2")));
+
+        service.applyStays(List.of(
+                StayChange.added("r1", d("2025-01-01"), d("2025-01-03")),
+                StayChange.added("r2", d("2025-01-02"), d("2025-01-04")),
+                StayChange.removed("r3", d("2025-01-01"), d("2025-01-02")),
+                StayChange.removed("r1", d("2025-01-03"), d("2025-01-04"))));
+
+        verify(roomRepository).findHotelIdsByIds(Set.of("r1", "r2", "r3"));
+        // h1: 01 +1, 02 +2, 03 +1 -1 = 0 (no se escribe); h2: 01 -1
+        verify(hotelOccupancyRepository).addAll(new String[] { "h1", "h1", "h2" },
+                new LocalDate[] { d("2025-01-01"), d("2025-01-02"), d("2025-01-01") }, new Integer[] { 1, 2, -1 });
+        verify(hotelOccupancyRepository).deleteEmpty(Set.of("h2"));
+        verifyNoMoreInteractions(roomRepository, hotelOccupancyRepository);
+    }
+
+    @Test
+    void applyStays_whenChangesCancelOut_doesNotWrite() {
+        when(roomRepository.findHotelIdsByIds(Set.of("r1"))).thenReturn(List.of(new RoomHotel("r1", "h1")));
+
+        service.applyStays(List.of(
+                StayChange.removed("r1", d("2025-01-01"), d("2025-01-03")),
+                StayChange.added("r1", d("2025-01-01"), d("2025-01-03"))));
+
+        verifyNoInteractions(hotelOccupancyRepository);
+    }
+
+    @Test
+    void applyStays_whenEmpty_doesNothing() {
+        service.applyStays(List.of());
+
+        verifyNoInteractions(roomRepository, hotelOccupancyRepository);
+    }
+
+    @Test
+    void applyStays_whenNull_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> service.applyStays(null));
+        verifyNoInteractions(roomRepository, hotelOccupancyRepository);
+    }
+
+    // ===================== findByHotelId =====================
+
+    @Test
+    void findByHotelId_returnsOneEntryPerNight_fillingMissingNightsWithZero() {
+        when(hotelOccupancyRepository.findRange("h1", d("2025-01-01"), d("2025-01-04")))
+                .thenReturn(List.of(new HotelOccupancyEntity("h1", d("2025-01-02"), 3)));
+
+        List<DailyOccupancy> result = service.findByHotelId("h1", "2025-01-01", "2025-01-04");
+
+        assertEquals(List.of(
+                new DailyOccupancy("2025-01-01", 0),
+                new DailyOccupancy("2025-01-02", 3),
+                new DailyOccupancy("2025-01-03", 0)), result);
+        verify(hotelOccupancyRepository).findRange("h1", d("2025-01-01"), d("2025-01-04"));
+        verifyNoMoreInteractions(hotelOccupancyRepository);
+        verifyNoInteractions(roomRepository);
+    }
+
+    @Test
+    void findByHotelId_whenHotelIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findByHotelId("  ", "2025-01-01", "2025-01-02"));
+        verifyNoInteractions(hotelOccupancyRepository);
+    }
+
+    // ===================== rebuild =====================
+
+    @Test
+    void rebuild_replacesTableFromBookings_inOneTransaction() {
+        service.rebuild();
+
+        InOrder inOrder = inOrder(transactionManager, hotelOccupancyRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(hotelOccupancyRepository).deleteAllInBatch();
+        inOrder.verify(hotelOccupancyRepository).insertFromBookings();
+        inOrder.verify(transactionManager).commit(any());
+        verifyNoMoreInteractions(hotelOccupancyRepository);
+        verifyNoInteractions(roomRepository);
+    }
+}
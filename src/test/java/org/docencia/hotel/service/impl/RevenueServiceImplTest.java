@@ -0,0 +1,80 @@
+package org.docencia.hotel.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.persistence.jpa.projection.HotelRoomCount;
+import org.docencia.hotel.persistence.jpa.projection.StayRevenue;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueServiceImplTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @InjectMocks
+    private RevenueServiceImpl service;
+
+    // ===== helpers mínimos =====
+    private static LocalDate d(String date) {
+        return LocalDate.parse(date);
+    }
+
+    // ===================== findMonthlyRevenue =====================
+
+    @Test
+    void findMonthlyRevenue_splitsStaysAcrossMonths_andClipsToRange() {
+        when(bookingRepository.streamStayRevenues(d("2025-01-01"), d("2025-03-01"))).thenReturn(Stream.of(
+                new StayRevenue("h1", d("2025-01-30"), d("2025-02-02"), 100.0),
+                new StayRevenue("h1", d("2024-12-31"), d("2025-01-02"), 50.0)));
+        when(roomRepository.countRoomsByHotel()).thenReturn(List.of(
+                new HotelRoomCount("h1", 2),
+                new HotelRoomCount("h2", 1)));
+
+        List<MonthlyRevenue> result = service.findMonthlyRevenue("2025-01", "2025-03");
+
+        assertEquals(List.of(
+                new MonthlyRevenue("h1", "2025-01", 3, 62, 250.0, 83.33, 4.03),
+                new MonthlyRevenue("h1", "2025-02", 1, 56, 100.0, 100.0, 1.79),
+                new MonthlyRevenue("h2", "2025-01", 0, 31, 0.0, 0.0, 0.0),
+                new MonthlyRevenue("h2", "2025-02", 0, 28, 0.0, 0.0, 0.0)), result);
+        verify(bookingRepository).streamStayRevenues(d("2025-01-01"), d("2025-03-01"));
+        verify(roomRepository).countRoomsByHotel();
+        verifyNoMoreInteractions(bookingRepository, roomRepository);
+    }
+
+    @Test
+    void findMonthlyRevenue_closesTheStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookingRepository.streamStayRevenues(d("2025-01-01"), d("2025-02-01")))
+                .thenReturn(Stream.<StayRevenue>empty().onClose(() -> closed.set(true)));
+        when(roomRepository.countRoomsByHotel()).thenReturn(List.of());
+
+        List<MonthlyRevenue> result = service.findMonthlyRevenue("2025-01", "2025-02");
+
+        assertTrue(result.isEmpty());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void findMonthlyRevenue_whenFromBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findMonthlyRevenue("  ", "2025-02"));
+        verifyNoInteractions(bookingRepository, roomRepository);
+    }
+}
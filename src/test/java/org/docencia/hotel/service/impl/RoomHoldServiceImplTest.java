@@ -0,0 +1,129 @@
+package org.docencia.hotel.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.docencia.hotel.domain.model.RoomHold;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RoomHoldServiceImplTest {
+
+    private MutableClock clock;
+
+    private RoomHoldServiceImpl service;
+
+    // ===== helpers mínimos =====
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        service = new RoomHoldServiceImpl(clock, 60, 1_000, 8);
+    }
+
+    @Test
+    void constructor_whenTtlNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RoomHoldServiceImpl(clock, 0, 1_000, 8));
+    }
+
+    // ===================== create / findById =====================
+
+    @Test
+    void create_returnsHoldWithExpiry_andIsFoundById() {
+        RoomHold hold = service.create("r1", "2025-01-01", "2025-01-03");
+
+        assertNotNull(hold.getId());
+        assertEquals("r1", hold.getRoomId());
+        assertEquals("2025-01-01", hold.getCheckIn());
+        assertEquals("2025-01-03", hold.getCheckOut());
+        assertEquals("2025-01-01T10:01:00Z", hold.getExpiresAt());
+        assertEquals(hold, service.findById(hold.getId()).orElseThrow());
+    }
+
+    @Test
+    void create_whenRoomBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.create(" ", "2025-01-01", "2025-01-03"));
+    }
+
+    // ===================== isHeld =====================
+
+    @Test
+    void isHeld_detectsOverlapsOnSameRoom_withExclusiveCheckOut() {
+        RoomHold hold = service.create("r1", "2025-01-05", "2025-01-08");
+
+        assertTrue(service.isHeld("r1", "2025-01-07", "2025-01-10", null));
+        assertFalse(service.isHeld("r1", "2025-01-08", "2025-01-10", null));
+        assertFalse(service.isHeld("r1", "2025-01-01", "2025-01-05", null));
+        assertFalse(service.isHeld("r2", "2025-01-05", "2025-01-08", null));
+        assertFalse(service.isHeld("r1", "2025-01-05", "2025-01-08", hold.getId()));
+    }
+
+    // ===================== expiry =====================
+
+    @Test
+    void expire_removesHoldsOnceTtlHasPassed() {
+        RoomHold hold = service.create("r1", "2025-01-01", "2025-01-03");
+
+        clock.advance(Duration.ofSeconds(59));
+        assertEquals(0, service.expire());
+        assertTrue(service.isHeld("r1", "2025-01-01", "2025-01-03", null));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1, service.expire());
+        assertTrue(service.findById(hold.getId()).isEmpty());
+        assertFalse(service.isHeld("r1", "2025-01-01", "2025-01-03", null));
+    }
+
+    @Test
+    void findById_andIsHeld_ignoreExpiredHoldBeforeTheWheelTicks() {
+        RoomHold hold = service.create("r1", "2025-01-01", "2025-01-03");
+
+        clock.advance(Duration.ofMinutes(5));
+
+        assertTrue(service.findById(hold.getId()).isEmpty());
+        assertFalse(service.isHeld("r1", "2025-01-01", "2025-01-03", null));
+        assertFalse(service.release(hold.getId()));
+    }
+
+    // ===================== release =====================
+
+    @Test
+    void release_freesRoom_andCancelsExpiry() {
+        RoomHold hold = service.create("r1", "2025-01-01", "2025-01-03");
+
+        assertTrue(service.release(hold.getId()));
+        assertFalse(service.release(hold.getId()));
+        assertFalse(service.isHeld("r1", "2025-01-01", "2025-01-03", null));
+
+        clock.advance(Duration.ofMinutes(2));
+        assertEquals(0, service.expire());
+    }
+}
@@ -4,20 +4,34 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.docencia.hotel.domain.model.GuestPreferences;
 import org.docencia.hotel.domain.model.Room;
 import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.persistence.jpa.entity.HotelEntity;
 import org.docencia.hotel.persistence.jpa.entity.RoomEntity;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
 import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.docencia.hotel.service.api.RoomHoldService;
+import org.docencia.hotel.service.api.VersionMismatchException;
+import org.docencia.hotel.service.cache.ExistenceCaches;
+import org.docencia.hotel.service.index.RoomAttributeIndex;
+import org.docencia.hotel.service.index.RoomAvailabilityCalendar;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class RoomServiceImplTest {
@@ -28,6 +42,21 @@ class RoomServiceImplTest {
     @Mock
     private RoomMapper roomMapper;
 
+    @Mock
+    private RoomAvailabilityCalendar roomAvailabilityCalendar;
+
+    @Mock
+    private RoomAttributeIndex roomAttributeIndex;
+
+    @Mock
+    private RoomHoldService roomHoldService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ExistenceCaches existenceCaches = new ExistenceCaches(100, 100, 100, 600);
+
     @InjectMocks
     private RoomServiceImpl service;
 
@@ -39,35 +68,92 @@ class RoomServiceImplTest {
         return new RoomEntity(); // ajusta si no tienes ctor vacío
     }
 
+    private static RoomRow roomRow(String id) {
+        return new RoomRow(id, "101", "DOUBLE", 100.0, "h1", false, null, false);
+    }
+
     // ===================== save =====================
     @Test
     @DisplayName("save: cuando room es null -> NullPointerException y no interactúa con repo/mapper")
     void save_whenRoomIsNull_throwsAndNoInteractions() {
-        assertThrows(NullPointerException.class, () -> service.save(null));
+        assertThrows(NullPointerException.class, () -> service.save(null, null));
 
         verifyNoInteractions(roomRepository);
         verifyNoInteractions(roomMapper);
     }
 
     @Test
-    @DisplayName("save: mapea domain->entity, guarda en repo y devuelve entity->domain")
-    void save_ok_mapsSavesAndMapsBack() {
-        Room input = anyRoom();
+    @DisplayName("save: copia los datos sobre la entidad cargada, con referencia al hotel, y registra en los indices")
+    void save_whenRoomExists_copiesOntoLoadedEntity_andRegisters() {
+        Room input = new Room("r1", "101", "DOUBLE", 100.0, "h2");
+        RoomEntity current = new RoomEntity("r1");
+        current.setVersion(3L);
+        HotelEntity hotel = new HotelEntity("h2");
+        Room expected = anyRoom();
+
+        when(roomRepository.findById("r1")).thenReturn(Optional.of(current));
+        when(entityManager.getReference(HotelEntity.class, "h2")).thenReturn(hotel);
+        when(roomRepository.save(current)).thenReturn(current);
+        when(roomMapper.toDomain(current)).thenReturn(expected);
+
+        Room result = service.save(input, 3L);
+
+        assertSame(expected, result);
+        assertSame(hotel, current.getHotel());
+        assertEquals(3L, current.getVersion(), "la version la incrementa Hibernate al escribir");
+        verify(roomMapper).updateEntity(input, current);
+        verify(roomRepository, never()).findVersionById(any());
+        verify(roomAvailabilityCalendar).registerRoom(expected);
+        verify(roomAttributeIndex).registerRoom(expected);
+    }
+
+    @Test
+    @DisplayName("save: con una version esperada antigua -> conflicto y no escribe")
+    void save_whenExpectedVersionIsStale_throwsOptimisticLock_andDoesNotWrite() {
+        Room input = new Room("r1", "101", "DOUBLE", 100.0, "h1");
+        RoomEntity current = new RoomEntity("r1");
+        current.setVersion(4L);
+
+        when(roomRepository.findById("r1")).thenReturn(Optional.of(current));
+
+        assertThrows(VersionMismatchException.class, () -> service.save(input, 3L));
+
+        verify(roomRepository, never()).save(any());
+        verifyNoInteractions(roomMapper, roomAvailabilityCalendar, roomAttributeIndex);
+    }
+
+    // ===================== insert =====================
+    @Test
+    @DisplayName("insert: cuando hotelId es blank -> IllegalArgumentException y no interactúa con repo/mapper")
+    void insert_whenHotelIdBlank_throwsAndNoInteractions() {
+        Room input = new Room("r1", "101", "DOUBLE", 100.0, " ");
+
+        assertThrows(IllegalArgumentException.class, () -> service.insert(input));
+
+        verifyNoInteractions(roomRepository, roomMapper, entityManager);
+    }
+
+    @Test
+    @DisplayName("insert: marca la entidad como nueva con referencia al hotel, guarda y registra en los indices")
+    void insert_ok_marksNewWithHotelReference_savesAndRegisters() {
+        Room input = new Room("r1", "101", "DOUBLE", 100.0, "h1");
         RoomEntity toSave = anyRoomEntity();
-        RoomEntity saved = anyRoomEntity();
+        HotelEntity hotel = new HotelEntity("h1");
         Room expected = anyRoom();
 
         when(roomMapper.toEntity(input)).thenReturn(toSave);
-        when(roomRepository.save(toSave)).thenReturn(saved);
-        when(roomMapper.toDomain(saved)).thenReturn(expected);
+        when(entityManager.getReference(HotelEntity.class, "h1")).thenReturn(hotel);
+        when(roomRepository.save(toSave)).thenReturn(toSave);
+        when(roomMapper.toDomain(toSave)).thenReturn(expected);
 
-        Room result = service.save(input);
+        Room result = service.insert(input);
 
         assertSame(expected, result);
-        verify(roomMapper).toEntity(input);
+        assertTrue(toSave.isNew(), "insert debe persistir sin merge previo");
+        assertSame(hotel, toSave.getHotel());
         verify(roomRepository).save(toSave);
-        verify(roomMapper).toDomain(saved);
-        verifyNoMoreInteractions(roomRepository, roomMapper);
+        verify(roomAvailabilityCalendar).registerRoom(expected);
+        verify(roomAttributeIndex).registerRoom(expected);
     }
 
     // ===================== existsById =====================
@@ -91,14 +177,76 @@ class RoomServiceImplTest {
         }
 
         @Test
-        @DisplayName("existsById: id válido -> delega en repo")
-        void existsById_ok_delegates() {
-            when(roomRepository.existsById("r1")).thenReturn(true);
+        @DisplayName("existsById: id válido -> busca por id (cache de segundo nivel)")
+        void existsById_ok_loadsById() {
+            when(roomRepository.findById("r1")).thenReturn(Optional.of(new RoomEntity("r1")));
 
             boolean result = service.existsById("r1");
 
             assertTrue(result);
-            verify(roomRepository).existsById("r1");
+            verify(roomRepository).findById("r1");
+            verifyNoMoreInteractions(roomRepository);
+            verifyNoInteractions(roomMapper);
+        }
+
+        @Test
+        @DisplayName("existsById: segunda consulta -> se sirve desde la cache de existencia")
+        void existsById_repeated_servedFromExistenceCache() {
+            when(roomRepository.findById("r1")).thenReturn(Optional.empty());
+
+            assertFalse(service.existsById("r1"));
+            assertFalse(service.existsById("r1"));
+
+            verify(roomRepository, times(1)).findById("r1");
+        }
+
+        @Test
+        @DisplayName("existsById: tras deleteById -> vuelve a consultar el repo")
+        void existsById_afterDeleteById_reloads() {
+            when(roomRepository.findById("r1")).thenReturn(Optional.of(new RoomEntity("r1")), Optional.empty());
+            when(roomRepository.removeById("r1")).thenReturn(1);
+
+            assertTrue(service.existsById("r1"));
+            service.deleteById("r1");
+
+            assertFalse(service.existsById("r1"));
+            verify(roomRepository, times(2)).findById("r1");
+        }
+
+        @Test
+        @DisplayName("existsById: tras deleteByHotelId con borrados -> vuelve a consultar el repo")
+        void existsById_afterDeleteByHotelId_reloads() {
+            when(roomRepository.findById("r1")).thenReturn(Optional.of(new RoomEntity("r1")), Optional.empty());
+            when(roomRepository.deleteByHotel_Id("h1")).thenReturn(1);
+
+            assertTrue(service.existsById("r1"));
+            service.deleteByHotelId("h1");
+
+            assertFalse(service.existsById("r1"));
+            verify(roomRepository, times(2)).findById("r1");
+        }
+    }
+
+    // ===================== findExistingIds =====================
+    @Nested
+    class FindExistingIdsTests {
+
+        @Test
+        @DisplayName("findExistingIds: lista vacía -> no consulta el repo")
+        void findExistingIds_empty_returnsEmpty_withoutQuery() {
+            assertEquals(Set.of(), service.findExistingIds(List.of()));
+            verifyNoInteractions(roomRepository);
+        }
+
+        @Test
+        @DisplayName("findExistingIds: ids válidos -> una sola consulta IN")
+        void findExistingIds_ok_singleQuery() {
+            when(roomRepository.findExistingIds(List.of("r1", "r2"))).thenReturn(List.of("r1"));
+
+            Set<String> result = service.findExistingIds(List.of("r1", "r2"));
+
+            assertEquals(Set.of("r1"), result);
+            verify(roomRepository).findExistingIds(List.of("r1", "r2"));
             verifyNoMoreInteractions(roomRepository);
             verifyNoInteractions(roomMapper);
         }
@@ -156,26 +304,46 @@ class RoomServiceImplTest {
         }
     }
 
+        // ===================== findVersionById =====================
+
+    @Test
+    void findVersionById_whenIdBlank_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> service.findVersionById(" "));
+
+        verifyNoInteractions(roomRepository);
+    }
+
+    @Test
+    void findVersionById_readsOnlyTheVersion_withoutMapping() {
+        when(roomRepository.findVersionById("r1")).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), service.findVersionById("r1"));
+
+        verify(roomRepository).findVersionById("r1");
+        verifyNoMoreInteractions(roomRepository);
+        verifyNoInteractions(roomMapper);
+    }
+
     // ===================== findAll =====================
     @Test
-    @DisplayName("findAll: devuelve lista mapeada entity->domain")
-    void findAll_mapsAllEntities() {
-        RoomEntity e1 = anyRoomEntity();
-        RoomEntity e2 = anyRoomEntity();
+    @DisplayName("findAll: devuelve lista mapeada proyeccion->domain")
+    void findAll_mapsAllRows() {
+        RoomRow e1 = roomRow("r1");
+        RoomRow e2 = roomRow("r2");
         Room r1 = anyRoom();
         Room r2 = anyRoom();
 
-        when(roomRepository.findAll()).thenReturn(List.of(e1, e2));
+        when(roomRepository.findRowsAfter("", Limit.of(50))).thenReturn(List.of(e1, e2));
         when(roomMapper.toDomain(e1)).thenReturn(r1);
         when(roomMapper.toDomain(e2)).thenReturn(r2);
 
-        List<Room> result = service.findAll();
+        List<Room> result = service.findAll(null, 50);
 
         assertEquals(2, result.size());
         assertSame(r1, result.get(0));
         assertSame(r2, result.get(1));
 
-        verify(roomRepository).findAll();
+        verify(roomRepository).findRowsAfter("", Limit.of(50));
         verify(roomMapper).toDomain(e1);
         verify(roomMapper).toDomain(e2);
         verifyNoMoreInteractions(roomRepository, roomMapper);
@@ -184,14 +352,14 @@ class RoomServiceImplTest {
     @Test
     @DisplayName("findAll: si repo devuelve vacío -> devuelve vacío y no llama mapper")
     void findAll_whenEmpty_returnsEmptyAndNoMapping() {
-        when(roomRepository.findAll()).thenReturn(List.of());
+        when(roomRepository.findRowsAfter("", Limit.of(50))).thenReturn(List.of());
 
-        List<Room> result = service.findAll();
+        List<Room> result = service.findAll(null, 50);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(roomRepository).findAll();
+        verify(roomRepository).findRowsAfter("", Limit.of(50));
         verifyNoMoreInteractions(roomRepository);
         verifyNoInteractions(roomMapper);
     }
@@ -215,21 +383,21 @@ class RoomServiceImplTest {
         }
 
         @Test
-        @DisplayName("findByHotelId: mapea lista de entidades a dominio")
+        @DisplayName("findByHotelId: mapea lista de proyecciones a dominio")
         void findByHotelId_ok_mapsList() {
-            RoomEntity e1 = anyRoomEntity();
-            RoomEntity e2 = anyRoomEntity();
+            RoomRow e1 = roomRow("r1");
+            RoomRow e2 = roomRow("r2");
             Room r1 = anyRoom();
             Room r2 = anyRoom();
 
-            when(roomRepository.findByHotel_Id("h1")).thenReturn(List.of(e1, e2));
+            when(roomRepository.findRowsByHotelId("h1")).thenReturn(List.of(e1, e2));
             when(roomMapper.toDomain(e1)).thenReturn(r1);
             when(roomMapper.toDomain(e2)).thenReturn(r2);
 
             List<Room> result = service.findByHotelId("h1");
 
             assertEquals(List.of(r1, r2), result);
-            verify(roomRepository).findByHotel_Id("h1");
+            verify(roomRepository).findRowsByHotelId("h1");
             verify(roomMapper).toDomain(e1);
             verify(roomMapper).toDomain(e2);
             verifyNoMoreInteractions(roomRepository, roomMapper);
@@ -269,27 +437,128 @@ class RoomServiceImplTest {
         }
 
         @Test
-        @DisplayName("findByHotelIdAndType: mapea lista de entidades a dominio")
+        @DisplayName("findByHotelIdAndType: mapea lista de proyecciones a dominio")
         void findByHotelIdAndType_ok_mapsList() {
-            RoomEntity e1 = anyRoomEntity();
-            RoomEntity e2 = anyRoomEntity();
+            RoomRow e1 = roomRow("r1");
+            RoomRow e2 = roomRow("r2");
             Room r1 = anyRoom();
             Room r2 = anyRoom();
 
-            when(roomRepository.findByHotel_IdAndType("h1", "DOUBLE")).thenReturn(List.of(e1, e2));
+            when(roomRepository.findRowsByHotelIdAndType("h1", "DOUBLE")).thenReturn(List.of(e1, e2));
             when(roomMapper.toDomain(e1)).thenReturn(r1);
             when(roomMapper.toDomain(e2)).thenReturn(r2);
 
             List<Room> result = service.findByHotelIdAndType("h1", "DOUBLE");
 
             assertEquals(List.of(r1, r2), result);
-            verify(roomRepository).findByHotel_IdAndType("h1", "DOUBLE");
+            verify(roomRepository).findRowsByHotelIdAndType("h1", "DOUBLE");
             verify(roomMapper).toDomain(e1);
             verify(roomMapper).toDomain(e2);
             verifyNoMoreInteractions(roomRepository, roomMapper);
         }
     }
 
+    // ===================== findAvailableByHotelId =====================
+    @Nested
+    class FindAvailableByHotelIdTests {
+
+        @Test
+        @DisplayName("findAvailableByHotelId: hotelId blank -> IllegalArgumentException")
+        void findAvailableByHotelId_hotelIdBlank_throws() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.findAvailableByHotelId("  ", "2025-01-01", "2025-01-02", null));
+            verifyNoInteractions(roomRepository, roomMapper, roomAvailabilityCalendar);
+        }
+
+        @Test
+        @DisplayName("findAvailableByHotelId: from null -> NullPointerException")
+        void findAvailableByHotelId_fromNull_throws() {
+            assertThrows(NullPointerException.class,
+                    () -> service.findAvailableByHotelId("h1", null, "2025-01-02", null));
+            verifyNoInteractions(roomRepository, roomMapper, roomAvailabilityCalendar);
+        }
+
+        @Test
+        @DisplayName("findAvailableByHotelId: responde desde el calendario sin consultar el repo")
+        void findAvailableByHotelId_ok_delegatesToCalendar() {
+            List<Room> expected = List.of(new Room("r1", "101", "DOUBLE", 80.0, "h1"));
+            when(roomAvailabilityCalendar.findFreeRooms("h1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 4), "DOUBLE"))
+                    .thenReturn(expected);
+
+            List<Room> result = service.findAvailableByHotelId("h1", "2025-01-01", "2025-01-04", "DOUBLE");
+
+            assertEquals(expected, result);
+            verify(roomAvailabilityCalendar)
+                    .findFreeRooms("h1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 4), "DOUBLE");
+            verifyNoInteractions(roomRepository, roomMapper);
+        }
+
+        @Test
+        @DisplayName("findAvailableByHotelId: descarta las habitaciones con una retención activa en el rango")
+        void findAvailableByHotelId_excludesHeldRooms() {
+            Room r1 = new Room("r1", "101", "DOUBLE", 80.0, "h1");
+            Room r2 = new Room("r2", "102", "DOUBLE", 80.0, "h1");
+            when(roomAvailabilityCalendar.findFreeRooms("h1", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 4), null))
+                    .thenReturn(List.of(r1, r2));
+            when(roomHoldService.isHeld("r1", "2025-01-01", "2025-01-04", null)).thenReturn(true);
+
+            List<Room> result = service.findAvailableByHotelId("h1", "2025-01-01", "2025-01-04", null);
+
+            assertEquals(List.of(r2), result);
+        }
+    }
+
+    // ===================== findRecommendedByHotelId =====================
+    @Nested
+    class FindRecommendedByHotelIdTests {
+
+        @Test
+        @DisplayName("findRecommendedByHotelId: preferences null -> NullPointerException")
+        void findRecommendedByHotelId_preferencesNull_throws() {
+            assertThrows(NullPointerException.class,
+                    () -> service.findRecommendedByHotelId("h1", null, "2025-01-01", "2025-01-02", 10));
+            verifyNoInteractions(roomAttributeIndex, roomAvailabilityCalendar);
+        }
+
+        @Test
+        @DisplayName("findRecommendedByHotelId: mantiene el orden del índice, descarta ocupadas y aplica el límite")
+        void findRecommendedByHotelId_ok_filtersBusyRoomsAndLimits() {
+            GuestPreferences preferences = new GuestPreferences("g1", false, "KING", false);
+            Room r1 = new Room("r1", "101", "DOUBLE", 80.0, "h1");
+            Room r2 = new Room("r2", "102", "DOUBLE", 80.0, "h1");
+            Room r3 = new Room("r3", "103", "DOUBLE", 80.0, "h1");
+            LocalDate in = LocalDate.of(2025, 1, 1);
+            LocalDate out = LocalDate.of(2025, 1, 3);
+            when(roomAttributeIndex.rankRooms("h1", preferences)).thenReturn(List.of(r1, r2, r3));
+            when(roomAvailabilityCalendar.isFree("r1", in, out)).thenReturn(false);
+            when(roomAvailabilityCalendar.isFree("r2", in, out)).thenReturn(true);
+
+            List<Room> result = service.findRecommendedByHotelId("h1", preferences, "2025-01-01", "2025-01-03", 1);
+
+            assertEquals(List.of(r2), result);
+            verify(roomAvailabilityCalendar, never()).isFree("r3", in, out);
+            verifyNoInteractions(roomRepository, roomMapper);
+        }
+
+        @Test
+        @DisplayName("findRecommendedByHotelId: descarta las habitaciones retenidas y sigue con la siguiente")
+        void findRecommendedByHotelId_skipsHeldRooms() {
+            GuestPreferences preferences = new GuestPreferences("g1", false, "KING", false);
+            Room r1 = new Room("r1", "101", "DOUBLE", 80.0, "h1");
+            Room r2 = new Room("r2", "102", "DOUBLE", 80.0, "h1");
+            LocalDate in = LocalDate.of(2025, 1, 1);
+            LocalDate out = LocalDate.of(2025, 1, 3);
+            when(roomAttributeIndex.rankRooms("h1", preferences)).thenReturn(List.of(r1, r2));
+            when(roomAvailabilityCalendar.isFree("r1", in, out)).thenReturn(true);
+            when(roomAvailabilityCalendar.isFree("r2", in, out)).thenReturn(true);
+            when(roomHoldService.isHeld("r1", "2025-01-01", "2025-01-03", null)).thenReturn(true);
+
+            List<Room> result = service.findRecommendedByHotelId("h1", preferences, "2025-01-01", "2025-01-03", 1);
+
+            assertEquals(List.of(r2), result);
+        }
+    }
+
     // ===================== deleteById =====================
     @Nested
     class DeleteByIdTests {
@@ -313,13 +582,12 @@ class RoomServiceImplTest {
         @Test
         @DisplayName("deleteById: si no existe -> devuelve false y NO borra")
         void deleteById_whenNotExists_returnsFalseAndDoesNotDelete() {
-            when(roomRepository.existsById("r1")).thenReturn(false);
+            when(roomRepository.removeById("r1")).thenReturn(0);
 
             boolean result = service.deleteById("r1");
 
             assertFalse(result);
-            verify(roomRepository).existsById("r1");
-            verify(roomRepository, never()).deleteById(any());
+            verify(roomRepository).removeById("r1");
             verifyNoMoreInteractions(roomRepository);
             verifyNoInteractions(roomMapper);
         }
@@ -327,13 +595,14 @@ class RoomServiceImplTest {
         @Test
         @DisplayName("deleteById: si existe -> borra y devuelve true")
         void deleteById_whenExists_deletesAndReturnsTrue() {
-            when(roomRepository.existsById("r1")).thenReturn(true);
+            when(roomRepository.removeById("r1")).thenReturn(1);
 
             boolean result = service.deleteById("r1");
 
             assertTrue(result);
-            verify(roomRepository).existsById("r1");
-            verify(roomRepository).deleteById("r1");
+            verify(roomRepository).removeById("r1");
+            verify(roomAvailabilityCalendar).unregisterRoom("r1");
+            verify(roomAttributeIndex).unregisterRoom("r1");
             verifyNoMoreInteractions(roomRepository);
             verifyNoInteractions(roomMapper);
         }
@@ -366,6 +635,8 @@ class RoomServiceImplTest {
 
             assertEquals(3, result);
             verify(roomRepository).deleteByHotel_Id("h1");
+            verify(roomAvailabilityCalendar).unregisterHotel("h1");
+            verify(roomAttributeIndex).unregisterHotel("h1");
             verifyNoMoreInteractions(roomRepository);
             verifyNoInteractions(roomMapper);
         }
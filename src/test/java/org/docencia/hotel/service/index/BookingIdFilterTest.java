@@ -0,0 +1,121 @@
+package org.docencia.hotel.service.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookingIdFilterTest {
+
+    private static final int EXPECTED_IDS = 10_000;
+
+    private BookingRepository bookingRepository;
+
+    private BookingIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        filter = new BookingIdFilter(bookingRepository, EXPECTED_IDS, 0.01);
+    }
+
+    // ===================== rebuild =====================
+
+    @Test
+    void rebuild_loadsEveryPersistedId() {
+        when(bookingRepository.findAllIds()).thenReturn(List.of("b1", "b2"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("b1"));
+        assertTrue(filter.mightContain("b2"));
+        verify(bookingRepository).findAllIds();
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void rebuild_forgetsIdsFromPreviousLoad() {
+        filter.put("b-old");
+        when(bookingRepository.findAllIds()).thenReturn(List.of());
+
+        filter.rebuild();
+
+        assertFalse(filter.mightContain("b-old"));
+    }
+
+    // ===================== put / mightContain =====================
+
+    @Test
+    void mightContain_whenEmpty_falseForAnyId() {
+        assertFalse(filter.mightContain("b1"));
+        assertFalse(filter.mightContain(""));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void mightContain_neverFalseForAddedIds() {
+        IntStream.range(0, EXPECTED_IDS).forEach(i -> filter.put("b-" + i));
+
+        assertTrue(IntStream.range(0, EXPECTED_IDS).allMatch(i -> filter.mightContain("b-" + i)));
+    }
+
+    @Test
+    void mightContain_atExpectedIds_falsePositivesStayNearConfiguredRate() {
+        IntStream.range(0, EXPECTED_IDS).forEach(i -> filter.put("b-" + i));
+
+        long falsePositives = IntStream.range(0, EXPECTED_IDS)
+                .filter(i -> filter.mightContain("other-" + i))
+                .count();
+
+        // 1 % de 10.000 son 100; se deja margen para la varianza
+        assertTrue(falsePositives < 200, "falsos positivos: " + falsePositives);
+    }
+
+    // ===================== stats =====================
+
+    @Test
+    void stats_reportsSizingForConfiguredRate_andCountsAnswers() {
+        filter.put("b1");
+        filter.mightContain("b1");
+        filter.mightContain("b404");
+
+        BookingIdFilterStats stats = filter.stats();
+
+        // m = -n ln p / (ln 2)^2 = 95.851 bits, redondeado a palabras de 64; k = 7
+        assertEquals(95_872, stats.getBitCount());
+        assertEquals(7, stats.getHashFunctions());
+        assertEquals(11_984, stats.getMemoryBytes());
+        assertEquals(EXPECTED_IDS, stats.getExpectedIds());
+        assertEquals(0.01, stats.getFalsePositiveRate());
+        assertEquals(1, stats.getPositiveCount());
+        assertEquals(1, stats.getNegativeCount());
+    }
+
+    @Test
+    void stats_estimatedRateGrowsWithIds_andMatchesConfiguredAtExpectedIds() {
+        assertEquals(0.0, filter.stats().getEstimatedFalsePositiveRate());
+
+        IntStream.range(0, EXPECTED_IDS).forEach(i -> filter.put("b-" + i));
+
+        assertEquals(0.01, filter.stats().getEstimatedFalsePositiveRate(), 0.003);
+    }
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_whenExpectedIdsNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingIdFilter(bookingRepository, 0, 0.01));
+    }
+
+    @Test
+    void constructor_whenRateOutOfRange_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingIdFilter(bookingRepository, 100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BookingIdFilter(bookingRepository, 100, 1));
+    }
+}
@@ -0,0 +1,259 @@
+package org.docencia.hotel.service.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.persistence.jpa.projection.BookingRow;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class BookingIntervalIndexTest {
+
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    // ===== helpers mínimos =====
+    private static LocalDate d(String date) {
+        return LocalDate.parse(date);
+    }
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository, mock(PlatformTransactionManager.class));
+    }
+
+    // ===================== rebuild =====================
+
+    @Test
+    void rebuild_streamsStayRows_andSkipsBookingsWithoutDatesOrReferences() {
+        when(bookingRepository.streamRows()).thenReturn(Stream.of(
+                new BookingRow("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03")),
+                new BookingRow("b2", "r1", "g1", null, null),
+                new BookingRow("b3", "r1", null, d("2025-01-05"), d("2025-01-06"))));
+
+        index.rebuild();
+
+        assertEquals(1, index.size());
+        assertTrue(index.overlaps("r1", d("2025-01-02"), d("2025-01-04"), null));
+        assertFalse(index.overlaps("r1", d("2025-01-05"), d("2025-01-06"), null));
+        verify(bookingRepository).streamRows();
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    // ===================== overlaps =====================
+
+    @Test
+    void overlaps_whenRoomHasNoStays_false() {
+        assertFalse(index.overlaps("r1", d("2025-01-01"), d("2025-01-02"), null));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void overlaps_checkOutIsExclusive_backToBackStaysDoNotOverlap() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        assertFalse(index.overlaps("r1", d("2025-01-03"), d("2025-01-05"), null));
+        assertFalse(index.overlaps("r1", d("2024-12-30"), d("2025-01-01"), null));
+        assertTrue(index.overlaps("r1", d("2025-01-02"), d("2025-01-03"), null));
+    }
+
+    @Test
+    void overlaps_detectsStayContainingRange_andRangeContainingStay() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-10"));
+        index.put("b2", "r1", "g1", d("2025-02-01"), d("2025-02-03"));
+
+        assertTrue(index.overlaps("r1", d("2025-01-04"), d("2025-01-05"), null));
+        assertTrue(index.overlaps("r1", d("2025-01-20"), d("2025-03-01"), null));
+        assertFalse(index.overlaps("r1", d("2025-01-10"), d("2025-02-01"), null));
+    }
+
+    @Test
+    void overlaps_findsLongStayHiddenBehindLaterShortStay() {
+        index.put("long", "r1", "g1", d("2025-01-01"), d("2025-01-31"));
+        index.put("short", "r1", "g1", d("2025-01-02"), d("2025-01-03"));
+
+        assertTrue(index.overlaps("r1", d("2025-01-20"), d("2025-01-21"), null));
+    }
+
+    @Test
+    void overlaps_ignoresExcludedBooking() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        assertFalse(index.overlaps("r1", d("2025-01-02"), d("2025-01-04"), "b1"));
+    }
+
+    @Test
+    void overlaps_isScopedToRoom() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        assertFalse(index.overlaps("r2", d("2025-01-01"), d("2025-01-03"), null));
+    }
+
+    // ===================== put / remove =====================
+
+    @Test
+    void put_sameBookingTwice_replacesPreviousStay() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b1", "r2", "g1", d("2025-03-01"), d("2025-03-03"));
+
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps("r1", d("2025-01-01"), d("2025-01-03"), null));
+        assertTrue(index.overlaps("r2", d("2025-03-02"), d("2025-03-05"), null));
+    }
+
+    @Test
+    void put_withoutDates_removesPreviousStay() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b1", "r1", "g1", null, null);
+
+        assertEquals(0, index.size());
+        assertFalse(index.overlaps("r1", d("2025-01-01"), d("2025-01-03"), null));
+    }
+
+    @Test
+    void remove_unknownBooking_isNoOp() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        index.remove("b404");
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_freesTheNights() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b2", "r1", "g1", d("2025-01-05"), d("2025-01-07"));
+
+        index.remove("b1");
+
+        assertFalse(index.overlaps("r1", d("2025-01-01"), d("2025-01-03"), null));
+        assertTrue(index.overlaps("r1", d("2025-01-06"), d("2025-01-08"), null));
+    }
+
+    @Test
+    void removeByRoom_removesOnlyThatRoom() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b2", "r2", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        List<BookingIntervalIndex.Stay> removed = index.removeByRoom("r1");
+
+        assertEquals(List.of("b1"), removed.stream().map(BookingIntervalIndex.Stay::bookingId).toList());
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps("r1", d("2025-01-01"), d("2025-01-03"), null));
+        assertTrue(index.overlaps("r2", d("2025-01-01"), d("2025-01-03"), null));
+    }
+
+    @Test
+    void removeByGuest_removesOnlyThatGuest() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b2", "r1", "g2", d("2025-01-05"), d("2025-01-07"));
+
+        List<BookingIntervalIndex.Stay> removed = index.removeByGuest("g1");
+
+        assertEquals(List.of("b1"), removed.stream().map(BookingIntervalIndex.Stay::bookingId).toList());
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps("r1", d("2025-01-01"), d("2025-01-03"), null));
+        assertTrue(index.overlaps("r1", d("2025-01-05"), d("2025-01-07"), null));
+    }
+
+    @Test
+    void findStaysByRoomAndGuest_returnStays_withoutRemovingThem() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b2", "r1", "g2", d("2025-01-05"), d("2025-01-07"));
+        index.put("b3", "r2", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        assertEquals(List.of("b1", "b2"),
+                index.findStaysByRoom("r1").stream().map(BookingIntervalIndex.Stay::bookingId).toList());
+        assertEquals(List.of("b1", "b3"),
+                index.findStaysByGuest("g1").stream().map(BookingIntervalIndex.Stay::bookingId).sorted().toList());
+        assertEquals(List.of(), index.findStaysByRoom("r404"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void findStay_returnsIndexedDates_orEmpty() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        BookingIntervalIndex.Stay stay = index.findStay("b1").orElseThrow();
+
+        assertEquals("r1", stay.roomId());
+        assertEquals(d("2025-01-01"), stay.checkIn());
+        assertEquals(d("2025-01-03"), stay.checkOut());
+        assertTrue(index.findStay("b404").isEmpty());
+    }
+
+    // ===================== findGap =====================
+
+    @Test
+    void findGap_whenRoomHasNoStays_isOpenOnBothSides() {
+        BookingIntervalIndex.Gap gap = index.findGap("r1", d("2025-01-05"), d("2025-01-07")).orElseThrow();
+
+        assertEquals(BookingIntervalIndex.Gap.OPEN_START, gap.start());
+        assertEquals(BookingIntervalIndex.Gap.OPEN_END, gap.end());
+    }
+
+    @Test
+    void findGap_returnsFreeNightsBetweenNeighbourStays() {
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b2", "r1", "g1", d("2025-01-10"), d("2025-01-12"));
+        index.put("b3", "r1", "g1", d("2025-01-20"), d("2025-01-22"));
+
+        BookingIntervalIndex.Gap gap = index.findGap("r1", d("2025-01-12"), d("2025-01-15")).orElseThrow();
+
+        assertEquals((int) d("2025-01-12").toEpochDay(), gap.start());
+        assertEquals((int) d("2025-01-20").toEpochDay(), gap.end());
+    }
+
+    @Test
+    void findGap_beforeFirstAndAfterLastStay_isOpenOnThatSide() {
+        index.put("b1", "r1", "g1", d("2025-01-10"), d("2025-01-12"));
+
+        BookingIntervalIndex.Gap before = index.findGap("r1", d("2025-01-01"), d("2025-01-10")).orElseThrow();
+        BookingIntervalIndex.Gap after = index.findGap("r1", d("2025-01-12"), d("2025-01-13")).orElseThrow();
+
+        assertEquals(BookingIntervalIndex.Gap.OPEN_START, before.start());
+        assertEquals((int) d("2025-01-10").toEpochDay(), before.end());
+        assertEquals((int) d("2025-01-12").toEpochDay(), after.start());
+        assertEquals(BookingIntervalIndex.Gap.OPEN_END, after.end());
+    }
+
+    @Test
+    void findGap_whenRangeOverlapsStay_empty() {
+        index.put("b1", "r1", "g1", d("2025-01-10"), d("2025-01-12"));
+
+        assertTrue(index.findGap("r1", d("2025-01-11"), d("2025-01-13")).isEmpty());
+    }
+
+    // ===================== listeners / forEachStay =====================
+
+    @Test
+    void roomChangeListener_isNotifiedForOldAndNewRoom_whenStayMoves() {
+        List<String> changed = new ArrayList<>();
+        index.addRoomChangeListener(changed::add);
+
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        index.put("b1", "r2", "g1", d("2025-01-01"), d("2025-01-03"));
+
+        assertEquals(List.of("r1", "r1", "r2"), changed);
+    }
+
+    @Test
+    void forEachStay_visitsStaysInCheckInOrder() {
+        index.put("b2", "r1", "g1", d("2025-01-05"), d("2025-01-07"));
+        index.put("b1", "r1", "g1", d("2025-01-01"), d("2025-01-03"));
+        List<Integer> starts = new ArrayList<>();
+
+        index.forEachStay("r1", (start, end) -> starts.add(start));
+
+        assertEquals(List.of((int) d("2025-01-01").toEpochDay(), (int) d("2025-01-05").toEpochDay()), starts);
+    }
+}
@@ -0,0 +1,120 @@
+package org.docencia.hotel.service.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.GuestPreferences;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class RoomAttributeIndexTest {
+
+    private RoomRepository roomRepository;
+
+    private RoomMapper roomMapper;
+
+    private RoomAttributeIndex index;
+
+    // ===== helpers mínimos =====
+    private static Room room(String id, String hotelId, boolean smoking, String bedType, boolean accessible) {
+        return new Room(id, id, "DOUBLE", 100.0, hotelId, smoking, bedType, accessible);
+    }
+
+    private static List<String> ids(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        roomMapper = mock(RoomMapper.class);
+        index = new RoomAttributeIndex(roomRepository, roomMapper, mock(PlatformTransactionManager.class));
+    }
+
+    // ===================== rebuild =====================
+
+    @Test
+    void rebuild_streamsRoomRowsFromRepository() {
+        RoomRow row = new RoomRow("r1", "r1", "DOUBLE", 100.0, "h1", false, "KING", false);
+        when(roomRepository.streamRows()).thenReturn(Stream.of(row));
+        when(roomMapper.toDomain(row)).thenReturn(room("r1", "h1", false, "KING", false));
+
+        index.rebuild();
+
+        assertEquals(List.of("r1"), ids(index.rankRooms("h1", new GuestPreferences("g1"))));
+    }
+
+    // ===================== rankRooms =====================
+
+    @Test
+    void rankRooms_ordersByNumberOfMatchedPreferences() {
+        index.registerRoom(room("none", "h1", true, "TWIN", false));
+        index.registerRoom(room("bed", "h1", true, "KING", false));
+        index.registerRoom(room("smoke", "h1", false, "TWIN", false));
+        index.registerRoom(room("both", "h1", false, "king", false));
+
+        List<Room> ranked = index.rankRooms("h1", new GuestPreferences("g1", false, "KING", false));
+
+        assertEquals("both", ranked.get(0).getId());
+        assertEquals(List.of("bed", "smoke"), ids(ranked.subList(1, 3)).stream().sorted().toList());
+        assertEquals("none", ranked.get(3).getId());
+    }
+
+    @Test
+    void rankRooms_whenGuestNeedsAccessibility_onlyAccessibleRooms() {
+        index.registerRoom(room("r1", "h1", false, "KING", false));
+        index.registerRoom(room("r2", "h1", true, "TWIN", true));
+
+        List<Room> ranked = index.rankRooms("h1", new GuestPreferences("g1", false, "KING", true));
+
+        assertEquals(List.of("r2"), ids(ranked));
+    }
+
+    @Test
+    void rankRooms_withoutBedPreference_ranksBySmokingOnly() {
+        index.registerRoom(room("r1", "h1", false, null, false));
+        index.registerRoom(room("r2", "h1", true, null, false));
+
+        assertEquals(List.of("r2", "r1"), ids(index.rankRooms("h1", new GuestPreferences("g1", true, " ", false))));
+    }
+
+    @Test
+    void rankRooms_unknownHotel_empty() {
+        assertTrue(index.rankRooms("h404", new GuestPreferences("g1")).isEmpty());
+    }
+
+    // ===================== register / unregister =====================
+
+    @Test
+    void registerRoom_updatingAttributes_replacesPreviousBits() {
+        index.registerRoom(room("r1", "h1", false, "KING", false));
+        index.registerRoom(room("r1", "h1", false, "TWIN", true));
+
+        List<Room> ranked = index.rankRooms("h1", new GuestPreferences("g1", false, "TWIN", true));
+
+        assertEquals(List.of("r1"), ids(ranked));
+        assertEquals("TWIN", ranked.get(0).getBedType());
+    }
+
+    @Test
+    void unregisterRoom_freesSlotForNextRoom_andUnregisterHotelDropsAll() {
+        index.registerRoom(room("r1", "h1", false, "KING", false));
+        index.registerRoom(room("r2", "h1", false, "KING", false));
+        index.registerRoom(room("r3", "h2", false, "KING", false));
+
+        index.unregisterRoom("r1");
+        index.registerRoom(room("r4", "h1", true, "TWIN", false));
+        index.unregisterHotel("h2");
+
+        assertEquals(List.of("r2", "r4"), ids(index.rankRooms("h1", new GuestPreferences("g1", false, "KING", false))));
+        assertTrue(index.rankRooms("h2", new GuestPreferences("g1")).isEmpty());
+    }
+}
@@ -0,0 +1,180 @@
+package org.docencia.hotel.service.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.mapper.jpa.RoomMapper;
+import org.docencia.hotel.persistence.jpa.projection.RoomRow;
+import org.docencia.hotel.persistence.repository.jpa.BookingRepository;
+import org.docencia.hotel.persistence.repository.jpa.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class RoomAvailabilityCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private RoomRepository roomRepository;
+
+    private RoomMapper roomMapper;
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private RoomAvailabilityCalendar calendar;
+
+    // ===== helpers mínimos =====
+    private static Room room(String id, String type, String hotelId) {
+        return new Room(id, id, type, 100.0, hotelId);
+    }
+
+    private static List<String> ids(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).sorted().toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        roomMapper = mock(RoomMapper.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        bookingIntervalIndex = new BookingIntervalIndex(mock(BookingRepository.class), transactionManager);
+        calendar = new RoomAvailabilityCalendar(roomRepository, roomMapper, bookingIntervalIndex, transactionManager,
+                365);
+        calendar.init();
+    }
+
+    // ===================== rebuild =====================
+
+    @Test
+    void init_loadsRoomCatalogFromRepository() {
+        RoomRow row = new RoomRow("r1", "r1", "DOUBLE", 100.0, "h1", false, null, false);
+        when(roomRepository.streamRows()).thenReturn(Stream.of(row));
+        when(roomMapper.toDomain(row)).thenReturn(room("r1", "DOUBLE", "h1"));
+
+        calendar.rebuild();
+
+        assertEquals(List.of("r1"), ids(calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(1), null)));
+    }
+
+    @Test
+    void rebuild_whileLoading_readersKeepSeeingPreviousCalendar_untilSwap() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        bookingIntervalIndex.put("b1", "r2", "g1", TODAY, TODAY.plusDays(1));
+        RoomRow row = new RoomRow("r2", "r2", "DOUBLE", 100.0, "h1", false, null, false);
+        when(roomMapper.toDomain(row)).thenReturn(room("r2", "DOUBLE", "h1"));
+        when(roomRepository.streamRows()).thenAnswer(inv -> {
+            // la reconstruccion no vacia el calendario vigente
+            assertEquals(List.of("r1"), ids(calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(1), null)));
+            return Stream.of(row);
+        });
+
+        calendar.rebuild();
+
+        assertEquals(List.of(), ids(calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(1), null)));
+        assertEquals(List.of("r2"), ids(calendar.findFreeRooms("h1", TODAY.plusDays(1), TODAY.plusDays(2), null)));
+        assertTrue(calendar.isFree("r1", TODAY, TODAY.plusDays(1)), "r1 ya no esta en el catalogo");
+    }
+
+    // ===================== findFreeRooms =====================
+
+    @Test
+    void findFreeRooms_excludesRoomsBookedInRange_andRefreshesOnIndexChanges() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        calendar.registerRoom(room("r2", "DOUBLE", "h1"));
+
+        bookingIntervalIndex.put("b1", "r1", "g1", TODAY.plusDays(2), TODAY.plusDays(5));
+
+        assertEquals(List.of("r2"), ids(calendar.findFreeRooms("h1", TODAY.plusDays(4), TODAY.plusDays(6), null)));
+        assertEquals(List.of("r1", "r2"),
+                ids(calendar.findFreeRooms("h1", TODAY.plusDays(5), TODAY.plusDays(6), null)));
+
+        bookingIntervalIndex.remove("b1");
+
+        assertEquals(List.of("r1", "r2"),
+                ids(calendar.findFreeRooms("h1", TODAY.plusDays(4), TODAY.plusDays(6), null)));
+    }
+
+    @Test
+    void findFreeRooms_handlesRangesSpanningSeveralWords() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        bookingIntervalIndex.put("b1", "r1", "g1", TODAY.plusDays(200), TODAY.plusDays(201));
+
+        assertTrue(calendar.findFreeRooms("h1", TODAY.plusDays(10), TODAY.plusDays(300), null).isEmpty());
+        assertEquals(1, calendar.findFreeRooms("h1", TODAY.plusDays(10), TODAY.plusDays(200), null).size());
+        assertEquals(1, calendar.findFreeRooms("h1", TODAY.plusDays(201), TODAY.plusDays(365), null).size());
+    }
+
+    @Test
+    void findFreeRooms_filtersByType_andByHotel() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        calendar.registerRoom(room("r2", "SUITE", "h1"));
+        calendar.registerRoom(room("r3", "DOUBLE", "h2"));
+
+        assertEquals(List.of("r1"), ids(calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(1), "DOUBLE")));
+        assertTrue(calendar.findFreeRooms("h404", TODAY, TODAY.plusDays(1), null).isEmpty());
+    }
+
+    @Test
+    void findFreeRooms_whenRangeOutsideHorizon_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.findFreeRooms("h1", TODAY.minusDays(1), TODAY.plusDays(1), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(366), null));
+    }
+
+    // ===================== isFree =====================
+
+    @Test
+    void isFree_checksOnlyThatRoom_andRespectsHorizon() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        bookingIntervalIndex.put("b1", "r1", "g1", TODAY.plusDays(2), TODAY.plusDays(5));
+
+        assertFalse(calendar.isFree("r1", TODAY.plusDays(4), TODAY.plusDays(6)));
+        assertTrue(calendar.isFree("r1", TODAY.plusDays(5), TODAY.plusDays(6)));
+        assertTrue(calendar.isFree("r404", TODAY.plusDays(4), TODAY.plusDays(6)));
+        assertThrows(IllegalArgumentException.class, () -> calendar.isFree("r1", TODAY, TODAY.plusDays(366)));
+    }
+
+    // ===================== register / unregister =====================
+
+    @Test
+    void registerRoom_movingRoomToAnotherHotel_removesItFromPreviousHotel() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        calendar.registerRoom(room("r1", "DOUBLE", "h2"));
+
+        assertTrue(calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(1), null).isEmpty());
+        assertEquals(List.of("r1"), ids(calendar.findFreeRooms("h2", TODAY, TODAY.plusDays(1), null)));
+    }
+
+    @Test
+    void unregisterRoom_andUnregisterHotel_removeRoomsFromCatalog() {
+        calendar.registerRoom(room("r1", "DOUBLE", "h1"));
+        calendar.registerRoom(room("r2", "DOUBLE", "h1"));
+        calendar.registerRoom(room("r3", "DOUBLE", "h2"));
+
+        calendar.unregisterRoom("r1");
+        calendar.unregisterHotel("h2");
+
+        assertEquals(List.of("r2"), ids(calendar.findFreeRooms("h1", TODAY, TODAY.plusDays(1), null)));
+        assertTrue(calendar.findFreeRooms("h2", TODAY, TODAY.plusDays(1), null).isEmpty());
+    }
+
+    // ===================== bits =====================
+
+    @Test
+    void setRange_andIsClear_respectWordBoundaries() {
+        long[] bits = new long[3];
+
+        RoomAvailabilityCalendar.setRange(bits, 63, 65);
+
+        assertTrue(RoomAvailabilityCalendar.isClear(bits, 0, 63));
+        assertFalse(RoomAvailabilityCalendar.isClear(bits, 62, 64));
+        assertFalse(RoomAvailabilityCalendar.isClear(bits, 64, 65));
+        assertTrue(RoomAvailabilityCalendar.isClear(bits, 65, 192));
+    }
+}
@@ -0,0 +1,70 @@
+package org.docencia.hotel.service.lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RoomLockStripesTest {
+
+    // ===================== constructor =====================
+
+    @Test
+    void constructor_roundsStripesUpToPowerOfTwo() {
+        assertEquals(1, new RoomLockStripes(1).size());
+        assertEquals(16, new RoomLockStripes(16).size());
+        assertEquals(32, new RoomLockStripes(17).size());
+    }
+
+    @Test
+    void constructor_whenStripesNotPositive_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RoomLockStripes(0));
+    }
+
+    // ===================== withRoomLock =====================
+
+    @Test
+    void withRoomLock_sameRoom_alwaysUsesSameLock() {
+        RoomLockStripes stripes = new RoomLockStripes(64);
+
+        assertSame(stripes.lockFor("r1"), stripes.lockFor(new String("r1")));
+    }
+
+    @Test
+    void withRoomLock_holdsLockDuringAction_andReturnsResult() {
+        RoomLockStripes stripes = new RoomLockStripes(64);
+
+        String result = stripes.withRoomLock("r1", () -> {
+            assertTrue(stripes.lockFor("r1").isHeldByCurrentThread());
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertFalse(stripes.lockFor("r1").isHeldByCurrentThread());
+    }
+
+    @Test
+    void withRoomLocks_holdsEveryRoomLock_andReleasesThemAfterwards() {
+        RoomLockStripes stripes = new RoomLockStripes(64);
+        List<String> rooms = List.of("r1", "r2", "r3", "r1");
+
+        stripes.withRoomLocks(rooms, () -> {
+            rooms.forEach(room -> assertTrue(stripes.lockFor(room).isHeldByCurrentThread()));
+            return null;
+        });
+
+        rooms.forEach(room -> assertFalse(stripes.lockFor(room).isLocked()));
+    }
+
+    @Test
+    void withRoomLock_whenActionThrows_releasesLock() {
+        RoomLockStripes stripes = new RoomLockStripes(64);
+
+        assertThrows(IllegalStateException.class, () -> stripes.withRoomLock("r1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertFalse(stripes.lockFor("r1").isLocked());
+    }
+}
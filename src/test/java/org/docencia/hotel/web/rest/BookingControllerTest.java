@@ -74,7 +74,7 @@ class BookingControllerTest {
 
     @Test
     void getBookings_withoutFilters_returnsAllBookings() throws Exception {
-        when(bookingDomain.getAllBookings()).thenReturn(List.of(
+        when(bookingDomain.getAllBookings(null, 100)).thenReturn(List.of(
                 booking("B1", "G1", "R1", "H1"),
                 booking("B2", "G2", "R2", "H2")
         ));
@@ -86,18 +86,44 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id").value("B1"))
                 .andExpect(jsonPath("$[1].id").value("B2"));
 
-        verify(bookingDomain).getAllBookings();
-        verify(bookingDomain, never()).getBookingsByRoomId(any());
-        verify(bookingDomain, never()).getBookingsByGuestId(any());
-        verify(bookingDomain, never()).getBookingsByHotelId(any());
+        verify(bookingDomain).getAllBookings(null, 100);
+        verify(bookingDomain, never()).getBookingsByRoomId(any(), any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByGuestId(any(), any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByHotelId(any(), any(), anyInt());
         verifyNoMoreInteractions(bookingDomain);
     }
 
+    @Test
+    void getBookings_whenPageIsFull_returnsNextLinkWithLastId() throws Exception {
+        when(bookingDomain.getAllBookings("B0", 2)).thenReturn(List.of(
+                booking("B1", "G1", "R1", "H1"),
+                booking("B2", "G2", "R2", "H2")
+        ));
+
+        mockMvc.perform(get("/api/bookings").param("after", "B0").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", "<http://localhost/api/bookings?after=B2&limit=2>; rel=\"next\""))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        verify(bookingDomain).getAllBookings("B0", 2);
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    @Test
+    void getBookings_byGuest_whenPageIsFull_keepsFilterInNextLink() throws Exception {
+        when(bookingDomain.getBookingsByGuestId("G1", null, 1)).thenReturn(List.of(booking("B1", "G1", "R1", "H1")));
+
+        mockMvc.perform(get("/api/bookings").param("guestId", "G1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link",
+                        "<http://localhost/api/bookings?guestId=G1&after=B1&limit=1>; rel=\"next\""));
+    }
+
     // ===================== GET /api/bookings?roomId=...
 
     @Test
     void getBookings_withRoomId_returnsBookingsByRoomId() throws Exception {
-        when(bookingDomain.getBookingsByRoomId("R1")).thenReturn(List.of(
+        when(bookingDomain.getBookingsByRoomId("R1", null, 100)).thenReturn(List.of(
                 booking("B1", "G1", "R1", "H1")
         ));
 
@@ -107,10 +133,10 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].roomId").value("R1"));
 
-        verify(bookingDomain).getBookingsByRoomId("R1");
-        verify(bookingDomain, never()).getAllBookings();
-        verify(bookingDomain, never()).getBookingsByGuestId(any());
-        verify(bookingDomain, never()).getBookingsByHotelId(any());
+        verify(bookingDomain).getBookingsByRoomId("R1", null, 100);
+        verify(bookingDomain, never()).getAllBookings(any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByGuestId(any(), any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByHotelId(any(), any(), anyInt());
         verifyNoMoreInteractions(bookingDomain);
     }
 
@@ -118,7 +144,7 @@ class BookingControllerTest {
 
     @Test
     void getBookings_withGuestId_returnsBookingsByGuestId() throws Exception {
-        when(bookingDomain.getBookingsByGuestId("G1")).thenReturn(List.of(
+        when(bookingDomain.getBookingsByGuestId("G1", null, 100)).thenReturn(List.of(
                 booking("B1", "G1", "R1", "H1")
         ));
 
@@ -128,10 +154,10 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].guestId").value("G1"));
 
-        verify(bookingDomain).getBookingsByGuestId("G1");
-        verify(bookingDomain, never()).getAllBookings();
-        verify(bookingDomain, never()).getBookingsByRoomId(any());
-        verify(bookingDomain, never()).getBookingsByHotelId(any());
+        verify(bookingDomain).getBookingsByGuestId("G1", null, 100);
+        verify(bookingDomain, never()).getAllBookings(any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByRoomId(any(), any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByHotelId(any(), any(), anyInt());
         verifyNoMoreInteractions(bookingDomain);
     }
 
@@ -139,7 +165,7 @@ class BookingControllerTest {
 
     @Test
     void getBookings_withHotelId_returnsBookingsByHotelId() throws Exception {
-        when(bookingDomain.getBookingsByHotelId("H1")).thenReturn(List.of(
+        when(bookingDomain.getBookingsByHotelId("H1", null, 100)).thenReturn(List.of(
                 booking("B1", "G1", "R1", "H1")
         ));
 
@@ -148,10 +174,10 @@ class BookingControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(1));
 
-        verify(bookingDomain).getBookingsByHotelId("H1");
-        verify(bookingDomain, never()).getAllBookings();
-        verify(bookingDomain, never()).getBookingsByRoomId(any());
-        verify(bookingDomain, never()).getBookingsByGuestId(any());
+        verify(bookingDomain).getBookingsByHotelId("H1", null, 100);
+        verify(bookingDomain, never()).getAllBookings(any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByRoomId(any(), any(), anyInt());
+        verify(bookingDomain, never()).getBookingsByGuestId(any(), any(), anyInt());
         verifyNoMoreInteractions(bookingDomain);
     }
 
@@ -178,31 +204,163 @@ class BookingControllerTest {
         verifyNoInteractions(bookingDomain);
     }
 
+    // ===================== POST /api/bookings/batch
+
+    @Test
+    void createBookings_returns201_andCreatedBookings() throws Exception {
+        List<Booking> batch = List.of(booking("B1", "G1", "R1", "H1"), booking("B2", "G1", "R2", "H1"));
+        when(bookingDomain.createBookings(any())).thenReturn(batch);
+
+        mockMvc.perform(post("/api/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value("B2"));
+
+        verify(bookingDomain).createBookings(any());
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    // ===================== POST /api/bookings/assign
+
+    @Test
+    void createBookingWithAssignedRoom_returns201_withAssignedRoom() throws Exception {
+        Booking request = booking("B1", "G1", null, "H1");
+        when(bookingDomain.createBookingWithAssignedRoom(eq("H1"), eq("DOUBLE"), any(Booking.class)))
+                .thenReturn(booking("B1", "G1", "R7", "H1"));
+
+        mockMvc.perform(post("/api/bookings/assign")
+                        .param("hotelId", "H1")
+                        .param("type", "DOUBLE")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/bookings/B1"))
+                .andExpect(jsonPath("$.roomId").value("R7"));
+
+        verify(bookingDomain).createBookingWithAssignedRoom(eq("H1"), eq("DOUBLE"), any(Booking.class));
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    @Test
+    void createBookingWithAssignedRoom_whenNoRoomFree_returns409() throws Exception {
+        when(bookingDomain.createBookingWithAssignedRoom(eq("H1"), eq("SUITE"), any(Booking.class)))
+                .thenThrow(new IllegalStateException("no SUITE room available"));
+
+        mockMvc.perform(post("/api/bookings/assign")
+                        .param("hotelId", "H1")
+                        .param("type", "SUITE")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking("B1", "G1", null, "H1"))))
+                .andExpect(status().isConflict());
+    }
+
+    // ===================== GET /api/bookings?roomId=...&from=...&to=...
+
+    @Test
+    void getBookings_withRoomIdAndRange_returnsOverlappingBookings() throws Exception {
+        when(bookingDomain.getBookingsByRoomIdBetween("R1", "2025-01-01", "2025-01-05")).thenReturn(List.of(
+                booking("B1", "G1", "R1", "H1")
+        ));
+
+        mockMvc.perform(get("/api/bookings")
+                        .param("roomId", "R1")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].roomId").value("R1"));
+
+        verify(bookingDomain).getBookingsByRoomIdBetween("R1", "2025-01-01", "2025-01-05");
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    @Test
+    void getBookings_withRangeWithoutRoomId_returns400_andDoesNotCallDomain() throws Exception {
+        mockMvc.perform(get("/api/bookings")
+                        .param("hotelId", "H1")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-05"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingDomain);
+    }
+
+    // ===================== GET /api/bookings/arrivals
+
+    @Test
+    void getArrivals_returns200_andArrivalsOfTheDay() throws Exception {
+        when(bookingDomain.getArrivalsByHotelId("H1", "2025-01-01")).thenReturn(List.of(
+                booking("B1", "G1", "R1", "H1")
+        ));
+
+        mockMvc.perform(get("/api/bookings/arrivals")
+                        .param("hotelId", "H1")
+                        .param("date", "2025-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(bookingDomain).getArrivalsByHotelId("H1", "2025-01-01");
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
     // ===================== GET /api/bookings/{id}
 
     @Test
     void getBookingById_whenExists_returns200() throws Exception {
+        when(bookingDomain.getBookingVersion("B1")).thenReturn(Optional.of(3L));
         when(bookingDomain.getBookingById("B1")).thenReturn(Optional.of(
                 booking("B1", "G1", "R1", "H1")
         ));
 
         mockMvc.perform(get("/api/bookings/B1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value("B1"));
 
+        verify(bookingDomain).getBookingVersion("B1");
         verify(bookingDomain).getBookingById("B1");
         verifyNoMoreInteractions(bookingDomain);
     }
 
     @Test
     void getBookingById_whenNotExists_returns404() throws Exception {
-        when(bookingDomain.getBookingById("NOPE")).thenReturn(Optional.empty());
+        when(bookingDomain.getBookingVersion("NOPE")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/bookings/NOPE"))
                 .andExpect(status().isNotFound());
 
-        verify(bookingDomain).getBookingById("NOPE");
+        verify(bookingDomain).getBookingVersion("NOPE");
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    @Test
+    void getBookingById_whenIfNoneMatchIsCurrentVersion_returns304_withoutLoading() throws Exception {
+        when(bookingDomain.getBookingVersion("B1")).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/bookings/B1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(bookingDomain).getBookingVersion("B1");
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    @Test
+    void getBookingById_whenIfNoneMatchIsOutdated_returns200_withNewETag() throws Exception {
+        when(bookingDomain.getBookingVersion("B1")).thenReturn(Optional.of(4L));
+        when(bookingDomain.getBookingById("B1")).thenReturn(Optional.of(booking("B1", "G1", "R1", "H1")));
+
+        mockMvc.perform(get("/api/bookings/B1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value("B1"));
+
+        verify(bookingDomain).getBookingVersion("B1");
+        verify(bookingDomain).getBookingById("B1");
         verifyNoMoreInteractions(bookingDomain);
     }
 
@@ -213,7 +371,7 @@ class BookingControllerTest {
         when(bookingDomain.getBookingById("B1")).thenReturn(Optional.of(
                 booking("B1", "G1", "R1", "H1")
         ));
-        when(bookingDomain.updateBooking(eq("B1"), any(Booking.class))).thenReturn(
+        when(bookingDomain.updateBooking(eq("B1"), any(Booking.class), isNull())).thenReturn(
                 booking("B1", "G1", "R1", "H1")
         );
 
@@ -227,7 +385,7 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value("B1"));
 
         verify(bookingDomain).getBookingById("B1");
-        verify(bookingDomain).updateBooking(eq("B1"), any(Booking.class));
+        verify(bookingDomain).updateBooking(eq("B1"), any(Booking.class), isNull());
         verifyNoMoreInteractions(bookingDomain);
     }
 
@@ -243,7 +401,7 @@ class BookingControllerTest {
                 .andExpect(status().isNotFound());
 
         verify(bookingDomain).getBookingById("B1");
-        verify(bookingDomain, never()).updateBooking(any(), any());
+        verify(bookingDomain, never()).updateBooking(any(), any(), any());
         verifyNoMoreInteractions(bookingDomain);
     }
 
@@ -0,0 +1,85 @@
+package org.docencia.hotel.web.rest;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+import org.docencia.hotel.domain.api.CacheDomain;
+import org.docencia.hotel.domain.model.BookingIdFilterStats;
+import org.docencia.hotel.domain.model.CacheRegionStats;
+import org.docencia.hotel.domain.model.ExistenceCacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheDomain cacheDomain;
+
+    // ===================== GET /api/cache/statistics
+
+    @Test
+    void getStatistics_returns200_withCountersPerRegion() throws Exception {
+        when(cacheDomain.getRegionStatistics()).thenReturn(List.of(
+                new CacheRegionStats("hotel", 90, 10, 10, 5),
+                new CacheRegionStats("room", 40, 2, 2, 2)));
+
+        mockMvc.perform(get("/api/cache/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].region").value("hotel"))
+                .andExpect(jsonPath("$[0].hitCount").value(90))
+                .andExpect(jsonPath("$[0].missCount").value(10))
+                .andExpect(jsonPath("$[1].region").value("room"));
+
+        verify(cacheDomain).getRegionStatistics();
+        verifyNoMoreInteractions(cacheDomain);
+    }
+
+    // ===================== GET /api/cache/existence
+
+    @Test
+    void getExistenceStatistics_returns200_withHitRateAndEvictionsPerCache() throws Exception {
+        when(cacheDomain.getExistenceStatistics()).thenReturn(List.of(
+                new ExistenceCacheStats("hotel", 90, 10, 0.9, 3, 50),
+                new ExistenceCacheStats("room", 0, 0, 1.0, 0, 0)));
+
+        mockMvc.perform(get("/api/cache/existence"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].cache").value("hotel"))
+                .andExpect(jsonPath("$[0].hitRate").value(0.9))
+                .andExpect(jsonPath("$[0].evictionCount").value(3))
+                .andExpect(jsonPath("$[1].cache").value("room"));
+
+        verify(cacheDomain).getExistenceStatistics();
+        verifyNoMoreInteractions(cacheDomain);
+    }
+
+    // ===================== GET /api/cache/booking-ids
+
+    @Test
+    void getBookingIdFilterStatistics_returns200_withRatesAndMemory() throws Exception {
+        when(cacheDomain.getBookingIdFilterStatistics())
+                .thenReturn(new BookingIdFilterStats(1000, 0.01, 0.002, 9600, 7, 1200, 40, 2));
+
+        mockMvc.perform(get("/api/cache/booking-ids"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.falsePositiveRate").value(0.01))
+                .andExpect(jsonPath("$.estimatedFalsePositiveRate").value(0.002))
+                .andExpect(jsonPath("$.memoryBytes").value(1200))
+                .andExpect(jsonPath("$.negativeCount").value(40));
+
+        verify(cacheDomain).getBookingIdFilterStatistics();
+        verifyNoMoreInteractions(cacheDomain);
+    }
+}
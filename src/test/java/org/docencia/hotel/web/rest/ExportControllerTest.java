@@ -0,0 +1,96 @@
+package org.docencia.hotel.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.function.Consumer;
+
+import org.docencia.hotel.domain.api.ExportDomain;
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.Room;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(ExportController.class)
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportDomain exportDomain;
+
+    // ===================== GET /api/export/bookings
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportBookings_writesOneJsonObjectPerLine() throws Exception {
+        when(exportDomain.exportBookings(any())).thenAnswer(inv -> {
+            Consumer<Booking> sink = inv.getArgument(0);
+            sink.accept(new Booking("B1", "R1", "G1", "2025-01-01", "2025-01-03"));
+            sink.accept(new Booking("B2", "R1", "G2", "2025-01-03", "2025-01-05"));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/export/bookings"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"B1\""));
+        assertTrue(lines[1].startsWith("{\"id\":\"B2\""));
+        assertTrue(body.endsWith("\n"));
+    }
+
+    // ===================== GET /api/export/rooms
+
+    @Test
+    void exportRooms_whenEmpty_returnsEmptyBody() throws Exception {
+        when(exportDomain.exportRooms(any())).thenReturn(0L);
+
+        MvcResult result = mockMvc.perform(get("/api/export/rooms"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+
+        verify(exportDomain).exportRooms(any());
+        verifyNoMoreInteractions(exportDomain);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportRooms_serializesRoomFields() throws Exception {
+        when(exportDomain.exportRooms(any())).thenAnswer(inv -> {
+            Consumer<Room> sink = inv.getArgument(0);
+            sink.accept(new Room("R1", "101", "DOUBLE", 80.0, "H1"));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/export/rooms"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("R1"))
+                .andExpect(jsonPath("$.hotelId").value("H1"));
+    }
+}
@@ -76,7 +76,7 @@ class GuestControllerTest {
 
     @Test
     void getAllGuests_returns200_andList() throws Exception {
-        when(guestDomain.getAllGuests()).thenReturn(List.of(
+        when(guestDomain.getAllGuests(null, 100)).thenReturn(List.of(
                 guest("G1", "A"),
                 guest("G2", "B")
         ));
@@ -84,11 +84,12 @@ class GuestControllerTest {
         mockMvc.perform(get("/api/guests"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Link"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value("G1"))
                 .andExpect(jsonPath("$[1].id").value("G2"));
 
-        verify(guestDomain).getAllGuests();
+        verify(guestDomain).getAllGuests(null, 100);
         verifyNoMoreInteractions(guestDomain);
     }
 
@@ -96,28 +97,59 @@ class GuestControllerTest {
 
     @Test
     void getGuestById_whenExists_returns200() throws Exception {
+        when(guestDomain.getGuestVersion("G1")).thenReturn(Optional.of(3L));
         when(guestDomain.getGuestById("G1")).thenReturn(Optional.of(
                 guest("G1", "Carlos")
         ));
 
         mockMvc.perform(get("/api/guests/G1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value("G1"))
                 .andExpect(jsonPath("$.name").value("Carlos"));
 
+        verify(guestDomain).getGuestVersion("G1");
         verify(guestDomain).getGuestById("G1");
         verifyNoMoreInteractions(guestDomain);
     }
 
     @Test
     void getGuestById_whenNotExists_returns404() throws Exception {
-        when(guestDomain.getGuestById("NOPE")).thenReturn(Optional.empty());
+        when(guestDomain.getGuestVersion("NOPE")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/guests/NOPE"))
                 .andExpect(status().isNotFound());
 
-        verify(guestDomain).getGuestById("NOPE");
+        verify(guestDomain).getGuestVersion("NOPE");
+        verifyNoMoreInteractions(guestDomain);
+    }
+
+    @Test
+    void getGuestById_whenIfNoneMatchIsCurrentVersion_returns304_withoutLoading() throws Exception {
+        when(guestDomain.getGuestVersion("G1")).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/guests/G1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(guestDomain).getGuestVersion("G1");
+        verifyNoMoreInteractions(guestDomain);
+    }
+
+    @Test
+    void getGuestById_whenIfNoneMatchIsOutdated_returns200_withNewETag() throws Exception {
+        when(guestDomain.getGuestVersion("G1")).thenReturn(Optional.of(4L));
+        when(guestDomain.getGuestById("G1")).thenReturn(Optional.of(guest("G1", "Carlos")));
+
+        mockMvc.perform(get("/api/guests/G1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value("G1"));
+
+        verify(guestDomain).getGuestVersion("G1");
+        verify(guestDomain).getGuestById("G1");
         verifyNoMoreInteractions(guestDomain);
     }
 
@@ -152,7 +184,7 @@ class GuestControllerTest {
 
     @Test
     void updateGuest_whenExists_returns200() throws Exception {
-        when(guestDomain.updateGuest(eq("G1"), any(Guest.class))).thenReturn(
+        when(guestDomain.updateGuest(eq("G1"), any(Guest.class), isNull())).thenReturn(
                 guest("G1", "Nuevo")
         );
         when(guestDomain.getGuestById("G1")).thenReturn(Optional.of(
@@ -167,14 +199,14 @@ class GuestControllerTest {
                 .andExpect(jsonPath("$.id").value("G1"))
                 .andExpect(jsonPath("$.name").value("Nuevo"));
 
-        verify(guestDomain).updateGuest(eq("G1"), any(Guest.class));
+        verify(guestDomain).updateGuest(eq("G1"), any(Guest.class), isNull());
         verify(guestDomain).getGuestById("G1");
         verifyNoMoreInteractions(guestDomain);
     }
 
     @Test
     void updateGuest_whenNotExists_returns404_butStillCallsUpdate_dueToControllerOrder() throws Exception {
-        when(guestDomain.updateGuest(eq("G1"), any(Guest.class))).thenReturn(
+        when(guestDomain.updateGuest(eq("G1"), any(Guest.class), isNull())).thenReturn(
                 guest("G1", "Nuevo")
         );
         when(guestDomain.getGuestById("G1")).thenReturn(Optional.empty());
@@ -184,7 +216,7 @@ class GuestControllerTest {
                         .content(objectMapper.writeValueAsString(guest("IGNORED", "Nuevo"))))
                 .andExpect(status().isNotFound());
 
-        verify(guestDomain).updateGuest(eq("G1"), any(Guest.class));
+        verify(guestDomain).updateGuest(eq("G1"), any(Guest.class), isNull());
         verify(guestDomain).getGuestById("G1");
         verifyNoMoreInteractions(guestDomain);
     }
@@ -0,0 +1,136 @@
+package org.docencia.hotel.web.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Optional;
+
+import org.docencia.hotel.domain.api.BookingDomain;
+import org.docencia.hotel.domain.model.Booking;
+import org.docencia.hotel.domain.model.RoomHold;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@WebMvcTest(HoldController.class)
+class HoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BookingDomain bookingDomain;
+
+    // ===== helpers mínimos =====
+    private static RoomHold hold(String id) {
+        return new RoomHold(id, "R1", "2025-01-01", "2025-01-03", "2025-01-01T10:10:00Z");
+    }
+
+    // ===================== POST /api/holds
+
+    @Test
+    void createHold_returns201_locationHeader_andBody() throws Exception {
+        when(bookingDomain.createHold("R1", "2025-01-01", "2025-01-03")).thenReturn(hold("H1"));
+
+        mockMvc.perform(post("/api/holds")
+                        .param("roomId", "R1")
+                        .param("checkIn", "2025-01-01")
+                        .param("checkOut", "2025-01-03"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/holds/H1"))
+                .andExpect(jsonPath("$.id").value("H1"))
+                .andExpect(jsonPath("$.expiresAt").value("2025-01-01T10:10:00Z"));
+
+        verify(bookingDomain).createHold("R1", "2025-01-01", "2025-01-03");
+        verifyNoMoreInteractions(bookingDomain);
+    }
+
+    @Test
+    void createHold_whenRoomTaken_returns409() throws Exception {
+        when(bookingDomain.createHold("R1", "2025-01-01", "2025-01-03"))
+                .thenThrow(new IllegalStateException("room R1 is on hold between 2025-01-01 and 2025-01-03"));
+
+        mockMvc.perform(post("/api/holds")
+                        .param("roomId", "R1")
+                        .param("checkIn", "2025-01-01")
+                        .param("checkOut", "2025-01-03"))
+                .andExpect(status().isConflict());
+    }
+
+    // ===================== GET /api/holds/{id}
+
+    @Test
+    void getHold_whenActive_returns200() throws Exception {
+        when(bookingDomain.getHold("H1")).thenReturn(Optional.of(hold("H1")));
+
+        mockMvc.perform(get("/api/holds/H1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId").value("R1"));
+    }
+
+    @Test
+    void getHold_whenMissingOrExpired_returns404() throws Exception {
+        when(bookingDomain.getHold("H404")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/holds/H404"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ===================== POST /api/holds/{id}/confirm
+
+    @Test
+    void confirmHold_returns201_withBookingLocation() throws Exception {
+        Booking request = new Booking();
+        request.setId("B1");
+        request.setGuestId("G1");
+        Booking created = new Booking();
+        created.setId("B1");
+        created.setGuestId("G1");
+        created.setRoomId("R1");
+        when(bookingDomain.getHold("H1")).thenReturn(Optional.of(hold("H1")));
+        when(bookingDomain.createBookingFromHold(eq("H1"), any(Booking.class))).thenReturn(created);
+
+        mockMvc.perform(post("/api/holds/H1/confirm")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/bookings/B1"))
+                .andExpect(jsonPath("$.roomId").value("R1"));
+    }
+
+    @Test
+    void confirmHold_whenHoldMissing_returns404_andDoesNotCreate() throws Exception {
+        when(bookingDomain.getHold("H404")).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/holds/H404/confirm")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":\"B1\",\"guestId\":\"G1\"}"))
+                .andExpect(status().isNotFound());
+
+        verify(bookingDomain, never()).createBookingFromHold(any(), any());
+    }
+
+    // ===================== DELETE /api/holds/{id}
+
+    @Test
+    void releaseHold_returns204_or404() throws Exception {
+        when(bookingDomain.releaseHold("H1")).thenReturn(true);
+        when(bookingDomain.releaseHold("H404")).thenReturn(false);
+
+        mockMvc.perform(delete("/api/holds/H1")).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/holds/H404")).andExpect(status().isNotFound());
+    }
+}
@@ -13,12 +13,18 @@ import java.util.List;
 import java.util.Optional;
 
 import org.docencia.hotel.domain.api.HotelDomain;
+import org.docencia.hotel.domain.model.DailyOccupancy;
 import org.docencia.hotel.domain.model.Hotel;
+import org.docencia.hotel.domain.model.MonthlyRevenue;
+import org.docencia.hotel.domain.model.Room;
+import org.docencia.hotel.service.api.VersionMismatchException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -70,7 +76,7 @@ class HotelControllerTest {
 
     @Test
     void getHotels_withoutName_returnsAllHotels() throws Exception {
-        when(hotelDomain.getAllHotels()).thenReturn(List.of(
+        when(hotelDomain.getAllHotels(null, 100)).thenReturn(List.of(
                 hotel("H1", "A"),
                 hotel("H2", "B")
         ));
@@ -82,7 +88,7 @@ class HotelControllerTest {
                 .andExpect(jsonPath("$[0].id").value("H1"))
                 .andExpect(jsonPath("$[1].id").value("H2"));
 
-        verify(hotelDomain).getAllHotels();
+        verify(hotelDomain).getAllHotels(null, 100);
         verify(hotelDomain, never()).getHotelsByName(any());
         verifyNoMoreInteractions(hotelDomain);
     }
@@ -103,7 +109,7 @@ class HotelControllerTest {
                 .andExpect(jsonPath("$[0].hotelName").value("Hotel Puerto"));
 
         verify(hotelDomain).getHotelsByName("Hotel Puerto");
-        verify(hotelDomain, never()).getAllHotels();
+        verify(hotelDomain, never()).getAllHotels(any(), anyInt());
         verifyNoMoreInteractions(hotelDomain);
     }
 
@@ -111,28 +117,154 @@ class HotelControllerTest {
 
     @Test
     void getHotelById_whenExists_returns200() throws Exception {
+        when(hotelDomain.getHotelVersion("H1")).thenReturn(Optional.of(3L));
         when(hotelDomain.getHotelById("H1"))
                 .thenReturn(Optional.of(hotel("H1", "Hotel Puerto")));
 
         mockMvc.perform(get("/api/hotels/H1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value("H1"))
                 .andExpect(jsonPath("$.hotelName").value("Hotel Puerto"));
 
+        verify(hotelDomain).getHotelVersion("H1");
         verify(hotelDomain).getHotelById("H1");
         verifyNoMoreInteractions(hotelDomain);
     }
 
     @Test
     void getHotelById_whenNotExists_returns404() throws Exception {
-        when(hotelDomain.getHotelById("NOPE"))
-                .thenReturn(Optional.empty());
+        when(hotelDomain.getHotelVersion("NOPE")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/hotels/NOPE"))
                 .andExpect(status().isNotFound());
 
-        verify(hotelDomain).getHotelById("NOPE");
+        verify(hotelDomain).getHotelVersion("NOPE");
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    @Test
+    void getHotelById_whenIfNoneMatchIsCurrentVersion_returns304_withoutLoading() throws Exception {
+        when(hotelDomain.getHotelVersion("H1")).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/hotels/H1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(hotelDomain).getHotelVersion("H1");
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    @Test
+    void getHotelById_whenIfNoneMatchIsOutdated_returns200_withNewETag() throws Exception {
+        when(hotelDomain.getHotelVersion("H1")).thenReturn(Optional.of(4L));
+        when(hotelDomain.getHotelById("H1")).thenReturn(Optional.of(hotel("H1", "Hotel Puerto")));
+
+        mockMvc.perform(get("/api/hotels/H1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value("H1"));
+
+        verify(hotelDomain).getHotelVersion("H1");
+        verify(hotelDomain).getHotelById("H1");
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    // ===================== GET /api/hotels/{id}/availability
+
+    @Test
+    void getAvailability_returns200_withFreeRooms() throws Exception {
+        when(hotelDomain.getAvailableRooms("H1", "2025-01-01", "2025-01-03", "DOUBLE"))
+                .thenReturn(List.of(new Room("R1", "101", "DOUBLE", 80.0, "H1")));
+
+        mockMvc.perform(get("/api/hotels/H1/availability")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-03")
+                        .param("type", "DOUBLE"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value("R1"));
+
+        verify(hotelDomain).getAvailableRooms("H1", "2025-01-01", "2025-01-03", "DOUBLE");
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    @Test
+    void getAvailability_whenDomainRejects_returns400() throws Exception {
+        when(hotelDomain.getAvailableRooms("H1", "2025-01-03", "2025-01-01", null))
+                .thenThrow(new IllegalArgumentException("from must be before to"));
+
+        mockMvc.perform(get("/api/hotels/H1/availability")
+                        .param("from", "2025-01-03")
+                        .param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("from must be before to"));
+
+        verify(hotelDomain).getAvailableRooms("H1", "2025-01-03", "2025-01-01", null);
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    // ===================== GET /api/hotels/revenue
+
+    @Test
+    void getRevenueReport_returns200_withMonthlyFigures() throws Exception {
+        when(hotelDomain.getRevenueReport("2025-01", "2025-02"))
+                .thenReturn(List.of(new MonthlyRevenue("H1", "2025-01", 3, 62, 250.0, 83.33, 4.03)));
+
+        mockMvc.perform(get("/api/hotels/revenue")
+                        .param("from", "2025-01")
+                        .param("to", "2025-02"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].hotelId").value("H1"))
+                .andExpect(jsonPath("$[0].adr").value(83.33))
+                .andExpect(jsonPath("$[0].revpar").value(4.03));
+
+        verify(hotelDomain).getRevenueReport("2025-01", "2025-02");
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    // ===================== GET /api/hotels/{id}/recommendations
+
+    @Test
+    void getRecommendedRooms_returns200_withDefaultLimit() throws Exception {
+        when(hotelDomain.getRecommendedRooms("H1", "G1", "2025-01-01", "2025-01-03", 10))
+                .thenReturn(List.of(new Room("R1", "101", "DOUBLE", 80.0, "H1", false, "KING", false)));
+
+        mockMvc.perform(get("/api/hotels/H1/recommendations")
+                        .param("guestId", "G1")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value("R1"))
+                .andExpect(jsonPath("$[0].bedType").value("KING"));
+
+        verify(hotelDomain).getRecommendedRooms("H1", "G1", "2025-01-01", "2025-01-03", 10);
+        verifyNoMoreInteractions(hotelDomain);
+    }
+
+    // ===================== GET /api/hotels/{id}/occupancy
+
+    @Test
+    void getOccupancy_returns200_withOneEntryPerNight() throws Exception {
+        when(hotelDomain.getOccupancy("H1", "2025-01-01", "2025-01-03"))
+                .thenReturn(List.of(new DailyOccupancy("2025-01-01", 2), new DailyOccupancy("2025-01-02", 0)));
+
+        mockMvc.perform(get("/api/hotels/H1/occupancy")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-03"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].date").value("2025-01-01"))
+                .andExpect(jsonPath("$[0].occupiedRooms").value(2));
+
+        verify(hotelDomain).getOccupancy("H1", "2025-01-01", "2025-01-03");
         verifyNoMoreInteractions(hotelDomain);
     }
 
@@ -141,7 +273,7 @@ class HotelControllerTest {
     @Test
     void updateHotel_whenExists_returns200_andCallsDomainUpdate() throws Exception {
         when(hotelDomain.getHotelById("H1")).thenReturn(Optional.of(hotel("H1", "Old")));
-        when(hotelDomain.updateHotel(eq("H1"), any(Hotel.class)))
+        when(hotelDomain.updateHotel(eq("H1"), any(Hotel.class), isNull()))
                 .thenReturn(hotel("H1", "New Name"));
 
         Hotel request = hotel("IGNORED", "New Name"); // el id real viene por path
@@ -155,10 +287,63 @@ class HotelControllerTest {
                 .andExpect(jsonPath("$.hotelName").value("New Name"));
 
         verify(hotelDomain).getHotelById("H1");
-        verify(hotelDomain).updateHotel(eq("H1"), any(Hotel.class));
+        verify(hotelDomain).updateHotel(eq("H1"), any(Hotel.class), isNull());
         verifyNoMoreInteractions(hotelDomain);
     }
 
+    @Test
+    void updateHotel_withIfMatch_passesVersionToDomain() throws Exception {
+        when(hotelDomain.getHotelById("H1")).thenReturn(Optional.of(hotel("H1", "Old")));
+        when(hotelDomain.updateHotel(eq("H1"), any(Hotel.class), eq(4L))).thenReturn(hotel("H1", "New Name"));
+
+        mockMvc.perform(put("/api/hotels/H1")
+                        .header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hotel("H1", "New Name"))))
+                .andExpect(status().isOk());
+
+        verify(hotelDomain).updateHotel(eq("H1"), any(Hotel.class), eq(4L));
+    }
+
+    @Test
+    void updateHotel_whenIfMatchIsStale_returns412() throws Exception {
+        when(hotelDomain.getHotelById("H1")).thenReturn(Optional.of(hotel("H1", "Old")));
+        when(hotelDomain.updateHotel(eq("H1"), any(Hotel.class), eq(3L)))
+                .thenThrow(new VersionMismatchException("HotelEntity H1 is at version 4, not 3"));
+
+        mockMvc.perform(put("/api/hotels/H1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hotel("H1", "New Name"))))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateHotel_whenModifiedConcurrentlyOnFlush_returns409() throws Exception {
+        when(hotelDomain.getHotelById("H1")).thenReturn(Optional.of(hotel("H1", "Old")));
+        when(hotelDomain.updateHotel(eq("H1"), any(Hotel.class), eq(3L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("hotel H1 was modified", null));
+
+        mockMvc.perform(put("/api/hotels/H1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hotel("H1", "New Name"))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void updateHotel_whenIfMatchIsNotAnEtag_returns400_andDoesNotCallUpdate() throws Exception {
+        when(hotelDomain.getHotelById("H1")).thenReturn(Optional.of(hotel("H1", "Old")));
+
+        mockMvc.perform(put("/api/hotels/H1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hotel("H1", "New Name"))))
+                .andExpect(status().isBadRequest());
+
+        verify(hotelDomain, never()).updateHotel(any(), any(), any());
+    }
+
     @Test
     void updateHotel_whenNotExists_returns404_andDoesNotCallUpdate() throws Exception {
         when(hotelDomain.getHotelById("H1")).thenReturn(Optional.empty());
@@ -169,7 +354,7 @@ class HotelControllerTest {
                 .andExpect(status().isNotFound());
 
         verify(hotelDomain).getHotelById("H1");
-        verify(hotelDomain, never()).updateHotel(any(), any());
+        verify(hotelDomain, never()).updateHotel(any(), any(), any());
         verifyNoMoreInteractions(hotelDomain);
     }
 
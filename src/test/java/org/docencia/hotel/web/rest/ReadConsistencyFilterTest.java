@@ -0,0 +1,77 @@
+package org.docencia.hotel.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.docencia.hotel.persistence.routing.ReadConsistency;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ReadConsistencyFilterTest {
+
+    private final ReadConsistencyFilter filter = new ReadConsistencyFilter();
+
+    // ===== helpers mínimos =====
+    private static MockHttpServletRequest request(String maxStaleness) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hotels");
+        if (maxStaleness != null) {
+            request.addHeader(ReadConsistencyFilter.MAX_STALENESS_HEADER, maxStaleness);
+        }
+        return request;
+    }
+
+    /**
+     * Cadena que recuerda el retraso maximo visto al procesar la peticion.
+     */
+    private static MockFilterChain recordingChain(AtomicReference<Optional<Duration>> seen) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(ReadConsistency.maxStaleness());
+            }
+        });
+    }
+
+    @Test
+    void withHeader_setsBoundDuringRequest_andClearsAfterwards() throws Exception {
+        AtomicReference<Optional<Duration>> seen = new AtomicReference<>();
+
+        filter.doFilter(request("0"), new MockHttpServletResponse(), recordingChain(seen));
+
+        assertEquals(Optional.of(Duration.ZERO), seen.get());
+        assertTrue(ReadConsistency.maxStaleness().isEmpty());
+    }
+
+    @Test
+    void withoutHeader_leavesDefaultBound() throws Exception {
+        AtomicReference<Optional<Duration>> seen = new AtomicReference<>();
+
+        filter.doFilter(request(null), new MockHttpServletResponse(), recordingChain(seen));
+
+        assertEquals(Optional.empty(), seen.get());
+    }
+
+    @Test
+    void withInvalidHeader_returnsBadRequest() throws Exception {
+        AtomicReference<Optional<Duration>> seen = new AtomicReference<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("-5"), response, recordingChain(seen));
+        assertEquals(400, response.getStatus());
+
+        response = new MockHttpServletResponse();
+        filter.doFilter(request("soon"), response, recordingChain(seen));
+        assertEquals(400, response.getStatus());
+
+        assertNull(seen.get());
+    }
+}
@@ -75,7 +75,7 @@ class RoomControllerTest {
 
     @Test
     void getRooms_withoutFilters_returnsAllRooms() throws Exception {
-        when(roomDomain.getAllRooms()).thenReturn(List.of(
+        when(roomDomain.getAllRooms(null, 100)).thenReturn(List.of(
                 room("R1", "H1", "101", "SINGLE"),
                 room("R2", "H2", "201", "DOUBLE")
         ));
@@ -87,7 +87,7 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$[0].id").value("R1"))
                 .andExpect(jsonPath("$[1].id").value("R2"));
 
-        verify(roomDomain).getAllRooms();
+        verify(roomDomain).getAllRooms(null, 100);
         verify(roomDomain, never()).getRoomsByHotel(any());
         verify(roomDomain, never()).getRoomsByHotelAndType(any(), any());
         verifyNoMoreInteractions(roomDomain);
@@ -110,7 +110,7 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$[1].hotelId").value("H1"));
 
         verify(roomDomain).getRoomsByHotel("H1");
-        verify(roomDomain, never()).getAllRooms();
+        verify(roomDomain, never()).getAllRooms(any(), anyInt());
         verify(roomDomain, never()).getRoomsByHotelAndType(any(), any());
         verifyNoMoreInteractions(roomDomain);
     }
@@ -134,7 +134,7 @@ class RoomControllerTest {
 
         verify(roomDomain).getRoomsByHotelAndType("H1", "SINGLE");
         verify(roomDomain, never()).getRoomsByHotel(any());
-        verify(roomDomain, never()).getAllRooms();
+        verify(roomDomain, never()).getAllRooms(any(), anyInt());
         verifyNoMoreInteractions(roomDomain);
     }
 
@@ -142,29 +142,60 @@ class RoomControllerTest {
 
     @Test
     void getRoomById_whenExists_returns200() throws Exception {
+        when(roomDomain.getRoomVersion("R1")).thenReturn(Optional.of(3L));
         when(roomDomain.getRoomById("R1")).thenReturn(Optional.of(
                 room("R1", "H1", "101", "SINGLE")
         ));
 
         mockMvc.perform(get("/api/rooms/R1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value("R1"))
                 .andExpect(jsonPath("$.hotelId").value("H1"))
                 .andExpect(jsonPath("$.number").value("101"));
 
+        verify(roomDomain).getRoomVersion("R1");
         verify(roomDomain).getRoomById("R1");
         verifyNoMoreInteractions(roomDomain);
     }
 
     @Test
     void getRoomById_whenNotExists_returns404() throws Exception {
-        when(roomDomain.getRoomById("NOPE")).thenReturn(Optional.empty());
+        when(roomDomain.getRoomVersion("NOPE")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/rooms/NOPE"))
                 .andExpect(status().isNotFound());
 
-        verify(roomDomain).getRoomById("NOPE");
+        verify(roomDomain).getRoomVersion("NOPE");
+        verifyNoMoreInteractions(roomDomain);
+    }
+
+    @Test
+    void getRoomById_whenIfNoneMatchIsCurrentVersion_returns304_withoutLoading() throws Exception {
+        when(roomDomain.getRoomVersion("R1")).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/rooms/R1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(roomDomain).getRoomVersion("R1");
+        verifyNoMoreInteractions(roomDomain);
+    }
+
+    @Test
+    void getRoomById_whenIfNoneMatchIsOutdated_returns200_withNewETag() throws Exception {
+        when(roomDomain.getRoomVersion("R1")).thenReturn(Optional.of(4L));
+        when(roomDomain.getRoomById("R1")).thenReturn(Optional.of(room("R1", "H1", "101", "SINGLE")));
+
+        mockMvc.perform(get("/api/rooms/R1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.id").value("R1"));
+
+        verify(roomDomain).getRoomVersion("R1");
+        verify(roomDomain).getRoomById("R1");
         verifyNoMoreInteractions(roomDomain);
     }
 
@@ -175,7 +206,7 @@ class RoomControllerTest {
         when(roomDomain.getRoomById("R1")).thenReturn(Optional.of(
                 room("R1", "H1", "101", "SINGLE")
         ));
-        when(roomDomain.updateRoom(eq("R1"), any(Room.class))).thenReturn(
+        when(roomDomain.updateRoom(eq("R1"), any(Room.class), isNull())).thenReturn(
                 room("R1", "H1", "999", "DOUBLE")
         );
 
@@ -190,7 +221,7 @@ class RoomControllerTest {
                 .andExpect(jsonPath("$.number").value("999"));
 
         verify(roomDomain).getRoomById("R1");
-        verify(roomDomain).updateRoom(eq("R1"), any(Room.class));
+        verify(roomDomain).updateRoom(eq("R1"), any(Room.class), isNull());
         verifyNoMoreInteractions(roomDomain);
     }
 
@@ -206,7 +237,7 @@ class RoomControllerTest {
                 .andExpect(status().isNotFound());
 
         verify(roomDomain).getRoomById("R1");
-        verify(roomDomain, never()).updateRoom(any(), any());
+        verify(roomDomain, never()).updateRoom(any(), any(), any());
         verifyNoMoreInteractions(roomDomain);
     }
 